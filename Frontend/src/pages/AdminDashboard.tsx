@@ -6,6 +6,7 @@ import { Button } from "@/components/ui/button";
 import { Badge } from "@/components/ui/badge";
 import { Header } from "@/components/layout/Header";
 import { Users, FileText, Activity, BarChart3, UserPlus, Shield, Database, AlertTriangle } from "lucide-react";
+import dashboardService from "@/services/dashboardService";
 
 export default function AdminDashboard() {
   const [totalUsers, setTotalUsers] = useState<number>(0);
@@ -19,25 +20,13 @@ export default function AdminDashboard() {
   });
   const navigate = useNavigate();
 
-  const fetchDatabaseHealth = async () => {
-    try {
-      const res = await axios.get("http://localhost:8081/api/health/database");
-      setDatabaseHealth(res.data.healthPercentage);
-    } catch (err) {
-      console.error("❌ Error fetching database health:", err);
-      setDatabaseHealth(0);
-    }
-  };
-
   useEffect(() => {
     const fetchData = async () => {
       try {
-        const [usersRes, healthRes] = await Promise.all([
-          axios.get("http://localhost:8081/api/users/total"),
-          axios.get("http://localhost:8081/api/health/database")
-        ]);
-
-        const data = usersRes.data;
+        // One round trip: user counts and database health are loaded in parallel server-side
+        const { sections } = await dashboardService.get("admin");
+        const data = sections.userCounts ?? {};
+        const health = sections.databaseHealth;
 
         // Map backend roles to frontend state
         const counts = {
@@ -49,7 +38,7 @@ export default function AdminDashboard() {
         };
 
         setRoleCounts(counts);
-        setDatabaseHealth(healthRes.data.healthPercentage);
+        setDatabaseHealth(health?.healthPercentage ?? 0);
 
         // Use backend total directly
         if (typeof data.totalUsers === "number") {
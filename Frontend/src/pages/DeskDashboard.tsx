@@ -13,6 +13,7 @@ import CriminalForm, { CriminalFormData } from "./CriminalForm";
 import { criminalService } from "@/services/criminalService";
 import VisitorMeetingForm, { VisitorMeetingData } from "./VisitorMeetingForm";
 import visitorService from "@/services/visitorService"; // added
+import dashboardService from "@/services/dashboardService";
 
 export default function DeskDashboard() {
   const navigate = useNavigate();
@@ -66,50 +67,54 @@ export default function DeskDashboard() {
   ];
 
   /** ---------- EFFECTS ---------- **/
-  useEffect(() => {
-    const fetchData = async () => {
-      try {
-        const data = await criminalService.getAll();
-        setSuspects(data);
-      } catch (err) {
-        console.error("Error fetching criminals:", err);
-      } finally {
-        setLoading(false);
-      }
-    };
-    fetchData();
-  }, []);
+  // split all visitors into today's schedule, today's completions and upcoming
+  const applyVisitors = (all: VisitorMeetingData[]) => {
+    setVisitors(all);
 
-  // fetch visitors
-  useEffect(() => {
-    const loadVisitors = async () => {
-      setVisitorLoading(true);
-      try {
-        const all: VisitorMeetingData[] = await visitorService.getAll();
-        setVisitors(all);
+    // compute today's date in yyyy-mm-dd (local)
+    const today = new Date().toISOString().slice(0, 10);
 
-        // compute today's date in yyyy-mm-dd (local)
-        const today = new Date().toISOString().slice(0, 10);
+    const scheduled = all.filter(v => v.status !== "CANCELLED" && v.scheduledDate === today && v.status !== "COMPLETED");
+    const compToday = all.filter(v => v.status === "COMPLETED" && v.scheduledDate === today);
+    const up = all.filter(v => v.scheduledDate > today && v.status !== "CANCELLED");
 
-        const scheduled = all.filter(v => v.status !== "CANCELLED" && v.scheduledDate === today && v.status !== "COMPLETED");
-        const compToday = all.filter(v => v.status === "COMPLETED" && v.scheduledDate === today);
-        const up = all.filter(v => v.scheduledDate > today && v.status !== "CANCELLED");
+    // sort each list by time ascending
+    const sortByTime = (arr: VisitorMeetingData[]) =>
+      arr.sort((a, b) => (a.scheduledTime || "").localeCompare(b.scheduledTime || ""));
 
-        // sort each list by time ascending
-        const sortByTime = (arr: VisitorMeetingData[]) =>
-          arr.sort((a, b) => (a.scheduledTime || "").localeCompare(b.scheduledTime || ""));
+    setScheduledToday(sortByTime(scheduled));
+    setCompletedToday(sortByTime(compToday));
+    setUpcoming(sortByTime(up));
+  };
 
-        setScheduledToday(sortByTime(scheduled));
-        setCompletedToday(sortByTime(compToday));
-        setUpcoming(sortByTime(up));
+  const reloadVisitors = async () => {
+    setVisitorLoading(true);
+    try {
+      applyVisitors(await visitorService.getAll());
+    } catch (err) {
+      console.error("Error fetching visitors:", err);
+    } finally {
+      setVisitorLoading(false);
+    }
+  };
+
+  useEffect(() => {
+    const fetchData = async () => {
+      try {
+        // One round trip: criminals and visitors are loaded in parallel server-side;
+        // a section the server could not load is fetched on its own
+        const { sections } = await dashboardService.get("desk");
+        setSuspects(sections.criminals ?? await criminalService.getAll());
+        applyVisitors(sections.visitors ?? await visitorService.getAll());
       } catch (err) {
-        console.error("Error fetching visitors:", err);
+        console.error("Error fetching dashboard:", err);
       } finally {
+        setLoading(false);
         setVisitorLoading(false);
       }
     };
-    loadVisitors();
-  }, [showVisitorForm]); // reload when modal closes (new meeting scheduled)
+    fetchData();
+  }, []);
 
   useEffect(() => {
     if (!searchQuery) {
@@ -223,7 +228,7 @@ export default function DeskDashboard() {
         setAlertMessage("Error scheduling visitor meeting");
       } finally {
         setShowVisitorForm(false); // close modal
-        // Reload visitors is already handled by useEffect watching showVisitorForm
+        reloadVisitors(); // pick up the new meeting
       }
     };
 
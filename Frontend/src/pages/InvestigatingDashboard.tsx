@@ -9,6 +9,7 @@ import { Header } from "@/components/layout/Header";
 import { Search, FileText, Users, Target, CheckCircle, Clock, Gavel, Link } from "lucide-react";
 import { AnimatePresence, motion } from "framer-motion";
 import { criminalService } from "@/services/criminalService";
+import dashboardService from "@/services/dashboardService";
 
 interface CriminalFormData {
   id?: number;
@@ -40,7 +41,8 @@ export default function InvestigatingDashboard() {
   useEffect(() => {
     const fetchSuspects = async () => {
       try {
-        const data = await criminalService.getAll(); // fetch from backend
+        const { sections } = await dashboardService.get("investigating");
+        const data: CriminalFormData[] = sections.criminals ?? await criminalService.getAll();
         setSuspects(data);
 
         // Count active suspects based on threat
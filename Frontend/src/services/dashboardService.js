@@ -0,0 +1,25 @@
+// @ts-check
+import axios from "axios";
+
+const API_URL = "http://localhost:8081/api/dashboard";
+
+/** Helper to get JWT token from localStorage */
+const getAuthHeader = () => {
+  const token = localStorage.getItem("token");
+  return token ? { Authorization: `Bearer ${token}` } : {};
+};
+
+const dashboardService = {
+  /**
+   * Everything a role's dashboard page loads, in one round trip.
+   * Sections that timed out or failed are missing from `sections` and listed in `unavailable`.
+   * @param {"admin" | "desk" | "investigating"} role
+   * @returns {Promise<{ role: string, sections: Record<string, any>, unavailable: Record<string, string> }>}
+   */
+  get: async (role) => {
+    const res = await axios.get(`${API_URL}/${role}`, { headers: getAuthHeader() });
+    return res.data;
+  },
+};
+
+export default dashboardService;
@@ -0,0 +1,22 @@
+package com.backend.intellicop.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.intellicop.entity.CacheVersion;
+
+public interface CacheVersionRepository extends JpaRepository<CacheVersion, String> {
+
+    // The caller's transaction holds the row lock until it has read back the new version
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("UPDATE CacheVersion c SET c.version = c.version + 1 WHERE c.region = :region")
+    int increment(@Param("region") String region);
+
+    @Query("SELECT c.version FROM CacheVersion c WHERE c.region = :region")
+    Long findVersion(@Param("region") String region);
+}
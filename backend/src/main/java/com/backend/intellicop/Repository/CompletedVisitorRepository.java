@@ -5,4 +5,6 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import com.backend.intellicop.entity.CompletedVisitor;
 
 public interface CompletedVisitorRepository extends JpaRepository<CompletedVisitor, Long> {
+
+    boolean existsByMeetingId(Long meetingId);
 }
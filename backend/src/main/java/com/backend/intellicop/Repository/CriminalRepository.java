@@ -1,9 +1,73 @@
 package com.backend.intellicop.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.backend.intellicop.dedup.DedupRecord;
 import com.backend.intellicop.entity.Criminal;
+import com.backend.intellicop.photo.PhotoFingerprint;
+import com.backend.intellicop.photo.PhotoSource;
+import com.backend.intellicop.screening.WatchlistEntry;
+
+public interface CriminalRepository extends JpaRepository<Criminal, Long>, JpaSpecificationExecutor<Criminal>,
+        CriminalRepositoryCustom {
+
+    // Keyset page of one station, merged across stations by StationScatter
+    List<Criminal> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Keyset pages for loading the photo index
+    @Query("SELECT new com.backend.intellicop.photo.PhotoFingerprint(c.id, c.photoHash, c.version) FROM Criminal c "
+            + "WHERE c.photoHash IS NOT NULL AND c.id > :after ORDER BY c.id")
+    List<PhotoFingerprint> findPhotoFingerprints(@Param("after") long after, Limit limit);
+
+    @Query("SELECT new com.backend.intellicop.photo.PhotoSource(c.id, c.photo, c.version) FROM Criminal c "
+            + "WHERE c.photo IS NOT NULL AND c.photoHash IS NULL AND c.id > :after ORDER BY c.id")
+    List<PhotoSource> findUnhashedPhotos(@Param("after") long after, Limit limit);
+
+    // Bulk update: does not bump the optimistic-lock version, and skips rows written since they were read
+    @Modifying
+    @Transactional
+    @Query("UPDATE Criminal c SET c.photoHash = :hash WHERE c.id = :id AND c.version = :version")
+    int setPhotoHash(@Param("id") Long id, @Param("version") Long version, @Param("hash") long hash);
+
+    // --- Duplicate detection blocks (each bounded by the caller's Limit) ---
+    String DEDUP_RECORD = "SELECT new com.backend.intellicop.dedup.DedupRecord(c.id, c.name, c.age, c.crime, c.photoHash) "
+            + "FROM Criminal c ";
+
+    @Query(DEDUP_RECORD + "WHERE c.nameKey = :nameKey")
+    List<DedupRecord> findDedupByNameKey(@Param("nameKey") String nameKey, Limit limit);
+
+    @Query(DEDUP_RECORD + "WHERE c.nameKey LIKE :prefix AND c.age BETWEEN :minAge AND :maxAge")
+    List<DedupRecord> findDedupByNamePrefix(@Param("prefix") String prefix, @Param("minAge") int minAge,
+                                            @Param("maxAge") int maxAge, Limit limit);
+
+    @Query(DEDUP_RECORD + "WHERE c.crime = :crime AND c.age BETWEEN :minAge AND :maxAge")
+    List<DedupRecord> findDedupByCrime(@Param("crime") String crime, @Param("minAge") int minAge,
+                                       @Param("maxAge") int maxAge, Limit limit);
+
+    @Query(DEDUP_RECORD + "WHERE c.id > :after ORDER BY c.id")
+    List<DedupRecord> findDedupRecords(@Param("after") long after, Limit limit);
+
+    @Query(DEDUP_RECORD + "WHERE c.nameKey IS NULL AND c.id > :after ORDER BY c.id")
+    List<DedupRecord> findDedupRecordsWithoutNameKey(@Param("after") long after, Limit limit);
 
-public interface CriminalRepository extends JpaRepository<Criminal, Long> {
+    // Rows created before the name_key column existed
+    @Modifying
+    @Transactional
+    @Query("UPDATE Criminal c SET c.nameKey = :nameKey WHERE c.id = :id")
+    int setNameKey(@Param("id") Long id, @Param("nameKey") String nameKey);
 
+    // Visitor screening watchlist
+    @Query("SELECT new com.backend.intellicop.screening.WatchlistEntry(c.id, c.name, c.status, c.threat) "
+            + "FROM Criminal c WHERE c.status IN :statuses OR c.threat IN :threats")
+    List<WatchlistEntry> findWatchlist(@Param("statuses") Collection<String> statuses,
+                                       @Param("threats") Collection<String> threats);
 }
@@ -0,0 +1,11 @@
+package com.backend.intellicop.Repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.backend.intellicop.dto.CriminalFacets;
+import com.backend.intellicop.entity.Criminal;
+
+public interface CriminalRepositoryCustom {
+
+    CriminalFacets facetCounts(Specification<Criminal> spec);
+}
@@ -0,0 +1,56 @@
+package com.backend.intellicop.Repository;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.backend.intellicop.dto.CriminalFacets;
+import com.backend.intellicop.entity.Criminal;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class CriminalRepositoryImpl implements CriminalRepositoryCustom {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // One GROUP BY threat, status; both facets are folded from the same rows
+    @Override
+    public CriminalFacets facetCounts(Specification<Criminal> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Criminal> root = query.from(Criminal.class);
+        Path<String> threat = root.get("threat");
+        Path<String> status = root.get("status");
+
+        query.multiselect(threat, status, cb.count(root));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        query.groupBy(threat, status);
+
+        Map<String, Long> byThreat = new TreeMap<>();
+        Map<String, Long> byStatus = new TreeMap<>();
+        long total = 0;
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            long count = row.get(2, Long.class);
+            byThreat.merge(orUnknown(row.get(0, String.class)), count, Long::sum);
+            byStatus.merge(orUnknown(row.get(1, String.class)), count, Long::sum);
+            total += count;
+        }
+        return new CriminalFacets(byThreat, byStatus, total);
+    }
+
+    private static String orUnknown(String value) {
+        return value == null || value.isBlank() ? UNKNOWN : value;
+    }
+}
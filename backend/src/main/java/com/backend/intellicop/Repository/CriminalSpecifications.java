@@ -0,0 +1,58 @@
+package com.backend.intellicop.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.backend.intellicop.dto.CriminalFilter;
+import com.backend.intellicop.entity.Criminal;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Builds the WHERE clause for criminal searches. Threat, status, age and the crime
+ * prefix are sargable and line up with the criminal indexes in the
+ * V2__Repository_indexes migration; the lastSeen substring match is only applied
+ * to the rows they leave.
+ */
+public final class CriminalSpecifications {
+
+    private CriminalSpecifications() {
+    }
+
+    public static Specification<Criminal> matching(CriminalFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            // Plain equality: the column collation is already case-insensitive
+            List<String> threats = filter.threats();
+            if (!threats.isEmpty()) predicates.add(root.get("threat").in(threats));
+
+            List<String> statuses = filter.statuses();
+            if (!statuses.isEmpty()) predicates.add(root.get("status").in(statuses));
+
+            if (filter.getMinAge() != null) predicates.add(cb.ge(root.get("age"), filter.getMinAge()));
+            if (filter.getMaxAge() != null) predicates.add(cb.le(root.get("age"), filter.getMaxAge()));
+
+            if (hasText(filter.getCrime())) {
+                predicates.add(cb.like(root.get("crime"), escape(filter.getCrime().trim()) + "%", '\\'));
+            }
+            if (hasText(filter.getLastSeen())) {
+                predicates.add(cb.like(cb.lower(root.get("lastSeen")),
+                        "%" + escape(filter.getLastSeen().trim().toLowerCase(Locale.ROOT)) + "%", '\\'));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,65 @@
+package com.backend.intellicop.Repository;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.intellicop.dto.FieldSet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Sparse reads for {@code ?fields=}: selects only the chosen columns and returns one
+ * map per row, keyed by attribute name, so the response carries just those fields.
+ * Rows are never managed entities and the maps are read-only.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class FieldProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> List<Map<String, Object>> findAll(Class<T> entity, FieldSet fields, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entity);
+
+        List<Selection<?>> columns = fields.names().stream()
+                .<Selection<?>>map(name -> root.get(name).alias(name))
+                .toList();
+        query.multiselect(columns);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> toMap(row, fields))
+                .toList();
+    }
+
+    public <T> Optional<Map<String, Object>> findById(Class<T> entity, Long id, FieldSet fields) {
+        List<Map<String, Object>> rows = findAll(entity, fields, (root, query, cb) -> cb.equal(root.get("id"), id));
+        return rows.stream().findFirst();
+    }
+
+    // LinkedHashMap keeps the field order and, unlike Map.of, null values
+    private static Map<String, Object> toMap(Tuple row, FieldSet fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String name : fields.names()) values.put(name, row.get(name));
+        return Collections.unmodifiableMap(values);
+    }
+}
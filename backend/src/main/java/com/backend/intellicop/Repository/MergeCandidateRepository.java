@@ -0,0 +1,34 @@
+package com.backend.intellicop.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.backend.intellicop.entity.MergeCandidate;
+
+public interface MergeCandidateRepository extends JpaRepository<MergeCandidate, Long> {
+
+    List<MergeCandidate> findTop500ByOrderByScoreDesc();
+
+    List<MergeCandidate> findBySource(MergeCandidate.Source source);
+
+    // Keeps the row already stored for the pair, whoever raised it
+    @Modifying
+    @Query(value = "INSERT INTO merge_candidate (left_id, right_id, score, source, detected_at) "
+            + "VALUES (:leftId, :rightId, :score, :source, :detectedAt) ON DUPLICATE KEY UPDATE id = id",
+            nativeQuery = true)
+    void insertIfAbsent(@Param("leftId") long leftId, @Param("rightId") long rightId, @Param("score") double score,
+                        @Param("source") String source, @Param("detectedAt") Instant detectedAt);
+
+    @Modifying
+    @Query("DELETE FROM MergeCandidate m WHERE m.source = :source")
+    int deleteBySource(@Param("source") MergeCandidate.Source source);
+
+    @Modifying
+    @Query("DELETE FROM MergeCandidate m WHERE m.leftId = :id OR m.rightId = :id")
+    int deleteByCriminal(@Param("id") Long id);
+}
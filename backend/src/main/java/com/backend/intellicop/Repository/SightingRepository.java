@@ -0,0 +1,38 @@
+package com.backend.intellicop.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.backend.intellicop.entity.Sighting;
+
+public interface SightingRepository extends JpaRepository<Sighting, Long> {
+
+    // Keyset pages for loading and tailing the spatial index
+    @Query("SELECT s FROM Sighting s WHERE s.id > :after AND s.observedAt >= :since ORDER BY s.id")
+    List<Sighting> findAfter(@Param("after") long after, @Param("since") Instant since, Limit limit);
+
+    List<Sighting> findByCriminalIdOrderByObservedAtDesc(Long criminalId, Limit limit);
+
+    // Fallback for radius queries older than the in-memory index: nearest first, by the
+    // equirectangular distance (lonScale = cos(latitude)^2), so the limit keeps the nearest rows
+    @Query("SELECT s FROM Sighting s WHERE s.observedAt BETWEEN :since AND :until "
+            + "AND s.latitude BETWEEN :minLat AND :maxLat AND s.longitude BETWEEN :minLon AND :maxLon "
+            + "ORDER BY (s.latitude - :lat) * (s.latitude - :lat) + (s.longitude - :lon) * (s.longitude - :lon) * :lonScale")
+    List<Sighting> findNearest(@Param("lat") double lat, @Param("lon") double lon, @Param("lonScale") double lonScale,
+                               @Param("minLat") double minLat, @Param("minLon") double minLon,
+                               @Param("maxLat") double maxLat, @Param("maxLon") double maxLon,
+                               @Param("since") Instant since, @Param("until") Instant until, Limit limit);
+
+    // Fallback for box queries older than the in-memory index
+    @Query("SELECT s FROM Sighting s WHERE s.observedAt BETWEEN :since AND :until "
+            + "AND s.latitude BETWEEN :minLat AND :maxLat AND s.longitude BETWEEN :minLon AND :maxLon "
+            + "ORDER BY s.observedAt DESC")
+    List<Sighting> findInBox(@Param("minLat") double minLat, @Param("minLon") double minLon,
+                             @Param("maxLat") double maxLat, @Param("maxLon") double maxLon,
+                             @Param("since") Instant since, @Param("until") Instant until, Limit limit);
+}
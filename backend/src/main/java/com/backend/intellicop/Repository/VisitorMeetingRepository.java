@@ -1,9 +1,16 @@
 package com.backend.intellicop.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.backend.intellicop.entity.VisitorMeeting;
 
@@ -12,4 +19,31 @@ public interface VisitorMeetingRepository extends JpaRepository<VisitorMeeting,
     List<VisitorMeeting> findByScheduledDate(LocalDate date);
 
     List<VisitorMeeting> findByScheduledDateAfter(LocalDate date);
+
+    // Keyset page of one station, merged across stations by StationScatter
+    List<VisitorMeeting> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<VisitorMeeting> findByIdInAndStatus(Collection<Long> ids, String status);
+
+    @Query("SELECT v FROM VisitorMeeting v WHERE v.scheduledDate < :date AND (v.status IS NULL OR v.status <> 'COMPLETED')")
+    List<VisitorMeeting> findExpired(@Param("date") LocalDate date);
+
+    // Compare-and-set: only moves the row if it is still in one of the expected statuses
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VisitorMeeting v SET v.status = :next WHERE v.id = :id AND v.status IN :expected")
+    int compareAndSetStatus(@Param("id") Long id, @Param("expected") Collection<String> expected, @Param("next") String next);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VisitorMeeting v SET v.status = 'COMPLETED' WHERE v.id IN :ids AND (v.status IS NULL OR v.status <> 'COMPLETED')")
+    int markCompleted(@Param("ids") Collection<Long> ids);
+
+    List<VisitorMeeting> findByScheduledDateAndScreeningStatus(LocalDate date, String screeningStatus);
+
+    // Only lands if the visitor is still the one that was screened; 0 after a concurrent rename
+    @Modifying
+    @Transactional
+    @Query("UPDATE VisitorMeeting v SET v.screeningStatus = :status, v.screeningMatches = :matches, "
+            + "v.screenedAt = :screenedAt WHERE v.id = :id AND v.visitorName = :name")
+    int updateScreening(@Param("id") Long id, @Param("name") String name, @Param("status") String status,
+                        @Param("matches") String matches, @Param("screenedAt") LocalDateTime screenedAt);
 }
@@ -0,0 +1,107 @@
+package com.backend.intellicop.audit;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.MDC;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.backend.intellicop.logging.EventLog;
+
+/**
+ * Records every {@link Audited} method call. Ordered outside the transaction advice,
+ * so a successful call is logged after its own commit; inside an outer transaction the
+ * event waits for that commit. Failed calls are logged too, with the exception type.
+ */
+@Aspect
+@Component
+@Order(0)
+public class AuditAspect {
+
+    private final AuditLog auditLog;
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    public AuditAspect(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @Around("@annotation(audited)")
+    public Object audit(ProceedingJoinPoint joinPoint, Audited audited) throws Throwable {
+        String actor = currentActor();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable failure) {
+            write(joinPoint, audited, actor, null, "FAILED:" + failure.getClass().getSimpleName(), false);
+            throw failure;
+        }
+        write(joinPoint, audited, actor, result, "OK", true);
+        return result;
+    }
+
+    private void write(ProceedingJoinPoint joinPoint, Audited audited, String actor, Object result, String outcome,
+                       boolean waitForCommit) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodBasedEvaluationContext context =
+                new MethodBasedEvaluationContext(null, method, joinPoint.getArgs(), parameterNames);
+        context.setVariable("result", result);
+        String id = evaluate(audited.id(), context);
+        String detail = audited.detail().isEmpty() ? null : evaluate(audited.detail(), context);
+        String correlationId = MDC.get(EventLog.CORRELATION_ID);
+
+        Runnable record = () -> auditLog.record(actor, audited.action(), audited.entity(), id, outcome, detail,
+                correlationId);
+        if (waitForCommit && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record.run();
+                }
+            });
+        } else {
+            record.run();
+        }
+    }
+
+    private String evaluate(String expression, MethodBasedEvaluationContext context) {
+        try {
+            Object value = expressions.computeIfAbsent(expression, parser::parseExpression).getValue(context);
+            return value == null ? null : value.toString();
+        } catch (RuntimeException e) {
+            return "?";
+        }
+    }
+
+    // Authenticated user, else the caller's address; scheduled jobs run as "system"
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request) {
+            return "anonymous@" + request.getRequest().getRemoteAddr();
+        }
+        return "system";
+    }
+}
@@ -0,0 +1,11 @@
+package com.backend.intellicop.audit;
+
+import java.time.Instant;
+
+/**
+ * One recorded mutation. {@code outcome} is OK or FAILED:&lt;exception&gt;. {@code node} is the
+ * app node whose log holds the event (null for events written before it was recorded).
+ */
+public record AuditEvent(long sequence, Instant timestamp, String actor, String action, String entityType,
+                         String entityId, String outcome, String detail, String correlationId, String node) {
+}
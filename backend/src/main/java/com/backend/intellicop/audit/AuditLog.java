@@ -0,0 +1,366 @@
+package com.backend.intellicop.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.backend.intellicop.logging.MpscRingBuffer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only audit trail. Callers enqueue onto a lock-free ring buffer and return
+ * immediately; one background thread assigns sequence numbers, appends batches to the
+ * current memory-mapped {@link AuditSegment}, rolls to a new segment when it is full,
+ * and flushes to disk at most every {@code force-interval}. Segments are replayed at
+ * startup to rebuild the in-memory indexes (by entity, by actor, by time) that back
+ * {@link #query}. The oldest segments are deleted beyond {@code max-segments}, and the
+ * indexes are compacted down to what is still on disk.
+ * <p>
+ * Segments live on the node's own disk, so {@link #query} only sees the events this node
+ * recorded; each event carries the {@code node} that wrote it.
+ */
+@Component
+public class AuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    private static final int BATCH = 256;
+    private static final int MAX_DETAIL = 2000;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final Path directory;
+    private final String node;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final long forceIntervalNanos;
+    private final MpscRingBuffer<AuditEvent> buffer;
+    private final LongAdder dropped = new LongAdder();
+    private final CRC32C crc = new CRC32C();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // --- State below is guarded by lock (written only by the writer thread after startup).
+    // Arrays are only appended to in place; anything that moves entries copies them, so a
+    // reader can keep scanning references it took under the lock. ---
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, AuditSegment> segments = new TreeMap<>();
+    private final Map<Integer, Integer> segmentFirstOrdinal = new HashMap<>();
+    private final Map<String, IntList> byEntity = new HashMap<>();
+    private final Map<String, IntList> byActor = new HashMap<>();
+    // Indexed by ordinal - base
+    private int[] segmentOf = new int[MIN_CAPACITY];
+    private int[] offsetOf = new int[MIN_CAPACITY];
+    private long[] timestampOf = new long[MIN_CAPACITY];
+    private int base;
+    private int ordinals;
+    private int firstLiveOrdinal;
+    private long nextSequence = 1;
+    private long lastTimestamp;
+    private AuditSegment current;
+
+    public AuditLog(@Value("${intellicop.audit.directory:./audit}") Path directory,
+                    @Value("${intellicop.audit.node:${HOSTNAME:node}}") String node,
+                    @Value("${intellicop.audit.segment-bytes:67108864}") int segmentBytes,
+                    @Value("${intellicop.audit.max-segments:64}") int maxSegments,
+                    @Value("${intellicop.audit.force-interval-ms:200}") long forceIntervalMs,
+                    @Value("${intellicop.audit.buffer-size:16384}") int bufferSize,
+                    MeterRegistry meterRegistry) throws IOException {
+        this.directory = directory;
+        this.node = node;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.forceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(forceIntervalMs);
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+        recover();
+
+        Gauge.builder("audit.queue.depth", buffer, MpscRingBuffer::size).register(meterRegistry);
+        Gauge.builder("audit.segments", segments, TreeMap::size).register(meterRegistry);
+        FunctionCounter.builder("audit.dropped", dropped, LongAdder::sum)
+                .description("Audit events lost because the buffer was full")
+                .register(meterRegistry);
+
+        this.writer = Thread.ofPlatform().name("audit-writer").daemon(true).unstarted(this::drain);
+        this.writer.start();
+    }
+
+    public void record(String actor, String action, String entityType, String entityId, String outcome,
+                       String detail, String correlationId) {
+        if (detail != null && detail.length() > MAX_DETAIL) detail = detail.substring(0, MAX_DETAIL);
+        AuditEvent event = new AuditEvent(0, Instant.now(), actor, action, entityType, entityId, outcome, detail,
+                correlationId, node);
+        if (!buffer.offer(event)) {
+            dropped.increment();
+            log.warn("Audit buffer full, dropped {} {} {}", action, entityType, entityId);
+        }
+    }
+
+    /**
+     * Newest-first events matching every given criterion. The entity or actor index
+     * narrows the candidates; the time range is a binary search over write order.
+     * Only the bounds are taken under the lock; the scan runs outside it, with the
+     * segments it may read pinned so a roll cannot unmap them underneath.
+     */
+    public List<AuditEvent> query(String entityType, String entityId, String actor, Instant from, Instant to,
+                                  int limit) {
+        List<AuditEvent> results = new ArrayList<>();
+        boolean indexed = (entityType != null && entityId != null) || actor != null;
+        int low;
+        int high;
+        int offset;
+        int[] segmentAt;
+        int[] offsetAt;
+        int[] candidates = null;
+        int cursor;
+        Map<Integer, AuditSegment> pinned = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            low = Math.max(firstLiveOrdinal, lowerBound(from == null ? Long.MIN_VALUE : from.toEpochMilli()));
+            high = lowerBound(to == null ? Long.MAX_VALUE : to.toEpochMilli() + 1);
+            IntList list = null;
+            if (entityType != null && entityId != null) list = byEntity.get(entityType + ":" + entityId);
+            else if (actor != null) list = byActor.get(actor);
+            if (indexed && list == null) return results;
+            if (indexed) {
+                candidates = list.values;
+                cursor = list.size - 1;
+            } else {
+                cursor = high - 1;
+            }
+            offset = base;
+            segmentAt = segmentOf;
+            offsetAt = offsetOf;
+            // Cannot fail: a live segment is only retired under the write lock
+            for (AuditSegment segment : segments.values()) {
+                if (segment.retain()) pinned.put(segment.number(), segment);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            while (cursor >= 0 && results.size() < limit) {
+                int ordinal = indexed ? candidates[cursor] : cursor;
+                cursor--;
+                if (ordinal >= high) continue;
+                if (ordinal < low) break;
+                AuditEvent event = pinned.get(segmentAt[ordinal - offset]).read(offsetAt[ordinal - offset]);
+                if (entityType != null && !entityType.equals(event.entityType())) continue;
+                if (entityId != null && !entityId.equals(event.entityId())) continue;
+                if (actor != null && !actor.equals(event.actor())) continue;
+                results.add(event);
+            }
+            return results;
+        } finally {
+            pinned.values().forEach(AuditSegment::release);
+        }
+    }
+
+    // --- Writer thread ---
+    private void drain() {
+        List<AuditEvent> batch = new ArrayList<>(BATCH);
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+        while (running || buffer.size() > 0) {
+            AuditEvent event;
+            while (batch.size() < BATCH && (event = buffer.poll()) != null) batch.add(event);
+            if (!batch.isEmpty()) {
+                try {
+                    append(batch);
+                    dirty = true;
+                } catch (IOException | RuntimeException e) {
+                    dropped.add(batch.size());
+                    log.error("Could not write {} audit events: {}", batch.size(), e.getMessage());
+                }
+                batch.clear();
+            } else {
+                // Idle: nothing left to group with, so flush now and block until the next offer
+                if (dirty) {
+                    current.force();
+                    lastForce = System.nanoTime();
+                    dirty = false;
+                }
+                if (running) buffer.await();
+                continue;
+            }
+            if (dirty && System.nanoTime() - lastForce >= forceIntervalNanos) {
+                current.force();
+                lastForce = System.nanoTime();
+                dirty = false;
+            }
+        }
+        if (dirty) current.force();
+    }
+
+    private void append(List<AuditEvent> batch) throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (AuditEvent event : batch) {
+                // Monotonic timestamps keep the time index a plain binary search
+                long timestamp = Math.max(event.timestamp().toEpochMilli(), lastTimestamp);
+                AuditEvent stamped = new AuditEvent(nextSequence, Instant.ofEpochMilli(timestamp), event.actor(),
+                        event.action(), event.entityType(), event.entityId(), event.outcome(), event.detail(),
+                        event.correlationId(), event.node());
+                byte[] payload = AuditSegment.encode(stamped);
+                int offset = current.append(payload, crc);
+                if (offset < 0) {
+                    roll();
+                    offset = current.append(payload, crc);
+                    if (offset < 0) throw new IOException("Audit event larger than a segment");
+                }
+                nextSequence++;
+                index(stamped, current.number(), offset);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void roll() throws IOException {
+        current.force();
+        int number = current.number() + 1;
+        current = AuditSegment.create(segmentPath(number), number, segmentBytes);
+        segments.put(number, current);
+        segmentFirstOrdinal.put(number, ordinals);
+
+        if (segments.size() <= maxSegments) return;
+        while (segments.size() > maxSegments) {
+            AuditSegment oldest = segments.pollFirstEntry().getValue();
+            segmentFirstOrdinal.remove(oldest.number());
+            oldest.retire();
+        }
+        firstLiveOrdinal = segmentFirstOrdinal.get(segments.firstKey());
+        byEntity.values().removeIf(list -> list.dropBelow(firstLiveOrdinal));
+        byActor.values().removeIf(list -> list.dropBelow(firstLiveOrdinal));
+        compact();
+    }
+
+    // Drops the entries of deleted segments; fresh arrays, so readers keep their own
+    private void compact() {
+        int from = firstLiveOrdinal - base;
+        int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, ordinals - firstLiveOrdinal)) * 2);
+        segmentOf = Arrays.copyOfRange(segmentOf, from, from + capacity);
+        offsetOf = Arrays.copyOfRange(offsetOf, from, from + capacity);
+        timestampOf = Arrays.copyOfRange(timestampOf, from, from + capacity);
+        base = firstLiveOrdinal;
+    }
+
+    private void index(AuditEvent event, int segment, int offset) {
+        int slot = ordinals - base;
+        if (slot == segmentOf.length) {
+            segmentOf = Arrays.copyOf(segmentOf, slot * 2);
+            offsetOf = Arrays.copyOf(offsetOf, slot * 2);
+            timestampOf = Arrays.copyOf(timestampOf, slot * 2);
+        }
+        int ordinal = ordinals++;
+        segmentOf[slot] = segment;
+        offsetOf[slot] = offset;
+        timestampOf[slot] = event.timestamp().toEpochMilli();
+        lastTimestamp = timestampOf[slot];
+        nextSequence = Math.max(nextSequence, event.sequence() + 1);
+        if (event.entityType() != null && event.entityId() != null) {
+            byEntity.computeIfAbsent(event.entityType() + ":" + event.entityId(), k -> new IntList()).add(ordinal);
+        }
+        if (event.actor() != null) byActor.computeIfAbsent(event.actor(), k -> new IntList()).add(ordinal);
+    }
+
+    private int lowerBound(long timestamp) {
+        int low = base;
+        int high = ordinals;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestampOf[mid - base] < timestamp) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // --- Startup: replay existing segments in order ---
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().matches("audit-\\d{10}\\.seg")).sorted().toList();
+        }
+        for (Path file : files) {
+            int number = Integer.parseInt(file.getFileName().toString().substring(6, 16));
+            segmentFirstOrdinal.put(number, ordinals);
+            try {
+                AuditSegment segment = AuditSegment.open(file, number, (event, offset) -> index(event, number, offset));
+                segments.put(number, segment);
+                current = segment;
+            } catch (IOException | UncheckedIOException e) {
+                log.error("Skipping unreadable audit segment {}: {}", file, e.getMessage());
+                segmentFirstOrdinal.remove(number);
+            }
+        }
+        // Appends continue in the last segment, overwriting any torn record at its end,
+        // unless it is in an older format
+        if (current == null || current.format() != AuditSegment.FORMAT) {
+            int number = current == null ? 1 : current.number() + 1;
+            current = AuditSegment.create(segmentPath(number), number, segmentBytes);
+            segments.put(number, current);
+            segmentFirstOrdinal.put(number, ordinals);
+        }
+        firstLiveOrdinal = segmentFirstOrdinal.get(segments.firstKey());
+    }
+
+    /** The node whose events this log holds. */
+    public String node() {
+        return node;
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format("audit-%010d.seg", number));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    // Ascending ordinals of one index key
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        /** Removes values below the bound into a fresh array; true when nothing is left. */
+        boolean dropBelow(int bound) {
+            int drop = 0;
+            while (drop < size && values[drop] < bound) drop++;
+            if (drop > 0) {
+                values = Arrays.copyOfRange(values, drop, Math.max(size, drop + 4));
+                size -= drop;
+            }
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.backend.intellicop.audit;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One memory-mapped audit file. Layout: an 8-byte header, then records of
+ * {@code [int length][int crc32c][payload]}, then a zero length marking the end.
+ * Recovery stops at the first record whose length or checksum does not hold,
+ * which is where a crash mid-write leaves the file.
+ * <p>
+ * Readers {@link #retain} the segment while they read it outside the log's lock; a
+ * {@linkplain #retire retired} segment is unmapped and deleted once the last one releases it.
+ */
+final class AuditSegment {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditSegment.class);
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    private static final int MAGIC = 0x49415544; // "IAUD"
+    // 2 added the node; format 1 segments are still read, but never appended to
+    static final int FORMAT = 2;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_OVERHEAD = 8;
+
+    private final Path path;
+    private final int number;
+    private final int format;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger references = new AtomicInteger(1); // the log's own
+    private int writePosition;
+    private volatile boolean deleteOnClose;
+
+    private AuditSegment(Path path, int number, int format, MappedByteBuffer buffer, int writePosition) {
+        this.path = path;
+        this.number = number;
+        this.format = format;
+        this.buffer = buffer;
+        this.writePosition = writePosition;
+    }
+
+    static AuditSegment create(Path path, int number, int size) throws IOException {
+        MappedByteBuffer buffer = map(path, size);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT);
+        buffer.putInt(HEADER_BYTES, 0);
+        return new AuditSegment(path, number, FORMAT, buffer, HEADER_BYTES);
+    }
+
+    /** Maps an existing file and feeds every intact record with its offset to {@code onRecord}. */
+    static AuditSegment open(Path path, int number, ObjIntConsumer<AuditEvent> onRecord) throws IOException {
+        MappedByteBuffer buffer = map(path, (int) Files.size(path));
+        int format = buffer.getInt(4);
+        if (buffer.getInt(0) != MAGIC || format < 1 || format > FORMAT) {
+            throw new IOException("Not an audit segment: " + path);
+        }
+        int position = HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        while (position + RECORD_OVERHEAD <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_OVERHEAD + length > buffer.capacity()) break;
+            if (checksum(crc, buffer, position + RECORD_OVERHEAD, length) != buffer.getInt(position + 4)) break;
+            onRecord.accept(decode(buffer, position + RECORD_OVERHEAD, format), position);
+            position += RECORD_OVERHEAD + length;
+        }
+        if (position + 4 <= buffer.capacity()) buffer.putInt(position, 0);
+        return new AuditSegment(path, number, format, buffer, position);
+    }
+
+    private static MappedByteBuffer map(Path path, int size) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            if (file.length() < size) file.setLength(size);
+            // The mapping stays valid after the channel is closed
+            return file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int number() {
+        return number;
+    }
+
+    int format() {
+        return format;
+    }
+
+    /** Appends an encoded payload; returns its offset, or -1 when the segment is full. */
+    int append(byte[] payload, CRC32C crc) {
+        int end = writePosition + RECORD_OVERHEAD + payload.length;
+        if (end + 4 > buffer.capacity()) return -1;
+        int offset = writePosition;
+        crc.reset();
+        crc.update(payload);
+        buffer.put(offset + RECORD_OVERHEAD, payload);
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        buffer.putInt(end, 0);
+        // Length last: a torn write leaves either the old terminator or a checksum mismatch
+        buffer.putInt(offset, payload.length);
+        writePosition = end;
+        return offset;
+    }
+
+    AuditEvent read(int offset) {
+        return decode(buffer, offset + RECORD_OVERHEAD, format);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /** Pins the mapping for a reader; false once the segment is unmapped. */
+    boolean retain() {
+        int count;
+        do {
+            count = references.get();
+            if (count == 0) return false;
+        } while (!references.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    void release() {
+        if (references.decrementAndGet() == 0) close();
+    }
+
+    /** Drops the log's reference; the file goes once no reader holds the segment. */
+    void retire() {
+        deleteOnClose = true;
+        release();
+    }
+
+    private void close() {
+        // Unmapped before the delete, which some platforms refuse while a mapping is open
+        if (INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invokeExact(buffer);
+            } catch (Throwable e) {
+                log.warn("Could not unmap audit segment {}: {}", path, e.toString());
+            }
+        }
+        if (!deleteOnClose) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete audit segment {}: {}", path, e.getMessage());
+        }
+    }
+
+    // Unsafe.invokeCleaner releases a mapping now instead of whenever the buffer is collected
+    private static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null))
+                    .asType(MethodType.methodType(void.class, MappedByteBuffer.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.info("Audit segments are unmapped by the garbage collector: {}", e.toString());
+            return null;
+        }
+    }
+
+    // --- Payload codec: seq, timestamp, then length-prefixed UTF-8 strings (-1 for null) ---
+    static byte[] encode(AuditEvent event) {
+        String[] fields = fields(event);
+        byte[][] encoded = new byte[fields.length][];
+        int size = 16;
+        for (int i = 0; i < fields.length; i++) {
+            encoded[i] = fields[i] == null ? null : fields[i].getBytes(StandardCharsets.UTF_8);
+            size += 4 + (encoded[i] == null ? 0 : encoded[i].length);
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putLong(event.sequence());
+        out.putLong(event.timestamp().toEpochMilli());
+        for (byte[] field : encoded) {
+            out.putInt(field == null ? -1 : field.length);
+            if (field != null) out.put(field);
+        }
+        return out.array();
+    }
+
+    private static String[] fields(AuditEvent e) {
+        return new String[] { e.actor(), e.action(), e.entityType(), e.entityId(), e.outcome(), e.detail(),
+                e.correlationId(), e.node() };
+    }
+
+    private static AuditEvent decode(ByteBuffer source, int offset, int format) {
+        ByteBuffer in = source.duplicate().position(offset);
+        long sequence = in.getLong();
+        Instant timestamp = Instant.ofEpochMilli(in.getLong());
+        String[] fields = new String[8];
+        for (int i = 0; i < (format == 1 ? 7 : 8); i++) {
+            int length = in.getInt();
+            if (length < 0) continue;
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            fields[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new AuditEvent(sequence, timestamp, fields[0], fields[1], fields[2], fields[3], fields[4], fields[5],
+                fields[6], fields[7]);
+    }
+
+    private static int checksum(CRC32C crc, ByteBuffer buffer, int offset, int length) {
+        crc.reset();
+        crc.update(buffer.duplicate().position(offset).limit(offset + length));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,24 @@
+package com.backend.intellicop.audit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method as a mutation to record in the audit log. {@code id} and
+ * {@code detail} are SpEL expressions over the method parameters ({@code #name}) and
+ * the return value ({@code #result}). Never put secrets in {@code detail}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Audited {
+
+    String entity();
+
+    String action();
+
+    String id() default "#id";
+
+    String detail() default "";
+}
@@ -0,0 +1,119 @@
+package com.backend.intellicop.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import com.backend.intellicop.jdbc.PrimaryReads;
+import com.backend.intellicop.station.StationContext;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Size-bounded LRU cache with a per-entry TTL. A generation counter guards against the
+ * classic load/invalidate race: a value loaded before an invalidation is never stored.
+ */
+public class NearCache<K, V> implements MeterBinder {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final String name;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile long generation;
+
+    public NearCache(String name, int maxEntries, long ttlNanos) {
+        this.name = name;
+        this.ttlNanos = ttlNanos;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) return null;
+            if (System.nanoTime() - entry.expiresAt() >= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns the cached value or loads it; null results are not cached. */
+    public V getOrLoad(K key, Supplier<V> loader) {
+        // Entries hold the home station's rows; another station's are read straight through
+        if (StationContext.isRemote()) return loader.get();
+
+        V cached = get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        long loadGeneration = generation;
+        // A lagging replica could hand back rows older than the invalidation that emptied us
+        V loaded = PrimaryReads.call(loader);
+        if (loaded == null) return null;
+
+        lock.lock();
+        try {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry<>(loaded, System.nanoTime() + ttlNanos));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return loaded;
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("nearcache.size", this, NearCache::size).tag("cache", name).register(registry);
+        FunctionCounter.builder("nearcache.hits", hits, LongAdder::sum).tag("cache", name).register(registry);
+        FunctionCounter.builder("nearcache.misses", misses, LongAdder::sum).tag("cache", name).register(registry);
+        FunctionCounter.builder("nearcache.evictions", evictions, LongAdder::sum).tag("cache", name).register(registry);
+    }
+}
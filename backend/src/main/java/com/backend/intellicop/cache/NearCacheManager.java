@@ -0,0 +1,133 @@
+package com.backend.intellicop.cache;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.intellicop.Repository.CacheVersionRepository;
+import com.backend.intellicop.entity.CacheVersion;
+import com.backend.intellicop.service.AggregateChangedEvent;
+import com.backend.intellicop.service.ResourceVersionService;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Owns the per-aggregate near caches and keeps them, and the ETag versions of every
+ * aggregate, coherent across nodes. Local writes clear the local cache and bump the
+ * region's row in {@code cache_version}; every node polls that table, drops a region
+ * whose version moved and refreshes its ETag version. A remote write is therefore
+ * visible after at most one poll interval (entry TTL is the fallback bound).
+ */
+@Service
+public class NearCacheManager {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCacheManager.class);
+    private static final Aggregate[] CACHED = { Aggregate.CRIMINAL, Aggregate.USER };
+
+    private final CacheVersionRepository cacheVersionRepository;
+    private final ResourceVersionService resourceVersions;
+    private final TransactionTemplate ownTransaction;
+    private final Map<Aggregate, NearCache<Object, Object>> caches = new EnumMap<>(Aggregate.class);
+    private final Map<String, Long> knownVersions = new ConcurrentHashMap<>();
+    // Versions this node's increments produced, so polling does not take them for remote writes
+    private final Map<String, NavigableSet<Long>> ownVersions = new ConcurrentHashMap<>();
+
+    public NearCacheManager(CacheVersionRepository cacheVersionRepository,
+                            ResourceVersionService resourceVersions,
+                            MeterRegistry meterRegistry,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${intellicop.cache.max-entries:10000}") int maxEntries,
+                            @Value("${intellicop.cache.ttl:60s}") Duration ttl) {
+        this.cacheVersionRepository = cacheVersionRepository;
+        this.resourceVersions = resourceVersions;
+        // Called from after-commit callbacks, where the finished transaction cannot be joined
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (Aggregate aggregate : CACHED) {
+            NearCache<Object, Object> cache = new NearCache<>(region(aggregate), maxEntries, ttl.toNanos());
+            cache.bindTo(meterRegistry);
+            caches.put(aggregate, cache);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> NearCache<Object, V> cache(Aggregate aggregate) {
+        return (NearCache<Object, V>) caches.get(aggregate);
+    }
+
+    // Every aggregate has a region: those without a near cache still need their ETags moved
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerRegions() {
+        for (Aggregate aggregate : Aggregate.values()) {
+            if (cacheVersionRepository.existsById(region(aggregate))) continue;
+            try {
+                cacheVersionRepository.save(new CacheVersion(region(aggregate), 0));
+            } catch (DataIntegrityViolationException e) {
+                // Another node registered it first
+            }
+        }
+        pollVersions();
+    }
+
+    @EventListener
+    public void onLocalChange(AggregateChangedEvent event) {
+        NearCache<Object, Object> cache = caches.get(event.aggregate());
+        if (cache != null) cache.invalidateAll();
+        String region = region(event.aggregate());
+        try {
+            // The row stays locked until commit, so the version read back is the one this increment made
+            Long version = ownTransaction.execute(status -> cacheVersionRepository.increment(region) == 0
+                    ? null : cacheVersionRepository.findVersion(region));
+            if (version != null) ownVersions.computeIfAbsent(region, r -> new ConcurrentSkipListSet<>()).add(version);
+        } catch (RuntimeException e) {
+            // The write has committed: failing here would answer it with an error and stop the
+            // remaining listeners. Other nodes still converge through the entry TTL.
+            log.warn("Could not publish cache invalidation for {}: {}", region, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${intellicop.cache.poll-interval-ms:1000}")
+    public void pollVersions() {
+        for (CacheVersion row : cacheVersionRepository.findAll()) {
+            Long previous = knownVersions.put(row.getRegion(), row.getVersion());
+            if (previous == null || previous == row.getVersion()) continue;
+            if (onlyOwnIncrements(row.getRegion(), previous, row.getVersion())) continue;
+
+            for (Aggregate aggregate : Aggregate.values()) {
+                if (!region(aggregate).equals(row.getRegion())) continue;
+                NearCache<Object, Object> cache = caches.get(aggregate);
+                if (cache != null) cache.invalidateAll();
+                resourceVersions.refresh(aggregate);
+            }
+        }
+    }
+
+    // True when every version in (previous, current] came from this node, which already invalidated for them
+    private boolean onlyOwnIncrements(String region, long previous, long current) {
+        NavigableSet<Long> own = ownVersions.get(region);
+        if (own == null) return false;
+        boolean onlyOwn = own.subSet(previous, false, current, true).size() == current - previous;
+        own.headSet(current, true).clear();
+        return onlyOwn;
+    }
+
+    private static String region(Aggregate aggregate) {
+        return aggregate.name().toLowerCase();
+    }
+}
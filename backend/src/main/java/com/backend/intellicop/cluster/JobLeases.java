@@ -0,0 +1,280 @@
+package com.backend.intellicop.cluster;
+
+import java.lang.reflect.Method;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Leader election for {@link LeaderOnly} jobs over the {@code job_lease} table. On every
+ * tick a node beats in {@code cluster_node}, renews the leases it holds, hands back one
+ * lease beyond its fair share (jobs / live nodes) and takes free or expired leases while
+ * under it, so the jobs spread over the cluster and move off a node that stops beating.
+ * <p>
+ * Taking a lease bumps its fencing token. {@link #fence()} re-checks the token inside the
+ * job's own transaction and keeps the row locked until commit, so a node that stalled past
+ * its lease can never commit over the new holder's work. Expiry uses the nodes' clocks,
+ * which must agree to well within the TTL; a node stops trusting a lease one renew
+ * interval before it expires.
+ */
+@Component
+public class JobLeases {
+
+    private static final Logger log = LoggerFactory.getLogger(JobLeases.class);
+
+    public record Lease(String job, long token) {
+    }
+
+    private record Held(Lease lease, long validUntil) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final ApplicationEventPublisher publisher;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final long renewMillis;
+    private final String node;
+    private final Set<String> jobs = new ConcurrentSkipListSet<>();
+    private final Map<String, Held> held = new ConcurrentHashMap<>();
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Lease> current = new ThreadLocal<>();
+    // Serializes tick and close; not a monitor, since both wait on the database
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Autowired
+    public JobLeases(JdbcTemplate jdbc, ApplicationEventPublisher publisher, MeterRegistry meterRegistry,
+                     @Value("${intellicop.cluster.lease-ttl:30s}") Duration ttl,
+                     @Value("${intellicop.cluster.renew-interval-ms:10000}") long renewIntervalMillis) {
+        this(jdbc, publisher, meterRegistry, ttl, Duration.ofMillis(renewIntervalMillis), Clock.systemUTC(),
+                System.getenv().getOrDefault("HOSTNAME", "node") + "-" + UUID.randomUUID().toString().substring(0, 8));
+    }
+
+    JobLeases(JdbcTemplate jdbc, ApplicationEventPublisher publisher, MeterRegistry meterRegistry, Duration ttl,
+              Duration renewInterval, Clock clock, String node) {
+        if (renewInterval.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("Lease renew interval must be shorter than the lease TTL");
+        }
+        this.jdbc = jdbc;
+        this.publisher = publisher;
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.renewMillis = renewInterval.toMillis();
+        this.node = node;
+        Gauge.builder("cluster.leases.held", held, Map::size)
+                .description("Scheduled-job leases held by this node")
+                .register(meterRegistry);
+    }
+
+    // Elects once the context is up, so a job never runs before its bean is ready
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        for (String name : context.getBeanDefinitionNames()) {
+            Class<?> type = context.getType(name);
+            if (type == null || !AnnotationUtils.isCandidateClass(type, LeaderOnly.class)) continue;
+            Map<Method, LeaderOnly> methods = MethodIntrospector.selectMethods(ClassUtils.getUserClass(type),
+                    (MethodIntrospector.MetadataLookup<LeaderOnly>) method ->
+                            AnnotatedElementUtils.findMergedAnnotation(method, LeaderOnly.class));
+            methods.values().forEach(leaderOnly -> register(leaderOnly.value()));
+        }
+        log.info("Node {} electing leaders for jobs {}", node, jobs);
+        tick();
+    }
+
+    public void register(String job) {
+        jobs.add(job);
+    }
+
+    public String node() {
+        return node;
+    }
+
+    @Scheduled(fixedDelayString = "${intellicop.cluster.renew-interval-ms:10000}")
+    public void tick() {
+        if (jobs.isEmpty()) return;
+        lock.lock();
+        try {
+            long now = clock.millis();
+            beat(now);
+            renew(now);
+            Integer live = jdbc.queryForObject("SELECT COUNT(*) FROM cluster_node WHERE beat_millis > ?",
+                    Integer.class, now - ttlMillis);
+            int liveNodes = Math.max(1, live == null ? 1 : live);
+            rebalance(now, (jobs.size() + liveNodes - 1) / liveNodes);
+        } catch (DataAccessException e) {
+            // Held leases lapse on their own unless a later tick renews them
+            log.warn("Job lease tick failed: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The lease for the job if this node holds it and may still act on it, otherwise null. */
+    public Lease lease(String job) {
+        Held entry = held.get(job);
+        return entry != null && clock.millis() < entry.validUntil() ? entry.lease() : null;
+    }
+
+    /** Binds a lease to the current thread for {@link #fence()} until the scope is closed. */
+    public Scope bind(Lease lease) {
+        Scope scope = new Scope(current.get(), lease);
+        current.set(lease);
+        running.add(lease.job());
+        return scope;
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final Lease previous;
+        private final Lease lease;
+
+        private Scope(Lease previous, Lease lease) {
+            this.previous = previous;
+            this.lease = lease;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) current.remove();
+            else current.set(previous);
+            if (previous == null || !previous.job().equals(lease.job())) running.remove(lease.job());
+        }
+    }
+
+    /**
+     * Checks, inside the caller's transaction, that the lease bound to this thread is still
+     * this node's, extending it at the same time. The row stays locked until that
+     * transaction ends, so the lease cannot be taken over while the job's writes commit.
+     *
+     * @throws LeaseLostException if another node has taken the lease
+     */
+    public void fence() {
+        Lease lease = current.get();
+        if (lease == null) throw new IllegalStateException("No job lease is bound to this thread");
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("fence() must be called inside the job's transaction");
+        }
+        int fenced = jdbc.update("UPDATE job_lease SET expires_millis = ? WHERE job = ? AND owner = ? AND token = ?",
+                clock.millis() + ttlMillis, lease.job(), node, lease.token());
+        if (fenced == 0) {
+            held.computeIfPresent(lease.job(), (job, entry) -> entry.lease().equals(lease) ? null : entry);
+            throw new LeaseLostException(lease.job(), lease.token());
+        }
+    }
+
+    private void beat(long now) {
+        if (jdbc.update("UPDATE cluster_node SET beat_millis = ? WHERE node = ?", now, node) == 0) {
+            jdbc.update("INSERT INTO cluster_node (node, beat_millis) VALUES (?, ?)", node, now);
+        }
+        // Every restart gets a new node name; drop the rows of long-gone ones
+        jdbc.update("DELETE FROM cluster_node WHERE beat_millis < ?", now - 10 * ttlMillis);
+    }
+
+    private void renew(long now) {
+        for (Held entry : held.values()) {
+            Lease lease = entry.lease();
+            int renewed = jdbc.update("UPDATE job_lease SET expires_millis = ? WHERE job = ? AND owner = ? AND token = ?",
+                    now + ttlMillis, lease.job(), node, lease.token());
+            if (renewed == 1) {
+                held.put(lease.job(), new Held(lease, validUntil(now)));
+            } else {
+                held.remove(lease.job());
+                log.warn("Node {} lost the lease for job {} (token {})", node, lease.job(), lease.token());
+            }
+        }
+    }
+
+    private void rebalance(long now, int fairShare) {
+        // One surplus lease per tick, so a joining node can pick it up; never one mid-run
+        if (held.size() > fairShare) {
+            for (String job : held.keySet()) {
+                if (running.contains(job)) continue;
+                release(job);
+                return;
+            }
+            return;
+        }
+        for (String job : jobs) {
+            if (held.size() >= fairShare) return;
+            if (held.containsKey(job)) continue;
+            Long token = tryAcquire(job, now);
+            if (token == null) continue;
+
+            Lease lease = new Lease(job, token);
+            held.put(job, new Held(lease, validUntil(now)));
+            log.info("Node {} took the lease for job {} (token {})", node, job, token);
+            // Off the tick thread, so a catch-up run never delays renewals
+            Thread.ofVirtual().name("lease-acquired-" + job)
+                    .start(() -> publisher.publishEvent(new LeadershipAcquiredEvent(job, token)));
+        }
+    }
+
+    private Long tryAcquire(String job, long now) {
+        int taken = jdbc.update("UPDATE job_lease SET owner = ?, token = token + 1, expires_millis = ? "
+                + "WHERE job = ? AND expires_millis < ?", node, now + ttlMillis, job, now);
+        if (taken == 0) {
+            try {
+                jdbc.update("INSERT INTO job_lease (job, owner, token, expires_millis) VALUES (?, ?, 1, ?)",
+                        job, node, now + ttlMillis);
+            } catch (DuplicateKeyException e) {
+                return null; // held by a live node
+            }
+        }
+        return jdbc.query("SELECT token FROM job_lease WHERE job = ? AND owner = ?",
+                rows -> rows.next() ? rows.getLong(1) : null, job, node);
+    }
+
+    private void release(String job) {
+        Held entry = held.remove(job);
+        if (entry == null) return;
+        jdbc.update("UPDATE job_lease SET expires_millis = 0 WHERE job = ? AND owner = ? AND token = ?",
+                job, node, entry.lease().token());
+        log.info("Node {} handed back the lease for job {}", node, job);
+    }
+
+    private long validUntil(long now) {
+        return now + ttlMillis - renewMillis;
+    }
+
+    // Lets the other nodes take over at their next tick instead of waiting out the TTL
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            for (String job : Set.copyOf(held.keySet())) release(job);
+            jdbc.update("DELETE FROM cluster_node WHERE node = ?", node);
+        } catch (DataAccessException e) {
+            log.warn("Could not hand back job leases: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.backend.intellicop.cluster;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a scheduled method only on the node holding the named job's lease; on every other
+ * node the call is skipped (and returns null). Methods sharing a name share one lease.
+ * Writes that must not happen twice call {@link JobLeases#fence()} in their transaction.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LeaderOnly {
+
+    String value();
+}
@@ -0,0 +1,40 @@
+package com.backend.intellicop.cluster;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs {@link LeaderOnly} methods only while this node holds the job's lease. Ordered
+ * outside auditing and the transaction advice: a skipped run opens no transaction and
+ * leaves no audit record, and the lease is bound before the transaction that fences on it.
+ */
+@Aspect
+@Component
+@Order(-1)
+public class LeaderOnlyAspect {
+
+    private final JobLeases leases;
+    private final MeterRegistry meterRegistry;
+
+    public LeaderOnlyAspect(JobLeases leases, MeterRegistry meterRegistry) {
+        this.leases = leases;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(leaderOnly)")
+    public Object runIfLeader(ProceedingJoinPoint joinPoint, LeaderOnly leaderOnly) throws Throwable {
+        JobLeases.Lease lease = leases.lease(leaderOnly.value());
+        meterRegistry.counter("cluster.job.runs", "job", leaderOnly.value(),
+                "outcome", lease == null ? "skipped" : "ran").increment();
+        if (lease == null) return null;
+
+        try (JobLeases.Scope scope = leases.bind(lease)) {
+            return joinPoint.proceed();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.backend.intellicop.cluster;
+
+/**
+ * Published when this node takes a job's lease, e.g. at first election or after the
+ * previous holder died. A run the previous holder missed can be caught up from here.
+ */
+public record LeadershipAcquiredEvent(String job, long token) {
+}
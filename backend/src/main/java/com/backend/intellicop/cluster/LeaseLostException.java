@@ -0,0 +1,9 @@
+package com.backend.intellicop.cluster;
+
+/** The job's lease moved to another node; the work done under it must roll back. */
+public class LeaseLostException extends RuntimeException {
+
+    public LeaseLostException(String job, long token) {
+        super("Lease for job " + job + " (token " + token + ") is no longer held");
+    }
+}
@@ -0,0 +1,113 @@
+package com.backend.intellicop.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * AIMD concurrency limit driven by observed latency. A fast-moving average of call
+ * latency is compared with a slow-moving baseline: when the short-term latency exceeds
+ * the baseline by {@code latencyTolerance}, or a call fails with a timeout, the limit
+ * shrinks multiplicatively; while the limit is actually used it grows by one per sample.
+ * Callers over the limit are rejected immediately instead of queueing on the pool.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private static final double SHORT_SMOOTHING = 0.2;
+    private static final double LONG_SMOOTHING = 0.01;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+
+    private volatile double limit;
+    private double shortLatency;
+    private double longLatency;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, double latencyTolerance) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /** Returns false when the current limit is reached; the caller must not proceed. */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    /** Releases a permit taken by {@link #tryAcquire()} and feeds the call outcome into the limit. */
+    public void release(long latencyNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        sampleLock.lock();
+        try {
+            if (longLatency == 0) {
+                shortLatency = longLatency = latencyNanos;
+            } else {
+                shortLatency += SHORT_SMOOTHING * (latencyNanos - shortLatency);
+                longLatency += LONG_SMOOTHING * (latencyNanos - longLatency);
+            }
+
+            double newLimit = limit;
+            if (dropped || shortLatency > longLatency * latencyTolerance) {
+                newLimit = limit * backoffRatio;
+            } else if (inFlightAtCompletion * 2 >= limit) {
+                newLimit = limit + 1;
+            }
+            limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    /** Releases a permit without counting the call as a latency sample. */
+    public void releaseIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("concurrency.inflight", inFlight, AtomicInteger::get)
+                .tag("name", name)
+                .register(registry);
+        FunctionCounter.builder("concurrency.rejected", rejected, LongAdder::sum)
+                .tag("name", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.backend.intellicop.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Semaphore bulkhead in front of a downstream resource. With virtual threads a blocked
+ * caller is cheap, so callers queue here (fairly, up to {@code maxWait}) instead of
+ * piling onto the resource itself.
+ */
+public class Bulkhead implements MeterBinder {
+
+    @FunctionalInterface
+    public interface CheckedSupplier<T, E extends Exception> {
+        T get() throws E;
+    }
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void acquire() {
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new BulkheadFullException(name, maxWait);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            throw new BulkheadFullException(name, maxWait);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public <T, E extends Exception> T execute(CheckedSupplier<T, E> action) throws E {
+        acquire();
+        try {
+            return action.get();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bulkhead.max.concurrent", () -> maxConcurrent)
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("bulkhead.available", permits, Semaphore::availablePermits)
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("bulkhead.waiting", waiting, AtomicInteger::get)
+                .tag("name", name)
+                .register(registry);
+        FunctionCounter.builder("bulkhead.rejected", rejected, LongAdder::sum)
+                .tag("name", name)
+                .register(registry);
+    }
+}
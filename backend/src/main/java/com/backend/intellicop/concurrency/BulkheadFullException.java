@@ -0,0 +1,10 @@
+package com.backend.intellicop.concurrency;
+
+import java.time.Duration;
+
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String name, Duration maxWait) {
+        super("Bulkhead '" + name + "' has no free permit after " + maxWait.toMillis() + " ms");
+    }
+}
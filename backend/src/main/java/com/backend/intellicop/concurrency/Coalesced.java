@@ -0,0 +1,19 @@
+package com.backend.intellicop.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Concurrent identical calls (same method, arguments and station) share one execution
+ * and its result. Only for reads whose result does not depend on the caller and is never
+ * modified by it. {@code timeout} bounds how long a caller waits on a call already in
+ * flight; it may be a placeholder and defaults to {@code intellicop.coalescing.timeout}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+
+    String timeout() default "";
+}
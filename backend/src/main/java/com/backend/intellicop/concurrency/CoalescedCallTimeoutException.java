@@ -0,0 +1,10 @@
+package com.backend.intellicop.concurrency;
+
+import java.time.Duration;
+
+public class CoalescedCallTimeoutException extends RuntimeException {
+
+    public CoalescedCallTimeoutException(String name, Duration timeout) {
+        super("Shared call '" + name + "' did not finish within " + timeout.toMillis() + " ms");
+    }
+}
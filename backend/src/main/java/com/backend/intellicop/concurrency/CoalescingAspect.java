@@ -0,0 +1,77 @@
+package com.backend.intellicop.concurrency;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.backend.intellicop.jdbc.ReplicaRouter;
+import com.backend.intellicop.station.StationContext;
+
+/**
+ * Coalesces {@link Coalesced} service calls through {@link RequestCoalescer}. Ordered
+ * outside the transaction advice, so joining callers never open a transaction or take a
+ * connection. Calls made inside a caller's transaction, or by a client that must read the
+ * primary (its own recent write, a pinned load, a write request), always run on their own.
+ */
+@Aspect
+@Component
+@Order(1)
+public class CoalescingAspect {
+
+    private record Key(Method method, List<Object> args, String station) {
+    }
+
+    private final RequestCoalescer coalescer;
+    private final ObjectProvider<ReplicaRouter> replicaRouter;
+    private final Environment environment;
+    private final Duration defaultTimeout;
+    private final Map<Method, Duration> timeouts = new ConcurrentHashMap<>();
+
+    public CoalescingAspect(RequestCoalescer coalescer, ObjectProvider<ReplicaRouter> replicaRouter,
+                            Environment environment,
+                            @Value("${intellicop.coalescing.timeout:10s}") Duration defaultTimeout) {
+        this.coalescer = coalescer;
+        this.replicaRouter = replicaRouter;
+        this.environment = environment;
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    @Around("@annotation(coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, Coalesced coalesced) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive() || needsPrimary()) {
+            return joinPoint.proceed();
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Key key = new Key(method, Arrays.asList(joinPoint.getArgs()), StationContext.current());
+        Duration timeout = timeouts.computeIfAbsent(method, m -> coalesced.timeout().isEmpty()
+                ? defaultTimeout
+                : DurationStyle.detectAndParse(environment.resolveRequiredPlaceholders(coalesced.timeout())));
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        return coalescer.execute(name, key, timeout, joinPoint::proceed);
+    }
+
+    // A shared call may be served by the replica, which these callers must not read
+    private boolean needsPrimary() {
+        ReplicaRouter router = replicaRouter.getIfAvailable();
+        if (router == null) return false;
+        ReplicaRouter.Route route = router.route();
+        return route == ReplicaRouter.Route.PINNED || route == ReplicaRouter.Route.WRITE_REQUEST
+                || route == ReplicaRouter.Route.READ_YOUR_WRITES;
+    }
+}
@@ -0,0 +1,15 @@
+package com.backend.intellicop.concurrency;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * No connection permit was free in time. A {@link java.sql.SQLException}, as the
+ * DataSource contract requires; the persistence layer wraps it, and the web layer finds
+ * it among the causes and sheds the request with 503.
+ */
+public class DatabaseBusyException extends SQLTransientConnectionException {
+
+    public DatabaseBusyException(BulkheadFullException cause) {
+        super(cause.getMessage(), "08001", cause);
+    }
+}
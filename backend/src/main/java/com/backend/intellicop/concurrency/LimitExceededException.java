@@ -0,0 +1,8 @@
+package com.backend.intellicop.concurrency;
+
+public class LimitExceededException extends RuntimeException {
+
+    public LimitExceededException(String name, int limit) {
+        super("Concurrency limit '" + name + "' reached (" + limit + " in flight)");
+    }
+}
@@ -0,0 +1,50 @@
+package com.backend.intellicop.concurrency;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Puts every domain repository call behind the database concurrency limiter. The
+ * cache_version poll and increment stay outside it: shedding them would not protect
+ * requests, only leave near caches and ETags stale on the other nodes.
+ * Timeouts and connection failures count as drops; other failures (constraint
+ * violations, not-found) say nothing about load and are not sampled.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "intellicop.db-limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryLimiterAspect {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public RepositoryLimiterAspect(@Qualifier("databaseLimiter") AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))"
+            + " && !bean(cacheVersionRepository)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!limiter.tryAcquire()) {
+            throw new LimitExceededException(limiter.getName(), limiter.getLimit());
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            limiter.release(System.nanoTime() - start, false);
+            return result;
+        } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+            limiter.release(System.nanoTime() - start, true);
+            throw e;
+        } catch (Throwable e) {
+            limiter.releaseIgnored();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.backend.intellicop.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.backend.intellicop.service.AggregateChangedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Single-flight: the first caller for a key runs the call on its own thread, callers that
+ * arrive while it is running wait for its outcome (result or exception) instead of
+ * running it again. Nothing is kept once the call finishes; this flattens bursts, it is
+ * not a cache.
+ */
+@Component
+public class RequestCoalescer {
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws Throwable;
+    }
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("coalescing.in.flight", inFlight, ConcurrentHashMap::size)
+                .description("Shared calls currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the call, or joins an identical one already running for up to {@code timeout}.
+     *
+     * @param name metric tag for the call site
+     * @throws CoalescedCallTimeoutException if the joined call outlasts the timeout
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object key, Duration timeout, Call<T> call) throws Throwable {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running == null) {
+            count(name, "executed");
+            try {
+                T result = call.call();
+                flight.complete(result);
+                return result;
+            } catch (Throwable failure) {
+                flight.completeExceptionally(failure);
+                throw failure;
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+
+        count(name, "joined");
+        try {
+            return (T) running.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            count(name, "timed-out");
+            throw new CoalescedCallTimeoutException(name, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CoalescedCallTimeoutException(name, timeout);
+        }
+    }
+
+    // Callers arriving after a local commit must not join a read that started before it
+    @EventListener
+    public void onLocalWrite(AggregateChangedEvent event) {
+        inFlight.clear();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private void count(String name, String outcome) {
+        meterRegistry.counter("coalescing.calls", "method", name, "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,76 @@
+package com.backend.intellicop.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.backend.intellicop.concurrency.AdaptiveConcurrencyLimiter;
+import com.backend.intellicop.concurrency.Bulkhead;
+import com.backend.intellicop.concurrency.BulkheadDataSource;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    // Sized to the Hikari pool so extra virtual threads queue on the semaphore, not in the pool
+    @Bean
+    public Bulkhead databaseBulkhead(
+            @Value("${intellicop.bulkhead.database.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${intellicop.bulkhead.database.max-wait:30s}") Duration maxWait) {
+        return new Bulkhead("database", maxConcurrent, maxWait);
+    }
+
+    @Bean
+    public Bulkhead photoUploadBulkhead(
+            @Value("${intellicop.bulkhead.photo-upload.max-concurrent:8}") int maxConcurrent,
+            @Value("${intellicop.bulkhead.photo-upload.max-wait:10s}") Duration maxWait) {
+        return new Bulkhead("photo-upload", maxConcurrent, maxWait);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter databaseLimiter(
+            @Value("${intellicop.db-limiter.initial-limit:10}") int initialLimit,
+            @Value("${intellicop.db-limiter.min-limit:2}") int minLimit,
+            @Value("${intellicop.db-limiter.max-limit:${spring.datasource.hikari.maximum-pool-size:10}}") int maxLimit,
+            @Value("${intellicop.db-limiter.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${intellicop.db-limiter.latency-tolerance:2.0}") double latencyTolerance) {
+        return new AdaptiveConcurrencyLimiter("database", initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance);
+    }
+
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(
+            @Qualifier("databaseBulkhead") ObjectProvider<Bulkhead> databaseBulkhead) {
+        return new BulkheadPostProcessor(databaseBulkhead);
+    }
+
+    // Outside replica routing, inside station routing: other stations' pools have their own permits
+    static class BulkheadPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<Bulkhead> databaseBulkhead;
+
+        BulkheadPostProcessor(ObjectProvider<Bulkhead> databaseBulkhead) {
+            this.databaseBulkhead = databaseBulkhead;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                    && !(bean instanceof BulkheadDataSource)) {
+                return new BulkheadDataSource(dataSource, databaseBulkhead.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 2;
+        }
+    }
+}
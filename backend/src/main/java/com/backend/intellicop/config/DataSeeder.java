@@ -10,17 +10,20 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.backend.intellicop.Repository.UserRepository;
 import com.backend.intellicop.entity.User;
+import com.backend.intellicop.logging.EventLog;
 
 @Configuration
 public class DataSeeder {
 
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final EventLog eventLog;
 
     // Constructor injection
-    public DataSeeder(PasswordEncoder passwordEncoder, UserRepository userRepository) {
+    public DataSeeder(PasswordEncoder passwordEncoder, UserRepository userRepository, EventLog eventLog) {
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
+        this.eventLog = eventLog;
     }
 
     @Bean
@@ -88,19 +91,11 @@ public class DataSeeder {
                     userRepository.save(officer);
                 }
 
-                System.out.println("✅ Default users created successfully!");
-                System.out.println("   - 10 ADMIN users (admin, admin2, ..., admin10)");
-                System.out.println("   - 104 OFFICER users with various roles");
-                System.out.println("   - Default credentials:");
-                System.out.println("     • admin / admin123");
-                System.out.println("     • patrol01 / patrol123");
-                System.out.println("     • desk01 / desk123");
-                System.out.println("     • field01 / field123");
-                System.out.println("     • inv01 / inv123");
-                
+                // Seeded credentials are deliberately not logged
+                eventLog.event("seed.users.created", "users", userRepository.count());
             } else {
                 long userCount = userRepository.count();
-                System.out.println("ℹ️ Database already contains " + userCount + " users. Skipping seeding.");
+                eventLog.event("seed.users.skipped", "existingUsers", userCount);
             }
         };
     }
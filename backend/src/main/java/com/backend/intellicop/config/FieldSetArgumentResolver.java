@@ -0,0 +1,28 @@
+package com.backend.intellicop.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.backend.intellicop.dto.FieldSet;
+import com.backend.intellicop.dto.Fields;
+
+/** Resolves {@link Fields} parameters from the {@code fields} query parameter. */
+public class FieldSetArgumentResolver implements HandlerMethodArgumentResolver {
+
+    public static final String PARAMETER = "fields";
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(Fields.class) && parameter.getParameterType() == FieldSet.class;
+    }
+
+    @Override
+    public FieldSet resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                    NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Fields fields = parameter.getParameterAnnotation(Fields.class);
+        return FieldSet.parse(webRequest.getParameter(PARAMETER), fields.value().selectable());
+    }
+}
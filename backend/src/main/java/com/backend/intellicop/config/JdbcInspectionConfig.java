@@ -0,0 +1,55 @@
+package com.backend.intellicop.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import com.backend.intellicop.jdbc.QueryInspectingDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class JdbcInspectionConfig {
+
+    @Bean
+    public static BeanPostProcessor queryInspectingPostProcessor(Environment environment,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        Duration slowThreshold = DurationStyle.detectAndParse(
+                environment.getProperty("intellicop.jdbc.slow-query-threshold", "200ms"));
+        return new InspectingPostProcessor(slowThreshold, meterRegistry);
+    }
+
+    // Runs before the bulkhead wrapper so statement timings sit right on top of the pool
+    static class InspectingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Duration slowThreshold;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        InspectingPostProcessor(Duration slowThreshold, ObjectProvider<MeterRegistry> meterRegistry) {
+            this.slowThreshold = slowThreshold;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                    && !(bean instanceof QueryInspectingDataSource)) {
+                return new QueryInspectingDataSource(dataSource, slowThreshold, meterRegistry.getIfAvailable());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
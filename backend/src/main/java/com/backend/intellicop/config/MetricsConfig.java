@@ -0,0 +1,29 @@
+package com.backend.intellicop.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+
+@Configuration
+public class MetricsConfig {
+
+    // Enables @Timed on service classes
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Guard against tag explosions if a meter ever gets an unbounded tag value
+    @Bean
+    public MeterFilter serviceMethodCardinalityLimit() {
+        return MeterFilter.maximumAllowableTags("intellicop.service", "method", 200, MeterFilter.deny());
+    }
+
+    @Bean
+    public MeterFilter repositoryMethodCardinalityLimit() {
+        return MeterFilter.maximumAllowableTags("spring.data.repository.invocations", "method", 200, MeterFilter.deny());
+    }
+}
@@ -0,0 +1,89 @@
+package com.backend.intellicop.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.backend.intellicop.jdbc.QueryInspectingDataSource;
+import com.backend.intellicop.jdbc.ReplicaRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read replica routing, only active when {@code intellicop.replica.url} is set. The replica
+ * pool is not a DataSource bean (that would switch off Boot's primary pool); it lives
+ * inside {@link ReplicaRouter}.
+ */
+@Configuration
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConditionalOnProperty("intellicop.replica.url")
+    public ReplicaRouter replicaRouter(
+            @Value("${intellicop.replica.url}") String url,
+            @Value("${intellicop.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${intellicop.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${intellicop.replica.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int maxPoolSize,
+            @Value("${intellicop.replica.connection-timeout:1s}") Duration connectionTimeout,
+            @Value("${intellicop.replica.max-lag:2s}") Duration maxLag,
+            @Value("${intellicop.replica.read-your-writes-window:5s}") Duration readYourWritesWindow,
+            @Value("${intellicop.jdbc.slow-query-threshold:200ms}") Duration slowQueryThreshold,
+            MeterRegistry meterRegistry) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("replica");
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setMaximumPoolSize(maxPoolSize);
+        pool.setReadOnly(true);
+        // Short so a dead replica costs a read one second, not the primary's 30s timeout
+        pool.setConnectionTimeout(connectionTimeout.toMillis());
+        // Start even when the replica is down; reads use the primary until the probe finds it
+        pool.setInitializationFailTimeout(-1);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        DataSource replica = new QueryInspectingDataSource(pool, slowQueryThreshold, meterRegistry);
+        return new ReplicaRouter(replica, maxLag, readYourWritesWindow, meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor replicaRoutingPostProcessor(ObjectProvider<ReplicaRouter> replicaRouter) {
+        return new RoutingPostProcessor(replicaRouter);
+    }
+
+    // Runs after query inspection (both pools are timed the same way) and before the bulkhead
+    static class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReplicaRouter> replicaRouter;
+
+        RoutingPostProcessor(ObjectProvider<ReplicaRouter> replicaRouter) {
+            this.replicaRouter = replicaRouter;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                    && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                ReplicaRouter router = replicaRouter.getIfAvailable();
+                if (router != null) return router.wrap(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 1;
+        }
+    }
+}
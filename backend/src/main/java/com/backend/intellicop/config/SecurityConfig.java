@@ -38,13 +38,18 @@ public class SecurityConfig {
         "/api/users/total",
         "/api/users/add",
         "/api/health/database",
+        // Only bundles reads that are already public above and below (/api/users/**,
+        // /api/visitors/**, /api/criminals/**, /api/health/database), for the dashboard
+        // pages that called those without a token; no section may serve anything else
+        "/api/dashboard/**",
         "/api/criminals/**",      // <-- Added for public access
         "/api/users",             // Allow access to users endpoint
         "/api/users/**",          // Allow access to specific user endpoints
         "/auth/debug/**",         // Allow debug endpoints
         "/auth/create-test-user",  // Allow test user creation
         "/api/visitors/**",         // Allow access to visitor meetings
-        "/api/visitors/**"
+        "/api/visitors/**",
+        "/actuator/health"          // Liveness checks
     };
 
     @Bean
@@ -65,6 +70,8 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.PUT, "/api/visitors/**").permitAll()
                 .requestMatchers(HttpMethod.DELETE, "/api/visitors/**").permitAll()
                 .requestMatchers("/api/criminals/**").permitAll()
+                // Metrics name routes, stations and row counts: scrapers sign in with basic auth as an admin
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .httpBasic(withDefaults());
@@ -82,6 +89,7 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("ETag", "Last-Modified", "X-Audit-Node"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
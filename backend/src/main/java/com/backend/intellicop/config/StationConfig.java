@@ -0,0 +1,102 @@
+package com.backend.intellicop.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import com.backend.intellicop.concurrency.Bulkhead;
+import com.backend.intellicop.concurrency.BulkheadDataSource;
+import com.backend.intellicop.jdbc.QueryInspectingDataSource;
+import com.backend.intellicop.station.StationRoutingDataSource;
+import com.backend.intellicop.station.Stations;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Station partitioning: rows carry the station that wrote them, and other stations'
+ * databases listed under {@code intellicop.station.shards.<station>.*} can be read per
+ * request or scatter-gathered. Without shards the data source is left as it is.
+ */
+@Configuration
+public class StationConfig {
+
+    record ShardProperties(String url, String username, String password, Integer maximumPoolSize) {
+    }
+
+    @Bean
+    public Stations stations(Environment environment,
+                             @Value("${intellicop.station.id:main}") String home,
+                             @Value("${intellicop.station.connection-timeout:2s}") Duration connectionTimeout,
+                             @Value("${intellicop.jdbc.slow-query-threshold:200ms}") Duration slowQueryThreshold,
+                             MeterRegistry meterRegistry) {
+        Map<String, ShardProperties> shards = Binder.get(environment)
+                .bind("intellicop.station.shards", Bindable.mapOf(String.class, ShardProperties.class))
+                .orElse(Map.of());
+
+        Map<String, DataSource> remotes = new LinkedHashMap<>();
+        shards.forEach((station, shard) -> {
+            int poolSize = shard.maximumPoolSize() != null ? shard.maximumPoolSize() : 5;
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("station-" + station);
+            pool.setJdbcUrl(shard.url());
+            pool.setUsername(shard.username());
+            pool.setPassword(shard.password());
+            pool.setMaximumPoolSize(poolSize);
+            // Other stations are only read from here
+            pool.setReadOnly(true);
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            // Its own permits: a slow station must not use up the home database's
+            Bulkhead bulkhead = new Bulkhead("station-" + station, poolSize, connectionTimeout);
+            bulkhead.bindTo(meterRegistry);
+            remotes.put(station, new BulkheadDataSource(
+                    new QueryInspectingDataSource(pool, slowQueryThreshold, meterRegistry), bulkhead));
+        });
+        return new Stations(home, remotes);
+    }
+
+    @Bean
+    public static BeanPostProcessor stationRoutingPostProcessor(ObjectProvider<Stations> stations) {
+        return new RoutingPostProcessor(stations);
+    }
+
+    // Outside replica routing and the database bulkhead, which both only apply to the home station
+    static class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<Stations> stations;
+
+        RoutingPostProcessor(ObjectProvider<Stations> stations) {
+            this.stations = stations;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                    && !(bean instanceof StationRoutingDataSource)) {
+                Stations configured = stations.getObject();
+                if (configured.hasRemotes()) return configured.wrap(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 3;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.backend.intellicop.config.security.exceptions;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.backend.intellicop.concurrency.BulkheadFullException;
+import com.backend.intellicop.concurrency.CoalescedCallTimeoutException;
+import com.backend.intellicop.concurrency.DatabaseBusyException;
+import com.backend.intellicop.concurrency.LimitExceededException;
+import com.backend.intellicop.station.HomeStationOnlyException;
+import com.backend.intellicop.station.StationUnavailableException;
+
+@ControllerAdvice
+public class ConcurrencyExceptionAdvice {
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<String> handleBulkheadFull(BulkheadFullException exc) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Service is busy, please retry shortly");
+    }
+
+    // Arrives wrapped by JDBC/JPA (e.g. CannotCreateTransactionException); handlers also match causes
+    @ExceptionHandler(DatabaseBusyException.class)
+    public ResponseEntity<String> handleDatabaseBusy(DatabaseBusyException exc) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Database is busy, please retry shortly");
+    }
+
+    @ExceptionHandler(LimitExceededException.class)
+    public ResponseEntity<String> handleLimitExceeded(LimitExceededException exc) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Database is overloaded, please retry shortly");
+    }
+
+    @ExceptionHandler(CoalescedCallTimeoutException.class)
+    public ResponseEntity<String> handleCoalescedTimeout(CoalescedCallTimeoutException exc) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Service is busy, please retry shortly");
+    }
+
+    @ExceptionHandler(StationUnavailableException.class)
+    public ResponseEntity<String> handleStationUnavailable(StationUnavailableException exc) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body("Station " + exc.getStation() + " is unreachable, please retry shortly");
+    }
+
+    @ExceptionHandler(HomeStationOnlyException.class)
+    public ResponseEntity<String> handleHomeStationOnly(HomeStationOnlyException exc) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(exc.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleStaleWrite(OptimisticLockingFailureException exc) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body("Record was modified by someone else, reload and try again");
+    }
+}
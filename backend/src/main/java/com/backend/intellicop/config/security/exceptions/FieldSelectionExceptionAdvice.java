@@ -0,0 +1,19 @@
+package com.backend.intellicop.config.security.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.backend.intellicop.dto.FieldSet;
+
+@ControllerAdvice
+public class FieldSelectionExceptionAdvice {
+
+    @ExceptionHandler(FieldSet.InvalidFieldsException.class)
+    public ResponseEntity<String> handleInvalidFields(FieldSet.InvalidFieldsException exc) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(exc.getMessage());
+    }
+}
@@ -0,0 +1,19 @@
+package com.backend.intellicop.config.security.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.backend.intellicop.service.CriminalNotFoundException;
+
+@ControllerAdvice
+public class NotFoundExceptionAdvice {
+
+    @ExceptionHandler(CriminalNotFoundException.class)
+    public ResponseEntity<String> handleCriminalNotFound(CriminalNotFoundException exc) {
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(exc.getMessage());
+    }
+}
@@ -0,0 +1,49 @@
+package com.backend.intellicop.controller;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.backend.intellicop.audit.AuditEvent;
+import com.backend.intellicop.audit.AuditLog;
+import com.backend.intellicop.station.StationContext;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "http://localhost:5173")
+@RequiredArgsConstructor
+public class AuditController {
+
+    public static final String NODE_HEADER = "X-Audit-Node";
+    private static final int MAX_LIMIT = 1000;
+
+    private final AuditLog auditLog;
+
+    // e.g. ?entity=criminal&entityId=12, ?actor=admin&from=2025-01-01T00:00:00Z
+    // Covers only the node that answers (named in X-Audit-Node): each node keeps its own log
+    @GetMapping
+    public ResponseEntity<List<AuditEvent>> query(
+            @RequestParam(required = false) String entity,
+            @RequestParam(required = false) String entityId,
+            @RequestParam(required = false) String actor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "100") int limit) {
+        StationContext.requireHome("The audit trail");
+        if (limit < 1 || limit > MAX_LIMIT || (entityId != null && entity == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .header(NODE_HEADER, auditLog.node())
+                .body(auditLog.query(entity, entityId, actor, from, to, limit));
+    }
+}
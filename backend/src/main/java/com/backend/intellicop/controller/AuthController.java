@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.backend.intellicop.Repository.UserRepository;
 import com.backend.intellicop.entity.User;
+import com.backend.intellicop.logging.EventLog;
 
 @RestController
 @RequestMapping("/auth")
@@ -23,6 +24,9 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EventLog eventLog;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     @PostMapping("/login")
@@ -32,20 +36,16 @@ public class AuthController {
 
         Map<String, Object> response = new HashMap<>();
 
-        System.out.println("Login attempt -> Username: " + username + ", Password: " + password);
-
         Optional<User> optionalUser = userRepository.findByUsername(username);
 
         if (optionalUser.isEmpty()) {
-            System.out.println("❌ Username not found in DB");
+            eventLog.event("auth.login", "username", username, "outcome", "unknown_user");
             response.put("success", false);
             response.put("message", "Invalid username or password");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
         }
 
         User user = optionalUser.get();
-        System.out.println("DB stored password: " + user.getPassword());
-
         boolean passwordMatches;
         // If stored password is BCrypt hash
         if (user.getPassword().startsWith("$2a$")) {
@@ -56,13 +56,13 @@ public class AuthController {
         }
 
         if (!passwordMatches) {
-            System.out.println("❌ Password does not match");
+            eventLog.event("auth.login", "username", username, "outcome", "bad_password");
             response.put("success", false);
             response.put("message", "Invalid username or password");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
         }
 
-        System.out.println("✅ Login successful for user: " + username);
+        eventLog.event("auth.login", "username", username, "outcome", "success", "role", user.getRole());
 
         response.put("success", true);
         response.put("role", user.getRole()); // Assuming role is a String
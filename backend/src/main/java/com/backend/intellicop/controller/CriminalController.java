@@ -1,22 +1,44 @@
 package com.backend.intellicop.controller;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.backend.intellicop.dedup.DuplicateDetectionService;
+import com.backend.intellicop.dedup.DuplicateMatch;
+import com.backend.intellicop.dto.CriminalFacets;
+import com.backend.intellicop.dto.CriminalFilter;
+import com.backend.intellicop.dto.CriminalSearchResult;
+import com.backend.intellicop.dto.FieldSet;
+import com.backend.intellicop.dto.Fields;
+import com.backend.intellicop.dto.StationPage;
 import com.backend.intellicop.entity.Criminal;
+import com.backend.intellicop.entity.MergeCandidate;
+import com.backend.intellicop.photo.PhotoSimilarityService;
 import com.backend.intellicop.service.CriminalService;
+import com.backend.intellicop.service.ResourceVersionService;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
+import com.backend.intellicop.station.StationContext;
 
 import lombok.RequiredArgsConstructor;
 
@@ -27,10 +49,112 @@ import lombok.RequiredArgsConstructor;
 public class CriminalController {
 
     private final CriminalService criminalService;
+    private final ResourceVersionService resourceVersions;
+    private final PhotoSimilarityService photoSimilarity;
+    private final DuplicateDetectionService duplicateDetection;
 
+    // ?fields=name,status narrows the SELECT and the body to those fields (id is always included)
     @GetMapping
-    public ResponseEntity<List<Criminal>> getAllCriminals() {
-        return ResponseEntity.ok(criminalService.getAll());
+    public ResponseEntity<?> getAllCriminals(@Fields(FieldSet.Resource.CRIMINAL) FieldSet selected,
+                                             @RequestHeader HttpHeaders headers) {
+        if (selected == null) {
+            return resourceVersions.conditionalGet(Aggregate.CRIMINAL, headers, criminalService::getAll);
+        }
+        return resourceVersions.conditionalGet(Aggregate.CRIMINAL, "fields-" + selected.etagVariant(), headers,
+                () -> ResponseEntity.ok(criminalService.getAll(selected)));
+    }
+
+    // Multi-criteria filter with facet counts, e.g. ?threat=High,Medium&status=Wanted&minAge=20
+    @GetMapping("/search")
+    public ResponseEntity<CriminalSearchResult> searchCriminals(
+            @ModelAttribute CriminalFilter filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "25") int size,
+            @RequestHeader HttpHeaders headers) {
+        String variant = "search-" + filter.etagVariant() + "-" + page + "-" + size;
+        try {
+            return resourceVersions.conditionalGet(Aggregate.CRIMINAL, variant, headers,
+                    () -> ResponseEntity.ok(criminalService.search(filter, page, size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // All stations merged in id order; pass the returned "next" as ?cursor= for the following page
+    @GetMapping("/all-stations")
+    public ResponseEntity<StationPage<Criminal>> getAllStations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "25") int size) {
+        try {
+            return ResponseEntity.ok(criminalService.getAllStations(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<CriminalFacets> getFacets(@ModelAttribute CriminalFilter filter,
+                                                    @RequestHeader HttpHeaders headers) {
+        String variant = "facets-" + filter.etagVariant();
+        return resourceVersions.conditionalGet(Aggregate.CRIMINAL, variant, headers,
+                () -> ResponseEntity.ok(criminalService.facets(filter)));
+    }
+
+    // Nearest criminals by photo, for when officers have a picture but no name
+    @PostMapping("/similar")
+    public ResponseEntity<?> findSimilar(
+            @RequestPart("photo") MultipartFile photo,
+            @RequestParam(defaultValue = "10") int maxDistance,
+            @RequestParam(defaultValue = "10") int limit) throws IOException {
+        StationContext.requireHome("Photo search");
+        try {
+            return ResponseEntity.ok(photoSimilarity.findSimilar(photo.getBytes(), maxDistance, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Hash photos stored before fingerprinting existed; runs in the background
+    @PostMapping("/photo-index/backfill")
+    public ResponseEntity<Void> backfillPhotoIndex() {
+        return photoSimilarity.startBackfill()
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    // Existing records that look like the given one; lets the form warn before saving
+    @PostMapping("/duplicates/check")
+    public ResponseEntity<List<DuplicateMatch>> checkDuplicates(@RequestBody Criminal criminal) {
+        return ResponseEntity.ok(duplicateDetection.findDuplicates(criminal));
+    }
+
+    @GetMapping("/duplicates")
+    public ResponseEntity<List<MergeCandidate>> getMergeCandidates() {
+        return ResponseEntity.ok(duplicateDetection.getCandidates());
+    }
+
+    // Full-table duplicate scan; runs in the background
+    @PostMapping("/duplicates/scan")
+    public ResponseEntity<Void> scanDuplicates() {
+        return duplicateDetection.startScan()
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getCriminal(@PathVariable Long id,
+                                         @Fields(FieldSet.Resource.CRIMINAL) FieldSet selected,
+                                         @RequestHeader HttpHeaders headers) {
+        if (selected == null) {
+            return resourceVersions.conditionalGet(Aggregate.CRIMINAL, "id" + id, headers,
+                    () -> criminalService.getById(id)
+                            .map(ResponseEntity::ok)
+                            .orElseGet(() -> ResponseEntity.notFound().build()));
+        }
+        return resourceVersions.conditionalGet(Aggregate.CRIMINAL, "id" + id + "-fields-" + selected.etagVariant(), headers,
+                () -> criminalService.getById(id, selected)
+                        .map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.notFound().build()));
     }
 
     // Add criminal with optional photo
@@ -47,8 +171,22 @@ public class CriminalController {
             @PathVariable Long id,
             @RequestPart("criminal") Criminal criminal,
             @RequestPart(value = "photoFile", required = false) MultipartFile photo) throws IOException {
-        criminal.setId(id);
-        return ResponseEntity.ok(criminalService.addCriminal(criminal, photo));
+        return ResponseEntity.ok(criminalService.updateCriminal(id, criminal, photo));
+    }
+
+    // Partial edit: body holds the changed fields plus the version the client last saw
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchCriminal(@PathVariable Long id, @RequestBody Map<String, Object> changes) {
+        Map<String, Object> fields = new HashMap<>(changes);
+        if (!(fields.remove("version") instanceof Number version)) {
+            return ResponseEntity.badRequest().body("Field 'version' is required");
+        }
+        // A stale version (409) and a missing record (404) are answered by the exception advice
+        try {
+            return ResponseEntity.ok(criminalService.patchCriminal(id, version.longValue(), fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -56,4 +194,5 @@ public class CriminalController {
         criminalService.deleteCriminal(id);
         return ResponseEntity.noContent().build();
     }
+
 }
@@ -0,0 +1,32 @@
+package com.backend.intellicop.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.backend.intellicop.dashboard.DashboardService;
+import com.backend.intellicop.dto.Dashboard;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "http://localhost:5173")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    // One round trip per dashboard; sections that time out or fail are listed under "unavailable"
+    @GetMapping("/{role}")
+    public ResponseEntity<Dashboard> getDashboard(@PathVariable String role) {
+        try {
+            return ResponseEntity.ok(dashboardService.load(role));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
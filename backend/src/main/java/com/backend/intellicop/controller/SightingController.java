@@ -0,0 +1,142 @@
+package com.backend.intellicop.controller;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.backend.intellicop.entity.Sighting;
+import com.backend.intellicop.sighting.SightingHit;
+import com.backend.intellicop.sighting.SightingIngestor;
+import com.backend.intellicop.sighting.SightingService;
+import com.backend.intellicop.station.StationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/sightings")
+@CrossOrigin(origins = "http://localhost:5173")
+@RequiredArgsConstructor
+public class SightingController {
+
+    private final SightingService sightingService;
+    private final SightingIngestor sightingIngestor;
+    private final ObjectMapper objectMapper;
+
+    @Value("${intellicop.sightings.ingest.ack-timeout:10s}")
+    private Duration ackTimeout;
+
+    @PostMapping
+    public ResponseEntity<Sighting> recordSighting(@RequestBody Sighting sighting) {
+        return ResponseEntity.ok(sightingService.record(sighting));
+    }
+
+    // Bulk intake for field units and cameras: one event or an array; answers once the batch is durable
+    @PostMapping("/ingest")
+    public ResponseEntity<IngestResult> ingest(@RequestBody JsonNode body) {
+        List<Sighting> sightings = new ArrayList<>();
+        if (body.isArray()) {
+            for (JsonNode item : body) sightings.add(objectMapper.convertValue(item, Sighting.class));
+        } else {
+            sightings.add(objectMapper.convertValue(body, Sighting.class));
+        }
+        // Validate the whole batch first so a bad event cannot leave half of it queued
+        sightings.forEach(SightingService::validate);
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        List<Integer> rejected = new ArrayList<>();
+        for (int i = 0; i < sightings.size(); i++) {
+            CompletableFuture<Void> durable = sightingIngestor.offer(sightings.get(i));
+            if (durable == null) rejected.add(i);
+            else pending.add(durable);
+        }
+
+        boolean durable;
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            durable = true;
+        } catch (TimeoutException e) {
+            durable = false;
+        } catch (ExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new IngestResult(pending.size(), rejected, false));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            durable = false;
+        }
+
+        IngestResult result = new IngestResult(pending.size(), rejected, durable);
+        if (!rejected.isEmpty()) {
+            // Buffer full: the client retries the rejected indexes after backing off
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(result);
+        }
+        return durable ? ResponseEntity.ok(result) : ResponseEntity.accepted().body(result);
+    }
+
+    public record IngestResult(int accepted, List<Integer> rejected, boolean durable) {
+    }
+
+    // Who was seen near a point, e.g. ?lat=19.07&lon=72.87&radius=2000&hours=48
+    @GetMapping("/near")
+    public List<SightingHit> near(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "1000") double radius,
+            @RequestParam(defaultValue = "48") long hours,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant until,
+            @RequestParam(defaultValue = "100") int limit) {
+        StationContext.requireHome("Sighting search");
+        Instant to = until != null ? until : Instant.now();
+        Instant from = since != null ? since : to.minus(Duration.ofHours(hours));
+        return sightingService.near(lat, lon, radius, from, to, limit);
+    }
+
+    @GetMapping("/box")
+    public List<SightingHit> inBox(
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon,
+            @RequestParam(defaultValue = "48") long hours,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant until,
+            @RequestParam(defaultValue = "100") int limit) {
+        StationContext.requireHome("Sighting search");
+        Instant to = until != null ? until : Instant.now();
+        Instant from = since != null ? since : to.minus(Duration.ofHours(hours));
+        return sightingService.inBox(minLat, minLon, maxLat, maxLon, from, to, limit);
+    }
+
+    @GetMapping("/criminal/{criminalId}")
+    public List<Sighting> history(@PathVariable Long criminalId, @RequestParam(defaultValue = "50") int limit) {
+        return sightingService.history(criminalId, limit);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -2,11 +2,11 @@ package com.backend.intellicop.controller;
 
 import java.io.IOException;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -21,11 +22,18 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.backend.intellicop.Repository.UserRepository;
 import com.backend.intellicop.dto.CreateUserRequest;
+import com.backend.intellicop.dto.FieldSet;
+import com.backend.intellicop.dto.Fields;
 import com.backend.intellicop.entity.User;
+import com.backend.intellicop.service.ResourceVersionService;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
 import com.backend.intellicop.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -41,26 +49,53 @@ public class Usercontroller {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
     @Operation(summary = "Get all users", description = "Returns a list of all users in the system")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved all users")
+    @ApiResponse(responseCode = "400", description = "Unknown field in fields")
     @GetMapping("")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<?> getAllUsers(
+            @Parameter(name = "fields", in = ParameterIn.QUERY, schema = @Schema(type = "string"),
+                    description = "Comma-separated fields to return, e.g. username,role (id is always included)")
+            @Fields(FieldSet.Resource.USER) FieldSet selected,
+            @RequestHeader HttpHeaders headers) {
+        if (selected == null) {
+            return resourceVersions.conditionalGet(Aggregate.USER, headers, userService::getAllUsers);
+        }
+        return resourceVersions.conditionalGet(Aggregate.USER, "fields-" + selected.etagVariant(), headers,
+                () -> ResponseEntity.ok(userService.getAllUsers(selected)));
     }
 
     @Operation(summary = "Get user by ID", description = "Returns a specific user by their ID")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved user")
     @ApiResponse(responseCode = "404", description = "User not found")
+    @ApiResponse(responseCode = "400", description = "Unknown field in fields")
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable Long id) {
-    Optional<User> optionalUser = userRepository.findById(id);
-    
-        if (optionalUser.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body("User not found with ID: " + id);
+    public ResponseEntity<?> getUserById(
+            @PathVariable Long id,
+            @Parameter(name = "fields", in = ParameterIn.QUERY, schema = @Schema(type = "string"),
+                    description = "Comma-separated fields to return, e.g. username,role (id is always included)")
+            @Fields(FieldSet.Resource.USER) FieldSet selected,
+            @RequestHeader HttpHeaders headers) {
+        if (selected != null) {
+            return resourceVersions.conditionalGet(Aggregate.USER, "id" + id + "-fields-" + selected.etagVariant(), headers,
+                    () -> userService.getUserById(id, selected)
+                            .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                    .body("User not found with ID: " + id)));
         }
-    
-        return ResponseEntity.ok(optionalUser.get());
+        return resourceVersions.conditionalGet(Aggregate.USER, "id" + id, headers, () -> {
+            Optional<User> optionalUser = userService.getUserById(id);
+
+            if (optionalUser.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("User not found with ID: " + id);
+            }
+
+            return ResponseEntity.ok(optionalUser.get());
+        });
     }
 
 
@@ -68,8 +103,9 @@ public class Usercontroller {
             description = "Returns the total number of users and how many users exist for each role")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved user counts")
     @GetMapping("/total")
-    public ResponseEntity<Map<String, Object>> getUserCounts() {
-        return ResponseEntity.ok(userService.getUserCounts());
+    public ResponseEntity<Map<String, Object>> getUserCounts(@RequestHeader HttpHeaders headers) {
+        return resourceVersions.conditionalGet(Aggregate.USER, "total", headers,
+                () -> ResponseEntity.ok(userService.getUserCounts()));
     }
 
     @Operation(summary = "Update user role", description = "Updates the role of a specific user")
@@ -167,4 +203,5 @@ public class Usercontroller {
                     .body("Error processing photo: " + e.getMessage());
         }
     }
+
 }
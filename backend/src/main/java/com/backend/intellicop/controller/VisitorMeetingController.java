@@ -4,6 +4,9 @@ import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,13 +15,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.backend.intellicop.dto.FieldSet;
+import com.backend.intellicop.dto.Fields;
+import com.backend.intellicop.dto.StationPage;
 import com.backend.intellicop.entity.CompletedVisitor;
 import com.backend.intellicop.entity.VisitorMeeting;
+import com.backend.intellicop.screening.ScreeningReport;
+import com.backend.intellicop.screening.VisitorScreeningService;
+import com.backend.intellicop.service.ResourceVersionService;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
 import com.backend.intellicop.service.VisitorMeetingService;
+import com.backend.intellicop.service.VisitorMeetingService.TransitionResult;
+import com.backend.intellicop.station.StationContext;
 
 @RestController
 @RequestMapping("/api/visitors")
@@ -28,24 +41,75 @@ public class VisitorMeetingController {
     @Autowired
     private VisitorMeetingService visitorMeetingService;
 
-    /** ✅ Get all visitors */
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
+    @Autowired
+    private VisitorScreeningService screeningService;
+
+    /** ✅ Get all visitors; ?fields=visitorName,scheduledDate narrows the lists to those fields (plus id) */
     @GetMapping
-    public List<VisitorMeeting> getAllVisitors() {
-        return visitorMeetingService.getAllVisitors();
+    public ResponseEntity<?> getAllVisitors(@Fields(FieldSet.Resource.VISITOR) FieldSet selected,
+                                            @RequestHeader HttpHeaders headers) {
+        if (selected == null) {
+            return resourceVersions.conditionalGet(Aggregate.VISITOR, headers, visitorMeetingService::getAllVisitors);
+        }
+        return resourceVersions.conditionalGet(Aggregate.VISITOR, "fields-" + selected.etagVariant(), headers,
+                () -> ResponseEntity.ok(visitorMeetingService.getAllVisitors(selected)));
+    }
+
+    /** ✅ Get every station's visitors, merged in id order; "next" is the cursor of the following page */
+    @GetMapping("/all-stations")
+    public ResponseEntity<StationPage<VisitorMeeting>> getAllStationsVisitors(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "25") int size) {
+        try {
+            return ResponseEntity.ok(visitorMeetingService.getAllStationsVisitors(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /** ✅ Get today’s visitors */
     @GetMapping("/today")
-    public List<VisitorMeeting> getTodayVisitors() {
+    public ResponseEntity<?> getTodayVisitors(@Fields(FieldSet.Resource.VISITOR) FieldSet selected,
+                                              @RequestHeader HttpHeaders headers) {
         LocalDate today = LocalDate.now();
-        return visitorMeetingService.getVisitorsByDate(today);
+        // The date is part of the ETag: "today" changes at midnight even without writes
+        if (selected == null) {
+            return resourceVersions.conditionalGet(Aggregate.VISITOR, "today-" + today, headers,
+                    () -> ResponseEntity.ok(visitorMeetingService.getVisitorsByDate(today)));
+        }
+        return resourceVersions.conditionalGet(Aggregate.VISITOR, "today-" + today + "-fields-" + selected.etagVariant(),
+                headers, () -> ResponseEntity.ok(visitorMeetingService.getVisitorsByDate(today, selected)));
     }
 
     /** ✅ Get upcoming visitors */
     @GetMapping("/upcoming")
-    public List<VisitorMeeting> getUpcomingVisitors() {
+    public ResponseEntity<?> getUpcomingVisitors(@Fields(FieldSet.Resource.VISITOR) FieldSet selected,
+                                                 @RequestHeader HttpHeaders headers) {
         LocalDate today = LocalDate.now();
-        return visitorMeetingService.getUpcomingVisitors(today);
+        if (selected == null) {
+            return resourceVersions.conditionalGet(Aggregate.VISITOR, "upcoming-" + today, headers,
+                    () -> ResponseEntity.ok(visitorMeetingService.getUpcomingVisitors(today)));
+        }
+        return resourceVersions.conditionalGet(Aggregate.VISITOR, "upcoming-" + today + "-fields-" + selected.etagVariant(),
+                headers, () -> ResponseEntity.ok(visitorMeetingService.getUpcomingVisitors(today, selected)));
+    }
+
+    /** ✅ Screen a day's roster against wanted / high-threat criminals (defaults to today) */
+    @PostMapping("/screening")
+    public ScreeningReport screenRoster(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return screeningService.screenRoster(date != null ? date : screeningService.today());
+    }
+
+    /** ✅ Meetings flagged by screening for a day (defaults to today) */
+    @GetMapping("/screening/hits")
+    public List<VisitorMeeting> getScreeningHits(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        StationContext.requireHome("Visitor screening");
+        return screeningService.getFlagged(date != null ? date : screeningService.today());
     }
 
     /** ✅ Schedule new visitor */
@@ -70,26 +134,39 @@ public class VisitorMeetingController {
     /** ✅ Update visitor status (Completed / Cancelled) */
     @PutMapping("/{id}/status")
     public ResponseEntity<Void> updateStatus(@PathVariable Long id, @RequestParam String status) {
-        visitorMeetingService.updateStatus(id, status);
-        return ResponseEntity.ok().build();
+        try {
+            return toResponse(visitorMeetingService.updateStatus(id, status));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /** ✅ Get all completed visitors (from new table) */
     @GetMapping("/completed")
-    public List<CompletedVisitor> getAllCompletedVisitors() {
-        return visitorMeetingService.getAllCompletedVisitors();
+    public ResponseEntity<List<CompletedVisitor>> getAllCompletedVisitors(@RequestHeader HttpHeaders headers) {
+        return resourceVersions.conditionalGet(Aggregate.VISITOR, "completed", headers,
+                () -> ResponseEntity.ok(visitorMeetingService.getAllCompletedVisitors()));
     }
 
     /** ✅ Mark visitor as completed and move to completed table */
     @PutMapping("/{id}/complete")
     public ResponseEntity<Void> markVisitorCompleted(@PathVariable Long id) {
-        visitorMeetingService.updateStatus(id, "Completed");
-        return ResponseEntity.ok().build();
+        return toResponse(visitorMeetingService.updateStatus(id, "Completed"));
+    }
+
+    // Repeating a transition that already happened is fine; an illegal one is a conflict
+    private ResponseEntity<Void> toResponse(TransitionResult result) {
+        return switch (result) {
+            case APPLIED, UNCHANGED -> ResponseEntity.ok().build();
+            case REJECTED -> ResponseEntity.status(HttpStatus.CONFLICT).build();
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+        };
     }
 
     @GetMapping("/visitors/completed")
-    public List<CompletedVisitor> getCompletedVisitors() {
-        return visitorMeetingService.getAllCompletedVisitors();
+    public ResponseEntity<List<CompletedVisitor>> getCompletedVisitors(@RequestHeader HttpHeaders headers) {
+        return getAllCompletedVisitors(headers);
     }
 
+
 }
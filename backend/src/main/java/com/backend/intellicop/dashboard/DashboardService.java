@@ -0,0 +1,185 @@
+package com.backend.intellicop.dashboard;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import com.backend.intellicop.dto.Dashboard;
+import com.backend.intellicop.health.DatabaseHealthSampler;
+import com.backend.intellicop.jdbc.PrimaryReads;
+import com.backend.intellicop.jdbc.QueryCounter;
+import com.backend.intellicop.jdbc.ReplicaRouter;
+import com.backend.intellicop.service.CriminalService;
+import com.backend.intellicop.service.UserService;
+import com.backend.intellicop.service.VisitorMeetingService;
+import com.backend.intellicop.station.StationContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Loads a role dashboard in one call. Each section runs on its own virtual thread and
+ * has its own timeout, counted from the start of the request; a section that times out
+ * or fails is reported as unavailable while the rest of the dashboard is still returned.
+ * A timed-out section is abandoned, not interrupted: it may be the shared leader of a
+ * coalesced read that other requests are waiting on.
+ * <p>
+ * Sections outlive the request when they time out, so they never see its request or
+ * security context; they get plain values captured up front instead: the station, the
+ * log context and whether the caller must read the primary (see {@link ReplicaRouter}).
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    public enum Section {
+        USER_COUNTS("userCounts"),
+        VISITORS("visitors"),
+        CRIMINALS("criminals"),
+        DATABASE_HEALTH("databaseHealth");
+
+        private final String key;
+
+        Section(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        // intellicop.dashboard.timeouts.<property>, e.g. user-counts
+        String property() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    // What each role's dashboard page fetches; the patrol and field pages load no data yet
+    private static final Map<String, List<Section>> ROLES = Map.of(
+            "ADMIN", List.of(Section.USER_COUNTS, Section.DATABASE_HEALTH),
+            "DESK", List.of(Section.CRIMINALS, Section.VISITORS),
+            "INVESTIGATING", List.of(Section.CRIMINALS));
+
+    private final UserService userService;
+    private final VisitorMeetingService visitorMeetingService;
+    private final CriminalService criminalService;
+    private final DatabaseHealthSampler healthSampler;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ReplicaRouter> replicaRouter;
+    private final Map<Section, Duration> timeouts = new EnumMap<>(Section.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DashboardService(UserService userService, VisitorMeetingService visitorMeetingService,
+                            CriminalService criminalService, DatabaseHealthSampler healthSampler,
+                            MeterRegistry meterRegistry, ObjectProvider<ReplicaRouter> replicaRouter,
+                            Environment environment,
+                            @Value("${intellicop.dashboard.timeout:3s}") Duration defaultTimeout) {
+        this.userService = userService;
+        this.visitorMeetingService = visitorMeetingService;
+        this.criminalService = criminalService;
+        this.healthSampler = healthSampler;
+        this.meterRegistry = meterRegistry;
+        this.replicaRouter = replicaRouter;
+        for (Section section : Section.values()) {
+            String timeout = environment.getProperty("intellicop.dashboard.timeouts." + section.property());
+            timeouts.put(section, timeout == null ? defaultTimeout : DurationStyle.detectAndParse(timeout));
+        }
+    }
+
+    public Dashboard load(String role) {
+        String normalized = role == null ? "" : role.toUpperCase(Locale.ROOT);
+        List<Section> sections = ROLES.get(normalized);
+        if (sections == null) throw new IllegalArgumentException("Unknown dashboard role: " + role);
+
+        long start = System.nanoTime();
+        CallerContext caller = CallerContext.capture(replicaRouter.getIfAvailable());
+        Map<Section, Future<Object>> pending = new LinkedHashMap<>();
+        for (Section section : sections) {
+            pending.put(section, executor.submit(() -> caller.call(() -> loadSection(section))));
+        }
+
+        Map<String, Object> loaded = new LinkedHashMap<>();
+        Map<String, String> unavailable = new LinkedHashMap<>();
+        for (Map.Entry<Section, Future<Object>> entry : pending.entrySet()) {
+            Section section = entry.getKey();
+            Future<Object> future = entry.getValue();
+            long remaining = start + timeouts.get(section).toNanos() - System.nanoTime();
+            String outcome;
+            try {
+                loaded.put(section.key(), future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS));
+                outcome = "ok";
+            } catch (TimeoutException e) {
+                outcome = "timeout";
+            } catch (ExecutionException e) {
+                log.warn("Dashboard section {} failed: {}", section.key(), e.getCause().toString());
+                outcome = "error";
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading the dashboard", e);
+            }
+            if (!"ok".equals(outcome)) unavailable.put(section.key(), outcome);
+            meterRegistry.counter("dashboard.sections", "section", section.key(), "outcome", outcome).increment();
+        }
+        return new Dashboard(normalized, loaded, unavailable);
+    }
+
+    private Object loadSection(Section section) {
+        return switch (section) {
+            case USER_COUNTS -> userService.getUserCounts();
+            case VISITORS -> visitorMeetingService.getAllVisitors();
+            case CRIMINALS -> criminalService.getAll();
+            case DATABASE_HEALTH -> healthSampler.describeLatest();
+        };
+    }
+
+    // What a section's service call needs from the request thread
+    private record CallerContext(String station, boolean primaryReads, Map<String, String> mdc,
+                                 QueryCounter.Scope queries) {
+
+        static CallerContext capture(ReplicaRouter router) {
+            return new CallerContext(StationContext.current(), router != null && needsPrimary(router.route()),
+                    MDC.getCopyOfContextMap(), QueryCounter.current());
+        }
+
+        // Same rule as the coalescing aspect: the caller's own recent write must be visible
+        private static boolean needsPrimary(ReplicaRouter.Route route) {
+            return route == ReplicaRouter.Route.PINNED || route == ReplicaRouter.Route.WRITE_REQUEST
+                    || route == ReplicaRouter.Route.READ_YOUR_WRITES;
+        }
+
+        <T> T call(Supplier<T> work) {
+            if (mdc != null) MDC.setContextMap(mdc);
+            try (StationContext.Scope scope = StationContext.open(station);
+                 QueryCounter.Scope counted = QueryCounter.join(queries)) {
+                return primaryReads ? PrimaryReads.call(work) : work.get();
+            } finally {
+                MDC.clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
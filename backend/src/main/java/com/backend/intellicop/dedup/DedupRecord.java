@@ -0,0 +1,28 @@
+package com.backend.intellicop.dedup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** The fields duplicate detection looks at, with the normalised forms computed once. */
+public record DedupRecord(Long id, String name, String nameKey, int age, String crimeKey, Long photoHash) {
+
+    // Used by JPQL constructor expressions
+    public DedupRecord(Long id, String name, Integer age, String crime, Long photoHash) {
+        this(id, name, NameKeys.name(name), age == null ? 0 : age, NameKeys.text(crime), photoHash);
+    }
+
+    /**
+     * Blocking keys: exact name key, token prefixes within an age band, and crime within an
+     * age band plus the name's first letter. A record is only compared with records that
+     * share at least one key.
+     */
+    public List<String> blockingKeys() {
+        List<String> keys = new ArrayList<>(3);
+        if (nameKey.isEmpty()) return keys;
+        int band = NameKeys.ageBand(age);
+        keys.add("N|" + nameKey);
+        keys.add("P|" + NameKeys.prefixes(nameKey) + "|" + band);
+        if (!crimeKey.isEmpty()) keys.add("C|" + crimeKey + "|" + band + "|" + nameKey.charAt(0));
+        return keys;
+    }
+}
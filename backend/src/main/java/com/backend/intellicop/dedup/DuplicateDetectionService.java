@@ -0,0 +1,312 @@
+package com.backend.intellicop.dedup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.intellicop.Repository.CriminalRepository;
+import com.backend.intellicop.Repository.MergeCandidateRepository;
+import com.backend.intellicop.cluster.LeaderOnly;
+import com.backend.intellicop.entity.Criminal;
+import com.backend.intellicop.entity.MergeCandidate;
+import com.backend.intellicop.logging.EventLog;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Finds criminal records that describe the same person. Records are only compared
+ * within blocks that share a key ({@link DedupRecord#blockingKeys()}), and scored with
+ * {@link DuplicateScorer}. Inserts are checked once committed against a bounded number
+ * of rows per block; the batch scan compares every block on a fork-join pool and replaces
+ * the stored batch candidates. Both store pairs with an insert-if-absent on the unique
+ * (left_id, right_id) key, so a pair raised by both at once is stored once, not an error.
+ */
+@Service
+public class DuplicateDetectionService {
+
+    private static final int PAGE_SIZE = 1000;
+
+    public record ScanResult(int records, int blocks, long comparisons, int candidates) {
+    }
+
+    private record Pair(long leftId, long rightId, double score) {
+    }
+
+    private final CriminalRepository criminalRepository;
+    private final MergeCandidateRepository mergeCandidateRepository;
+    private final TransactionTemplate transactionTemplate;
+    // Its own transaction: after commit, the caller's finished one is still bound to the thread
+    private final TransactionTemplate insertCheckTemplate;
+    private final EventLog eventLog;
+    private final MeterRegistry meterRegistry;
+    private final double threshold;
+    private final int inlineBlockLimit;
+    private final int maxBlockSize;
+    private final int window;
+    private final int maxCandidates;
+    private final AtomicBoolean scanRunning = new AtomicBoolean();
+
+    public DuplicateDetectionService(CriminalRepository criminalRepository,
+                                     MergeCandidateRepository mergeCandidateRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     EventLog eventLog,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${intellicop.dedup.threshold:0.88}") double threshold,
+                                     @Value("${intellicop.dedup.inline-block-limit:50}") int inlineBlockLimit,
+                                     @Value("${intellicop.dedup.max-block-size:500}") int maxBlockSize,
+                                     @Value("${intellicop.dedup.window:25}") int window,
+                                     @Value("${intellicop.dedup.max-candidates:10000}") int maxCandidates) {
+        this.criminalRepository = criminalRepository;
+        this.mergeCandidateRepository = mergeCandidateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.insertCheckTemplate = new TransactionTemplate(transactionManager);
+        this.insertCheckTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventLog = eventLog;
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+        this.inlineBlockLimit = inlineBlockLimit;
+        this.maxBlockSize = maxBlockSize;
+        this.window = window;
+        this.maxCandidates = maxCandidates;
+    }
+
+    // --- Inline check: at most three indexed queries of inlineBlockLimit rows each ---
+    public List<DuplicateMatch> findDuplicates(Criminal criminal) {
+        return Timer.builder("dedup.inline").register(meterRegistry).record(() -> {
+            DedupRecord probe = new DedupRecord(criminal.getId(), criminal.getName(), criminal.getAge(),
+                    criminal.getCrime(), criminal.getPhotoHash());
+            if (probe.nameKey().isEmpty()) return List.<DuplicateMatch>of();
+
+            Limit limit = Limit.of(inlineBlockLimit);
+            int minAge = Math.max(0, probe.age() - 3);
+            int maxAge = probe.age() + 3;
+            String firstToken = probe.nameKey().split(" ")[0];
+            String prefix = firstToken.substring(0, Math.min(3, firstToken.length())) + "%";
+
+            Map<Long, DedupRecord> candidates = new LinkedHashMap<>();
+            criminalRepository.findDedupByNameKey(probe.nameKey(), limit).forEach(r -> candidates.put(r.id(), r));
+            criminalRepository.findDedupByNamePrefix(prefix, minAge, maxAge, limit).forEach(r -> candidates.put(r.id(), r));
+            if (criminal.getCrime() != null && !criminal.getCrime().isBlank()) {
+                criminalRepository.findDedupByCrime(criminal.getCrime(), minAge, maxAge, limit)
+                        .forEach(r -> candidates.put(r.id(), r));
+            }
+            candidates.remove(probe.id());
+
+            List<DuplicateMatch> matches = new ArrayList<>();
+            for (DedupRecord candidate : candidates.values()) {
+                double score = DuplicateScorer.score(probe, candidate);
+                if (score >= threshold) {
+                    matches.add(new DuplicateMatch(candidate.id(), candidate.name(), candidate.age(), score));
+                }
+            }
+            matches.sort(Comparator.comparingDouble(DuplicateMatch::score).reversed());
+            return matches;
+        });
+    }
+
+    /**
+     * Checks a saved record once its transaction commits (at once without one), so a
+     * rolled-back insert raises nothing, and stores any matches as merge candidates.
+     */
+    public void checkOnInsert(Criminal saved) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    check(saved);
+                }
+            });
+        } else {
+            check(saved);
+        }
+    }
+
+    List<DuplicateMatch> check(Criminal saved) {
+        List<DuplicateMatch> matches = findDuplicates(saved);
+        Instant now = Instant.now();
+        insertCheckTemplate.executeWithoutResult(status -> {
+            for (DuplicateMatch match : matches) {
+                store(new Pair(Math.min(saved.getId(), match.id()), Math.max(saved.getId(), match.id()), match.score()),
+                        MergeCandidate.Source.INSERT, now);
+            }
+        });
+        if (!matches.isEmpty()) {
+            meterRegistry.counter("dedup.candidates", "source", "insert").increment(matches.size());
+            eventLog.event("dedup.insert", "criminalId", saved.getId(), "matches", matches.size());
+        }
+        return matches;
+    }
+
+    public List<MergeCandidate> getCandidates() {
+        return mergeCandidateRepository.findTop500ByOrderByScoreDesc();
+    }
+
+    public void forgetCriminal(Long id) {
+        transactionTemplate.executeWithoutResult(status -> mergeCandidateRepository.deleteByCriminal(id));
+    }
+
+    // --- Batch scan over the whole table ---
+    @Scheduled(cron = "${intellicop.dedup.scan-cron:0 30 2 * * *}", zone = "Asia/Kolkata")
+    @LeaderOnly("duplicate-scan")
+    public void scheduledScan() {
+        scan();
+    }
+
+    /** Starts a scan in the background; false if one is already running. */
+    public boolean startScan() {
+        if (scanRunning.get()) return false;
+        Thread.ofVirtual().name("dedup-scan").start(this::scan);
+        return true;
+    }
+
+    public ScanResult scan() {
+        if (!scanRunning.compareAndSet(false, true)) return null;
+        try {
+            backfillNameKeys();
+
+            List<DedupRecord> records = new ArrayList<>();
+            long after = 0;
+            List<DedupRecord> page;
+            do {
+                page = criminalRepository.findDedupRecords(after, Limit.of(PAGE_SIZE));
+                records.addAll(page);
+                if (!page.isEmpty()) after = page.get(page.size() - 1).id();
+            } while (page.size() == PAGE_SIZE);
+
+            Map<String, List<DedupRecord>> blocks = new HashMap<>();
+            for (DedupRecord record : records) {
+                for (String key : record.blockingKeys()) {
+                    blocks.computeIfAbsent(key, k -> new ArrayList<>()).add(record);
+                }
+            }
+            List<List<DedupRecord>> comparable = blocks.values().stream().filter(b -> b.size() > 1).toList();
+
+            ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            List<Pair> pairs;
+            try {
+                pairs = pool.invoke(new BlockTask(comparable, 0, comparable.size()));
+            } finally {
+                pool.shutdown();
+            }
+
+            // A pair can turn up in several blocks; keep one per pair, best first
+            Map<Long, Map<Long, Pair>> unique = new HashMap<>();
+            for (Pair pair : pairs) {
+                unique.computeIfAbsent(pair.leftId(), k -> new HashMap<>()).putIfAbsent(pair.rightId(), pair);
+            }
+            List<Pair> best = unique.values().stream()
+                    .flatMap(m -> m.values().stream())
+                    .sorted(Comparator.comparingDouble(Pair::score).reversed())
+                    .limit(maxCandidates)
+                    .toList();
+
+            Instant now = Instant.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                mergeCandidateRepository.deleteBySource(MergeCandidate.Source.BATCH);
+                // Pairs already raised at insert time, even while this runs, keep that row
+                for (Pair pair : best) store(pair, MergeCandidate.Source.BATCH, now);
+            });
+
+            long comparisons = comparable.stream().mapToLong(this::comparisons).sum();
+            meterRegistry.counter("dedup.candidates", "source", "batch").increment(best.size());
+            eventLog.event("dedup.scan", "records", records.size(), "blocks", comparable.size(),
+                    "comparisons", comparisons, "candidates", best.size());
+            return new ScanResult(records.size(), comparable.size(), comparisons, best.size());
+        } finally {
+            scanRunning.set(false);
+        }
+    }
+
+    private void store(Pair pair, MergeCandidate.Source source, Instant detectedAt) {
+        mergeCandidateRepository.insertIfAbsent(pair.leftId(), pair.rightId(), pair.score(), source.name(), detectedAt);
+    }
+
+    private void backfillNameKeys() {
+        long after = 0;
+        List<DedupRecord> page;
+        do {
+            page = criminalRepository.findDedupRecordsWithoutNameKey(after, Limit.of(PAGE_SIZE));
+            for (DedupRecord record : page) {
+                criminalRepository.setNameKey(record.id(), record.nameKey());
+                after = record.id();
+            }
+        } while (page.size() == PAGE_SIZE);
+    }
+
+    private long comparisons(List<DedupRecord> block) {
+        long n = block.size();
+        return n <= maxBlockSize ? n * (n - 1) / 2 : n * Math.min(window, n - 1);
+    }
+
+    // Splits the block list until a slice holds little enough work to score on one thread
+    private final class BlockTask extends RecursiveTask<List<Pair>> {
+
+        private static final long SEQUENTIAL_COMPARISONS = 20_000;
+
+        private final List<List<DedupRecord>> blocks;
+        private final int from;
+        private final int to;
+
+        BlockTask(List<List<DedupRecord>> blocks, int from, int to) {
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Pair> compute() {
+            long work = 0;
+            for (int i = from; i < to; i++) work += comparisons(blocks.get(i));
+            if (to - from == 1 || work <= SEQUENTIAL_COMPARISONS) {
+                List<Pair> pairs = new ArrayList<>();
+                for (int i = from; i < to; i++) scoreBlock(blocks.get(i), pairs);
+                return pairs;
+            }
+            int mid = (from + to) >>> 1;
+            BlockTask left = new BlockTask(blocks, from, mid);
+            left.fork();
+            List<Pair> pairs = new BlockTask(blocks, mid, to).compute();
+            pairs.addAll(left.join());
+            return pairs;
+        }
+
+        // Small blocks: every pair. Oversized blocks: sorted neighbourhood of `window` records
+        private void scoreBlock(List<DedupRecord> block, List<Pair> out) {
+            List<DedupRecord> sorted = block;
+            int reach = block.size();
+            if (block.size() > maxBlockSize) {
+                sorted = new ArrayList<>(block);
+                sorted.sort(Comparator.comparing(DedupRecord::nameKey).thenComparingInt(DedupRecord::age));
+                reach = window + 1;
+            }
+            for (int i = 0; i < sorted.size(); i++) {
+                DedupRecord a = sorted.get(i);
+                for (int j = i + 1; j < Math.min(sorted.size(), i + reach); j++) {
+                    DedupRecord b = sorted.get(j);
+                    double score = DuplicateScorer.score(a, b);
+                    if (score >= threshold) {
+                        out.add(new Pair(Math.min(a.id(), b.id()), Math.max(a.id(), b.id()), score));
+                    }
+                }
+            }
+        }
+    }
+}
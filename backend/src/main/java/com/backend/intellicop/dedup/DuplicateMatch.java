@@ -0,0 +1,5 @@
+package com.backend.intellicop.dedup;
+
+/** An existing criminal that looks like the record being checked. */
+public record DuplicateMatch(Long id, String name, int age, double score) {
+}
@@ -0,0 +1,88 @@
+package com.backend.intellicop.dedup;
+
+/**
+ * Pairwise similarity in [0, 1]: a weighted mean of name, age, crime and photo
+ * similarity over the fields both records have. Pairs whose names are not close
+ * score zero whatever else matches.
+ */
+public final class DuplicateScorer {
+
+    private static final double NAME_WEIGHT = 0.55;
+    private static final double AGE_WEIGHT = 0.20;
+    private static final double CRIME_WEIGHT = 0.15;
+    private static final double PHOTO_WEIGHT = 0.10;
+    private static final double MIN_NAME_SIMILARITY = 0.80;
+
+    private DuplicateScorer() {
+    }
+
+    public static double score(DedupRecord a, DedupRecord b) {
+        double name = jaroWinkler(a.nameKey(), b.nameKey());
+        if (name < MIN_NAME_SIMILARITY) return 0;
+
+        double total = NAME_WEIGHT * name;
+        double weights = NAME_WEIGHT;
+
+        // Age 0 means "not recorded"
+        if (a.age() > 0 && b.age() > 0) {
+            int diff = Math.abs(a.age() - b.age());
+            total += AGE_WEIGHT * switch (diff) {
+                case 0 -> 1.0;
+                case 1 -> 0.8;
+                case 2 -> 0.6;
+                case 3 -> 0.3;
+                default -> 0.0;
+            };
+            weights += AGE_WEIGHT;
+        }
+        if (!a.crimeKey().isEmpty() && !b.crimeKey().isEmpty()) {
+            total += CRIME_WEIGHT * jaroWinkler(a.crimeKey(), b.crimeKey());
+            weights += CRIME_WEIGHT;
+        }
+        if (a.photoHash() != null && b.photoHash() != null) {
+            int distance = Long.bitCount(a.photoHash() ^ b.photoHash());
+            total += PHOTO_WEIGHT * (distance <= 6 ? 1.0 : distance <= 12 ? 0.5 : 0.0);
+            weights += PHOTO_WEIGHT;
+        }
+        return total / weights;
+    }
+
+    static double jaroWinkler(String s, String t) {
+        if (s.equals(t)) return 1.0;
+        int sLen = s.length();
+        int tLen = t.length();
+        if (sLen == 0 || tLen == 0) return 0.0;
+
+        int window = Math.max(0, Math.max(sLen, tLen) / 2 - 1);
+        boolean[] sMatched = new boolean[sLen];
+        boolean[] tMatched = new boolean[tLen];
+        int matches = 0;
+        for (int i = 0; i < sLen; i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(tLen - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!tMatched[j] && s.charAt(i) == t.charAt(j)) {
+                    sMatched[i] = true;
+                    tMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) return 0.0;
+
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < sLen; i++) {
+            if (!sMatched[i]) continue;
+            while (!tMatched[j]) j++;
+            if (s.charAt(i) != t.charAt(j)) transpositions++;
+            j++;
+        }
+        double m = matches;
+        double jaro = (m / sLen + m / tLen + (m - transpositions / 2.0) / m) / 3.0;
+
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(sLen, tLen)) && s.charAt(prefix) == t.charAt(prefix)) prefix++;
+        return jaro + prefix * 0.1 * (1.0 - jaro);
+    }
+}
@@ -0,0 +1,51 @@
+package com.backend.intellicop.dedup;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Normalised forms used for blocking and scoring: accents and punctuation removed,
+ * lower case, and name tokens sorted so "Singh, Ravi" and "ravi singh" share a key.
+ * Letters of any script are kept, with the vowel signs that are part of them (e.g. in
+ * Devanagari); only the combining accents used on Latin letters are dropped.
+ */
+public final class NameKeys {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^\\p{L}\\p{M}\\p{N}]+");
+
+    private NameKeys() {
+    }
+
+    public static String name(String name) {
+        if (name == null) return "";
+        return Arrays.stream(NON_ALNUM.split(fold(name)))
+                .filter(token -> !token.isEmpty())
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+
+    public static String text(String value) {
+        if (value == null) return "";
+        return NON_ALNUM.matcher(fold(value)).replaceAll(" ").trim();
+    }
+
+    /** First three letters of every token: survives most typos past the start of each word. */
+    public static String prefixes(String nameKey) {
+        return Arrays.stream(nameKey.split(" "))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token.length() > 3 ? token.substring(0, 3) : token)
+                .collect(Collectors.joining(" "));
+    }
+
+    public static int ageBand(int age) {
+        return age / 5;
+    }
+
+    private static String fold(String value) {
+        return ACCENTS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
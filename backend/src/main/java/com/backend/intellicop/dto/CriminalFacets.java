@@ -0,0 +1,7 @@
+package com.backend.intellicop.dto;
+
+import java.util.Map;
+
+/** Number of matching criminals per threat level and per status. */
+public record CriminalFacets(Map<String, Long> threat, Map<String, Long> status, long total) {
+}
@@ -0,0 +1,57 @@
+package com.backend.intellicop.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.util.DigestUtils;
+
+import lombok.Data;
+
+@Data
+public class CriminalFilter {
+    private String threat;   // one or more values, comma separated
+    private String status;   // one or more values, comma separated
+    private String crime;    // prefix match
+    private Integer minAge;
+    private Integer maxAge;
+    private String lastSeen; // substring match
+
+    public List<String> threats() {
+        return split(threat);
+    }
+
+    public List<String> statuses() {
+        return split(status);
+    }
+
+    // Normalised form used as a cache key: equal filters give equal signatures
+    public String signature() {
+        return String.join("|",
+                String.join(",", threats().stream().map(v -> v.toLowerCase(Locale.ROOT)).sorted().toList()),
+                String.join(",", statuses().stream().map(v -> v.toLowerCase(Locale.ROOT)).sorted().toList()),
+                normalise(crime),
+                minAge == null ? "" : minAge.toString(),
+                maxAge == null ? "" : maxAge.toString(),
+                normalise(lastSeen));
+    }
+
+    // ETag variant: a digest of the signature, which carries free text that is no valid tag
+    public String etagVariant() {
+        return DigestUtils.md5DigestAsHex(signature().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> split(String values) {
+        if (values == null || values.isBlank()) return List.of();
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static String normalise(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
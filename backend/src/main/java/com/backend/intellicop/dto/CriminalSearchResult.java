@@ -0,0 +1,9 @@
+package com.backend.intellicop.dto;
+
+import java.util.List;
+
+import com.backend.intellicop.entity.Criminal;
+
+public record CriminalSearchResult(List<Criminal> items, int page, int size, long totalElements,
+                                   CriminalFacets facets) {
+}
@@ -0,0 +1,10 @@
+package com.backend.intellicop.dto;
+
+import java.util.Map;
+
+/**
+ * Everything one role's dashboard shows. {@code sections} holds the sections that loaded;
+ * {@code unavailable} names the ones that did not, with "timeout" or "error".
+ */
+public record Dashboard(String role, Map<String, Object> sections, Map<String, String> unavailable) {
+}
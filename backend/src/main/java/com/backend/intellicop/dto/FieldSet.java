@@ -0,0 +1,67 @@
+package com.backend.intellicop.dto;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The attributes picked by a {@code ?fields=} selector, e.g. {@code ?fields=name,status}.
+ * Names are checked against the resource's selectable attributes, {@code id} is always
+ * included and the order is the resource's own, so equal selections are equal keys.
+ */
+public record FieldSet(List<String> names) {
+
+    public static final List<String> CRIMINAL = List.of(
+            "id", "name", "age", "crime", "threat", "lastSeen", "status", "record", "photo", "version", "station");
+    public static final List<String> VISITOR = List.of(
+            "id", "visitorName", "visitorContact", "inmateName", "purpose", "scheduledDate", "scheduledTime",
+            "status", "remarks", "createdAt", "screeningStatus", "screeningMatches", "screenedAt", "station");
+    // Never the password hash
+    public static final List<String> USER = List.of("id", "username", "role", "photoUrl", "station");
+
+    /** What {@link Fields} checks a selector against. */
+    public enum Resource {
+        CRIMINAL(FieldSet.CRIMINAL), VISITOR(FieldSet.VISITOR), USER(FieldSet.USER);
+
+        private final List<String> selectable;
+
+        Resource(List<String> selectable) {
+            this.selectable = selectable;
+        }
+
+        public List<String> selectable() {
+            return selectable;
+        }
+    }
+
+    /** A selector naming an attribute the resource does not expose. */
+    public static class InvalidFieldsException extends IllegalArgumentException {
+
+        public InvalidFieldsException(String message) {
+            super(message);
+        }
+    }
+
+    /** The selection, or null when {@code fields} is absent (the full representation). */
+    public static FieldSet parse(String fields, List<String> selectable) {
+        if (fields == null || fields.isBlank()) return null;
+        Set<String> requested = new HashSet<>();
+        requested.add("id");
+        for (String name : Arrays.stream(fields.split(",")).map(String::trim).filter(v -> !v.isEmpty()).toList()) {
+            if (!selectable.contains(name)) throw new InvalidFieldsException("Unknown field: " + name);
+            requested.add(name);
+        }
+        return new FieldSet(selectable.stream().filter(requested::contains).toList());
+    }
+
+    // Cache key
+    public String signature() {
+        return String.join(",", names);
+    }
+
+    // ETag variant: the whole selection, without the commas If-None-Match separates tags with
+    public String etagVariant() {
+        return String.join(".", names);
+    }
+}
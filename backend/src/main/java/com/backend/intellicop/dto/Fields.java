@@ -0,0 +1,17 @@
+package com.backend.intellicop.dto;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds the {@code ?fields=} selector to a {@link FieldSet} parameter, checked against the
+ * resource's attributes: null when absent, 400 when it names an unknown attribute.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Fields {
+
+    FieldSet.Resource value();
+}
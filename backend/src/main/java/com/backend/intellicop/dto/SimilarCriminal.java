@@ -0,0 +1,7 @@
+package com.backend.intellicop.dto;
+
+import com.backend.intellicop.entity.Criminal;
+
+/** A criminal whose photo is close to the query image; similarity is 1 - distance / 64. */
+public record SimilarCriminal(Criminal criminal, int distance, double similarity) {
+}
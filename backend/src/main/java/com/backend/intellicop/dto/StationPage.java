@@ -0,0 +1,7 @@
+package com.backend.intellicop.dto;
+
+import java.util.List;
+
+/** One page of a cross-station list; pass {@code next} back as the cursor, null when done. */
+public record StationPage<T>(List<T> items, String next) {
+}
@@ -0,0 +1,24 @@
+package com.backend.intellicop.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change counter per cached region, shared by all app nodes through the database.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "cache_version")
+public class CacheVersion {
+
+    @Id
+    private String region;
+
+    private long version;
+}
@@ -2,10 +2,14 @@ package com.backend.intellicop.entity;
 
 import java.time.LocalDate;
 
+import com.backend.intellicop.station.StationContext;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,6 +26,10 @@ public class CompletedVisitor {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Source meeting; unique so a meeting can only ever be archived once
+    @Column(unique = true)
+    private Long meetingId;
+
     private String visitorName;
     private String visitorContact;
     private String inmateName;
@@ -31,4 +39,13 @@ public class CompletedVisitor {
     private String status;
     private String remarks;
     private String createdAt;
+
+    // Station (district) whose deployment wrote the row
+    @Column(length = 32, updatable = false)
+    private String station;
+
+    @PrePersist
+    void stampStation() {
+        this.station = StationContext.home();
+    }
 }
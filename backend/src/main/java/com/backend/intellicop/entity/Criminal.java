@@ -1,20 +1,33 @@
 package com.backend.intellicop.entity;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.backend.intellicop.dedup.NameKeys;
+import com.backend.intellicop.station.StationContext;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@DynamicUpdate // UPDATE only the columns that actually changed
+// Schema and indexes are managed by the Flyway migrations in db/migration
 public class Criminal {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,4 +44,36 @@ public class Criminal {
     private String record;
 
     private String photo; // URL or Base64
+
+    // 64-bit perceptual hash of the photo, indexed in memory for similarity search
+    @JsonIgnore
+    private Long photoHash;
+
+    // Normalised name (see NameKeys), the blocking key for duplicate detection
+    @JsonIgnore
+    @Column(name = "name_key")
+    @Setter(AccessLevel.NONE)
+    private String nameKey;
+
+    // Optimistic lock: stale writes fail instead of overwriting concurrent edits
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Station (district) whose deployment wrote the row
+    @Column(length = 32, updatable = false)
+    private String station;
+
+    public void setName(String name) {
+        this.name = name;
+        this.nameKey = NameKeys.name(name);
+    }
+
+    // The builder and all-args constructor bypass setName
+    @PrePersist
+    void beforeInsert() {
+        this.nameKey = NameKeys.name(name);
+        this.station = StationContext.home();
+    }
 }
@@ -0,0 +1,47 @@
+package com.backend.intellicop.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Two criminal records that probably describe the same person, for an officer to
+ * review and merge. {@code leftId} is always the smaller id.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "merge_candidate", uniqueConstraints = @UniqueConstraint(columnNames = { "left_id", "right_id" }))
+public class MergeCandidate {
+
+    public enum Source {
+        INSERT, BATCH
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long leftId;
+    private Long rightId;
+    private double score;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Source source;
+    private Instant detectedAt;
+}
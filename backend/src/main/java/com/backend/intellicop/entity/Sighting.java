@@ -0,0 +1,48 @@
+package com.backend.intellicop.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One report of a criminal seen at a location. Append-only: rows are never updated,
+ * so the id order is also the order other nodes tail new rows in.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sighting") // Indexes: db/migration/V2__Repository_indexes
+public class Sighting {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "criminal_id", nullable = false, updatable = false)
+    private Long criminalId;
+
+    // Boxed, so a report without coordinates is rejected instead of read as 0,0
+    @Column(nullable = false, updatable = false)
+    private Double latitude;
+
+    @Column(nullable = false, updatable = false)
+    private Double longitude;
+
+    @Column(name = "observed_at", nullable = false, updatable = false)
+    private Instant observedAt;
+
+    // Who reported it, e.g. patrol unit or camera id
+    @Column(length = 100, updatable = false)
+    private String source;
+}
@@ -1,10 +1,13 @@
 package com.backend.intellicop.entity;
 
+import com.backend.intellicop.station.StationContext;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -35,4 +38,13 @@ public class User {
 
     @Column(name = "photo_url")
     private String photoUrl; // Cloudinary image URL
+
+    // Station (district) whose deployment wrote the row
+    @Column(length = 32, updatable = false)
+    private String station;
+
+    @PrePersist
+    void stampStation() {
+        this.station = StationContext.home();
+    }
 }
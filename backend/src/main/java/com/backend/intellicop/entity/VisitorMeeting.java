@@ -1,12 +1,18 @@
 package com.backend.intellicop.entity;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.backend.intellicop.station.StationContext;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +23,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@DynamicUpdate // Rescheduling must not rewrite a concurrently changed status
 public class VisitorMeeting {
 
     @Id
@@ -34,4 +41,21 @@ public class VisitorMeeting {
 
     @Column(updatable = false)
     private String createdAt;
+
+    // Watchlist screening verdict: CLEAR or HIT, with the matched criminals
+    private String screeningStatus;
+
+    @Column(length = 1000)
+    private String screeningMatches;
+
+    private LocalDateTime screenedAt;
+
+    // Station (district) whose deployment wrote the row
+    @Column(length = 32, updatable = false)
+    private String station;
+
+    @PrePersist
+    void stampStation() {
+        this.station = StationContext.home();
+    }
 }
@@ -0,0 +1,42 @@
+package com.backend.intellicop.entity;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Visitor meeting lifecycle. COMPLETED is terminal: the meeting is moved to the
+ * completed-visitor archive.
+ */
+public enum VisitorStatus {
+    SCHEDULED,
+    IN_PROGRESS,
+    CANCELLED,
+    COMPLETED;
+
+    public static VisitorStatus parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown visitor status: " + value);
+        }
+    }
+
+    public Set<VisitorStatus> allowedNext() {
+        return switch (this) {
+            case SCHEDULED -> EnumSet.of(IN_PROGRESS, CANCELLED, COMPLETED);
+            case IN_PROGRESS -> EnumSet.of(CANCELLED, COMPLETED);
+            case CANCELLED -> EnumSet.of(SCHEDULED);
+            case COMPLETED -> EnumSet.noneOf(VisitorStatus.class);
+        };
+    }
+
+    /** Statuses a meeting may be in for a move to {@code this}, as stored column values. */
+    public List<String> allowedPrevious() {
+        return EnumSet.allOf(VisitorStatus.class).stream()
+                .filter(status -> status.allowedNext().contains(this))
+                .map(Enum::name)
+                .toList();
+    }
+}
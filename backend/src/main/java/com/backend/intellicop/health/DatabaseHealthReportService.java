@@ -0,0 +1,302 @@
+package com.backend.intellicop.health;
+
+import java.awt.Color;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.lowagie.text.Chunk;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.Image;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfContentByte;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfTemplate;
+import com.lowagie.text.pdf.PdfWriter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Renders the database health PDF from the sampler's recorded history. The PdfWriter
+ * streams straight to the caller while a copy is teed to a temp file; downloads in the
+ * same cache window are then served from that file, so the report is never buffered on
+ * the heap and never re-rendered within a window.
+ */
+@Service
+public class DatabaseHealthReportService {
+
+    private static final int TABLE_FLUSH_ROWS = 50;
+    private static final float CHART_WIDTH = 520;
+    private static final float CHART_HEIGHT = 170;
+
+    private record Series(String label, Color color, ToDoubleFunction<HealthSample> value) {
+    }
+
+    private record CachedReport(long window, Path file) {
+    }
+
+    private final DatabaseHealthSampler healthSampler;
+    private final long cacheWindowMs;
+    private final Path cacheDir;
+    private volatile CachedReport cached;
+
+    public DatabaseHealthReportService(DatabaseHealthSampler healthSampler,
+                                       @Value("${intellicop.health.report-cache-window-ms:60000}") long cacheWindowMs)
+            throws IOException {
+        this.healthSampler = healthSampler;
+        this.cacheWindowMs = cacheWindowMs;
+        this.cacheDir = Files.createTempDirectory("intellicop-health-reports");
+    }
+
+    /** Opens the cached report for the current window, or returns null if it still has to be rendered. */
+    public SeekableByteChannel openCachedReport() {
+        CachedReport report = cached;
+        if (report == null || report.window() != currentWindow()) return null;
+        try {
+            // An open channel stays readable even if the next window's report replaces the file
+            return Files.newByteChannel(report.file());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Renders the report into {@code out}, keeping a copy as the cache entry for this window. */
+    public void renderReport(OutputStream out) throws IOException {
+        long window = currentWindow();
+        Path partial = Files.createTempFile(cacheDir, "report-" + window + "-", ".part");
+        boolean complete = false;
+
+        try (OutputStream file = Files.newOutputStream(partial)) {
+            OutputStream tee = new FilterOutputStream(out) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    file.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    file.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    // PdfWriter closes its stream; the servlet container owns the response stream
+                    flush();
+                }
+            };
+            writeDocument(tee, window);
+            complete = true;
+        } finally {
+            if (complete) {
+                publish(window, partial);
+            } else {
+                Files.deleteIfExists(partial);
+            }
+        }
+    }
+
+    private void publish(long window, Path partial) throws IOException {
+        Path target = cacheDir.resolve("report-" + window + ".pdf");
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        CachedReport previous = cached;
+        cached = new CachedReport(window, target);
+        if (previous != null && !previous.file().equals(target)) {
+            Files.deleteIfExists(previous.file());
+        }
+    }
+
+    private long currentWindow() {
+        return System.currentTimeMillis() / cacheWindowMs;
+    }
+
+    private void writeDocument(OutputStream out, long window) throws IOException {
+        List<HealthSample> history = healthSampler.history();
+        HealthSample latest = healthSampler.latest();
+        SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setFullCompression();
+        document.open();
+
+        Font titleFont = new Font(Font.HELVETICA, 16, Font.BOLD);
+        Font headingFont = new Font(Font.HELVETICA, 12, Font.BOLD);
+        Font cellFont = new Font(Font.HELVETICA, 8);
+
+        Paragraph title = new Paragraph("Database Health Report", titleFont);
+        title.setAlignment(Element.ALIGN_CENTER);
+        document.add(title);
+        document.add(new Paragraph("Generated at: " + timeFormat.format(new Date(window * cacheWindowMs))));
+        document.add(Chunk.NEWLINE);
+
+        // ------------------ Summary ------------------
+        document.add(new Paragraph("Summary", headingFont));
+        LatencyHistogram.Snapshot latency = healthSampler.latencySnapshot();
+        PdfPTable summary = new PdfPTable(2);
+        summary.setWidthPercentage(100);
+        summary.setSpacingBefore(6);
+        addRow(summary, cellFont, "Status", latest == null ? "STARTING" : latest.status());
+        addRow(summary, cellFont, "Database", healthSampler.databaseProduct() + " " + healthSampler.databaseVersion());
+        addRow(summary, cellFont, "Health", latest == null ? "0%" : latest.healthPercentage() + "%");
+        addRow(summary, cellFont, "Samples", String.valueOf(history.size()));
+        addRow(summary, cellFont, "Latency p50 / p90 / p99 (µs)", latency.p50() + " / " + latency.p90() + " / " + latency.p99());
+        addRow(summary, cellFont, "Latency min / mean / max (µs)", latency.min() + " / " + latency.mean() + " / " + latency.max());
+        if (latest != null) {
+            HealthSample.PoolStats pool = latest.pool();
+            addRow(summary, cellFont, "Pool active / idle / total / max",
+                    pool.active() + " / " + pool.idle() + " / " + pool.total() + " / " + pool.max());
+            addRow(summary, cellFont, "Threads awaiting connection", String.valueOf(pool.awaitingConnection()));
+        }
+        document.add(summary);
+
+        // ------------------ Charts ------------------
+        if (!history.isEmpty()) {
+            document.add(new Paragraph("Probe latency (ms)", headingFont));
+            document.add(chart(writer, history, List.of(
+                    new Series("latency", new Color(33, 102, 172), s -> s.isUp() ? s.latencyMicros() / 1000.0 : Double.NaN))));
+
+            document.add(new Paragraph("Connection pool", headingFont));
+            document.add(chart(writer, history, List.of(
+                    new Series("active", new Color(33, 102, 172), s -> s.pool().active()),
+                    new Series("idle", new Color(77, 146, 33), s -> s.pool().idle()),
+                    new Series("awaiting", new Color(202, 0, 32), s -> s.pool().awaitingConnection()))));
+        }
+
+        // ------------------ History table ------------------
+        document.newPage();
+        document.add(new Paragraph("Probe history", headingFont));
+        PdfPTable table = new PdfPTable(new float[] { 3, 1.5f, 2, 1, 1, 1 });
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(6);
+        table.setHeaderRows(1);
+        // Incomplete tables are flushed to the writer in chunks instead of held until the end
+        table.setComplete(false);
+        for (String header : new String[] { "Time", "Status", "Latency (µs)", "Active", "Idle", "Awaiting" }) {
+            PdfPCell cell = new PdfPCell(new Phrase(header, new Font(Font.HELVETICA, 8, Font.BOLD)));
+            cell.setBackgroundColor(new Color(230, 230, 230));
+            table.addCell(cell);
+        }
+
+        for (int i = history.size() - 1, rows = 0; i >= 0; i--, rows++) {
+            HealthSample sample = history.get(i);
+            table.addCell(new Phrase(timeFormat.format(new Date(sample.timestamp())), cellFont));
+            table.addCell(new Phrase(sample.status(), cellFont));
+            table.addCell(new Phrase(sample.isUp() ? String.valueOf(sample.latencyMicros()) : "-", cellFont));
+            table.addCell(new Phrase(String.valueOf(sample.pool().active()), cellFont));
+            table.addCell(new Phrase(String.valueOf(sample.pool().idle()), cellFont));
+            table.addCell(new Phrase(String.valueOf(sample.pool().awaitingConnection()), cellFont));
+            if (rows > 0 && rows % TABLE_FLUSH_ROWS == 0) document.add(table);
+        }
+        table.setComplete(true);
+        document.add(table);
+
+        document.close();
+    }
+
+    private static void addRow(PdfPTable table, Font font, String key, String value) {
+        table.addCell(new Phrase(key, font));
+        table.addCell(new Phrase(value, font));
+    }
+
+    private static Image chart(PdfWriter writer, List<HealthSample> history, List<Series> series) throws IOException {
+        BaseFont font = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+        PdfContentByte canvas = writer.getDirectContent();
+        PdfTemplate template = canvas.createTemplate(CHART_WIDTH, CHART_HEIGHT);
+
+        float left = 40, bottom = 24, top = CHART_HEIGHT - 18;
+        float width = CHART_WIDTH - left - 10, height = top - bottom;
+
+        double max = 0;
+        for (Series s : series) {
+            for (HealthSample sample : history) {
+                double value = s.value().applyAsDouble(sample);
+                if (!Double.isNaN(value)) max = Math.max(max, value);
+            }
+        }
+        if (max <= 0) max = 1;
+
+        // Axes and scale labels
+        template.setColorStroke(Color.GRAY);
+        template.setLineWidth(0.5f);
+        template.moveTo(left, bottom);
+        template.lineTo(left, top);
+        template.moveTo(left, bottom);
+        template.lineTo(left + width, bottom);
+        template.stroke();
+
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+        template.beginText();
+        template.setFontAndSize(font, 7);
+        template.setColorFill(Color.DARK_GRAY);
+        template.showTextAligned(Element.ALIGN_RIGHT, String.format("%.1f", max), left - 3, top - 3, 0);
+        template.showTextAligned(Element.ALIGN_RIGHT, "0", left - 3, bottom - 3, 0);
+        template.showTextAligned(Element.ALIGN_LEFT, timeFormat.format(new Date(history.get(0).timestamp())), left, bottom - 12, 0);
+        template.showTextAligned(Element.ALIGN_RIGHT,
+                timeFormat.format(new Date(history.get(history.size() - 1).timestamp())), left + width, bottom - 12, 0);
+        template.endText();
+
+        float step = history.size() > 1 ? width / (history.size() - 1) : 0;
+        float legendX = left + 5;
+        for (Series s : series) {
+            template.setColorStroke(s.color());
+            template.setLineWidth(1f);
+            boolean penDown = false;
+            for (int i = 0; i < history.size(); i++) {
+                double value = s.value().applyAsDouble(history.get(i));
+                if (Double.isNaN(value)) {
+                    penDown = false;
+                    continue;
+                }
+                float x = left + i * step;
+                float y = bottom + (float) (value / max) * height;
+                if (penDown) {
+                    template.lineTo(x, y);
+                } else {
+                    template.moveTo(x, y);
+                    penDown = true;
+                }
+            }
+            template.stroke();
+
+            template.setColorFill(s.color());
+            template.rectangle(legendX, CHART_HEIGHT - 10, 8, 6);
+            template.fill();
+            template.beginText();
+            template.setFontAndSize(font, 7);
+            template.showTextAligned(Element.ALIGN_LEFT, s.label(), legendX + 11, CHART_HEIGHT - 10, 0);
+            template.endText();
+            legendX += 20 + font.getWidthPoint(s.label(), 7);
+        }
+
+        Image image = Image.getInstance(template);
+        image.setAlignment(Element.ALIGN_CENTER);
+        return image;
+    }
+
+    @PreDestroy
+    public void cleanup() throws IOException {
+        try (var files = Files.list(cacheDir)) {
+            for (Path file : files.toList()) Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(cacheDir);
+    }
+}
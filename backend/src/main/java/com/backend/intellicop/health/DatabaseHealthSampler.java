@@ -0,0 +1,185 @@
+package com.backend.intellicop.health;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Probes the database on a fixed schedule so health requests never touch the pool.
+ * Each probe borrows a single connection (closed via try-with-resources), product and
+ * version metadata is read once and cached, and results go into a ring-buffer history
+ * plus a windowed latency histogram.
+ */
+@Service
+public class DatabaseHealthSampler {
+
+    private static final int PROBE_TIMEOUT_SECONDS = 5;
+
+    private final DataSource dataSource;
+    private final HikariDataSource hikari;
+    private final LatencyHistogram latencyHistogram;
+    private final HealthSample[] history;
+    private int historyNext;
+    private int historySize;
+
+    private volatile HealthSample latest;
+    private volatile String databaseProduct;
+    private volatile String databaseVersion;
+
+    public DatabaseHealthSampler(DataSource dataSource,
+                                 @Value("${intellicop.health.history-size:720}") int historySize) {
+        this.hikari = unwrapHikari(dataSource);
+        // Probe the pool directly so health checks don't queue behind application bulkheads
+        this.dataSource = hikari != null ? hikari : dataSource;
+        this.latencyHistogram = new LatencyHistogram(historySize);
+        this.history = new HealthSample[historySize];
+    }
+
+    @Scheduled(fixedRateString = "${intellicop.health.sample-interval-ms:5000}")
+    public void sample() {
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+
+        HealthSample sample;
+        try (Connection connection = dataSource.getConnection()) {
+            if (databaseProduct == null) {
+                DatabaseMetaData metaData = connection.getMetaData();
+                databaseProduct = metaData.getDatabaseProductName();
+                databaseVersion = metaData.getDatabaseProductVersion();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(PROBE_TIMEOUT_SECONDS);
+                statement.execute("SELECT 1");
+            }
+            long latencyMicros = (System.nanoTime() - start) / 1000;
+            latencyHistogram.record(latencyMicros);
+            sample = new HealthSample(timestamp, "UP", latencyMicros, poolStats(), null, null, null);
+        } catch (SQLException e) {
+            sample = new HealthSample(timestamp, "DOWN", -1, poolStats(),
+                    "Database connection failed", e.getErrorCode(), e.getSQLState());
+        } catch (RuntimeException e) {
+            sample = new HealthSample(timestamp, "ERROR", -1, poolStats(), e.getMessage(), null, null);
+        }
+
+        addToHistory(sample);
+        latest = sample;
+    }
+
+    /** Most recent probe, or null before the first probe completed. */
+    public HealthSample latest() {
+        return latest;
+    }
+
+    public LatencyHistogram.Snapshot latencySnapshot() {
+        return latencyHistogram.snapshot();
+    }
+
+    /** Recorded probes, oldest first. */
+    public synchronized List<HealthSample> history() {
+        List<HealthSample> samples = new ArrayList<>(historySize);
+        int start = historySize == history.length ? historyNext : 0;
+        for (int i = 0; i < historySize; i++) {
+            samples.add(history[(start + i) % history.length]);
+        }
+        return samples;
+    }
+
+    /** The latest probe as served by the health API; status STARTING before the first probe. */
+    public Map<String, Object> describeLatest() {
+        HealthSample sample = latest;
+        if (sample == null) {
+            Map<String, Object> starting = new LinkedHashMap<>();
+            starting.put("status", "STARTING");
+            starting.put("healthPercentage", 0);
+            starting.put("timestamp", System.currentTimeMillis());
+            return starting;
+        }
+        return describe(sample);
+    }
+
+    private Map<String, Object> describe(HealthSample sample) {
+        Map<String, Object> healthData = new LinkedHashMap<>();
+        healthData.put("status", sample.status());
+        healthData.put("latencyMicros", sample.latencyMicros());
+        healthData.put("latencyMs", sample.latencyMs());
+        healthData.put("healthPercentage", sample.healthPercentage());
+        healthData.put("database", databaseProduct());
+        healthData.put("version", databaseVersion());
+        healthData.put("timestamp", sample.timestamp());
+
+        if (sample.error() != null) healthData.put("error", sample.error());
+        if (sample.errorCode() != null) healthData.put("errorCode", sample.errorCode());
+        if (sample.sqlState() != null) healthData.put("sqlState", sample.sqlState());
+
+        LatencyHistogram.Snapshot latency = latencySnapshot();
+        Map<String, Object> latencyData = new LinkedHashMap<>();
+        latencyData.put("samples", latency.count());
+        latencyData.put("minMicros", latency.min());
+        latencyData.put("p50Micros", latency.p50());
+        latencyData.put("p90Micros", latency.p90());
+        latencyData.put("p99Micros", latency.p99());
+        latencyData.put("p999Micros", latency.p999());
+        latencyData.put("maxMicros", latency.max());
+        latencyData.put("meanMicros", latency.mean());
+        healthData.put("latency", latencyData);
+
+        HealthSample.PoolStats pool = sample.pool();
+        Map<String, Object> poolData = new LinkedHashMap<>();
+        poolData.put("active", pool.active());
+        poolData.put("idle", pool.idle());
+        poolData.put("total", pool.total());
+        poolData.put("max", pool.max());
+        poolData.put("awaitingConnection", pool.awaitingConnection());
+        healthData.put("pool", poolData);
+
+        return healthData;
+    }
+
+    public String databaseProduct() {
+        return databaseProduct;
+    }
+
+    public String databaseVersion() {
+        return databaseVersion;
+    }
+
+    private synchronized void addToHistory(HealthSample sample) {
+        history[historyNext] = sample;
+        historyNext = (historyNext + 1) % history.length;
+        if (historySize < history.length) historySize++;
+    }
+
+    private HealthSample.PoolStats poolStats() {
+        if (hikari == null) return HealthSample.PoolStats.UNKNOWN;
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) return HealthSample.PoolStats.UNKNOWN;
+        return new HealthSample.PoolStats(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                hikari.getMaximumPoolSize(),
+                pool.getThreadsAwaitingConnection());
+    }
+
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.backend.intellicop.health;
+
+/**
+ * One probe result. Latency covers borrowing a connection and running {@code SELECT 1}.
+ */
+public record HealthSample(
+        long timestamp,
+        String status,
+        long latencyMicros,
+        PoolStats pool,
+        String error,
+        Integer errorCode,
+        String sqlState) {
+
+    public record PoolStats(int active, int idle, int total, int max, int awaitingConnection) {
+        public static final PoolStats UNKNOWN = new PoolStats(-1, -1, -1, -1, -1);
+    }
+
+    public boolean isUp() {
+        return "UP".equals(status);
+    }
+
+    public long latencyMs() {
+        return isUp() ? latencyMicros / 1000 : -1;
+    }
+
+    public int healthPercentage() {
+        if (!isUp()) return 0;
+        long latency = latencyMs();
+        if (latency > 1000) return 0;
+        if (latency > 500) return 25;
+        if (latency > 200) return 50;
+        if (latency > 100) return 75;
+        return 100;
+    }
+}
@@ -0,0 +1,82 @@
+package com.backend.intellicop.health;
+
+/**
+ * Sliding-window latency histogram with HDR-style log-linear buckets: values are kept
+ * with 64 sub-buckets per power of two (under 2% relative error) and the window is a
+ * fixed ring buffer, so recording and evicting are O(1) and memory never grows.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS + SUB_BUCKETS;
+
+    public record Snapshot(int count, long min, long p50, long p90, long p99, long p999, long max, long mean) {
+    }
+
+    private final long[] window;
+    private final int[] counts = new int[BUCKETS];
+    private int next;
+    private int size;
+    private long sum;
+
+    public LatencyHistogram(int windowSize) {
+        this.window = new long[windowSize];
+    }
+
+    public synchronized void record(long value) {
+        value = Math.max(0, value);
+        if (size == window.length) {
+            long evicted = window[next];
+            counts[bucketOf(evicted)]--;
+            sum -= evicted;
+        } else {
+            size++;
+        }
+        window[next] = value;
+        next = (next + 1) % window.length;
+        counts[bucketOf(value)]++;
+        sum += value;
+    }
+
+    public synchronized Snapshot snapshot() {
+        if (size == 0) return new Snapshot(0, 0, 0, 0, 0, 0, 0, 0);
+
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, window[i]);
+            max = Math.max(max, window[i]);
+        }
+        return new Snapshot(size, min,
+                Math.min(max, valueAt(0.50)),
+                Math.min(max, valueAt(0.90)),
+                Math.min(max, valueAt(0.99)),
+                Math.min(max, valueAt(0.999)),
+                max, sum / size);
+    }
+
+    private long valueAt(double percentile) {
+        long rank = Math.max(1, (long) Math.ceil(percentile * size));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return highestValueIn(i);
+        }
+        return 0;
+    }
+
+    static int bucketOf(long value) {
+        int msb = 63 - Long.numberOfLeadingZeros(value | 1);
+        int shift = Math.max(0, msb - SUB_BUCKET_BITS + 1);
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = (bucket - HALF_SUB_BUCKETS) / HALF_SUB_BUCKETS;
+        long subBucket = bucket - (long) shift * HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,31 @@
+package com.backend.intellicop.jdbc;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins read-only transactions started on the current thread to the primary, for reads
+ * that must not lag behind writes (e.g. loads that re-seed a cache right after it was
+ * invalidated). Has no effect when no replica is configured.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> work) {
+        Boolean previous = PINNED.get();
+        PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) PINNED.remove();
+            else PINNED.set(previous);
+        }
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.backend.intellicop.jdbc;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the statements each request executes and flags endpoints that go over the
+ * per-request query budget, which is how N+1 patterns usually show up.
+ */
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final int budget;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetFilter(@Value("${intellicop.jdbc.query-budget:20}") int budget, MeterRegistry meterRegistry) {
+        this.budget = budget;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (QueryCounter.Scope scope = QueryCounter.open()) {
+            chain.doFilter(request, response);
+
+            if (scope.count() == 0) return;
+            // Use the matched route, not the raw URI, to keep metric tags bounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+
+            DistributionSummary.builder("db.request.statements")
+                    .description("Statements executed per request")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .record(scope.count());
+
+            if (scope.count() > budget) {
+                Counter.builder("db.request.budget.exceeded")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("{} executed {} statements (budget {}), first: {}",
+                        endpoint, scope.count(), budget, scope.statements().get(0));
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.backend.intellicop.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts statements executed on the current thread while a scope is open. The request
+ * filter opens one scope per request; tests use {@link #assertMaxQueries} to pin a
+ * code path to its query budget.
+ * <p>
+ * Work a request hands to other threads is only counted where that thread
+ * {@link #join joins} the request's scope, as the station scatter and the dashboard
+ * sections do. Anything else off the request thread (coalesced followers, which run no
+ * statement of their own, scheduled jobs, the ingest and audit writers) is not counted.
+ */
+public final class QueryCounter {
+
+    private static final int MAX_RECORDED_STATEMENTS = 50;
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private final Scope previous;
+        // Joined scopes record from several threads at once
+        private final List<String> statements = new ArrayList<>();
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Scope(Scope parent, Scope previous) {
+            this.parent = parent;
+            this.previous = previous;
+        }
+
+        public int count() {
+            return count.get();
+        }
+
+        /** The first statements executed in this scope, for diagnostics. */
+        public List<String> statements() {
+            synchronized (statements) {
+                return List.copyOf(statements);
+            }
+        }
+
+        @Override
+        public void close() {
+            CURRENT.set(previous);
+        }
+    }
+
+    private QueryCounter() {
+    }
+
+    public static Scope open() {
+        Scope current = CURRENT.get();
+        Scope scope = new Scope(current, current);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /** The innermost scope open on this thread, or null; hand it to {@link #join} on a worker thread. */
+    public static Scope current() {
+        return CURRENT.get();
+    }
+
+    /** Counts this thread's statements into {@code scope} (captured on another thread) until closed. */
+    public static Scope join(Scope scope) {
+        Scope joined = new Scope(scope, CURRENT.get());
+        CURRENT.set(joined);
+        return joined;
+    }
+
+    static void record(String sql) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.count.incrementAndGet();
+            synchronized (scope.statements) {
+                if (scope.statements.size() < MAX_RECORDED_STATEMENTS) scope.statements.add(sql);
+            }
+        }
+    }
+
+    /**
+     * Runs the action and fails with an {@link AssertionError} listing the executed
+     * statements if it issued more than {@code maxQueries}.
+     */
+    public static int assertMaxQueries(int maxQueries, ThrowingRunnable action) throws Exception {
+        try (Scope scope = open()) {
+            action.run();
+            if (scope.count() > maxQueries) {
+                throw new AssertionError("Expected at most " + maxQueries + " queries but " + scope.count()
+                        + " were executed:\n  " + String.join("\n  ", scope.statements()));
+            }
+            return scope.count();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.backend.intellicop.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every JDBC statement, logs the ones over the slow-query threshold together with
+ * the shape (types, not values) of their bind parameters, and feeds {@link QueryCounter}.
+ */
+public class QueryInspectingDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryInspectingDataSource.class);
+    private static final int MAX_LOGGED_SQL_LENGTH = 500;
+
+    private final long slowThresholdNanos;
+    private final MeterRegistry meterRegistry;
+    private final Counter slowQueries;
+
+    public QueryInspectingDataSource(DataSource target, Duration slowThreshold, MeterRegistry meterRegistry) {
+        super(target);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.meterRegistry = meterRegistry;
+        this.slowQueries = meterRegistry == null ? null
+                : Counter.builder("db.statement.slow")
+                        .description("Statements slower than the slow-query threshold")
+                        .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection target) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> wrapStatement(Statement.class, (Statement) result, null);
+                case "prepareStatement" -> wrapStatement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall" -> wrapStatement(CallableStatement.class, (Statement) result, (String) args[0]);
+                default -> result;
+            };
+        });
+    }
+
+    private <S extends Statement> S wrapStatement(Class<S> type, Statement target, String preparedSql) {
+        Map<Integer, String> parameterShape = new TreeMap<>();
+        int[] batchSize = { 0 };
+
+        return proxy(type, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameterShape.put(index, "setNull".equals(name) || args[1] == null
+                        ? "null" : args[1].getClass().getSimpleName());
+            } else if ("clearParameters".equals(name)) {
+                parameterShape.clear();
+            } else if ("addBatch".equals(name)) {
+                batchSize[0]++;
+            } else if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                long start = System.nanoTime();
+                try {
+                    return invoke(target, method, args);
+                } finally {
+                    record(sql, System.nanoTime() - start, parameterShape, batchSize[0]);
+                    if (name.endsWith("Batch")) batchSize[0] = 0;
+                }
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private void record(String sql, long elapsedNanos, Map<Integer, String> parameterShape, int batchSize) {
+        QueryCounter.record(sql);
+
+        if (meterRegistry != null) {
+            Timer.builder("db.statement")
+                    .description("JDBC statement execution time")
+                    .tag("type", statementType(sql))
+                    .register(meterRegistry)
+                    .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            if (slowQueries != null) slowQueries.increment();
+            log.warn("Slow query ({} ms, params {}{}): {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    parameterShape.values(),
+                    batchSize > 0 ? ", batch " + batchSize : "",
+                    abbreviate(sql));
+        }
+    }
+
+    private static String statementType(String sql) {
+        if (sql == null) return "other";
+        String trimmed = sql.stripLeading().toLowerCase(Locale.ROOT);
+        for (String type : new String[] { "select", "insert", "update", "delete" }) {
+            if (trimmed.startsWith(type)) return type;
+        }
+        return "other";
+    }
+
+    private static String abbreviate(String sql) {
+        if (sql == null) return "<batch>";
+        return sql.length() <= MAX_LOGGED_SQL_LENGTH ? sql : sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.backend.intellicop.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.backend.intellicop.service.AggregateChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Read/write splitting. {@link #wrap(DataSource)} puts the primary behind a
+ * {@link LazyConnectionDataSourceProxy}, so the physical connection is only fetched once
+ * the transaction's read-only flag is known: read-write work always gets the primary, and
+ * {@code readOnly = true} transactions get the replica unless one of these holds:
+ * <ul>
+ * <li>the thread is pinned by {@link PrimaryReads};</li>
+ * <li>the current request is itself a write (its reads are the basis of the update);</li>
+ * <li>the same client wrote recently (read-your-writes, for at least the current lag);</li>
+ * <li>the replica is unreachable or further behind than the configured maximum lag.</li>
+ * </ul>
+ * Lag is measured with a heartbeat: each node writes its clock to
+ * {@code replication_heartbeat} on the primary and reads it back from the replica, so
+ * clock skew between nodes never enters the figure.
+ */
+public class ReplicaRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRouter.class);
+    private static final int PROBE_TIMEOUT_SECONDS = 2;
+    private static final long HEARTBEAT_RETENTION_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    public enum Route {
+        REPLICA, PINNED, WRITE_REQUEST, READ_YOUR_WRITES, LAGGING, DOWN, FAILOVER
+    }
+
+    private final DataSource replica;
+    private final long maxLagMillis;
+    private final long readYourWritesMillis;
+    private final String node = UUID.randomUUID().toString();
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final Map<Route, Counter> routed = new EnumMap<>(Route.class);
+
+    private volatile DataSource primary;
+    private volatile boolean replicaUp;
+    private volatile long lagMillis = -1; // -1 until the replica has seen one of our beats
+    private boolean staleBeatsPurged;
+
+    public ReplicaRouter(DataSource replica, Duration maxLag, Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLagMillis = maxLag.toMillis();
+        this.readYourWritesMillis = readYourWritesWindow.toMillis();
+
+        for (Route route : Route.values()) {
+            routed.put(route, Counter.builder("datasource.reads")
+                    .description("Read-only connections by where they were routed and why")
+                    .tag("target", route == Route.REPLICA ? "replica" : "primary")
+                    .tag("reason", route.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                    .register(meterRegistry));
+        }
+        Gauge.builder("datasource.replica.lag", this, r -> r.lagMillis < 0 ? Double.NaN : r.lagMillis / 1000.0)
+                .description("Replication lag seen by the heartbeat probe")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /** Routing data source for the given primary; non-read-only work always stays on it. */
+    public DataSource wrap(DataSource primary) {
+        this.primary = primary;
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReadOnlyDataSource(replica));
+        return proxy;
+    }
+
+    /** Where a read-only transaction on the current thread would go right now. */
+    public Route route() {
+        if (PrimaryReads.isPinned()) return Route.PINNED;
+
+        HttpServletRequest request = currentRequest();
+        if (request != null && !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return Route.WRITE_REQUEST;
+        }
+
+        String client = clientKey(request);
+        Long lastWrite = client == null ? null : lastWrites.get(client);
+        if (lastWrite != null && System.currentTimeMillis() - lastWrite < stickyMillis()) {
+            return Route.READ_YOUR_WRITES;
+        }
+
+        if (!replicaUp) return Route.DOWN;
+        long lag = lagMillis;
+        if (lag < 0 || lag > maxLagMillis) return Route.LAGGING;
+        return Route.REPLICA;
+    }
+
+    // Published after commit on the writing thread, so the request and principal are still bound
+    @EventListener
+    public void onLocalWrite(AggregateChangedEvent event) {
+        String client = clientKey(currentRequest());
+        if (client != null) lastWrites.put(client, System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${intellicop.replica.probe-interval-ms:1000}")
+    public void probe() {
+        DataSource primary = this.primary;
+        if (primary == null) return;
+
+        long now = System.currentTimeMillis();
+        try (Connection connection = primary.getConnection()) {
+            beat(connection, now);
+        } catch (SQLException e) {
+            // Nothing to route around when the primary itself is failing; the replica read below still runs
+            log.warn("Replication heartbeat write failed: {}", e.getMessage());
+        }
+
+        boolean wasUp = replicaUp;
+        try (Connection connection = replica.getConnection();
+                PreparedStatement select = connection.prepareStatement(
+                        "SELECT beat_millis FROM replication_heartbeat WHERE node = ?")) {
+            select.setQueryTimeout(PROBE_TIMEOUT_SECONDS);
+            select.setString(1, node);
+            try (ResultSet rows = select.executeQuery()) {
+                lagMillis = rows.next() ? Math.max(0, now - rows.getLong(1)) : -1;
+            }
+            replicaUp = true;
+            if (!wasUp) log.info("Read replica is reachable, lag {} ms", lagMillis);
+        } catch (SQLException e) {
+            replicaUp = false;
+            lagMillis = -1;
+            if (wasUp) log.warn("Read replica is unreachable, reads fail over to the primary: {}", e.getMessage());
+        }
+
+        long stickyMillis = stickyMillis();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= stickyMillis);
+    }
+
+    private void beat(Connection connection, long now) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE replication_heartbeat SET beat_millis = ? WHERE node = ?")) {
+            update.setLong(1, now);
+            update.setString(2, node);
+            if (update.executeUpdate() == 0) {
+                try (PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO replication_heartbeat (node, beat_millis) VALUES (?, ?)")) {
+                    insert.setString(1, node);
+                    insert.setLong(2, now);
+                    insert.executeUpdate();
+                }
+            }
+        }
+        if (!staleBeatsPurged) {
+            // Every restart gets a new node id; drop the rows of long-gone ones
+            try (PreparedStatement delete = connection.prepareStatement(
+                    "DELETE FROM replication_heartbeat WHERE beat_millis < ?")) {
+                delete.setLong(1, now - HEARTBEAT_RETENTION_MILLIS);
+                delete.executeUpdate();
+            }
+            staleBeatsPurged = true;
+        }
+    }
+
+    public long lagMillis() {
+        return lagMillis;
+    }
+
+    public boolean isReplicaUp() {
+        return replicaUp;
+    }
+
+    // A client must keep reading the primary until the replica has applied its write
+    private long stickyMillis() {
+        return Math.max(readYourWritesMillis, lagMillis);
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet ? servlet.getRequest() : null;
+    }
+
+    // Authenticated principal when there is one, otherwise the caller's address; null off-request
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return request == null ? null : "addr:" + request.getRemoteAddr();
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        if (replica.isWrapperFor(AutoCloseable.class)) replica.unwrap(AutoCloseable.class).close();
+    }
+
+    /** Handed read-only connections by the lazy proxy; falls back to the primary per {@link #route()}. */
+    private class ReadOnlyDataSource extends DelegatingDataSource {
+
+        ReadOnlyDataSource(DataSource replica) {
+            super(replica);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Route route = route();
+            if (route == Route.REPLICA) {
+                try {
+                    Connection connection = obtainTargetDataSource().getConnection();
+                    routed.get(Route.REPLICA).increment();
+                    return connection;
+                } catch (SQLException e) {
+                    // Stay off the replica until the next probe finds it again
+                    replicaUp = false;
+                    log.warn("Read replica connection failed, falling back to the primary: {}", e.getMessage());
+                    route = Route.FAILOVER;
+                }
+            }
+            routed.get(route).increment();
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.backend.intellicop.logging;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Assigns every request a correlation ID (taken from {@code X-Correlation-Id} when the
+ * caller sends a sane one), exposes it through the MDC and the response, and writes a
+ * sampled access-log entry when the request completes. Errors and slow requests are
+ * always logged; routine polling endpoints can be sampled down.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Correlation-Id";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final EventLog eventLog;
+    private final double defaultSampleRate;
+    private final long slowRequestMicros;
+    private final Map<String, Double> endpointSampleRates = new HashMap<>();
+
+    public CorrelationIdFilter(EventLog eventLog,
+                               @Value("${intellicop.logging.access.sample-rate:1.0}") double defaultSampleRate,
+                               @Value("${intellicop.logging.access.endpoint-sample-rates:}") String endpointSampleRates,
+                               @Value("${intellicop.logging.access.slow-request-ms:1000}") long slowRequestMs) {
+        this.eventLog = eventLog;
+        this.defaultSampleRate = defaultSampleRate;
+        this.slowRequestMicros = slowRequestMs * 1000;
+        // Format: "GET /api/health/database=0.01,GET /api/visitors/today=0.1"
+        for (String entry : endpointSampleRates.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                this.endpointSampleRates.put(entry.substring(0, separator).trim(),
+                        Double.parseDouble(entry.substring(separator + 1).trim()));
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String correlationId = request.getHeader(HEADER);
+        if (correlationId == null || !VALID_ID.matcher(correlationId).matches()) {
+            correlationId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        MDC.put(EventLog.CORRELATION_ID, correlationId);
+        response.setHeader(HEADER, correlationId);
+
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            chain.doFilter(request, response);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            long durationMicros = (System.nanoTime() - start) / 1000;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+            // An exception escaping the chain becomes a 500 further out; the response still says 200 here
+            int status = failure != null && response.getStatus() < 400 ? 500 : response.getStatus();
+
+            if (status >= 500 || durationMicros >= slowRequestMicros || sampled(endpoint)) {
+                eventLog.access(
+                        "method", request.getMethod(),
+                        "path", request.getRequestURI(),
+                        "query", request.getQueryString(),
+                        "route", pattern,
+                        "status", status,
+                        "durationMicros", durationMicros);
+            }
+            MDC.remove(EventLog.CORRELATION_ID);
+        }
+    }
+
+    private boolean sampled(String endpoint) {
+        double rate = endpointSampleRates.getOrDefault(endpoint, defaultSampleRate);
+        return rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+}
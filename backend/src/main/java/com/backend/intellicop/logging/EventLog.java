@@ -0,0 +1,141 @@
+package com.backend.intellicop.logging;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Structured, asynchronous event log. Request threads only capture the raw fields and
+ * enqueue them on a lock-free ring buffer; a single background writer formats JSON lines,
+ * applies redaction and hands them to SLF4J. When the buffer is full events are dropped
+ * (and counted) rather than ever blocking a request.
+ */
+@Component
+public class EventLog {
+
+    public static final String CORRELATION_ID = "correlationId";
+
+    private static final Logger accessLog = LoggerFactory.getLogger("intellicop.access");
+    private static final Logger eventLog = LoggerFactory.getLogger("intellicop.events");
+
+    private record LogEvent(long timestamp, String type, String correlationId, Object[] fields) {
+    }
+
+    private final MpscRingBuffer<LogEvent> buffer;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public EventLog(@Value("${intellicop.logging.buffer-size:8192}") int bufferSize, MeterRegistry meterRegistry) {
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+        Gauge.builder("eventlog.queue.depth", buffer, MpscRingBuffer::size).register(meterRegistry);
+        FunctionCounter.builder("eventlog.dropped", dropped, LongAdder::sum).register(meterRegistry);
+
+        this.writer = Thread.ofPlatform().name("event-log-writer").daemon(true).unstarted(this::drain);
+        this.writer.start();
+    }
+
+    /** Access log entry for a finished request; fields are alternating keys and values. */
+    public void access(Object... fields) {
+        enqueue("access", fields);
+    }
+
+    /** Application event; fields are alternating keys and values. */
+    public void event(String type, Object... fields) {
+        enqueue(type, fields);
+    }
+
+    private void enqueue(String type, Object[] fields) {
+        LogEvent event = new LogEvent(System.currentTimeMillis(), type, MDC.get(CORRELATION_ID), fields);
+        if (!buffer.offer(event)) dropped.increment();
+    }
+
+    private void drain() {
+        StringBuilder line = new StringBuilder(256);
+        while (running || buffer.size() > 0) {
+            LogEvent event = buffer.poll();
+            if (event == null) {
+                // Blocks until the next offer (or shutdown) instead of polling an idle buffer
+                if (running) buffer.await();
+                continue;
+            }
+            try {
+                line.setLength(0);
+                format(event, line);
+                ("access".equals(event.type()) ? accessLog : eventLog).info(line.toString());
+            } catch (RuntimeException e) {
+                // A broken event must never stop the writer
+                dropped.increment();
+            }
+        }
+    }
+
+    private static void format(LogEvent event, StringBuilder out) {
+        out.append("{\"ts\":\"").append(Instant.ofEpochMilli(event.timestamp())).append('"');
+        out.append(",\"type\":");
+        appendJsonString(out, event.type());
+        if (event.correlationId() != null) {
+            out.append(",\"correlationId\":");
+            appendJsonString(out, event.correlationId());
+        }
+
+        Object[] fields = event.fields();
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            String key = String.valueOf(fields[i]);
+            Object value = fields[i + 1];
+            out.append(',');
+            appendJsonString(out, key);
+            out.append(':');
+            if (Redactor.isSensitive(key)) {
+                appendJsonString(out, Redactor.MASK);
+            } else if ("query".equals(key) && value instanceof String query) {
+                appendJsonString(out, Redactor.redactQuery(query));
+            } else if (value instanceof Number || value instanceof Boolean) {
+                out.append(value);
+            } else if (value == null) {
+                out.append("null");
+            } else {
+                appendJsonString(out, value.toString());
+            }
+        }
+        out.append('}');
+    }
+
+    private static void appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+                    else out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
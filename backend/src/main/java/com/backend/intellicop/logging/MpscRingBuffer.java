@@ -0,0 +1,91 @@
+package com.backend.intellicop.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer ring buffer (Vyukov-style sequenced
+ * slots). Producers claim a slot with one CAS and never block: when the buffer is full
+ * {@link #offer} returns false and the caller decides whether to drop. An idle consumer
+ * blocks in {@link #await} and the next offer wakes it.
+ */
+public class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // only written by the consumer; size() reads it from other threads
+    private volatile Thread waiter;
+
+    public MpscRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) sequences.set(i, i);
+    }
+
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    // Volatile, not release: must not be reordered with the read of the waiter below
+                    sequences.set(index, position + 1);
+                    Thread consumer = waiter;
+                    if (consumer != null) LockSupport.unpark(consumer);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /** Consumer side only. Returns null when nothing is published yet. */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        int index = (int) (head & mask);
+        if (sequences.getAcquire(index) != head + 1) return null;
+        E element = (E) elements[index];
+        elements[index] = null;
+        sequences.setRelease(index, head + mask + 1);
+        head++;
+        return element;
+    }
+
+    /**
+     * Consumer side only. Parks until an element is published, unless one already is.
+     * May return early (interrupt or unpark), so callers poll again and loop.
+     */
+    public void await() {
+        waiter = Thread.currentThread();
+        try {
+            // Re-checked after publishing the waiter, so an offer in between is never missed
+            if (sequences.get((int) (head & mask)) != head + 1) LockSupport.park(this);
+        } finally {
+            waiter = null;
+        }
+    }
+
+    /** Approximate number of queued elements. */
+    public int size() {
+        // Head first: it never passes tail, so a later tail read cannot go negative
+        long consumed = head;
+        return (int) Math.max(0, Math.min(mask + 1, tail.get() - consumed));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,31 @@
+package com.backend.intellicop.logging;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Masks secrets in log output: values of sensitive field names and of sensitive
+ * query-string parameters never reach the log.
+ */
+public final class Redactor {
+
+    public static final String MASK = "[REDACTED]";
+
+    private static final Pattern SENSITIVE_QUERY_PARAM = Pattern.compile(
+            "(?i)((?:^|&)[^=&]*(?:password|passwd|secret|token|api_key|apikey|authorization)[^=&]*=)[^&]*");
+
+    private Redactor() {
+    }
+
+    public static boolean isSensitive(String key) {
+        String lower = key.toLowerCase(Locale.ROOT);
+        return lower.contains("password") || lower.contains("passwd") || lower.contains("secret")
+                || lower.contains("token") || lower.contains("api_key") || lower.contains("apikey")
+                || lower.contains("authorization") || lower.contains("credential");
+    }
+
+    public static String redactQuery(String query) {
+        if (query == null || query.isEmpty()) return query;
+        return SENSITIVE_QUERY_PARAM.matcher(query).replaceAll("$1" + MASK);
+    }
+}
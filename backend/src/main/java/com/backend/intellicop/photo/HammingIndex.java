@@ -0,0 +1,165 @@
+package com.backend.intellicop.photo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Multi-index hashing over 64-bit codes. Each code is split into four 16-bit chunks,
+ * each chunk keys its own table of posting lists. Two codes within distance r agree
+ * to within r/4 bits on at least one chunk, so a search only probes the chunk values
+ * within that radius and verifies the candidates with a popcount.
+ * Codes and ids live in parallel primitive arrays; posting lists hold slot numbers.
+ */
+public class HammingIndex {
+
+    public record Match(long id, int distance) {
+    }
+
+    private static final int CHUNKS = 4;
+    private static final int CHUNK_BITS = 16;
+    private static final int BUCKETS = 1 << CHUNK_BITS;
+    /** Largest supported search radius: keeps the per-chunk probe radius at 2 (137 probes per table). */
+    public static final int MAX_DISTANCE = 3 * CHUNKS - 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // postings[chunk][value] = {length, slot, slot, ...}
+    private final int[][][] postings = new int[CHUNKS][BUCKETS][];
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private long[] codes = new long[1024];
+    private long[] ids = new long[1024];
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int highWater;
+
+    public void put(long id, long code) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotById.get(id);
+            if (existing != null) {
+                if (codes[existing] == code) return;
+                unlink(existing);
+            }
+            int slot = allocate();
+            codes[slot] = code;
+            ids[slot] = id;
+            for (int c = 0; c < CHUNKS; c++) {
+                int value = chunk(code, c);
+                postings[c][value] = append(postings[c][value], slot);
+            }
+            slotById.put(id, slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(id);
+            if (slot == null) return false;
+            unlink(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Entries within {@code maxDistance} of the query, nearest first (ties by id). */
+    public List<Match> search(long query, int maxDistance, int limit) {
+        if (maxDistance < 0 || maxDistance > MAX_DISTANCE) {
+            throw new IllegalArgumentException("maxDistance must be between 0 and " + MAX_DISTANCE);
+        }
+        int chunkRadius = maxDistance / CHUNKS;
+        List<Match> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            BitSet seen = new BitSet(highWater);
+            for (int c = 0; c < CHUNKS; c++) {
+                int value = chunk(query, c);
+                probe(c, value, query, maxDistance, seen, matches);
+                if (chunkRadius >= 1) {
+                    for (int i = 0; i < CHUNK_BITS; i++) {
+                        int one = value ^ (1 << i);
+                        probe(c, one, query, maxDistance, seen, matches);
+                        if (chunkRadius >= 2) {
+                            for (int j = i + 1; j < CHUNK_BITS; j++) {
+                                probe(c, one ^ (1 << j), query, maxDistance, seen, matches);
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingInt(Match::distance).thenComparingLong(Match::id));
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    private void probe(int c, int value, long query, int maxDistance, BitSet seen, List<Match> matches) {
+        int[] list = postings[c][value];
+        if (list == null) return;
+        for (int i = 1; i <= list[0]; i++) {
+            int slot = list[i];
+            if (seen.get(slot)) continue;
+            seen.set(slot);
+            int distance = Long.bitCount(codes[slot] ^ query);
+            if (distance <= maxDistance) matches.add(new Match(ids[slot], distance));
+        }
+    }
+
+    private void unlink(int slot) {
+        long code = codes[slot];
+        for (int c = 0; c < CHUNKS; c++) {
+            int[] list = postings[c][chunk(code, c)];
+            // Swap-remove: posting lists are short and unordered
+            for (int i = 1; i <= list[0]; i++) {
+                if (list[i] == slot) {
+                    list[i] = list[list[0]];
+                    list[0]--;
+                    break;
+                }
+            }
+        }
+        slotById.remove(ids[slot]);
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+        if (highWater == codes.length) {
+            codes = Arrays.copyOf(codes, codes.length * 2);
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        return highWater++;
+    }
+
+    private static int[] append(int[] list, int slot) {
+        if (list == null) list = new int[4];
+        else if (list[0] + 1 == list.length) list = Arrays.copyOf(list, list.length * 2);
+        list[++list[0]] = slot;
+        return list;
+    }
+
+    private static int chunk(long code, int c) {
+        return (int) (code >>> (c * CHUNK_BITS)) & (BUCKETS - 1);
+    }
+}
@@ -0,0 +1,5 @@
+package com.backend.intellicop.photo;
+
+/** A criminal id with its photo hash and row version, as read for the in-memory index. */
+public record PhotoFingerprint(Long id, Long hash, Long version) {
+}
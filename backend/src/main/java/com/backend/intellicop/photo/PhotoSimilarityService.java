@@ -0,0 +1,313 @@
+package com.backend.intellicop.photo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.backend.intellicop.Repository.CriminalRepository;
+import com.backend.intellicop.cluster.LeaderOnly;
+import com.backend.intellicop.dto.SimilarCriminal;
+import com.backend.intellicop.entity.Criminal;
+import com.backend.intellicop.logging.EventLog;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Keeps the in-memory {@link HammingIndex} of criminal photo hashes in step with the
+ * database and answers "who looks like this photo" queries. Hashes are taken at upload
+ * time; photos stored before that are hashed by the backfill job. The index is rebuilt
+ * from the database periodically, which also picks up other nodes' writes. The backfill
+ * only downloads from this deployment's Cloudinary folder.
+ */
+@Service
+public class PhotoSimilarityService {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoSimilarityService.class);
+    private static final int PAGE_SIZE = 1000;
+
+    public record BackfillResult(int scanned, int hashed, int failed) {
+    }
+
+    // id plus new hash at the row version that wrote it; a null hash removes the entry
+    private record Change(long id, Long hash, long version) {
+
+        static Change newest(Change a, Change b) {
+            return b.version() >= a.version() ? b : a;
+        }
+    }
+
+    // Deleted ids are never reused, so a removal outranks every write
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final CriminalRepository criminalRepository;
+    private final EventLog eventLog;
+    private final MeterRegistry meterRegistry;
+    private final Timer searchTimer;
+    private final HttpClient httpClient;
+    private final long maxDownloadBytes;
+    private final String downloadHost;
+    private final String downloadPathPrefix;
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private volatile HammingIndex index = new HammingIndex();
+    // Non-null while a reload scans the table: the newest change per id made meanwhile,
+    // replayed onto the new index unless the scan already read a newer row
+    private volatile Map<Long, Change> pendingDuringReload;
+    // One reload at a time; not a monitor, since the scan waits on the database
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public PhotoSimilarityService(CriminalRepository criminalRepository, EventLog eventLog, MeterRegistry meterRegistry,
+                                  @Value("${intellicop.photo-index.max-download-bytes:10485760}") long maxDownloadBytes,
+                                  @Value("${intellicop.photo-index.download-host:res.cloudinary.com}") String downloadHost,
+                                  @Value("${cloudinary.cloud_name}") String cloudName) {
+        this.criminalRepository = criminalRepository;
+        this.eventLog = eventLog;
+        this.meterRegistry = meterRegistry;
+        this.maxDownloadBytes = maxDownloadBytes;
+        this.downloadHost = downloadHost;
+        this.downloadPathPrefix = "/" + cloudName + "/";
+        // A redirect could lead anywhere, so it is a failed download like any other non-200
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.searchTimer = Timer.builder("photo.similarity.search")
+                .description("Hamming index lookup latency, excluding image decoding")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("photo.index.size", this, service -> service.index.size())
+                .description("Photo hashes held in the similarity index")
+                .register(meterRegistry);
+    }
+
+    /** Hash of an uploaded photo, or null when it cannot be decoded (the upload itself still goes ahead). */
+    public Long fingerprint(byte[] imageBytes) {
+        try {
+            return PerceptualHash.of(imageBytes);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not fingerprint photo: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public List<SimilarCriminal> findSimilar(byte[] imageBytes, int maxDistance, int limit) throws IOException {
+        if (limit < 1 || limit > 100) throw new IllegalArgumentException("limit must be between 1 and 100");
+        long query;
+        try {
+            query = PerceptualHash.of(imageBytes);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read image: " + e.getMessage());
+        }
+
+        List<HammingIndex.Match> matches = searchTimer.record(() -> index.search(query, maxDistance, limit));
+        if (matches.isEmpty()) return List.of();
+
+        // One SELECT ... WHERE id IN (...); rows deleted since indexing are skipped
+        Map<Long, Criminal> byId = criminalRepository.findAllById(matches.stream().map(HammingIndex.Match::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Criminal::getId, Function.identity()));
+        return matches.stream()
+                .filter(match -> byId.containsKey(match.id()))
+                .map(match -> new SimilarCriminal(byId.get(match.id()), match.distance(),
+                        1.0 - match.distance() / 64.0))
+                .toList();
+    }
+
+    // --- Index maintenance (applied after commit so rolled-back writes never show up) ---
+    /** Read after commit, when the flush has set the id and the new version. */
+    public void indexAfterCommit(Criminal criminal) {
+        afterCommit(() -> apply(new Change(criminal.getId(), criminal.getPhotoHash(), criminal.getVersion())));
+    }
+
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> apply(new Change(id, null, DELETED)));
+    }
+
+    private void apply(Change change) {
+        apply(index, change);
+        Map<Long, Change> pending = pendingDuringReload;
+        if (pending != null) pending.merge(change.id(), change, Change::newest);
+    }
+
+    private static void apply(HammingIndex target, Change change) {
+        if (change.hash() == null) target.remove(change.id());
+        else target.put(change.id(), change.hash());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // --- Full rebuild from the database ---
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${intellicop.photo-index.reload-interval-ms:300000}",
+               initialDelayString = "${intellicop.photo-index.reload-interval-ms:300000}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            Map<Long, Change> pending = new ConcurrentHashMap<>();
+            pendingDuringReload = pending;
+            HammingIndex fresh = new HammingIndex();
+            // Ascending ids with the version each was read at
+            long[] ids = new long[PAGE_SIZE];
+            long[] versions = new long[PAGE_SIZE];
+            int scanned = 0;
+            long after = 0;
+            List<PhotoFingerprint> page;
+            do {
+                page = criminalRepository.findPhotoFingerprints(after, Limit.of(PAGE_SIZE));
+                if (scanned + page.size() > ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                    versions = Arrays.copyOf(versions, versions.length * 2);
+                }
+                for (PhotoFingerprint fingerprint : page) {
+                    fresh.put(fingerprint.id(), fingerprint.hash());
+                    ids[scanned] = fingerprint.id();
+                    versions[scanned++] = fingerprint.version();
+                    after = fingerprint.id();
+                }
+            } while (page.size() == PAGE_SIZE);
+
+            index = fresh;
+            // Changes arriving from here on also reach fresh directly; the merge keeps the newest
+            for (Change change : pending.values()) {
+                int at = Arrays.binarySearch(ids, 0, scanned, change.id());
+                if (at >= 0 && versions[at] > change.version()) continue;
+                apply(fresh, change);
+            }
+        } finally {
+            pendingDuringReload = null;
+            reloadLock.unlock();
+        }
+    }
+
+    // --- Backfill: hash photos stored before fingerprinting existed ---
+    @Scheduled(fixedDelayString = "${intellicop.photo-index.backfill-interval-ms:3600000}",
+               initialDelayString = "${intellicop.photo-index.backfill-initial-delay-ms:60000}")
+    @LeaderOnly("photo-backfill")
+    public void scheduledBackfill() {
+        backfill();
+    }
+
+    /** Starts a backfill in the background; false if one is already running. */
+    public boolean startBackfill() {
+        if (backfillRunning.get()) return false;
+        Thread.ofVirtual().name("photo-backfill").start(this::backfill);
+        return true;
+    }
+
+    public BackfillResult backfill() {
+        if (!backfillRunning.compareAndSet(false, true)) return null;
+        int scanned = 0;
+        int hashed = 0;
+        int failed = 0;
+        try {
+            long after = 0;
+            List<PhotoSource> page;
+            do {
+                page = criminalRepository.findUnhashedPhotos(after, Limit.of(PAGE_SIZE));
+                for (PhotoSource source : page) {
+                    after = source.id();
+                    scanned++;
+                    try {
+                        long hash = PerceptualHash.of(load(source.photo()));
+                        // The version is not bumped, so the change carries the one it was read at
+                        if (criminalRepository.setPhotoHash(source.id(), source.version(), hash) == 1) {
+                            apply(new Change(source.id(), hash, source.version()));
+                            hashed++;
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        failed++;
+                        log.debug("Could not fingerprint photo of criminal {}: {}", source.id(), e.getMessage());
+                    }
+                }
+            } while (page.size() == PAGE_SIZE);
+        } finally {
+            backfillRunning.set(false);
+        }
+
+        meterRegistry.counter("photo.backfill", "outcome", "hashed").increment(hashed);
+        meterRegistry.counter("photo.backfill", "outcome", "failed").increment(failed);
+        if (scanned > 0) eventLog.event("photo.backfill", "scanned", scanned, "hashed", hashed, "failed", failed);
+        return new BackfillResult(scanned, hashed, failed);
+    }
+
+    private byte[] load(String photo) throws IOException {
+        if (photo.startsWith("data:")) {
+            int comma = photo.indexOf(',');
+            if (comma < 0 || !photo.substring(0, comma).endsWith(";base64")) throw new IOException("Unsupported data URI");
+            return Base64.getDecoder().decode(photo.substring(comma + 1));
+        }
+
+        URI uri = URI.create(photo);
+        if (!isUpload(uri)) throw new IOException("Not a photo in this deployment's Cloudinary folder");
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(15)).GET().build();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) throw new IOException("HTTP " + response.statusCode());
+                return readLimited(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading photo", e);
+        }
+    }
+
+    // Stored photo URLs are only ever our own uploads; anything else is not fetched
+    private boolean isUpload(URI uri) {
+        return "https".equals(uri.getScheme())
+                && uri.getRawUserInfo() == null
+                && downloadHost.equalsIgnoreCase(uri.getHost())
+                && (uri.getPort() == -1 || uri.getPort() == 443)
+                && uri.getRawPath() != null
+                && uri.getRawPath().startsWith(downloadPathPrefix)
+                && !uri.getRawPath().contains("/../");
+    }
+
+    private byte[] readLimited(InputStream body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[16 * 1024];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            if (out.size() + read > maxDownloadBytes) throw new IOException("Photo larger than " + maxDownloadBytes + " bytes");
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
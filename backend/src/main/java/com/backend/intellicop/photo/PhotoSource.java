@@ -0,0 +1,5 @@
+package com.backend.intellicop.photo;
+
+/** A criminal id with the stored photo reference and row version, as read by the backfill job. */
+public record PhotoSource(Long id, String photo, Long version) {
+}
@@ -0,0 +1,11 @@
+package com.backend.intellicop.screening;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** Outcome of screening one day's roster; {@code flagged} lists only meetings with hits. */
+public record ScreeningReport(LocalDate date, int screened, int watchlistSize, List<Flagged> flagged) {
+
+    public record Flagged(Long meetingId, String visitorName, String inmateName, List<WatchlistHit> hits) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.backend.intellicop.screening;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.backend.intellicop.Repository.CriminalRepository;
+import com.backend.intellicop.Repository.VisitorMeetingRepository;
+import com.backend.intellicop.cluster.LeaderOnly;
+import com.backend.intellicop.entity.VisitorMeeting;
+import com.backend.intellicop.logging.EventLog;
+import com.backend.intellicop.service.ResourceVersionService;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Screens visitor names against wanted and high-threat criminals. The watchlist index
+ * is built once and rebuilt only when the criminal data version (local or remote writes)
+ * has moved. The morning job screens the day's roster in one pass; schedule and
+ * reschedule screen the single meeting before it is saved.
+ */
+@Service
+public class VisitorScreeningService {
+
+    public static final String CLEAR = "CLEAR";
+    public static final String HIT = "HIT";
+    private static final int MAX_MATCHES_LENGTH = 1000;
+
+    private final CriminalRepository criminalRepository;
+    private final VisitorMeetingRepository visitorMeetingRepository;
+    private final ResourceVersionService resourceVersions;
+    private final EventLog eventLog;
+    private final MeterRegistry meterRegistry;
+    private final List<String> statuses;
+    private final List<String> threats;
+    private final ZoneId zone;
+    // Not a monitor: the rebuild queries the database, which would pin a virtual thread
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile WatchlistIndex index;
+
+    public VisitorScreeningService(CriminalRepository criminalRepository,
+                                   VisitorMeetingRepository visitorMeetingRepository,
+                                   ResourceVersionService resourceVersions,
+                                   EventLog eventLog,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${intellicop.screening.statuses:Wanted}") String statuses,
+                                   @Value("${intellicop.screening.threats:High}") String threats,
+                                   @Value("${intellicop.screening.zone:Asia/Kolkata}") ZoneId zone) {
+        this.criminalRepository = criminalRepository;
+        this.visitorMeetingRepository = visitorMeetingRepository;
+        this.resourceVersions = resourceVersions;
+        this.eventLog = eventLog;
+        this.meterRegistry = meterRegistry;
+        this.statuses = split(statuses);
+        this.threats = split(threats);
+        this.zone = zone;
+        Gauge.builder("screening.watchlist.size", this, s -> s.index == null ? 0 : s.index.size())
+                .description("Criminals in the visitor screening index")
+                .register(meterRegistry);
+    }
+
+    /** Sets the screening fields on a meeting that is about to be saved. */
+    public void screen(VisitorMeeting meeting) {
+        apply(meeting, currentIndex().match(meeting.getVisitorName()));
+    }
+
+    // Runs before the morning shift; earlier reschedules were screened as they happened
+    @Scheduled(cron = "${intellicop.screening.cron:0 0 6 * * *}", zone = "${intellicop.screening.zone:Asia/Kolkata}")
+    @LeaderOnly("visitor-screening")
+    public void screenTodaysRoster() {
+        screenRoster(today());
+    }
+
+    // The job and the endpoints' default agree on which roster is "today"
+    public LocalDate today() {
+        return LocalDate.now(zone);
+    }
+
+    public ScreeningReport screenRoster(LocalDate date) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        WatchlistIndex watchlist = currentIndex();
+        List<VisitorMeeting> roster = visitorMeetingRepository.findByScheduledDate(date);
+
+        List<ScreeningReport.Flagged> flagged = new ArrayList<>();
+        int changed = 0;
+        for (VisitorMeeting meeting : roster) {
+            List<WatchlistHit> hits = watchlist.match(meeting.getVisitorName());
+            String status = meeting.getScreeningStatus();
+            String matches = meeting.getScreeningMatches();
+            apply(meeting, hits);
+            // Only rows whose verdict changed are written; a visitor renamed since the read
+            // was screened by the rename and keeps that verdict
+            if (!Objects.equals(status, meeting.getScreeningStatus())
+                    || !Objects.equals(matches, meeting.getScreeningMatches())) {
+                if (visitorMeetingRepository.updateScreening(meeting.getId(), meeting.getVisitorName(),
+                        meeting.getScreeningStatus(), meeting.getScreeningMatches(), meeting.getScreenedAt()) == 0) {
+                    continue;
+                }
+                changed++;
+            }
+            if (!hits.isEmpty()) {
+                flagged.add(new ScreeningReport.Flagged(meeting.getId(), meeting.getVisitorName(),
+                        meeting.getInmateName(), hits));
+            }
+        }
+        if (changed > 0) resourceVersions.touch(Aggregate.VISITOR);
+
+        sample.stop(meterRegistry.timer("screening.roster"));
+        meterRegistry.counter("screening.hits").increment(flagged.size());
+        eventLog.event("visitors.screened", "date", date, "screened", roster.size(),
+                "flagged", flagged.size(), "changed", changed);
+        return new ScreeningReport(date, roster.size(), watchlist.size(), flagged);
+    }
+
+    public List<VisitorMeeting> getFlagged(LocalDate date) {
+        return visitorMeetingRepository.findByScheduledDateAndScreeningStatus(date, HIT);
+    }
+
+    private void apply(VisitorMeeting meeting, List<WatchlistHit> hits) {
+        meeting.setScreeningStatus(hits.isEmpty() ? CLEAR : HIT);
+        String matches = hits.isEmpty() ? null
+                : hits.stream().map(WatchlistHit::describe).collect(Collectors.joining("; "));
+        if (matches != null && matches.length() > MAX_MATCHES_LENGTH) {
+            matches = matches.substring(0, MAX_MATCHES_LENGTH - 3) + "...";
+        }
+        meeting.setScreeningMatches(matches);
+        meeting.setScreenedAt(LocalDateTime.now());
+    }
+
+    // Rebuilt lazily; the criminal ETag moves on every local write and on remote ones seen by the cache poll
+    private WatchlistIndex currentIndex() {
+        String version = resourceVersions.etag(Aggregate.CRIMINAL, null).tag();
+        WatchlistIndex current = index;
+        if (current != null && current.version().equals(version)) return current;
+        rebuildLock.lock();
+        try {
+            current = index;
+            if (current == null || !current.version().equals(version)) {
+                current = new WatchlistIndex(version, criminalRepository.findWatchlist(statuses, threats));
+                index = current;
+            }
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static List<String> split(String values) {
+        return Arrays.stream(values.split(",")).map(String::trim).filter(v -> !v.isEmpty()).toList();
+    }
+}
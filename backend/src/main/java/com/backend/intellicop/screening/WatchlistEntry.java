@@ -0,0 +1,5 @@
+package com.backend.intellicop.screening;
+
+/** A wanted or high-threat criminal, as loaded into the screening index. */
+public record WatchlistEntry(Long criminalId, String name, String status, String threat) {
+}
@@ -0,0 +1,16 @@
+package com.backend.intellicop.screening;
+
+/**
+ * A watchlist criminal matched by a visitor name. EXACT: same name tokens in any
+ * order; CONTAINS: every token of a multi-word criminal name appears in the visitor name.
+ */
+public record WatchlistHit(Long criminalId, String name, String status, String threat, MatchType match) {
+
+    public enum MatchType {
+        EXACT, CONTAINS
+    }
+
+    public String describe() {
+        return name + " (#" + criminalId + ", " + status + "/" + threat + ", " + match + ")";
+    }
+}
@@ -0,0 +1,76 @@
+package com.backend.intellicop.screening;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.backend.intellicop.dedup.NameKeys;
+import com.backend.intellicop.screening.WatchlistHit.MatchType;
+
+/**
+ * Immutable lookup over watchlist names, built once per criminal-data version. A
+ * visitor name is matched by its normalised key (exact) and by counting token hits
+ * per criminal in one pass over the visitor's tokens (contains).
+ */
+final class WatchlistIndex {
+
+    private final String version;
+    private final WatchlistEntry[] entries;
+    private final int[] tokenCounts;
+    private final Map<String, List<Integer>> byKey = new HashMap<>();
+    private final Map<String, List<Integer>> byToken = new HashMap<>();
+
+    WatchlistIndex(String version, List<WatchlistEntry> watchlist) {
+        this.version = version;
+        this.entries = watchlist.toArray(WatchlistEntry[]::new);
+        this.tokenCounts = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            String key = NameKeys.name(entries[i].name());
+            if (key.isEmpty()) continue;
+            byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            Set<String> tokens = tokens(key);
+            tokenCounts[i] = tokens.size();
+            // Single-word names only match exactly; as a substring they flag half the roster
+            if (tokens.size() < 2) continue;
+            for (String token : tokens) byToken.computeIfAbsent(token, k -> new ArrayList<>()).add(i);
+        }
+    }
+
+    String version() {
+        return version;
+    }
+
+    int size() {
+        return entries.length;
+    }
+
+    List<WatchlistHit> match(String visitorName) {
+        String key = NameKeys.name(visitorName);
+        if (key.isEmpty()) return List.of();
+
+        List<WatchlistHit> hits = new ArrayList<>();
+        List<Integer> exact = byKey.getOrDefault(key, List.of());
+        for (int i : exact) hits.add(hit(i, MatchType.EXACT));
+
+        Map<Integer, Integer> tokenHits = new HashMap<>();
+        for (String token : tokens(key)) {
+            for (int i : byToken.getOrDefault(token, List.of())) tokenHits.merge(i, 1, Integer::sum);
+        }
+        tokenHits.forEach((i, count) -> {
+            if (count == tokenCounts[i] && !exact.contains(i)) hits.add(hit(i, MatchType.CONTAINS));
+        });
+        return hits;
+    }
+
+    private WatchlistHit hit(int i, MatchType match) {
+        WatchlistEntry entry = entries[i];
+        return new WatchlistHit(entry.criminalId(), entry.name(), entry.status(), entry.threat(), match);
+    }
+
+    private static Set<String> tokens(String key) {
+        return new LinkedHashSet<>(List.of(key.split(" ")));
+    }
+}
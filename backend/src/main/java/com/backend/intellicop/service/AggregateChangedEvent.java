@@ -0,0 +1,7 @@
+package com.backend.intellicop.service;
+
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
+
+/** Published after a local write to an aggregate has committed. */
+public record AggregateChangedEvent(Aggregate aggregate) {
+}
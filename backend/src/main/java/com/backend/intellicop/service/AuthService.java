@@ -8,7 +8,10 @@ import org.springframework.stereotype.Service;
 import com.backend.intellicop.Repository.UserRepository;
 import com.backend.intellicop.entity.User;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed(value = "intellicop.service", description = "Service method latency")
 public class AuthService {
 
     private final UserRepository userRepository;
@@ -0,0 +1,8 @@
+package com.backend.intellicop.service;
+
+public class CriminalNotFoundException extends RuntimeException {
+
+    public CriminalNotFoundException(Long id) {
+        super("Criminal not found with ID: " + id);
+    }
+}
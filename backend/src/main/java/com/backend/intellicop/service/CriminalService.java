@@ -2,46 +2,210 @@ package com.backend.intellicop.service;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.backend.intellicop.Repository.CriminalRepository;
+import com.backend.intellicop.Repository.CriminalSpecifications;
+import com.backend.intellicop.Repository.FieldProjectionRepository;
+import com.backend.intellicop.audit.Audited;
+import com.backend.intellicop.cache.NearCache;
+import com.backend.intellicop.cache.NearCacheManager;
+import com.backend.intellicop.concurrency.Coalesced;
+import com.backend.intellicop.dedup.DuplicateDetectionService;
+import com.backend.intellicop.dto.CriminalFacets;
+import com.backend.intellicop.dto.CriminalFilter;
+import com.backend.intellicop.dto.CriminalSearchResult;
+import com.backend.intellicop.dto.FieldSet;
+import com.backend.intellicop.dto.StationPage;
 import com.backend.intellicop.entity.Criminal;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import com.backend.intellicop.photo.PhotoSimilarityService;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
+import com.backend.intellicop.station.StationScatter;
+
+import io.micrometer.core.annotation.Timed;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
+@Timed(value = "intellicop.service", description = "Service method latency")
 @RequiredArgsConstructor
 public class CriminalService {
 
     private final CriminalRepository criminalRepository;
-    private final Cloudinary cloudinary;
+    private final PhotoUploadService photoUploadService;
+    private final ResourceVersionService resourceVersions;
+    private final NearCacheManager nearCacheManager;
+    private final PhotoSimilarityService photoSimilarity;
+    private final DuplicateDetectionService duplicateDetection;
+    private final StationScatter stationScatter;
+    private final FieldProjectionRepository fieldProjections;
+    private final TransactionTemplate transactionTemplate;
 
+    // A cache miss right after a write would otherwise send every waiting dashboard to the database
+    @Coalesced(timeout = "${intellicop.coalescing.criminal-list-timeout:15s}")
     public List<Criminal> getAll() {
-        return criminalRepository.findAll();
+        NearCache<Object, List<Criminal>> cache = nearCacheManager.cache(Aggregate.CRIMINAL);
+        return cache.getOrLoad("all", () -> List.copyOf(criminalRepository.findAll()));
+    }
+
+    public Optional<Criminal> getById(Long id) {
+        NearCache<Object, Criminal> cache = nearCacheManager.cache(Aggregate.CRIMINAL);
+        return Optional.ofNullable(cache.getOrLoad(id, () -> criminalRepository.findById(id).orElse(null)));
+    }
+
+    // ?fields=: only the chosen columns are read; cached per selection like the full list
+    @Coalesced(timeout = "${intellicop.coalescing.criminal-list-timeout:15s}")
+    public List<Map<String, Object>> getAll(FieldSet fields) {
+        NearCache<Object, List<Map<String, Object>>> cache = nearCacheManager.cache(Aggregate.CRIMINAL);
+        return cache.getOrLoad("all:" + fields.signature(),
+                () -> fieldProjections.findAll(Criminal.class, fields, null));
+    }
+
+    public Optional<Map<String, Object>> getById(Long id, FieldSet fields) {
+        NearCache<Object, Map<String, Object>> cache = nearCacheManager.cache(Aggregate.CRIMINAL);
+        return Optional.ofNullable(cache.getOrLoad(id + ":" + fields.signature(),
+                () -> fieldProjections.findById(Criminal.class, id, fields).orElse(null)));
+    }
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public CriminalSearchResult search(CriminalFilter filter, int page, int size) {
+        if (page < 0) throw new IllegalArgumentException("page must not be negative");
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (filter.getMinAge() != null && filter.getMaxAge() != null && filter.getMinAge() > filter.getMaxAge()) {
+            throw new IllegalArgumentException("minAge must not exceed maxAge");
+        }
+
+        Specification<Criminal> spec = CriminalSpecifications.matching(filter);
+        Page<Criminal> result = criminalRepository.findAll(spec, PageRequest.of(page, size, Sort.by("id")));
+        return new CriminalSearchResult(result.getContent(), page, size, result.getTotalElements(),
+                facets(filter));
+    }
+
+    // Every station's criminals in id order; the cursor comes from the previous page
+    public StationPage<Criminal> getAllStations(String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return stationScatter.gather(cursor, size, criminalRepository::findByIdGreaterThanOrderByIdAsc,
+                Criminal::getId);
+    }
+
+    // Cached per filter signature; any criminal write clears the region
+    public CriminalFacets facets(CriminalFilter filter) {
+        NearCache<Object, CriminalFacets> cache = nearCacheManager.cache(Aggregate.CRIMINAL);
+        return cache.getOrLoad("facets:" + filter.signature(),
+                () -> criminalRepository.facetCounts(CriminalSpecifications.matching(filter)));
     }
 
+    @Audited(entity = "criminal", action = "create", id = "#result?.id")
     public Criminal addCriminal(Criminal criminal, MultipartFile photo) throws IOException {
         if (photo != null && !photo.isEmpty()) {
             criminal.setPhoto(uploadPhoto(photo));
+            criminal.setPhotoHash(photoSimilarity.fingerprint(photo.getBytes()));
+        }
+        Criminal saved = criminalRepository.save(criminal);
+        photoSimilarity.indexAfterCommit(saved);
+        duplicateDetection.checkOnInsert(saved);
+        resourceVersions.touch(Aggregate.CRIMINAL);
+        return saved;
+    }
+
+    // --- Edit criminal: copy editable fields onto the managed row ---
+    // The upload happens first, so a slow Cloudinary call never holds a connection or the row
+    @Audited(entity = "criminal", action = "update")
+    public Criminal updateCriminal(Long id, Criminal changes, MultipartFile photo) throws IOException {
+        // Only a newly uploaded file replaces the photo
+        boolean newPhoto = photo != null && !photo.isEmpty();
+        String photoUrl = newPhoto ? uploadPhoto(photo) : null;
+        Long photoHash = newPhoto ? photoSimilarity.fingerprint(photo.getBytes()) : null;
+
+        return transactionTemplate.execute(status -> {
+            Criminal existing = criminalRepository.findById(id).orElseThrow(() -> new CriminalNotFoundException(id));
+            if (changes.getVersion() != null) checkVersion(existing, changes.getVersion());
+
+            existing.setName(changes.getName());
+            existing.setAge(changes.getAge());
+            existing.setCrime(changes.getCrime());
+            existing.setThreat(changes.getThreat());
+            existing.setLastSeen(changes.getLastSeen());
+            existing.setStatus(changes.getStatus());
+            existing.setRecord(changes.getRecord());
+            if (newPhoto) {
+                existing.setPhoto(photoUrl);
+                existing.setPhotoHash(photoHash);
+                photoSimilarity.indexAfterCommit(existing);
+            }
+
+            resourceVersions.touch(Aggregate.CRIMINAL);
+            return existing;
+        });
+    }
+
+    // --- Partial update: only the given fields, guarded by the expected version ---
+    @Transactional
+    @Audited(entity = "criminal", action = "patch", detail = "#changes.keySet()")
+    public Criminal patchCriminal(Long id, long expectedVersion, Map<String, Object> changes) {
+        Criminal existing = criminalRepository.findById(id).orElseThrow(() -> new CriminalNotFoundException(id));
+        checkVersion(existing, expectedVersion);
+
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            applyChange(existing, change.getKey(), change.getValue());
+        }
+
+        // Dirty checking flushes a narrow UPDATE ... WHERE id = ? AND version = ? on commit
+        resourceVersions.touch(Aggregate.CRIMINAL);
+        return existing;
+    }
+
+    private static void checkVersion(Criminal existing, long expectedVersion) {
+        if (existing.getVersion() == null || existing.getVersion() != expectedVersion) {
+            throw new ObjectOptimisticLockingFailureException(Criminal.class, existing.getId());
+        }
+    }
+
+    private static void applyChange(Criminal criminal, String field, Object value) {
+        try {
+            switch (field) {
+                case "name" -> criminal.setName((String) value);
+                case "age" -> criminal.setAge(((Number) value).intValue());
+                case "crime" -> criminal.setCrime((String) value);
+                case "threat" -> criminal.setThreat((String) value);
+                case "lastSeen" -> criminal.setLastSeen((String) value);
+                case "status" -> criminal.setStatus((String) value);
+                case "record" -> criminal.setRecord((String) value);
+                default -> throw new IllegalArgumentException("Field cannot be patched: " + field);
+            }
+        } catch (ClassCastException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid value for field: " + field);
         }
-        return criminalRepository.save(criminal);
     }
 
+    @Audited(entity = "criminal", action = "delete")
     public void deleteCriminal(Long id) {
         if (!criminalRepository.existsById(id)) {
-            throw new RuntimeException("Criminal not found with ID: " + id);
+            throw new CriminalNotFoundException(id);
         }
         criminalRepository.deleteById(id);
+        photoSimilarity.removeAfterCommit(id);
+        duplicateDetection.forgetCriminal(id);
+        resourceVersions.touch(Aggregate.CRIMINAL);
     }
 
     public String uploadPhoto(MultipartFile file) throws IOException {
-        if (file == null || file.isEmpty()) return null;
-        var uploadResult = cloudinary.uploader().upload(file.getBytes(),
-                ObjectUtils.asMap("folder", "intellicop/criminals"));
-        return uploadResult.get("secure_url").toString();
+        return photoUploadService.upload(file, "intellicop/criminals");
     }
 }
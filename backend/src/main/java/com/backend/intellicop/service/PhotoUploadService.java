@@ -0,0 +1,60 @@
+package com.backend.intellicop.service;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.backend.intellicop.concurrency.Bulkhead;
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Service
+public class PhotoUploadService {
+
+    private final Cloudinary cloudinary;
+    private final Bulkhead photoUploadBulkhead;
+    private final MeterRegistry meterRegistry;
+
+    public PhotoUploadService(Cloudinary cloudinary, @Qualifier("photoUploadBulkhead") Bulkhead photoUploadBulkhead,
+                              MeterRegistry meterRegistry) {
+        this.cloudinary = cloudinary;
+        this.photoUploadBulkhead = photoUploadBulkhead;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Uploads to Cloudinary under the given folder and returns the secure URL, or null for no file. */
+    public String upload(MultipartFile file, String folder) throws IOException {
+        if (file == null || file.isEmpty()) return null;
+        // Read the multipart body before taking a permit so slow clients don't hold one
+        byte[] bytes = file.getBytes();
+        DistributionSummary.builder("photo.upload.size")
+                .baseUnit("bytes")
+                .tag("folder", folder)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(bytes.length);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Map<?, ?> uploadResult = photoUploadBulkhead.execute(
+                    () -> cloudinary.uploader().upload(bytes, ObjectUtils.asMap("folder", folder)));
+            outcome = "success";
+            return uploadResult.get("secure_url").toString();
+        } finally {
+            sample.stop(Timer.builder("photo.upload")
+                    .description("Cloudinary upload latency, including bulkhead wait")
+                    .tag("folder", folder)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
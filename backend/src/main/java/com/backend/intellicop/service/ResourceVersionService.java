@@ -0,0 +1,172 @@
+package com.backend.intellicop.service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.backend.intellicop.station.StationContext;
+
+/**
+ * Keeps a version counter per aggregate (criminals, users, visitors) so list and
+ * detail endpoints can answer conditional GETs without touching the database.
+ * Every mutating service method calls {@link #touch(Aggregate)}.
+ */
+@Service
+public class ResourceVersionService {
+
+    public enum Aggregate {
+        CRIMINAL, USER, VISITOR
+    }
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private static final class Version {
+        private final AtomicLong counter = new AtomicLong();
+        private volatile long lastModified;
+
+        Version(long lastModified) {
+            this.lastModified = lastModified;
+        }
+    }
+
+    // Counters restart at zero, so the boot time keeps ETags unique across restarts
+    private final long epoch = System.currentTimeMillis();
+    private final Map<Aggregate, Version> versions = new EnumMap<>(Aggregate.class);
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ResourceVersionService(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        for (Aggregate aggregate : Aggregate.values()) {
+            versions.put(aggregate, new Version(epoch));
+        }
+    }
+
+    // --- Bump version (after commit when inside a transaction) ---
+    public void touch(Aggregate aggregate) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed(aggregate);
+                }
+            });
+        } else {
+            changed(aggregate);
+        }
+    }
+
+    // Caches are emptied before the version moves: a reader holding the new ETag can only
+    // load fresh rows, while one in between pairs the old ETag with them (a harmless extra 200)
+    private void changed(Aggregate aggregate) {
+        try {
+            eventPublisher.publishEvent(new AggregateChangedEvent(aggregate));
+        } finally {
+            bump(aggregate);
+        }
+    }
+
+    // --- Bump version for a change made by another node ---
+    public void refresh(Aggregate aggregate) {
+        bump(aggregate);
+    }
+
+    private void bump(Aggregate aggregate) {
+        Version version = versions.get(aggregate);
+        version.counter.incrementAndGet();
+        version.lastModified = System.currentTimeMillis();
+    }
+
+    public ETag etag(Aggregate aggregate, String variant) {
+        long counter = versions.get(aggregate).counter.get();
+        String tag = aggregate.name().toLowerCase() + "-" + epoch + "-" + counter;
+        if (variant != null) tag += "-" + variant;
+        return new ETag(tag, true);
+    }
+
+    public long lastModified(Aggregate aggregate) {
+        return versions.get(aggregate).lastModified;
+    }
+
+    /**
+     * Answers 304 when the client's validators still match, otherwise runs the loader
+     * and stamps a successful response with ETag and Last-Modified. The validators are
+     * read before the loader runs, so a concurrent write can only make them older.
+     * CBOR and Smile bodies are separate representations and get their own tags.
+     */
+    public <T> ResponseEntity<T> conditionalGet(Aggregate aggregate, String variant,
+                                                HttpHeaders requestHeaders, Supplier<ResponseEntity<T>> loader) {
+        // Versions only track this deployment's writes; another station's rows have no validator here
+        if (StationContext.isRemote()) return loader.get();
+
+        ETag etag = etag(aggregate, withEncoding(variant, requestHeaders));
+        long lastModified = lastModified(aggregate);
+
+        if (isNotModified(requestHeaders, etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag.formattedTag())
+                    .lastModified(lastModified)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+
+        ResponseEntity<T> response = loader.get();
+        if (!response.getStatusCode().is2xxSuccessful()) return response;
+
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(etag.formattedTag())
+                .lastModified(lastModified)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(response.getBody());
+    }
+
+    public <T> ResponseEntity<T> conditionalGet(Aggregate aggregate, HttpHeaders requestHeaders, Supplier<T> body) {
+        return conditionalGet(aggregate, null, requestHeaders, () -> ResponseEntity.ok(body.get()));
+    }
+
+    // An Accept naming a binary type may still be answered with JSON; that only costs a cache miss
+    private static String withEncoding(String variant, HttpHeaders requestHeaders) {
+        String encoding = null;
+        try {
+            for (MediaType accepted : requestHeaders == null ? List.<MediaType>of() : requestHeaders.getAccept()) {
+                if (accepted.isWildcardSubtype()) continue;
+                if (accepted.isCompatibleWith(MediaType.APPLICATION_CBOR)) encoding = "cbor";
+                else if (accepted.isCompatibleWith(SMILE) && encoding == null) encoding = "smile";
+            }
+        } catch (InvalidMediaTypeException e) {
+            return variant; // MVC rejects the request anyway
+        }
+        if (encoding == null) return variant;
+        return variant == null ? encoding : variant + "-" + encoding;
+    }
+
+    private boolean isNotModified(HttpHeaders requestHeaders, ETag etag, long lastModified) {
+        if (requestHeaders == null) return false;
+
+        // If-None-Match takes precedence over If-Modified-Since
+        List<String> ifNoneMatch = requestHeaders.get(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && !ifNoneMatch.isEmpty()) {
+            for (ETag candidate : ETag.parse(String.join(",", ifNoneMatch))) {
+                if (candidate.isWildcard() || candidate.compare(etag, false)) return true;
+            }
+            return false;
+        }
+
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        // HTTP dates have second precision
+        return ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+}
@@ -2,30 +2,44 @@ package com.backend.intellicop.service;
 
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.backend.intellicop.Repository.FieldProjectionRepository;
 import com.backend.intellicop.Repository.UserRepository;
+import com.backend.intellicop.audit.Audited;
+import com.backend.intellicop.cache.NearCache;
+import com.backend.intellicop.cache.NearCacheManager;
+import com.backend.intellicop.concurrency.Coalesced;
 import com.backend.intellicop.dto.CreateUserRequest;
+import com.backend.intellicop.dto.FieldSet;
 import com.backend.intellicop.entity.User;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
+
+import io.micrometer.core.annotation.Timed;
 
 import lombok.RequiredArgsConstructor;
 
 
 @Service
+@Timed(value = "intellicop.service", description = "Service method latency")
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final Cloudinary cloudinary;
+    private final PhotoUploadService photoUploadService;
+    private final ResourceVersionService resourceVersions;
+    private final NearCacheManager nearCacheManager;
+    private final FieldProjectionRepository fieldProjections;
 
     // --- Create user ---
+    @Audited(entity = "user", action = "create", id = "#result?.id", detail = "'role=' + #req.role")
     public User createUser(CreateUserRequest req) throws IOException {
         String photoUrl = uploadPhoto(req.getPhoto());
         User user = new User();
@@ -34,38 +48,55 @@ public class UserService {
         user.setRole(req.getRole());
         user.setPhotoUrl(photoUrl);
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        resourceVersions.touch(Aggregate.USER);
+        return saved;
     }
 
     // --- Upload photo helper ---
     private String uploadPhoto(org.springframework.web.multipart.MultipartFile photo) throws IOException {
-        if (photo == null || photo.isEmpty()) return null;
-        Map uploadResult = cloudinary.uploader().upload(
-            photo.getBytes(),
-            ObjectUtils.asMap("folder", "intellicop/users")
-        );
-        return uploadResult.get("secure_url").toString();
+        return photoUploadService.upload(photo, "intellicop/users");
     }
 
     // --- Get all users ---
+    @Coalesced
     public java.util.List<User> getAllUsers() {
-        return userRepository.findAll();
+        NearCache<Object, java.util.List<User>> cache = nearCacheManager.cache(Aggregate.USER);
+        return cache.getOrLoad("all", () -> java.util.List.copyOf(userRepository.findAll()));
     }
 
     // --- Get user by ID ---
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+        NearCache<Object, User> cache = nearCacheManager.cache(Aggregate.USER);
+        return Optional.ofNullable(cache.getOrLoad(id, () -> userRepository.findById(id).orElse(null)));
+    }
+
+    // --- Sparse reads (?fields=): only the chosen columns ---
+    @Coalesced
+    public List<Map<String, Object>> getAllUsers(FieldSet fields) {
+        NearCache<Object, List<Map<String, Object>>> cache = nearCacheManager.cache(Aggregate.USER);
+        return cache.getOrLoad("all:" + fields.signature(), () -> fieldProjections.findAll(User.class, fields, null));
+    }
+
+    public Optional<Map<String, Object>> getUserById(Long id, FieldSet fields) {
+        NearCache<Object, Map<String, Object>> cache = nearCacheManager.cache(Aggregate.USER);
+        return Optional.ofNullable(cache.getOrLoad(id + ":" + fields.signature(),
+                () -> fieldProjections.findById(User.class, id, fields).orElse(null)));
     }
 
     // --- Update role ---
+    @Audited(entity = "user", action = "change-role", detail = "'role=' + #role")
     public User updateUserRole(Long id, String role) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
         user.setRole(role);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        resourceVersions.touch(Aggregate.USER);
+        return saved;
     }
 
     // --- Update full user ---
+    @Audited(entity = "user", action = "update", detail = "'role=' + #role")
     public User updateUser(Long id, String username, String password, String role, org.springframework.web.multipart.MultipartFile photo) throws IOException {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
@@ -76,17 +107,23 @@ public class UserService {
         if (role != null) user.setRole(role);
         if (photo != null) user.setPhotoUrl(uploadPhoto(photo));
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        resourceVersions.touch(Aggregate.USER);
+        return saved;
     }
 
     // --- Delete user ---
+    @Audited(entity = "user", action = "delete")
     public void deleteUser(Long id) {
         if (!userRepository.existsById(id))
             throw new RuntimeException("User not found with ID: " + id);
         userRepository.deleteById(id);
+        resourceVersions.touch(Aggregate.USER);
     }
 
     // --- Get user counts ---
+    @Coalesced
+    @Transactional(readOnly = true) // Total and per-role counts from one snapshot
     public Map<String, Object> getUserCounts() {
         Map<String, Object> response = new java.util.HashMap<>();
         long totalUsers = userRepository.count();
@@ -2,21 +2,38 @@ package com.backend.intellicop.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.backend.intellicop.Repository.CompletedVisitorRepository;
+import com.backend.intellicop.Repository.FieldProjectionRepository;
 import com.backend.intellicop.Repository.VisitorMeetingRepository;
+import com.backend.intellicop.audit.Audited;
+import com.backend.intellicop.cluster.JobLeases;
+import com.backend.intellicop.cluster.LeaderOnly;
+import com.backend.intellicop.cluster.LeadershipAcquiredEvent;
+import com.backend.intellicop.concurrency.Coalesced;
+import com.backend.intellicop.dto.FieldSet;
+import com.backend.intellicop.dto.StationPage;
 import com.backend.intellicop.entity.CompletedVisitor;
 import com.backend.intellicop.entity.VisitorMeeting;
+import com.backend.intellicop.entity.VisitorStatus;
+import com.backend.intellicop.logging.EventLog;
+import com.backend.intellicop.screening.VisitorScreeningService;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
+import com.backend.intellicop.station.StationScatter;
 
-import jakarta.annotation.PostConstruct;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
+@Timed(value = "intellicop.service", description = "Service method latency")
 public class VisitorMeetingService {
 
     @Autowired
@@ -25,28 +42,91 @@ public class VisitorMeetingService {
     @Autowired
     private CompletedVisitorRepository completedVisitorRepository;
 
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
+    @Autowired
+    private EventLog eventLog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private VisitorScreeningService screeningService;
+
+    @Autowired
+    private StationScatter stationScatter;
+
+    @Autowired
+    private JobLeases jobLeases;
+
+    @Autowired
+    private FieldProjectionRepository fieldProjections;
+
+    static final String AUTO_COMPLETE_JOB = "visitor-auto-complete";
+
+    public static final int MAX_PAGE_SIZE = 100;
+
     /** ✅ Fetch all visitor meetings */
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<VisitorMeeting> getAllVisitors() {
         return visitorMeetingRepository.findAll();
     }
 
     /** ✅ Fetch visitors scheduled for a specific date */
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<VisitorMeeting> getVisitorsByDate(LocalDate date) {
         return visitorMeetingRepository.findByScheduledDate(date);
     }
 
     /** ✅ Fetch upcoming visitors (after today) */
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<VisitorMeeting> getUpcomingVisitors(LocalDate today) {
         return visitorMeetingRepository.findByScheduledDateAfter(today);
     }
 
+    /** ✅ Same lists narrowed to the chosen fields (?fields=); only those columns are selected */
+    @Coalesced
+    public List<Map<String, Object>> getAllVisitors(FieldSet fields) {
+        return fieldProjections.findAll(VisitorMeeting.class, fields, null);
+    }
+
+    @Coalesced
+    public List<Map<String, Object>> getVisitorsByDate(LocalDate date, FieldSet fields) {
+        return fieldProjections.findAll(VisitorMeeting.class, fields,
+                (root, query, cb) -> cb.equal(root.get("scheduledDate"), date));
+    }
+
+    @Coalesced
+    public List<Map<String, Object>> getUpcomingVisitors(LocalDate today, FieldSet fields) {
+        return fieldProjections.findAll(VisitorMeeting.class, fields,
+                (root, query, cb) -> cb.greaterThan(root.<LocalDate>get("scheduledDate"), today));
+    }
+
+    /** ✅ Fetch every station's visitor meetings in id order, one keyset page at a time */
+    public StationPage<VisitorMeeting> getAllStationsVisitors(String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return stationScatter.gather(cursor, size, visitorMeetingRepository::findByIdGreaterThanOrderByIdAsc,
+                VisitorMeeting::getId);
+    }
+
     /** ✅ Schedule a new visitor meeting */
+    @Audited(entity = "visitor", action = "schedule", id = "#result?.id")
     public VisitorMeeting scheduleVisitor(VisitorMeeting visitor) {
-        visitor.setStatus("SCHEDULED");
-        return visitorMeetingRepository.save(visitor);
+        visitor.setStatus(VisitorStatus.SCHEDULED.name());
+        screeningService.screen(visitor);
+        VisitorMeeting saved = visitorMeetingRepository.save(visitor);
+        resourceVersions.touch(Aggregate.VISITOR);
+        return saved;
     }
 
     /** ✅ Update visitor meeting details (reschedule) */
+    @Audited(entity = "visitor", action = "reschedule")
     public VisitorMeeting updateVisitor(Long id, VisitorMeeting updatedVisitor) {
         VisitorMeeting existing = visitorMeetingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Visitor not found"));
@@ -58,89 +138,144 @@ public class VisitorMeetingService {
         existing.setScheduledDate(updatedVisitor.getScheduledDate());
         existing.setScheduledTime(updatedVisitor.getScheduledTime());
         existing.setRemarks(updatedVisitor.getRemarks());
+        screeningService.screen(existing);
 
-        return visitorMeetingRepository.save(existing);
+        VisitorMeeting saved = visitorMeetingRepository.save(existing);
+        resourceVersions.touch(Aggregate.VISITOR);
+        return saved;
     }
 
     /** ✅ Delete a visitor */
+    @Audited(entity = "visitor", action = "delete")
     public void deleteVisitor(Long id) {
         visitorMeetingRepository.deleteById(id);
+        resourceVersions.touch(Aggregate.VISITOR);
+    }
+
+    public enum TransitionResult {
+        APPLIED, UNCHANGED, REJECTED, NOT_FOUND
     }
 
-    /** ✅ Update visitor status (Completed / Cancelled) */
+    /**
+     * ✅ Update visitor status as a compare-and-set on the statuses allowed to move to
+     * the target, so concurrent clicks and the midnight job cannot both win.
+     */
     @Transactional
-    public void updateStatus(Long id, String status) {
-        VisitorMeeting meeting = visitorMeetingRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Visitor not found"));
-        meeting.setStatus(status.toUpperCase());
-        visitorMeetingRepository.save(meeting);
-
-        // ✅ If marked as Completed → move to CompletedVisitor table
-        if ("COMPLETED".equalsIgnoreCase(status)) {
-            CompletedVisitor completed = CompletedVisitor.builder()
-                    .visitorName(meeting.getVisitorName())
-                    .visitorContact(meeting.getVisitorContact())
-                    .inmateName(meeting.getInmateName())
-                    .purpose(meeting.getPurpose())
-                    .scheduledDate(meeting.getScheduledDate())
-                    .scheduledTime(meeting.getScheduledTime())
-                    .status("Completed")
-                    .remarks(meeting.getRemarks())
-                    .createdAt(meeting.getCreatedAt())
-                    .build();
-
-            completedVisitorRepository.save(completed);
-            visitorMeetingRepository.deleteById(id);
+    @Audited(entity = "visitor", action = "change-status", detail = "#status + ' -> ' + #result")
+    public TransitionResult updateStatus(Long id, String status) {
+        VisitorStatus target = VisitorStatus.parse(status);
+
+        int updated = visitorMeetingRepository.compareAndSetStatus(id, target.allowedPrevious(), target.name());
+        if (updated == 0) {
+            TransitionResult result = explainLostTransition(id, target);
+            countTransition(target, result);
+            return result;
         }
+        resourceVersions.touch(Aggregate.VISITOR);
+
+        // ✅ If marked as Completed → move to CompletedVisitor table (only the CAS winner gets here)
+        if (target == VisitorStatus.COMPLETED) {
+            VisitorMeeting meeting = visitorMeetingRepository.findById(id)
+                    .orElseThrow(() -> new IllegalStateException("Visitor vanished after status update: " + id));
+            completedVisitorRepository.save(toCompleted(meeting, "Completed", meeting.getRemarks()));
+            visitorMeetingRepository.deleteAllInBatch(List.of(meeting));
+        }
+        countTransition(target, TransitionResult.APPLIED);
+        return TransitionResult.APPLIED;
+    }
+
+    // The CAS matched nothing: already in the target state, archived, illegal, or missing
+    private TransitionResult explainLostTransition(Long id, VisitorStatus target) {
+        return visitorMeetingRepository.findById(id)
+                .map(meeting -> target.name().equalsIgnoreCase(meeting.getStatus())
+                        ? TransitionResult.UNCHANGED
+                        : TransitionResult.REJECTED)
+                .orElseGet(() -> target == VisitorStatus.COMPLETED && completedVisitorRepository.existsByMeetingId(id)
+                        ? TransitionResult.UNCHANGED
+                        : TransitionResult.NOT_FOUND);
+    }
+
+    private void countTransition(VisitorStatus target, TransitionResult result) {
+        meterRegistry.counter("visitor.status.transitions",
+                "target", target.name(), "outcome", result.name()).increment();
+    }
+
+    private CompletedVisitor toCompleted(VisitorMeeting meeting, String status, String remarks) {
+        return CompletedVisitor.builder()
+                .meetingId(meeting.getId())
+                .visitorName(meeting.getVisitorName())
+                .visitorContact(meeting.getVisitorContact())
+                .inmateName(meeting.getInmateName())
+                .purpose(meeting.getPurpose())
+                .scheduledDate(meeting.getScheduledDate())
+                .scheduledTime(meeting.getScheduledTime())
+                .status(status)
+                .remarks(remarks)
+                .createdAt(meeting.getCreatedAt())
+                .build();
     }
 
     /** ✅ Get all completed visitors */
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<CompletedVisitor> getAllCompletedVisitors() {
         return completedVisitorRepository.findAll();
     }
 
     /** ✅ Automatically mark past-date visitors as completed at 12:00 AM */
     @Scheduled(cron = "0 0 0 * * *", zone = "Asia/Kolkata") // Runs daily at midnight IST
+    @LeaderOnly(AUTO_COMPLETE_JOB)
     @Transactional
+    @Audited(entity = "visitor", action = "auto-complete", id = "'expired'")
     public void autoCompleteExpiredVisitors() {
         processExpiredVisitors("AUTO_COMPLETED");
     }
 
-    /** ✅ Also check past visitors on server startup (in case server was down) */
-    @PostConstruct
+    /** ✅ Also check past visitors when this node becomes the job's leader (in case the cluster or the previous leader was down) */
+    // First election happens once the context is ready; runs through the proxy so @Transactional applies
+    @EventListener(condition = "#event.job() == '" + AUTO_COMPLETE_JOB + "'")
+    @LeaderOnly(AUTO_COMPLETE_JOB)
     @Transactional
-    public void checkExpiredVisitorsOnStartup() {
+    @Audited(entity = "visitor", action = "auto-complete", id = "'expired'")
+    public void checkExpiredVisitorsOnStartup(LeadershipAcquiredEvent event) {
         processExpiredVisitors("STARTUP_AUTO_COMPLETED");
     }
 
     /** ♻️ Common logic reused by both scheduled & startup methods */
     private void processExpiredVisitors(String statusLabel) {
+        // Rolls back if another node took the job over meanwhile; holds it off until commit
+        jobLeases.fence();
         LocalDate today = LocalDate.now();
 
-        List<VisitorMeeting> expiredVisitors = visitorMeetingRepository.findAll().stream()
-                .filter(v -> v.getScheduledDate().isBefore(today)
-                        && !"COMPLETED".equalsIgnoreCase(v.getStatus()))
-                .collect(Collectors.toList());
+        List<Long> candidates = visitorMeetingRepository.findExpired(today).stream()
+                .map(VisitorMeeting::getId)
+                .toList();
+        if (candidates.isEmpty()) return;
 
-        if (expiredVisitors.isEmpty()) return;
-
-        for (VisitorMeeting meeting : expiredVisitors) {
-            CompletedVisitor completed = CompletedVisitor.builder()
-                    .visitorName(meeting.getVisitorName())
-                    .visitorContact(meeting.getVisitorContact())
-                    .inmateName(meeting.getInmateName())
-                    .purpose(meeting.getPurpose())
-                    .scheduledDate(meeting.getScheduledDate())
-                    .scheduledTime(meeting.getScheduledTime())
-                    .status(statusLabel)
-                    .remarks("Auto-marked as completed (past date).")
-                    .createdAt(meeting.getCreatedAt())
-                    .build();
-
-            completedVisitorRepository.save(completed);
-            visitorMeetingRepository.deleteById(meeting.getId());
+        // Same CAS as manual completion: rows completed by a concurrent click drop out here
+        int claimed = visitorMeetingRepository.markCompleted(candidates);
+        int lost = candidates.size() - claimed;
+        if (lost > 0) {
+            meterRegistry.counter("visitor.status.transitions",
+                    "target", VisitorStatus.COMPLETED.name(), "outcome", "CONTENDED").increment(lost);
         }
+        if (claimed == 0) return;
+
+        List<VisitorMeeting> expiredVisitors = visitorMeetingRepository
+                .findByIdInAndStatus(candidates, VisitorStatus.COMPLETED.name());
+        resourceVersions.touch(Aggregate.VISITOR);
+
+        List<CompletedVisitor> completed = expiredVisitors.stream()
+                .map(meeting -> toCompleted(meeting, statusLabel, "Auto-marked as completed (past date)."))
+                .collect(Collectors.toList());
+
+        // One batched DELETE instead of a SELECT + DELETE per row via deleteById
+        completedVisitorRepository.saveAll(completed);
+        visitorMeetingRepository.deleteAllInBatch(expiredVisitors);
+        meterRegistry.counter("visitor.status.transitions",
+                "target", VisitorStatus.COMPLETED.name(), "outcome", TransitionResult.APPLIED.name())
+                .increment(expiredVisitors.size());
 
-        System.out.println("✅ " + statusLabel + ": " + expiredVisitors.size() + " past visitor(s) processed on " + today);
+        eventLog.event("visitors.expired", "label", statusLabel, "count", expiredVisitors.size(), "contended", lost, "date", today);
     }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.backend.intellicop.sighting;
+
+import java.time.Instant;
+
+/** A sighting returned by a spatial query; distance is 0 for bounding-box queries. */
+public record SightingHit(long sightingId, long criminalId, double latitude, double longitude,
+                          Instant observedAt, double distanceMeters) {
+}
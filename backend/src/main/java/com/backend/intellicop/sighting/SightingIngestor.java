@@ -0,0 +1,190 @@
+package com.backend.intellicop.sighting;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.intellicop.entity.Sighting;
+import com.backend.intellicop.logging.MpscRingBuffer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * High-rate sighting intake. Request threads offer events to a bounded lock-free ring
+ * buffer and get a future back; a single writer thread drains whatever has piled up
+ * (up to {@code batch-size}), inserts it with one JDBC batch in one transaction and
+ * completes the futures after the commit. While a commit is in flight the next group
+ * accumulates, so the commit rate adapts to load; with nothing queued the writer blocks
+ * until the next offer. A full buffer is refused up front rather than queued without
+ * bound. Committed rows go straight into the spatial index.
+ */
+@Component
+public class SightingIngestor {
+
+    private static final Logger log = LoggerFactory.getLogger(SightingIngestor.class);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final String INSERT_SQL =
+            "INSERT INTO sighting (criminal_id, latitude, longitude, observed_at, source) VALUES (?, ?, ?, ?, ?)";
+
+    private record Pending(Sighting sighting, CompletableFuture<Void> durable) {
+    }
+
+    // Same binding Hibernate uses for Instant columns, so both write paths agree
+    private static final ParameterizedPreparedStatementSetter<Pending> SETTER = (PreparedStatement ps, Pending p) -> {
+        Sighting s = p.sighting();
+        ps.setLong(1, s.getCriminalId());
+        ps.setDouble(2, s.getLatitude());
+        ps.setDouble(3, s.getLongitude());
+        ps.setTimestamp(4, Timestamp.from(s.getObservedAt()), Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+        ps.setString(5, s.getSource());
+    };
+
+    private final MpscRingBuffer<Pending> buffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SightingService sightingService;
+    private final int batchSize;
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Timer commitTimer;
+    private final DistributionSummary batchSizes;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public SightingIngestor(DataSource dataSource, PlatformTransactionManager transactionManager,
+                            SightingService sightingService, MeterRegistry meterRegistry,
+                            @Value("${intellicop.sightings.ingest.buffer-size:65536}") int bufferSize,
+                            @Value("${intellicop.sightings.ingest.batch-size:500}") int batchSize) {
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sightingService = sightingService;
+        this.batchSize = batchSize;
+
+        Gauge.builder("sightings.ingest.queue.depth", buffer, MpscRingBuffer::size)
+                .description("Sightings accepted but not yet committed")
+                .register(meterRegistry);
+        Gauge.builder("sightings.ingest.queue.capacity", buffer, MpscRingBuffer::capacity).register(meterRegistry);
+        this.accepted = meterRegistry.counter("sightings.ingest", "outcome", "accepted");
+        this.rejected = meterRegistry.counter("sightings.ingest", "outcome", "rejected");
+        this.failed = meterRegistry.counter("sightings.ingest", "outcome", "failed");
+        this.commitTimer = Timer.builder("sightings.ingest.commit")
+                .description("Batch insert plus commit latency")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("sightings.ingest.batch.size").register(meterRegistry);
+
+        this.writer = Thread.ofPlatform().name("sighting-writer").daemon(true).unstarted(this::drain);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a validated sighting. Returns a future that completes once the row is
+     * committed, or null when the buffer is full and the caller should back off.
+     */
+    public CompletableFuture<Void> offer(Sighting sighting) {
+        SightingService.validate(sighting);
+        if (sighting.getObservedAt() == null) sighting.setObservedAt(Instant.now());
+        Pending pending = new Pending(sighting, new CompletableFuture<>());
+        if (!running || !buffer.offer(pending)) {
+            rejected.increment();
+            return null;
+        }
+        accepted.increment();
+        return pending.durable();
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            Pending next;
+            while (batch.size() < batchSize && (next = buffer.poll()) != null) batch.add(next);
+            if (batch.isEmpty()) {
+                if (running) buffer.await();
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                commitTimer.record(() -> transactionTemplate.executeWithoutResult(
+                        status -> jdbcTemplate.execute((ConnectionCallback<Void>) connection -> insert(connection, batch))));
+                break;
+            } catch (DataAccessException e) {
+                if (attempt < MAX_ATTEMPTS) {
+                    // Holding the writer here is the backpressure: the buffer fills and producers get refused
+                    LockSupport.parkNanos(Duration.ofMillis(100L * attempt).toNanos());
+                    continue;
+                }
+                log.error("Dropping {} sightings after {} attempts: {}", batch.size(), attempt, e.getMessage());
+                failed.increment(batch.size());
+                batch.forEach(p -> p.durable().completeExceptionally(e));
+                return;
+            }
+        }
+
+        batchSizes.record(batch.size());
+        sightingService.index(batch.stream().map(Pending::sighting).toList());
+        batch.forEach(p -> p.durable().complete(null));
+    }
+
+    // One JDBC batch; the generated ids are read back for the index
+    private static Void insert(Connection connection, List<Pending> batch) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (Pending pending : batch) {
+                SETTER.setValues(insert, pending);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                for (Pending pending : batch) {
+                    if (!keys.next()) throw new SQLException("Fewer generated ids than inserted sightings");
+                    pending.sighting().setId(keys.getLong(1));
+                }
+            }
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
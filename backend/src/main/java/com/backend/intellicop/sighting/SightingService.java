@@ -0,0 +1,276 @@
+package com.backend.intellicop.sighting;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.backend.intellicop.Repository.SightingRepository;
+import com.backend.intellicop.entity.Sighting;
+import com.backend.intellicop.logging.EventLog;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Sighting history. Rows go to the append-only {@code sighting} table; the last
+ * {@code retention} of them are also held in a {@link SpatialGrid} for radius and box
+ * queries. The grid is loaded at startup and then tails the table by id, which picks
+ * up other nodes' inserts; this node's own are indexed as soon as they commit. Older
+ * windows are answered from the database.
+ * <p>
+ * Ids are assigned at insert but become visible at commit, so the tail can read an id
+ * before a lower one commits. Every id it skips is kept as a gap and looked up again on
+ * later tails until it shows up or {@code gap-timeout} passes (a rollback, or an id
+ * another node never used).
+ */
+@Service
+public class SightingService {
+
+    public static final int MAX_LIMIT = 1000;
+    private static final double MAX_RADIUS_METERS = 50_000;
+    private static final double MAX_BOX_DEGREES = 5;
+    private static final int PAGE_SIZE = 5000;
+    // A longer run of missing ids is not in-flight inserts (e.g. rows past the retention at startup)
+    private static final int MAX_GAP_RUN = 10_000;
+    private static final int MAX_GAPS = 100_000;
+
+    private final SightingRepository sightingRepository;
+    private final EventLog eventLog;
+    private final MeterRegistry meterRegistry;
+    private final Duration retention;
+    private final long gapTimeoutMillis;
+    private final SpatialGrid grid;
+    // One tail at a time; held across the queries, so a lock rather than a monitor
+    private final ReentrantLock tailLock = new ReentrantLock();
+    // Guarded by this: the highest id the tail has read, the ids it skipped (with when) and
+    // ids this node indexed on commit that the tail has not reached yet
+    private long lastTailedId;
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+    private final NavigableSet<Long> indexedAhead = new TreeSet<>();
+
+    public SightingService(SightingRepository sightingRepository, EventLog eventLog, MeterRegistry meterRegistry,
+                           @Value("${intellicop.sightings.index-retention:90d}") Duration retention,
+                           @Value("${intellicop.sightings.cell-degrees:0.01}") double cellDegrees,
+                           @Value("${intellicop.sightings.gap-timeout:60s}") Duration gapTimeout) {
+        this.sightingRepository = sightingRepository;
+        this.eventLog = eventLog;
+        this.meterRegistry = meterRegistry;
+        this.retention = retention;
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+        this.grid = new SpatialGrid(cellDegrees);
+        Gauge.builder("sightings.index.size", grid, SpatialGrid::size)
+                .description("Sightings held in the in-memory spatial grid")
+                .register(meterRegistry);
+    }
+
+    public Sighting record(Sighting sighting) {
+        validate(sighting);
+        sighting.setId(null);
+        if (sighting.getObservedAt() == null) sighting.setObservedAt(Instant.now());
+        Sighting saved = sightingRepository.save(sighting);
+        index(List.of(saved));
+        return saved;
+    }
+
+    public static void validate(Sighting sighting) {
+        if (sighting.getCriminalId() == null) throw new IllegalArgumentException("criminalId is required");
+        if (sighting.getLatitude() == null || sighting.getLongitude() == null) {
+            throw new IllegalArgumentException("latitude and longitude are required");
+        }
+        checkCoordinates(sighting.getLatitude(), sighting.getLongitude());
+        if (sighting.getObservedAt() != null && sighting.getObservedAt().isAfter(Instant.now().plusSeconds(300))) {
+            throw new IllegalArgumentException("observedAt is in the future");
+        }
+    }
+
+    public List<SightingHit> near(double latitude, double longitude, double radiusMeters,
+                                  Instant since, Instant until, int limit) {
+        checkCoordinates(latitude, longitude);
+        if (radiusMeters <= 0 || radiusMeters > MAX_RADIUS_METERS) {
+            throw new IllegalArgumentException("radius must be between 0 and " + (int) MAX_RADIUS_METERS + " meters");
+        }
+        checkWindow(since, until, limit);
+
+        return timed("radius", () -> {
+            if (!since.isBefore(horizon())) {
+                return grid.withinRadius(latitude, longitude, radiusMeters, since.toEpochMilli(), until.toEpochMilli(), limit);
+            }
+            double latDelta = Math.toDegrees(radiusMeters / 6_371_008.8);
+            double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 1e-6);
+            double lonDelta = latDelta / cosLat;
+            // Nearest first in SQL; the slack covers where the planar order and the exact one disagree
+            return sightingRepository.findNearest(latitude, longitude, cosLat * cosLat, latitude - latDelta,
+                            longitude - lonDelta, latitude + latDelta, longitude + lonDelta, since, until,
+                            Limit.of(limit * 2)).stream()
+                    .map(s -> toHit(s, SpatialGrid.distanceMeters(latitude, longitude, s.getLatitude(), s.getLongitude())))
+                    .filter(hit -> hit.distanceMeters() <= radiusMeters)
+                    .sorted((a, b) -> Double.compare(a.distanceMeters(), b.distanceMeters()))
+                    .limit(limit)
+                    .toList();
+        });
+    }
+
+    public List<SightingHit> inBox(double minLat, double minLon, double maxLat, double maxLon,
+                                   Instant since, Instant until, int limit) {
+        checkCoordinates(minLat, minLon);
+        checkCoordinates(maxLat, maxLon);
+        if (minLat > maxLat || minLon > maxLon) throw new IllegalArgumentException("min corner must be below max corner");
+        if (maxLat - minLat > MAX_BOX_DEGREES || maxLon - minLon > MAX_BOX_DEGREES) {
+            throw new IllegalArgumentException("box must be at most " + (int) MAX_BOX_DEGREES + " degrees on a side");
+        }
+        checkWindow(since, until, limit);
+
+        return timed("box", () -> {
+            if (!since.isBefore(horizon())) {
+                return grid.withinBox(minLat, minLon, maxLat, maxLon, since.toEpochMilli(), until.toEpochMilli(), limit);
+            }
+            return sightingRepository.findInBox(minLat, minLon, maxLat, maxLon, since, until, Limit.of(limit)).stream()
+                    .map(s -> toHit(s, 0))
+                    .toList();
+        });
+    }
+
+    public List<Sighting> history(Long criminalId, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        return sightingRepository.findByCriminalIdOrderByObservedAtDesc(criminalId, Limit.of(limit));
+    }
+
+    // --- Grid maintenance ---
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int loaded = tail();
+        eventLog.event("sightings.index.loaded", "count", loaded, "retention", retention);
+    }
+
+    /** Adds rows this node has just committed, without waiting for the next tail. */
+    public synchronized void index(List<Sighting> committed) {
+        long since = horizon().toEpochMilli();
+        for (Sighting s : committed) {
+            if (s.getObservedAt().toEpochMilli() < since) continue;
+            long id = s.getId();
+            boolean isNew = id > lastTailedId ? indexedAhead.add(id) : gaps.remove(id) != null;
+            if (isNew) add(s);
+        }
+    }
+
+    /** Indexes rows committed since the last call; returns how many were added. */
+    @Scheduled(fixedDelayString = "${intellicop.sightings.poll-interval-ms:1000}")
+    public int tail() {
+        // The queries run outside the monitor, so the ingest writer's index() never waits on them
+        tailLock.lock();
+        try {
+            Instant since = horizon();
+            int added = recheckGaps(since);
+            long after;
+            synchronized (this) {
+                after = lastTailedId;
+            }
+            List<Sighting> page;
+            do {
+                page = sightingRepository.findAfter(after, since, Limit.of(PAGE_SIZE));
+                added += applyTail(page);
+                if (!page.isEmpty()) after = page.get(page.size() - 1).getId();
+            } while (page.size() == PAGE_SIZE);
+            return added;
+        } finally {
+            tailLock.unlock();
+        }
+    }
+
+    private synchronized int applyTail(List<Sighting> page) {
+        long now = System.currentTimeMillis();
+        int added = 0;
+        for (Sighting s : page) {
+            long id = s.getId();
+            long missing = id - lastTailedId - 1;
+            if (missing > 0 && missing <= MAX_GAP_RUN) {
+                for (long gap = lastTailedId + 1; gap < id; gap++) {
+                    if (!indexedAhead.contains(gap)) gaps.putIfAbsent(gap, now);
+                }
+            }
+            lastTailedId = id;
+            if (indexedAhead.remove(id)) continue;
+            add(s);
+            added++;
+        }
+        // Indexed on commit but passed over by the tail, e.g. aged out of the window meanwhile
+        indexedAhead.headSet(lastTailedId, true).clear();
+        Iterator<Long> eldest = gaps.keySet().iterator();
+        while (gaps.size() > MAX_GAPS) {
+            eldest.next();
+            eldest.remove();
+        }
+        return added;
+    }
+
+    private int recheckGaps(Instant since) {
+        List<Long> ids;
+        synchronized (this) {
+            long expired = System.currentTimeMillis() - gapTimeoutMillis;
+            gaps.values().removeIf(firstMissed -> firstMissed < expired);
+            ids = new ArrayList<>(gaps.keySet());
+        }
+        int added = 0;
+        for (int from = 0; from < ids.size(); from += PAGE_SIZE) {
+            List<Sighting> found = sightingRepository.findAllById(ids.subList(from, Math.min(ids.size(), from + PAGE_SIZE)));
+            synchronized (this) {
+                for (Sighting s : found) {
+                    if (gaps.remove(s.getId()) == null || s.getObservedAt().isBefore(since)) continue;
+                    add(s);
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    private void add(Sighting s) {
+        grid.add(s.getId(), s.getCriminalId(), s.getLatitude(), s.getLongitude(), s.getObservedAt().toEpochMilli());
+    }
+
+    @Scheduled(fixedDelayString = "${intellicop.sightings.prune-interval-ms:3600000}")
+    public void prune() {
+        int removed = grid.prune(horizon().toEpochMilli());
+        if (removed > 0) eventLog.event("sightings.index.pruned", "count", removed);
+    }
+
+    private Instant horizon() {
+        return Instant.now().minus(retention);
+    }
+
+    private List<SightingHit> timed(String type, Supplier<List<SightingHit>> query) {
+        return Timer.builder("sightings.query").tag("type", type).publishPercentileHistogram()
+                .register(meterRegistry).record(query);
+    }
+
+    private static void checkCoordinates(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("coordinates out of range");
+        }
+    }
+
+    private static void checkWindow(Instant since, Instant until, int limit) {
+        if (since.isAfter(until)) throw new IllegalArgumentException("since must not be after until");
+        if (limit < 1 || limit > MAX_LIMIT) throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+    }
+
+    private static SightingHit toHit(Sighting s, double distance) {
+        return new SightingHit(s.getId(), s.getCriminalId(), s.getLatitude(), s.getLongitude(), s.getObservedAt(), distance);
+    }
+}
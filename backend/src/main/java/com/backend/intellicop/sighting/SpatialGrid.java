@@ -0,0 +1,238 @@
+package com.backend.intellicop.sighting;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Uniform lat/lon grid of sightings. Each cell keeps its points in parallel primitive
+ * arrays ordered by observation time, so a time window is a binary search and a query
+ * only touches the cells overlapping its box. A point costs about 32 bytes.
+ */
+public class SpatialGrid {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private final double cellDegrees;
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+
+    public SpatialGrid(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    public void add(long sightingId, long criminalId, double latitude, double longitude, long observedAtMillis) {
+        lock.writeLock().lock();
+        try {
+            cells.computeIfAbsent(cellKey(cellIndex(latitude + 90), cellIndex(longitude + 180)), k -> new Cell())
+                    .add(sightingId, criminalId, (float) latitude, (float) longitude, observedAtMillis);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Drops every point observed before the cutoff; returns how many went. */
+    public int prune(long cutoffMillis) {
+        lock.writeLock().lock();
+        try {
+            int removed = 0;
+            var it = cells.values().iterator();
+            while (it.hasNext()) {
+                Cell cell = it.next();
+                removed += cell.dropBefore(cutoffMillis);
+                if (cell.size == 0) it.remove();
+            }
+            size -= removed;
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Sightings within the radius and time window, nearest first. */
+    public List<SightingHit> withinRadius(double latitude, double longitude, double radiusMeters,
+                                          long fromMillis, long toMillis, int limit) {
+        double latDelta = Math.toDegrees(radiusMeters / EARTH_RADIUS_METERS);
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 1e-6);
+        double lonDelta = Math.min(180, latDelta / cosLat);
+        List<SightingHit> hits = new ArrayList<>();
+        scan(latitude - latDelta, longitude - lonDelta, latitude + latDelta, longitude + lonDelta, fromMillis, toMillis,
+                (cell, i) -> {
+                    double distance = distanceMeters(latitude, longitude, cell.lat[i], cell.lon[i]);
+                    if (distance <= radiusMeters) hits.add(cell.hit(i, distance));
+                });
+        hits.sort(Comparator.comparingDouble(SightingHit::distanceMeters));
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    /** Sightings inside the box and time window, newest first. */
+    public List<SightingHit> withinBox(double minLat, double minLon, double maxLat, double maxLon,
+                                       long fromMillis, long toMillis, int limit) {
+        List<SightingHit> hits = new ArrayList<>();
+        scan(minLat, minLon, maxLat, maxLon, fromMillis, toMillis, (cell, i) -> {
+            if (cell.lat[i] >= minLat && cell.lat[i] <= maxLat && cell.lon[i] >= minLon && cell.lon[i] <= maxLon) {
+                hits.add(cell.hit(i, 0));
+            }
+        });
+        hits.sort(Comparator.comparing(SightingHit::observedAt).reversed());
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    @FunctionalInterface
+    private interface PointVisitor {
+        void visit(Cell cell, int index);
+    }
+
+    private void scan(double minLat, double minLon, double maxLat, double maxLon,
+                      long fromMillis, long toMillis, PointVisitor visitor) {
+        int latFrom = cellIndex(Math.max(minLat, -90) + 90);
+        int latTo = cellIndex(Math.min(maxLat, 90) + 90);
+        // Boxes crossing the antimeridian are split in two longitude ranges
+        List<int[]> lonRanges = new ArrayList<>(2);
+        if (minLon < -180) {
+            lonRanges.add(new int[] { cellIndex(minLon + 360 + 180), cellIndex(360) });
+            lonRanges.add(new int[] { 0, cellIndex(maxLon + 180) });
+        } else if (maxLon > 180) {
+            lonRanges.add(new int[] { cellIndex(minLon + 180), cellIndex(360) });
+            lonRanges.add(new int[] { 0, cellIndex(maxLon - 360 + 180) });
+        } else {
+            lonRanges.add(new int[] { cellIndex(minLon + 180), cellIndex(maxLon + 180) });
+        }
+
+        lock.readLock().lock();
+        try {
+            long boxCells = 0;
+            for (int[] range : lonRanges) boxCells += (long) (latTo - latFrom + 1) * (range[1] - range[0] + 1);
+            if (boxCells > cells.size()) {
+                // Large box over a sparse grid: walk the occupied cells instead
+                for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                    int latIndex = (int) (entry.getKey() >> 32);
+                    int lonIndex = (int) (long) entry.getKey();
+                    if (latIndex < latFrom || latIndex > latTo) continue;
+                    for (int[] range : lonRanges) {
+                        if (lonIndex >= range[0] && lonIndex <= range[1]) {
+                            entry.getValue().visit(fromMillis, toMillis, visitor);
+                            break;
+                        }
+                    }
+                }
+                return;
+            }
+            for (int latIndex = latFrom; latIndex <= latTo; latIndex++) {
+                for (int[] range : lonRanges) {
+                    for (int lonIndex = range[0]; lonIndex <= range[1]; lonIndex++) {
+                        Cell cell = cells.get(cellKey(latIndex, lonIndex));
+                        if (cell != null) cell.visit(fromMillis, toMillis, visitor);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int cellIndex(double shiftedDegrees) {
+        return (int) Math.floor(shiftedDegrees / cellDegrees);
+    }
+
+    private static long cellKey(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xFFFFFFFFL);
+    }
+
+    static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static final class Cell {
+        long[] ids = new long[8];
+        long[] criminalIds = new long[8];
+        float[] lat = new float[8];
+        float[] lon = new float[8];
+        long[] time = new long[8];
+        int size;
+
+        void add(long id, long criminalId, float latitude, float longitude, long observedAt) {
+            if (size == ids.length) grow();
+            // Late reports are rare: usually this appends
+            int at = size;
+            while (at > 0 && time[at - 1] > observedAt) at--;
+            if (at < size) shift(at);
+            ids[at] = id;
+            criminalIds[at] = criminalId;
+            lat[at] = latitude;
+            lon[at] = longitude;
+            time[at] = observedAt;
+            size++;
+        }
+
+        void visit(long fromMillis, long toMillis, PointVisitor visitor) {
+            for (int i = firstAtOrAfter(fromMillis); i < size && time[i] <= toMillis; i++) visitor.visit(this, i);
+        }
+
+        int dropBefore(long cutoff) {
+            int drop = firstAtOrAfter(cutoff);
+            if (drop == 0) return 0;
+            int keep = size - drop;
+            System.arraycopy(ids, drop, ids, 0, keep);
+            System.arraycopy(criminalIds, drop, criminalIds, 0, keep);
+            System.arraycopy(lat, drop, lat, 0, keep);
+            System.arraycopy(lon, drop, lon, 0, keep);
+            System.arraycopy(time, drop, time, 0, keep);
+            size = keep;
+            return drop;
+        }
+
+        SightingHit hit(int i, double distance) {
+            return new SightingHit(ids[i], criminalIds[i], lat[i], lon[i], Instant.ofEpochMilli(time[i]), distance);
+        }
+
+        private int firstAtOrAfter(long millis) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (time[mid] < millis) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        private void shift(int at) {
+            int count = size - at;
+            System.arraycopy(ids, at, ids, at + 1, count);
+            System.arraycopy(criminalIds, at, criminalIds, at + 1, count);
+            System.arraycopy(lat, at, lat, at + 1, count);
+            System.arraycopy(lon, at, lon, at + 1, count);
+            System.arraycopy(time, at, time, at + 1, count);
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            criminalIds = Arrays.copyOf(criminalIds, capacity);
+            lat = Arrays.copyOf(lat, capacity);
+            lon = Arrays.copyOf(lon, capacity);
+            time = Arrays.copyOf(time, capacity);
+        }
+    }
+}
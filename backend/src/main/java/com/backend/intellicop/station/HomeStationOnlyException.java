@@ -0,0 +1,13 @@
+package com.backend.intellicop.station;
+
+/**
+ * A request for another station reached a feature served from this deployment's
+ * in-memory state, which only ever holds the home station's data.
+ */
+public class HomeStationOnlyException extends RuntimeException {
+
+    public HomeStationOnlyException(String feature, String station) {
+        super(feature + " only covers station " + StationContext.home() + "; ask station " + station
+                + "'s own deployment");
+    }
+}
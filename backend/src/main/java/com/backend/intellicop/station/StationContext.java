@@ -0,0 +1,78 @@
+package com.backend.intellicop.station;
+
+import java.util.function.Supplier;
+
+/**
+ * The station (district) whose database the current thread reads. Unbound means this
+ * deployment's own station; {@link StationFilter} binds another one for the length of a
+ * request and {@link StationScatter} binds each station in turn on its worker threads.
+ */
+public final class StationContext {
+
+    private static final ThreadLocal<String> REMOTE = new ThreadLocal<>();
+    private static volatile String home = "main";
+
+    private StationContext() {
+    }
+
+    /** This deployment's own station; stamped on every row it writes. */
+    public static String home() {
+        return home;
+    }
+
+    static void setHome(String station) {
+        home = station;
+    }
+
+    public static String current() {
+        String remote = REMOTE.get();
+        return remote != null ? remote : home;
+    }
+
+    /** Bound to another station's database (read-only through this deployment). */
+    public static boolean isRemote() {
+        return REMOTE.get() != null;
+    }
+
+    /** For features answered from in-memory state, which only holds the home station's rows. */
+    public static void requireHome(String feature) {
+        String remote = REMOTE.get();
+        if (remote != null) throw new HomeStationOnlyException(feature, remote);
+    }
+
+    public static <T> T call(String station, Supplier<T> work) {
+        try (Scope scope = open(station)) {
+            return work.get();
+        }
+    }
+
+    /** Binds a station until the returned scope is closed, then restores the previous one. */
+    public static Scope open(String station) {
+        Scope scope = new Scope(REMOTE.get());
+        bind(station);
+        return scope;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final String previous;
+
+        private Scope(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            bind(previous);
+        }
+    }
+
+    static String remote() {
+        return REMOTE.get();
+    }
+
+    private static void bind(String station) {
+        if (station == null || station.equals(home)) REMOTE.remove();
+        else REMOTE.set(station);
+    }
+}
@@ -0,0 +1,56 @@
+package com.backend.intellicop.station;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Routes a request to another station's database when it carries {@code X-Station}.
+ * Registered with the default (lowest) order, so authentication has already read the
+ * home database. Other stations are read-only here: their writes belong to their own
+ * deployment, which also keeps its caches and in-memory indexes in step; features
+ * answered from those indexes refuse another station through {@link StationContext#requireHome}.
+ */
+@Component
+public class StationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Station";
+
+    private final Stations stations;
+
+    public StationFilter(Stations stations) {
+        this.stations = stations;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String station = request.getHeader(HEADER);
+        if (station == null || station.isBlank() || station.equals(stations.home())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!stations.isKnown(station)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown station: " + station);
+            return;
+        }
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    "Station " + station + " is read-only here; send writes to its own deployment");
+            return;
+        }
+
+        try (StationContext.Scope scope = StationContext.open(station)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
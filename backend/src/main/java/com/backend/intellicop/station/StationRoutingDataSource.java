@@ -0,0 +1,28 @@
+package com.backend.intellicop.station;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Picks the database of {@link StationContext#current()} when a connection is opened; the
+ * home station resolves to the default target, i.e. this deployment's own pool.
+ */
+public class StationRoutingDataSource extends AbstractRoutingDataSource {
+
+    public StationRoutingDataSource(DataSource home, Map<String, DataSource> remotes) {
+        setDefaultTargetDataSource(home);
+        setTargetDataSources(new HashMap<>(remotes));
+        // An unknown station must fail, never silently read the home database
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return StationContext.remote();
+    }
+}
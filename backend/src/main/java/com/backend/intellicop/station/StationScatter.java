@@ -0,0 +1,164 @@
+package com.backend.intellicop.station;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.intellicop.dto.StationPage;
+import com.backend.intellicop.jdbc.PrimaryReads;
+import com.backend.intellicop.jdbc.QueryCounter;
+import com.backend.intellicop.jdbc.ReplicaRouter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cross-station lists. Every station is queried in parallel (one virtual thread each,
+ * inside its own read-only transaction) for its next keyset page, and the results are
+ * merged by (id, station). The cursor carries the last id taken from each station, so a
+ * station that contributed nothing to a page is asked for the same rows again next time.
+ * Whether the caller must read the primary is decided on the request thread, where the
+ * router can still see it, and applied to the home station's query.
+ */
+@Component
+public class StationScatter {
+
+    private final Stations stations;
+    private final ObjectProvider<ReplicaRouter> replicaRouter;
+    private final TransactionTemplate readOnly;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public StationScatter(Stations stations, PlatformTransactionManager transactionManager,
+                          ObjectProvider<ReplicaRouter> replicaRouter,
+                          @Value("${intellicop.station.scatter-timeout:5s}") Duration timeout) {
+        this.stations = stations;
+        this.replicaRouter = replicaRouter;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param query keyset page of one station: rows with id greater than the first argument, ordered by id
+     * @param idOf  the id the query orders by
+     */
+    public <T> StationPage<T> gather(String cursor, int size, BiFunction<Long, Limit, List<T>> query,
+                                     ToLongFunction<T> idOf) {
+        Map<String, Long> positions = decode(cursor);
+        positions.keySet().retainAll(stations.names());
+
+        Map<String, Future<List<T>>> pending = new LinkedHashMap<>();
+        QueryCounter.Scope request = QueryCounter.current();
+        boolean primaryReads = needsPrimary();
+        for (String station : stations.names()) {
+            long after = positions.getOrDefault(station, 0L);
+            Supplier<List<T>> read = () -> StationContext.call(station,
+                    () -> readOnly.execute(status -> query.apply(after, Limit.of(size))));
+            // Replicas only exist for the home station
+            boolean pinned = primaryReads && station.equals(stations.home());
+            Callable<List<T>> task = () -> {
+                try (QueryCounter.Scope counted = QueryCounter.join(request)) {
+                    return pinned ? PrimaryReads.call(read) : read.get();
+                }
+            };
+            pending.put(station, executor.submit(task));
+        }
+
+        record Row<T>(String station, long id, T item) {
+        }
+        List<Row<T>> rows = new ArrayList<>();
+        boolean more = false;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Map.Entry<String, Future<List<T>>> entry : pending.entrySet()) {
+            List<T> page = await(entry.getKey(), entry.getValue(), deadline, pending);
+            if (page.size() >= size) more = true;
+            for (T item : page) rows.add(new Row<>(entry.getKey(), idOf.applyAsLong(item), item));
+        }
+
+        rows.sort(Comparator.comparingLong((Row<T> row) -> row.id()).thenComparing(Row::station));
+        if (rows.size() > size) more = true;
+
+        List<T> items = new ArrayList<>(Math.min(size, rows.size()));
+        for (Row<T> row : rows.subList(0, Math.min(size, rows.size()))) {
+            items.add(row.item());
+            positions.put(row.station(), row.id());
+        }
+        return new StationPage<>(items, more ? encode(positions) : null);
+    }
+
+    // Same rule as the coalescing aspect: the caller's own recent write must be visible
+    private boolean needsPrimary() {
+        ReplicaRouter router = replicaRouter.getIfAvailable();
+        if (router == null) return false;
+        ReplicaRouter.Route route = router.route();
+        return route == ReplicaRouter.Route.PINNED || route == ReplicaRouter.Route.WRITE_REQUEST
+                || route == ReplicaRouter.Route.READ_YOUR_WRITES;
+    }
+
+    private static <T> List<T> await(String station, Future<List<T>> future, long deadline,
+                                     Map<String, ? extends Future<?>> all) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            all.values().forEach(f -> f.cancel(true));
+            throw new StationUnavailableException(station, e);
+        } catch (ExecutionException | TimeoutException e) {
+            // One missing station would make the merged page silently incomplete
+            all.values().forEach(f -> f.cancel(true));
+            throw new StationUnavailableException(station, e instanceof ExecutionException ? e.getCause() : e);
+        }
+    }
+
+    // "north:120,main:87", base64url so it travels as an opaque query parameter
+    static String encode(Map<String, Long> positions) {
+        StringBuilder out = new StringBuilder();
+        positions.forEach((station, id) -> {
+            if (!out.isEmpty()) out.append(',');
+            out.append(station).append(':').append(id);
+        });
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(out.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Map<String, Long> decode(String cursor) {
+        Map<String, Long> positions = new LinkedHashMap<>();
+        if (cursor == null || cursor.isBlank()) return positions;
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            for (String part : text.split(",")) {
+                int colon = part.lastIndexOf(':');
+                positions.put(part.substring(0, colon), Long.parseLong(part.substring(colon + 1)));
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return positions;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,16 @@
+package com.backend.intellicop.station;
+
+/** A station's database did not answer a cross-station query in time. */
+public class StationUnavailableException extends RuntimeException {
+
+    private final String station;
+
+    public StationUnavailableException(String station, Throwable cause) {
+        super("Station " + station + " did not respond", cause);
+        this.station = station;
+    }
+
+    public String getStation() {
+        return station;
+    }
+}
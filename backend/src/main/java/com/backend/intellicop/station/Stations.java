@@ -0,0 +1,77 @@
+package com.backend.intellicop.station;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The stations this deployment can read: its own (home) and any other station whose
+ * database is configured under {@code intellicop.station.shards}. Each station's database
+ * is owned, written and migrated by that station's deployment.
+ */
+public class Stations {
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    private final String home;
+    private final Map<String, DataSource> remotes;
+    private final List<String> names;
+
+    public Stations(String home, Map<String, DataSource> remotes) {
+        checkName(home);
+        remotes.keySet().forEach(Stations::checkName);
+        if (remotes.containsKey(home)) {
+            throw new IllegalArgumentException("Home station " + home + " must not also be configured as a shard");
+        }
+        this.home = home;
+        this.remotes = Collections.unmodifiableMap(new LinkedHashMap<>(remotes));
+
+        List<String> all = new ArrayList<>();
+        all.add(home);
+        all.addAll(remotes.keySet());
+        this.names = List.copyOf(all);
+        StationContext.setHome(home);
+    }
+
+    public String home() {
+        return home;
+    }
+
+    /** Home first, then the configured shards. */
+    public List<String> names() {
+        return names;
+    }
+
+    public boolean isKnown(String station) {
+        return home.equals(station) || remotes.containsKey(station);
+    }
+
+    public boolean hasRemotes() {
+        return !remotes.isEmpty();
+    }
+
+    /** Routing data source over the home pool and every remote station's pool. */
+    public DataSource wrap(DataSource homeDataSource) {
+        return new StationRoutingDataSource(homeDataSource, remotes);
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        for (DataSource remote : remotes.values()) {
+            if (remote.isWrapperFor(AutoCloseable.class)) remote.unwrap(AutoCloseable.class).close();
+        }
+    }
+
+    private static void checkName(String station) {
+        if (station == null || !NAME.matcher(station).matches()) {
+            throw new IllegalArgumentException("Invalid station name: " + station);
+        }
+    }
+}
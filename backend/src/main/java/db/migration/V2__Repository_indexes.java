@@ -0,0 +1,66 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Secondary indexes behind the repository queries. Databases that were managed by
+ * hibernate.ddl-auto already carry some of them under the same names, so an index is
+ * only created when its table has none by that name (MySQL has no CREATE INDEX IF NOT EXISTS).
+ */
+public class V2__Repository_indexes extends BaseJavaMigration {
+
+    public record IndexDefinition(String table, String name, String columns) {
+    }
+
+    public static final List<IndexDefinition> INDEXES = List.of(
+            // findByScheduledDate(After), findExpired, findByScheduledDateAndScreeningStatus
+            new IndexDefinition("visitor_meeting", "idx_visitor_meeting_date_screening", "scheduled_date, screening_status"),
+
+            // Criminal search and facets; status/threat also serve the watchlist (index merge)
+            new IndexDefinition("criminal", "idx_criminal_threat_status_age", "threat, status, age"),
+            new IndexDefinition("criminal", "idx_criminal_status_age", "status, age"),
+            new IndexDefinition("criminal", "idx_criminal_crime_age", "crime, age"),
+            // Duplicate detection blocks
+            new IndexDefinition("criminal", "idx_criminal_name_key_age", "name_key, age"),
+
+            // Role counts on the dashboard
+            new IndexDefinition("users", "idx_users_role", "role"),
+
+            // Review list, per-source cleanup and per-criminal cleanup (left_id is covered by the unique key)
+            new IndexDefinition("merge_candidate", "idx_merge_candidate_score", "score"),
+            new IndexDefinition("merge_candidate", "idx_merge_candidate_source", "source"),
+            new IndexDefinition("merge_candidate", "idx_merge_candidate_right", "right_id"),
+
+            // Per-criminal history and the time-window fallback
+            new IndexDefinition("sighting", "idx_sighting_criminal_time", "criminal_id, observed_at"),
+            new IndexDefinition("sighting", "idx_sighting_time", "observed_at"));
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        for (IndexDefinition index : INDEXES) {
+            if (exists(connection, index)) continue;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE INDEX " + index.name() + " ON " + index.table() + " (" + index.columns() + ")");
+            }
+        }
+    }
+
+    private static boolean exists(Connection connection, IndexDefinition index) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet rows = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), index.table(), false, true)) {
+            while (rows.next()) {
+                if (index.name().equalsIgnoreCase(rows.getString("INDEX_NAME"))) return true;
+            }
+        }
+        return false;
+    }
+}
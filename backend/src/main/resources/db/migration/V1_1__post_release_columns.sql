@@ -0,0 +1,44 @@
+-- Columns and tables added after the first release. On a database created by that release,
+-- V1 is a no-op, so these are the statements that actually bring it up to date.
+
+-- Photo similarity (perceptual hash), duplicate detection (name key), optimistic locking
+ALTER TABLE criminal ADD COLUMN photo_hash BIGINT;
+ALTER TABLE criminal ADD COLUMN name_key VARCHAR(255);
+ALTER TABLE criminal ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+-- Roster screening results
+ALTER TABLE visitor_meeting ADD COLUMN screening_status VARCHAR(255);
+ALTER TABLE visitor_meeting ADD COLUMN screening_matches VARCHAR(1000);
+ALTER TABLE visitor_meeting ADD COLUMN screened_at DATETIME(6);
+
+-- Archived meetings remember their source row, so completing one twice is idempotent
+ALTER TABLE completed_visitor ADD COLUMN meeting_id BIGINT;
+ALTER TABLE completed_visitor ADD CONSTRAINT uk_completed_visitor_meeting UNIQUE (meeting_id);
+
+-- Tables new since the first release
+CREATE TABLE IF NOT EXISTS cache_version (
+    region VARCHAR(255) NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (region)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS merge_candidate (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    left_id BIGINT,
+    right_id BIGINT,
+    score DOUBLE NOT NULL,
+    source TINYINT,
+    detected_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_merge_candidate_pair UNIQUE (left_id, right_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS sighting (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    criminal_id BIGINT NOT NULL,
+    latitude DOUBLE NOT NULL,
+    longitude DOUBLE NOT NULL,
+    observed_at DATETIME(6) NOT NULL,
+    source VARCHAR(100),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,54 @@
+-- Schema of the first release, as created there by hibernate.ddl-auto=update. IF NOT EXISTS
+-- lets this run unchanged against those databases; everything added since comes in later
+-- migrations as explicit ALTERs, which must never be folded back in here.
+
+CREATE TABLE IF NOT EXISTS criminal (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    age INT NOT NULL,
+    crime VARCHAR(255),
+    threat VARCHAR(255),
+    last_seen VARCHAR(255),
+    status VARCHAR(255),
+    record VARCHAR(1000),
+    photo VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    photo_url VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS visitor_meeting (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    visitor_name VARCHAR(255),
+    visitor_contact VARCHAR(255),
+    inmate_name VARCHAR(255),
+    purpose VARCHAR(255),
+    scheduled_date DATE,
+    scheduled_time VARCHAR(255),
+    status VARCHAR(255),
+    remarks VARCHAR(255),
+    created_at VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS completed_visitor (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    visitor_name VARCHAR(255),
+    visitor_contact VARCHAR(255),
+    inmate_name VARCHAR(255),
+    purpose VARCHAR(255),
+    scheduled_date DATE,
+    scheduled_time VARCHAR(255),
+    status VARCHAR(255),
+    remarks VARCHAR(255),
+    created_at VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
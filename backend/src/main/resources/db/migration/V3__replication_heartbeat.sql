@@ -0,0 +1,7 @@
+-- Replica-lag probe: each node writes its clock here on the primary and reads it back
+-- from the replica (see ReplicaRouter). Rows of stopped nodes are purged after a day.
+CREATE TABLE IF NOT EXISTS replication_heartbeat (
+    node VARCHAR(64) NOT NULL,
+    beat_millis BIGINT NOT NULL,
+    PRIMARY KEY (node)
+) ENGINE = InnoDB;
@@ -0,0 +1,11 @@
+-- Station (district) partition key. Existing rows belong to the station this database
+-- serves, passed in as the ${station} placeholder (intellicop.station.id).
+ALTER TABLE criminal ADD COLUMN station VARCHAR(32);
+ALTER TABLE users ADD COLUMN station VARCHAR(32);
+ALTER TABLE visitor_meeting ADD COLUMN station VARCHAR(32);
+ALTER TABLE completed_visitor ADD COLUMN station VARCHAR(32);
+
+UPDATE criminal SET station = '${station}' WHERE station IS NULL;
+UPDATE users SET station = '${station}' WHERE station IS NULL;
+UPDATE visitor_meeting SET station = '${station}' WHERE station IS NULL;
+UPDATE completed_visitor SET station = '${station}' WHERE station IS NULL;
@@ -0,0 +1,16 @@
+-- Leader election for scheduled jobs (see JobLeases). One row per @LeaderOnly job; the token
+-- goes up on every change of owner and fences writes made by a node that lost the lease.
+CREATE TABLE IF NOT EXISTS job_lease (
+    job VARCHAR(64) NOT NULL,
+    owner VARCHAR(128),
+    token BIGINT NOT NULL,
+    expires_millis BIGINT NOT NULL,
+    PRIMARY KEY (job)
+) ENGINE = InnoDB;
+
+-- Live nodes, so each can take its fair share of the jobs
+CREATE TABLE IF NOT EXISTS cluster_node (
+    node VARCHAR(128) NOT NULL,
+    beat_millis BIGINT NOT NULL,
+    PRIMARY KEY (node)
+) ENGINE = InnoDB;
@@ -0,0 +1,8 @@
+-- merge_candidate.source was stored as the enum ordinal (0 = INSERT, 1 = BATCH); store the name,
+-- so reordering or adding a source can never relabel existing rows
+ALTER TABLE merge_candidate MODIFY source VARCHAR(16);
+UPDATE merge_candidate SET source = CASE source WHEN '0' THEN 'INSERT' WHEN '1' THEN 'BATCH' ELSE source END;
+
+-- Name keys used to drop every non-Latin letter, leaving an empty key; clear those so the next
+-- duplicate scan backfills them
+UPDATE criminal SET name_key = NULL WHERE name_key = '';
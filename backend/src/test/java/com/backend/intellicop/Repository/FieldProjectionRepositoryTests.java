@@ -0,0 +1,116 @@
+package com.backend.intellicop.Repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.backend.intellicop.dto.FieldSet;
+import com.backend.intellicop.entity.Criminal;
+import com.backend.intellicop.entity.VisitorMeeting;
+
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:field-projections;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+				+ "com.backend.intellicop.Repository.FieldProjectionRepositoryTests$SelectRecorder"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FieldProjectionRepository.class)
+class FieldProjectionRepositoryTests {
+
+	public static class SelectRecorder implements StatementInspector {
+
+		static final List<String> selects = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			if (sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) selects.add(sql);
+			return sql;
+		}
+	}
+
+	@Autowired
+	private FieldProjectionRepository projections;
+	@Autowired
+	private CriminalRepository criminalRepository;
+	@Autowired
+	private VisitorMeetingRepository visitorMeetingRepository;
+
+	@BeforeEach
+	void setUp() {
+		criminalRepository.saveAndFlush(Criminal.builder()
+				.name("Ravi Kumar").age(34).crime("Robbery").threat("High").status("Wanted")
+				.record("Long case history that a list view never shows").build());
+		SelectRecorder.selects.clear();
+	}
+
+	@Test
+	void selectsOnlyTheChosenColumns() {
+		FieldSet fields = FieldSet.parse("status, name", FieldSet.CRIMINAL);
+
+		List<Map<String, Object>> rows = projections.findAll(Criminal.class, fields, null);
+
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0)).containsOnlyKeys("id", "name", "status")
+				.contains(entry("name", "Ravi Kumar"), entry("status", "Wanted"));
+		assertThat(List.copyOf(rows.get(0).keySet())).containsExactly("id", "name", "status");
+
+		assertThat(SelectRecorder.selects).singleElement().satisfies(sql -> {
+			String select = sql.toLowerCase(Locale.ROOT);
+			String columns = select.substring(0, select.indexOf(" from "));
+			assertThat(columns).contains(".name", ".status").doesNotContain(".record", ".photo", ".crime");
+		});
+	}
+
+	@Test
+	void findsOneRowAndFiltersBySpecification() {
+		Long id = criminalRepository.findAll().get(0).getId();
+		FieldSet fields = FieldSet.parse("threat", FieldSet.CRIMINAL);
+
+		assertThat(projections.findById(Criminal.class, id, fields))
+				.hasValueSatisfying(row -> assertThat(row).containsOnly(entry("id", id), entry("threat", "High")));
+		assertThat(projections.findById(Criminal.class, id + 1, fields)).isEmpty();
+
+		LocalDate today = LocalDate.now();
+		visitorMeetingRepository.saveAndFlush(VisitorMeeting.builder()
+				.visitorName("Asha").inmateName("Ravi Kumar").scheduledDate(today).status("SCHEDULED").build());
+		visitorMeetingRepository.saveAndFlush(VisitorMeeting.builder()
+				.visitorName("Meena").inmateName("Ravi Kumar").scheduledDate(today.plusDays(1)).status("SCHEDULED").build());
+
+		List<Map<String, Object>> upcoming = projections.findAll(VisitorMeeting.class,
+				FieldSet.parse("visitorName,scheduledDate", FieldSet.VISITOR),
+				(root, query, cb) -> cb.greaterThan(root.<LocalDate>get("scheduledDate"), today));
+		assertThat(upcoming).singleElement()
+				.satisfies(row -> assertThat(row).contains(entry("visitorName", "Meena"),
+						entry("scheduledDate", today.plusDays(1))));
+	}
+
+	@Test
+	void rejectsFieldsOutsideTheWhitelist() {
+		assertThat(FieldSet.parse(null, FieldSet.USER)).isNull();
+		assertThat(FieldSet.parse(" ", FieldSet.USER)).isNull();
+		assertThat(FieldSet.parse("role,username,role", FieldSet.USER))
+				.isEqualTo(FieldSet.parse("username,role", FieldSet.USER))
+				.extracting(FieldSet::names).isEqualTo(List.of("id", "username", "role"));
+
+		assertThatThrownBy(() -> FieldSet.parse("username,password", FieldSet.USER))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("password");
+		assertThatThrownBy(() -> FieldSet.parse("photoHash", FieldSet.CRIMINAL))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
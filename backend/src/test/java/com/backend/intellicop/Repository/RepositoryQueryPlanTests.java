@@ -0,0 +1,243 @@
+package com.backend.intellicop.Repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.api.migration.Context;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import com.backend.intellicop.dto.CriminalFilter;
+import com.backend.intellicop.entity.MergeCandidate;
+
+import db.migration.V2__Repository_indexes;
+import db.migration.V2__Repository_indexes.IndexDefinition;
+
+/**
+ * Runs the repository queries against the Flyway schema on H2 (MySQL mode) and checks the
+ * EXPLAIN of every statement they issue: each must be answered from an index, never a table scan.
+ * Starting the context also proves the migrations match the entities (ddl-auto=validate).
+ *
+ * Full scans by design, not covered here: findAll, the watchlist and deleteByCriminal (an OR
+ * across two indexed columns, which MySQL answers with an index merge and H2 cannot), and the
+ * role counts that read every user.
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+				+ "com.backend.intellicop.Repository.RepositoryQueryPlanTests$SqlRecorder"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RepositoryQueryPlanTests {
+
+	private static final String PRIMARY_KEY = "primary_key";
+
+	/** Captures the SQL Hibernate sends, so the plans are checked for the real statements. */
+	public static class SqlRecorder implements StatementInspector {
+
+		static final List<String> statements = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			String verb = sql.stripLeading().toLowerCase(Locale.ROOT);
+			if (verb.startsWith("select") || verb.startsWith("update") || verb.startsWith("delete")) {
+				statements.add(sql);
+			}
+			return sql;
+		}
+	}
+
+	@Autowired
+	private DataSource dataSource;
+	@Autowired
+	private VisitorMeetingRepository visitorMeetingRepository;
+	@Autowired
+	private CompletedVisitorRepository completedVisitorRepository;
+	@Autowired
+	private CriminalRepository criminalRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private MergeCandidateRepository mergeCandidateRepository;
+	@Autowired
+	private SightingRepository sightingRepository;
+	@Autowired
+	private CacheVersionRepository cacheVersionRepository;
+
+	@Test
+	void visitorMeetingQueriesUseScheduledDateIndex() {
+		LocalDate today = LocalDate.now();
+		String index = "idx_visitor_meeting_date_screening";
+
+		assertPlansUse(index, () -> visitorMeetingRepository.findByScheduledDate(today));
+		assertPlansUse(index, () -> visitorMeetingRepository.findByScheduledDateAfter(today));
+		assertPlansUse(index, () -> visitorMeetingRepository.findExpired(today));
+		assertPlansUse(index, () -> visitorMeetingRepository.findByScheduledDateAndScreeningStatus(today, "PENDING"));
+	}
+
+	@Test
+	void visitorMeetingUpdatesUsePrimaryKey() {
+		assertPlansUse(PRIMARY_KEY, () -> visitorMeetingRepository.findByIdInAndStatus(List.of(1L, 2L), "SCHEDULED"));
+		assertPlansUse(PRIMARY_KEY, () -> visitorMeetingRepository.compareAndSetStatus(1L, List.of("SCHEDULED"), "IN_PROGRESS"));
+		assertPlansUse(PRIMARY_KEY, () -> visitorMeetingRepository.markCompleted(List.of(1L, 2L)));
+		assertPlansUse(PRIMARY_KEY, () -> visitorMeetingRepository.updateScreening(1L, "Asha Patil", "CLEAR", null, LocalDateTime.now()));
+		assertPlansUse("uk_completed_visitor_meeting", () -> completedVisitorRepository.existsByMeetingId(1L));
+	}
+
+	@Test
+	void criminalSearchUsesFilterIndexes() {
+		CriminalFilter byThreat = new CriminalFilter();
+		byThreat.setThreat("High,Medium");
+		byThreat.setMinAge(20);
+		assertPlansUse("idx_criminal_threat_status_age",
+				() -> criminalRepository.findAll(CriminalSpecifications.matching(byThreat), PageRequest.of(0, 20)));
+		assertPlansUse("idx_criminal_threat_status_age",
+				() -> criminalRepository.facetCounts(CriminalSpecifications.matching(byThreat)));
+
+		CriminalFilter byStatus = new CriminalFilter();
+		byStatus.setStatus("Wanted");
+		byStatus.setLastSeen("market");
+		assertPlansUse("idx_criminal_status_age",
+				() -> criminalRepository.findAll(CriminalSpecifications.matching(byStatus), PageRequest.of(0, 20)));
+
+		CriminalFilter byCrime = new CriminalFilter();
+		byCrime.setCrime("Rob");
+		assertPlansUse("idx_criminal_crime_age", "'Rob%'",
+				() -> criminalRepository.findAll(CriminalSpecifications.matching(byCrime), PageRequest.of(0, 20)));
+	}
+
+	@Test
+	void duplicateBlocksUseNameKeyAndCrimeIndexes() {
+		assertPlansUse("idx_criminal_name_key_age", () -> criminalRepository.findDedupByNameKey("smith", Limit.of(50)));
+		assertPlansUse("idx_criminal_name_key_age", "'smi%'",
+				() -> criminalRepository.findDedupByNamePrefix("smi%", 20, 40, Limit.of(50)));
+		assertPlansUse("idx_criminal_crime_age", () -> criminalRepository.findDedupByCrime("Robbery", 20, 40, Limit.of(50)));
+	}
+
+	@Test
+	void criminalKeysetPagesAndBulkUpdatesUseIndexes() {
+		assertPlansUse(PRIMARY_KEY, () -> criminalRepository.findPhotoFingerprints(0L, Limit.of(500)));
+		assertPlansUse(PRIMARY_KEY, () -> criminalRepository.findUnhashedPhotos(0L, Limit.of(500)));
+		assertPlansUse(PRIMARY_KEY, () -> criminalRepository.findDedupRecords(0L, Limit.of(500)));
+		assertPlansUse("idx_criminal_name_key_age", () -> criminalRepository.findDedupRecordsWithoutNameKey(0L, Limit.of(500)));
+		assertPlansUse(PRIMARY_KEY, () -> criminalRepository.setPhotoHash(1L, 0L, 42L));
+		assertPlansUse(PRIMARY_KEY, () -> criminalRepository.setNameKey(1L, "smith"));
+	}
+
+	@Test
+	void userMergeCandidateAndCacheQueriesUseIndexes() {
+		assertPlansUse("uk_users_username", () -> userRepository.findByUsername("admin"));
+		assertPlansUse("idx_users_role", () -> userRepository.countByRole("PATROL"));
+
+		assertPlansUse("idx_merge_candidate_score", () -> mergeCandidateRepository.findTop500ByOrderByScoreDesc());
+		assertPlansUse("idx_merge_candidate_source", () -> mergeCandidateRepository.findBySource(MergeCandidate.Source.BATCH));
+		assertPlansUse("idx_merge_candidate_source", () -> mergeCandidateRepository.deleteBySource(MergeCandidate.Source.BATCH));
+
+		assertPlansUse(PRIMARY_KEY, () -> cacheVersionRepository.increment("criminal"));
+	}
+
+	@Test
+	void sightingQueriesUseTimeIndexes() {
+		Instant now = Instant.now();
+		Instant since = now.minusSeconds(3600);
+
+		assertPlansUse(PRIMARY_KEY, () -> sightingRepository.findAfter(0L, since, Limit.of(1000)));
+		assertPlansUse("idx_sighting_criminal_time",
+				() -> sightingRepository.findByCriminalIdOrderByObservedAtDesc(1L, Limit.of(100)));
+		assertPlansUse("idx_sighting_time",
+				() -> sightingRepository.findInBox(22.5, 88.3, 22.6, 88.4, since, now, Limit.of(100)));
+		assertPlansUse("idx_sighting_time",
+				() -> sightingRepository.findNearest(22.55, 88.35, 0.85, 22.5, 88.3, 22.6, 88.4, since, now, Limit.of(100)));
+	}
+
+	@Test
+	void indexMigrationSkipsIndexesThatAlreadyExist() throws Exception {
+		// Databases once managed by ddl-auto already have most of these indexes
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		Context context = mock(Context.class);
+		when(context.getConnection()).thenReturn(connection);
+
+		Map<String, Set<String>> before = indexes(connection);
+		for (IndexDefinition index : V2__Repository_indexes.INDEXES) {
+			assertThat(before.get(index.table())).as(index.table()).contains(index.name());
+		}
+
+		new V2__Repository_indexes().migrate(context);
+
+		assertThat(indexes(connection)).isEqualTo(before);
+	}
+
+	// Index names per table, lower-cased; H2 lists one row per indexed column
+	private static Map<String, Set<String>> indexes(Connection connection) throws Exception {
+		Map<String, Set<String>> indexes = new TreeMap<>();
+		for (IndexDefinition index : V2__Repository_indexes.INDEXES) {
+			Set<String> names = new TreeSet<>();
+			try (ResultSet rows = connection.getMetaData().getIndexInfo(connection.getCatalog(), connection.getSchema(),
+					index.table(), false, true)) {
+				while (rows.next()) {
+					String name = rows.getString("INDEX_NAME");
+					if (name != null) names.add(name.toLowerCase(Locale.ROOT));
+				}
+			}
+			indexes.put(index.table(), names);
+		}
+		return indexes;
+	}
+
+	private void assertPlansUse(String index, Runnable query) {
+		assertPlansUse(index, null, query);
+	}
+
+	/**
+	 * Connector/J sends prepared statements as literal SQL, so MySQL plans a LIKE with its
+	 * actual prefix; H2 plans at prepare time and needs the pattern inlined to do the same.
+	 */
+	private void assertPlansUse(String index, String likePattern, Runnable query) {
+		SqlRecorder.statements.clear();
+		query.run();
+
+		List<String> statements = List.copyOf(SqlRecorder.statements);
+		assertThat(statements).as("statements issued").isNotEmpty();
+		for (String sql : statements) {
+			if (likePattern != null) sql = sql.replaceFirst(" like \\?", " like " + likePattern);
+			String plan = explain(sql).toLowerCase(Locale.ROOT);
+			assertThat(plan).as(plan).doesNotContain(".tablescan").contains("/* public." + index);
+		}
+	}
+
+	private String explain(String sql) {
+		// Same connection as the test transaction; parameters may stay unbound for EXPLAIN
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+				ResultSet plan = statement.executeQuery()) {
+			plan.next();
+			return plan.getString(1);
+		} catch (Exception e) {
+			throw new IllegalStateException("EXPLAIN failed for: " + sql, e);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package com.backend.intellicop.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuditLogTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void eventsSurviveRestartAndAreQueryableByEntityAndActor() throws Exception {
+		AuditLog log = open(4096);
+		for (int i = 0; i < 200; i++) {
+			log.record(i % 2 == 0 ? "alice" : "bob", "update", "criminal", String.valueOf(i % 10), "OK", "n=" + i, null);
+		}
+		log.shutdown();
+
+		// Small segments force several roll-overs; reopening replays all of them
+		assertThat(segmentFiles()).hasSizeGreaterThan(1);
+		AuditLog reopened = open(4096);
+		List<AuditEvent> forCriminal3 = reopened.query("criminal", "3", null, null, null, 100);
+		assertThat(forCriminal3).hasSize(20).allMatch(e -> e.entityId().equals("3") && e.node().equals("node-a"));
+		assertThat(forCriminal3.get(0).detail()).isEqualTo("n=193");
+		assertThat(reopened.query(null, null, "bob", null, null, 500)).hasSize(100);
+
+		reopened.record("carol", "delete", "user", "7", "OK", null, null);
+		reopened.shutdown();
+		assertThat(open(4096).query("user", "7", null, null, null, 10))
+				.singleElement().satisfies(e -> assertThat(e.sequence()).isEqualTo(201));
+	}
+
+	@Test
+	void recoveryStopsAtACorruptRecord() throws Exception {
+		AuditLog log = open(1 << 20);
+		for (int i = 0; i < 10; i++) log.record("alice", "update", "criminal", String.valueOf(i), "OK", null, null);
+		log.shutdown();
+
+		// Flip a byte inside the sixth record's payload
+		Path segment = segmentFiles().get(0);
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			long offset = 8;
+			for (int i = 0; i < 5; i++) {
+				file.seek(offset);
+				offset += 8 + file.readInt();
+			}
+			file.seek(offset + 20);
+			int b = file.read();
+			file.seek(offset + 20);
+			file.write(b ^ 0xFF);
+		}
+
+		assertThat(open(1 << 20).query(null, null, "alice", null, null, 100)).hasSize(5);
+	}
+
+	@Test
+	void segmentsWrittenBeforeTheNodeWasRecordedAreReadButNotAppendedTo() throws Exception {
+		// Format 1: no node field
+		ByteBuffer payload = ByteBuffer.allocate(16 + 7 * 4 + 5);
+		payload.putLong(1).putLong(1_000);
+		payload.putInt(5).put("alice".getBytes(StandardCharsets.UTF_8));
+		for (int i = 1; i < 7; i++) payload.putInt(-1);
+		CRC32C crc = new CRC32C();
+		crc.update(payload.array());
+		ByteBuffer segment = ByteBuffer.allocate(4096);
+		segment.putInt(0x49415544).putInt(1).putInt(payload.capacity()).putInt((int) crc.getValue()).put(payload.array());
+		Files.write(directory.resolve("audit-0000000001.seg"), segment.array());
+
+		AuditLog log = open(4096);
+		log.record("alice", "update", "criminal", "1", "OK", null, null);
+		log.shutdown();
+
+		assertThat(log.query(null, null, "alice", null, null, 10))
+				.extracting(AuditEvent::sequence, AuditEvent::node)
+				.containsExactly(tuple(2L, "node-a"), tuple(1L, null));
+		assertThat(segmentFiles()).hasSize(2);
+	}
+
+	@Test
+	void droppedSegmentsAreDeletedAndLeaveTheIndexes() throws Exception {
+		AuditLog log = open(4096, 2);
+		for (int i = 0; i < 2000; i++) log.record("alice", "update", "criminal", String.valueOf(i), "OK", null, null);
+		log.shutdown();
+
+		assertThat(segmentFiles()).hasSize(2);
+		List<AuditEvent> live = log.query(null, null, "alice", null, null, 5000);
+		assertThat(live).hasSizeLessThan(200).first().satisfies(e -> assertThat(e.sequence()).isEqualTo(2000));
+		assertThat(log.query("criminal", "0", null, null, null, 10)).isEmpty();
+		// Sized for what is still on disk, not for every event ever written
+		assertThat((int[]) ReflectionTestUtils.getField(log, "segmentOf")).hasSize(1024);
+	}
+
+	@Test
+	void queriesRunWhileSegmentsRollAndAreDeleted() throws Exception {
+		AuditLog log = open(1 << 16, 2);
+		ExecutorService readers = Executors.newFixedThreadPool(4);
+		List<Future<Integer>> scans = new ArrayList<>();
+		for (int r = 0; r < 4; r++) {
+			scans.add(readers.submit(() -> {
+				int seen = 0;
+				for (int i = 0; i < 500; i++) {
+					List<AuditEvent> events = log.query(null, null, "alice", null, null, 1000);
+					for (int e = 1; e < events.size(); e++) {
+						assertThat(events.get(e).sequence()).isLessThan(events.get(e - 1).sequence());
+					}
+					seen += events.size();
+				}
+				return seen;
+			}));
+		}
+		for (int i = 0; i < 20_000; i++) {
+			log.record("alice", "update", "criminal", String.valueOf(i), "OK", null, null);
+			if (i % 1000 == 999) Thread.sleep(20); // stay under the buffer size
+		}
+		for (Future<Integer> scan : scans) assertThat(scan.get(30, TimeUnit.SECONDS)).isNotNegative();
+		readers.shutdown();
+		log.shutdown();
+		assertThat(segmentFiles()).hasSize(2);
+	}
+
+	@Test
+	void idleWriterBlocksInsteadOfPolling() throws Exception {
+		AuditLog log = open(1 << 20);
+		log.record("alice", "update", "criminal", "1", "OK", null, null);
+		Thread writer = (Thread) ReflectionTestUtils.getField(log, "writer");
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+		while (writer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) Thread.sleep(10);
+		// WAITING is an untimed park; a polling writer would show TIMED_WAITING or RUNNABLE
+		assertThat(writer.getState()).isEqualTo(Thread.State.WAITING);
+		assertThat(log.query(null, null, "alice", null, null, 10)).hasSize(1);
+
+		log.record("bob", "update", "criminal", "2", "OK", null, null);
+		log.shutdown();
+		assertThat(writer.isAlive()).isFalse();
+		assertThat(log.query(null, null, "bob", null, null, 10)).hasSize(1);
+	}
+
+	private AuditLog open(int segmentBytes) throws Exception {
+		return open(segmentBytes, 64);
+	}
+
+	private AuditLog open(int segmentBytes, int maxSegments) throws Exception {
+		return new AuditLog(directory, "node-a", segmentBytes, maxSegments, 10, 4096, new SimpleMeterRegistry());
+	}
+
+	private List<Path> segmentFiles() throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().toList();
+		}
+	}
+}
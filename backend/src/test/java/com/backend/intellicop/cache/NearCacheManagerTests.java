@@ -0,0 +1,119 @@
+package com.backend.intellicop.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.intellicop.Repository.CacheVersionRepository;
+import com.backend.intellicop.concurrency.LimitExceededException;
+import com.backend.intellicop.service.AggregateChangedEvent;
+import com.backend.intellicop.service.ResourceVersionService;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Not in a test transaction: invalidations commit on their own, as they do after a write
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:near-cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NearCacheManagerTests {
+
+	/** One app node: its own versions and caches over the shared database. */
+	private final class Node {
+
+		final ResourceVersionService versions;
+		final NearCacheManager caches;
+
+		Node(CacheVersionRepository repository) {
+			AtomicReference<NearCacheManager> manager = new AtomicReference<>();
+			versions = new ResourceVersionService(event -> manager.get().onLocalChange((AggregateChangedEvent) event));
+			caches = new NearCacheManager(repository, versions, new SimpleMeterRegistry(), transactionManager, 100,
+					Duration.ofMinutes(1));
+			manager.set(caches);
+			caches.registerRegions();
+		}
+
+		String etag(Aggregate aggregate) {
+			return versions.etag(aggregate, null).tag();
+		}
+	}
+
+	@Autowired
+	private CacheVersionRepository cacheVersionRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void setUp() {
+		cacheVersionRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void visitorWriteOnOneNodeMovesTheOtherNodesETag() {
+		Node a = new Node(cacheVersionRepository);
+		Node b = new Node(cacheVersionRepository);
+		String before = b.etag(Aggregate.VISITOR);
+
+		a.versions.touch(Aggregate.VISITOR);
+		b.caches.pollVersions();
+
+		assertThat(b.etag(Aggregate.VISITOR)).isNotEqualTo(before);
+		assertThat(cacheVersionRepository.findAll()).hasSize(Aggregate.values().length);
+	}
+
+	@Test
+	void ownIncrementsDoNotMoveTheETagAgain() {
+		Node a = new Node(cacheVersionRepository);
+		Node b = new Node(cacheVersionRepository);
+		NearCache<Object, String> cached = a.caches.cache(Aggregate.CRIMINAL);
+
+		a.versions.touch(Aggregate.CRIMINAL);
+		a.versions.touch(Aggregate.CRIMINAL);
+		String afterWrites = a.etag(Aggregate.CRIMINAL);
+		cached.getOrLoad("all", () -> "fresh");
+		a.caches.pollVersions();
+		assertThat(a.etag(Aggregate.CRIMINAL)).as("already moved by the writes").isEqualTo(afterWrites);
+		assertThat(cached.getOrLoad("all", () -> "reloaded")).isEqualTo("fresh");
+
+		// A remote write between two of ours is still seen
+		a.versions.touch(Aggregate.CRIMINAL);
+		b.versions.touch(Aggregate.CRIMINAL);
+		a.versions.touch(Aggregate.CRIMINAL);
+		String beforePoll = a.etag(Aggregate.CRIMINAL);
+		a.caches.pollVersions();
+		assertThat(a.etag(Aggregate.CRIMINAL)).isNotEqualTo(beforePoll);
+		assertThat(cached.getOrLoad("all", () -> "reloaded")).isEqualTo("reloaded");
+	}
+
+	@Test
+	void failedInvalidationDoesNotFailTheCommittedWrite() {
+		CacheVersionRepository shedding = mock(CacheVersionRepository.class);
+		when(shedding.increment(anyString())).thenThrow(new LimitExceededException("database", 8));
+		AtomicReference<NearCacheManager> manager = new AtomicReference<>();
+		ResourceVersionService versions = new ResourceVersionService(
+				event -> manager.get().onLocalChange((AggregateChangedEvent) event));
+		manager.set(new NearCacheManager(shedding, versions, new SimpleMeterRegistry(), transactionManager, 100,
+				Duration.ofMinutes(1)));
+		String before = versions.etag(Aggregate.VISITOR, null).tag();
+
+		versions.touch(Aggregate.VISITOR);
+
+		assertThat(versions.etag(Aggregate.VISITOR, null).tag()).isNotEqualTo(before);
+	}
+}
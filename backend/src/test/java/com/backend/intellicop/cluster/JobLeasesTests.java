@@ -0,0 +1,156 @@
+package com.backend.intellicop.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JobLeasesTests {
+
+	private static final List<String> JOBS = List.of("visitor-auto-complete", "duplicate-scan");
+	private static int databases;
+
+	/** Shared by both nodes; tests move it instead of sleeping. */
+	static class MutableClock extends Clock {
+
+		private volatile Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+
+	private final MutableClock clock = new MutableClock();
+	private final List<Object> events = new CopyOnWriteArrayList<>();
+	private JdbcTemplate jdbc;
+	private TransactionTemplate transactions;
+
+	@BeforeEach
+	void setUp() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:leases-" + (++databases) + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE job_lease (job VARCHAR(64) NOT NULL PRIMARY KEY, owner VARCHAR(128), "
+				+ "token BIGINT NOT NULL, expires_millis BIGINT NOT NULL)");
+		jdbc.execute("CREATE TABLE cluster_node (node VARCHAR(128) NOT NULL PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+		transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+	}
+
+	@Test
+	void firstNodeLeadsEveryJobUntilASecondJoins() {
+		JobLeases a = node("a");
+		a.tick();
+		assertThat(JOBS).allSatisfy(job -> assertThat(a.lease(job)).isNotNull());
+
+		JobLeases b = node("b");
+		b.tick();
+		assertThat(JOBS).allSatisfy(job -> assertThat(b.lease(job)).as("still held by a").isNull());
+
+		// a hands back its surplus lease, b picks it up
+		a.tick();
+		b.tick();
+		assertThat(JOBS).allSatisfy(job -> assertThat(a.lease(job) == null ^ b.lease(job) == null)
+				.as("exactly one leader for " + job).isTrue());
+		assertThat(JOBS.stream().filter(job -> b.lease(job) != null)).hasSize(1);
+	}
+
+	@Test
+	void deadNodesLeasesAreTakenOverWithANewToken() {
+		JobLeases a = node("a");
+		a.tick();
+		long token = a.lease("duplicate-scan").token();
+		JobLeases b = node("b");
+		b.tick();
+
+		// a stops renewing
+		clock.advance(Duration.ofSeconds(31));
+		assertThat(a.lease("duplicate-scan")).as("a stops trusting its lapsed lease").isNull();
+		b.tick();
+
+		assertThat(JOBS).allSatisfy(job -> assertThat(b.lease(job)).isNotNull());
+		assertThat(b.lease("duplicate-scan").token()).isGreaterThan(token);
+	}
+
+	@Test
+	void staleLeaderIsFencedOffInsideItsTransaction() {
+		JobLeases a = node("a");
+		a.tick();
+		JobLeases.Lease stale = a.lease("visitor-auto-complete");
+		JobLeases b = node("b");
+
+		clock.advance(Duration.ofSeconds(31));
+		b.tick();
+		assertThat(b.lease("visitor-auto-complete")).isNotNull();
+
+		// a resumes after a long pause, still believing it leads
+		try (JobLeases.Scope scope = a.bind(stale)) {
+			assertThatThrownBy(() -> transactions.executeWithoutResult(status -> a.fence()))
+					.isInstanceOf(LeaseLostException.class);
+		}
+		try (JobLeases.Scope scope = b.bind(b.lease("visitor-auto-complete"))) {
+			transactions.executeWithoutResult(status -> b.fence());
+		}
+	}
+
+	@Test
+	void fencingNeedsABoundLeaseAndATransaction() {
+		JobLeases a = node("a");
+		a.tick();
+
+		assertThatThrownBy(a::fence).isInstanceOf(IllegalStateException.class);
+		try (JobLeases.Scope scope = a.bind(a.lease("visitor-auto-complete"))) {
+			assertThatThrownBy(a::fence).isInstanceOf(IllegalStateException.class);
+		}
+	}
+
+	@Test
+	void shutdownHandsLeasesStraightToTheNextNode() {
+		JobLeases a = node("a");
+		a.tick();
+		JobLeases b = node("b");
+
+		a.close();
+		b.tick();
+
+		assertThat(JOBS).allSatisfy(job -> assertThat(b.lease(job)).isNotNull());
+	}
+
+	private JobLeases node(String name) {
+		JobLeases leases = new JobLeases(jdbc, events::add, new SimpleMeterRegistry(), Duration.ofSeconds(30),
+				Duration.ofSeconds(10), clock, name);
+		JOBS.forEach(leases::register);
+		return leases;
+	}
+}
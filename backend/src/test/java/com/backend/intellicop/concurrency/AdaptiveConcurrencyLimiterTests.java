@@ -0,0 +1,62 @@
+package com.backend.intellicop.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTests {
+
+	@Test
+	void rejectsOnceLimitIsReached() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 0.5, 2.0);
+
+		assertThat(limiter.tryAcquire()).isTrue();
+		assertThat(limiter.tryAcquire()).isTrue();
+		assertThat(limiter.tryAcquire()).isFalse();
+		assertThat(limiter.getInFlight()).isEqualTo(2);
+	}
+
+	@Test
+	void growsWhileSaturatedAndLatencyIsSteady() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 0.5, 2.0);
+
+		for (int round = 0; round < 10; round++) {
+			int acquired = 0;
+			while (limiter.tryAcquire()) acquired++;
+			for (int i = 0; i < acquired; i++) limiter.release(1_000_000, false);
+		}
+
+		assertThat(limiter.getLimit()).isEqualTo(10);
+	}
+
+	@Test
+	void backsOffOnDropsButNotBelowMinimum() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 8, 2, 10, 0.5, 2.0);
+
+		limiter.tryAcquire();
+		limiter.release(1_000_000, true);
+		assertThat(limiter.getLimit()).isEqualTo(4);
+
+		for (int i = 0; i < 5; i++) {
+			limiter.tryAcquire();
+			limiter.release(1_000_000, true);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(2);
+	}
+
+	@Test
+	void backsOffWhenLatencyRisesAboveBaseline() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 8, 1, 10, 0.5, 2.0);
+
+		limiter.tryAcquire();
+		limiter.release(1_000_000, false);
+		int before = limiter.getLimit();
+
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire();
+			limiter.release(50_000_000, false);
+		}
+
+		assertThat(limiter.getLimit()).isLessThan(before);
+	}
+}
@@ -0,0 +1,125 @@
+package com.backend.intellicop.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.backend.intellicop.config.security.exceptions.ConcurrencyExceptionAdvice;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BulkheadTests {
+
+	private final Bulkhead bulkhead = new Bulkhead("database", 1, Duration.ofMillis(50));
+	private final DataSource dataSource = new BulkheadDataSource(h2(), bulkhead);
+
+	@RestController
+	static class CountController {
+
+		private final JdbcTemplate jdbc;
+		private final TransactionTemplate transactions;
+
+		CountController(DataSource dataSource) {
+			this.jdbc = new JdbcTemplate(dataSource);
+			this.transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		}
+
+		@GetMapping("/plain")
+		Integer plain() {
+			return jdbc.queryForObject("SELECT 1", Integer.class);
+		}
+
+		@GetMapping("/transactional")
+		Integer transactional() {
+			return transactions.execute(status -> jdbc.queryForObject("SELECT 1", Integer.class));
+		}
+	}
+
+	@Test
+	void rejectsOnceEveryPermitIsTakenAndCountsIt() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		bulkhead.bindTo(registry);
+
+		bulkhead.acquire();
+		assertThatThrownBy(bulkhead::acquire).isInstanceOf(BulkheadFullException.class);
+		assertThat(registry.get("bulkhead.rejected").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get("bulkhead.available").gauge().value()).isZero();
+
+		bulkhead.release();
+		assertThat(bulkhead.execute(() -> "ran")).isEqualTo("ran");
+		assertThat(registry.get("bulkhead.available").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	void connectionHoldsItsPermitUntilClosedOnce() throws Exception {
+		Connection connection = dataSource.getConnection();
+		assertThatThrownBy(dataSource::getConnection)
+				.isInstanceOf(DatabaseBusyException.class)
+				.hasCauseInstanceOf(BulkheadFullException.class);
+
+		connection.close();
+		connection.close(); // a second close must not hand out a second permit
+
+		try (Connection again = dataSource.getConnection()) {
+			assertThat(again.isValid(1)).isTrue();
+			assertThatThrownBy(dataSource::getConnection).isInstanceOf(DatabaseBusyException.class);
+		}
+	}
+
+	@Test
+	void failedConnectReleasesThePermit() throws Exception {
+		DataSource failing = new BulkheadDataSource(new DelegatingDataSource(h2()) {
+			@Override
+			public Connection getConnection() throws SQLException {
+				throw new SQLException("pool exhausted");
+			}
+		}, bulkhead);
+
+		assertThatThrownBy(failing::getConnection).hasMessage("pool exhausted");
+		try (Connection connection = dataSource.getConnection()) {
+			assertThat(connection).isNotNull();
+		}
+	}
+
+	@Test
+	void saturationIsShedWith503AndRetryAfter() throws Exception {
+		MockMvc mvc = MockMvcBuilders.standaloneSetup(new CountController(dataSource))
+				.setControllerAdvice(new ConcurrencyExceptionAdvice())
+				.build();
+
+		mvc.perform(get("/plain")).andExpect(status().isOk());
+
+		try (Connection held = dataSource.getConnection()) {
+			for (String path : new String[] { "/plain", "/transactional" }) {
+				mvc.perform(get(path))
+						.andExpect(status().isServiceUnavailable())
+						.andExpect(header().string("Retry-After", "1"));
+			}
+		}
+	}
+
+	private static DataSource h2() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:bulkhead;DB_CLOSE_DELAY=-1");
+		return dataSource;
+	}
+}
@@ -0,0 +1,67 @@
+package com.backend.intellicop.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+
+import com.backend.intellicop.entity.CacheVersion;
+import com.backend.intellicop.Repository.CacheVersionRepository;
+import com.backend.intellicop.Repository.SightingRepository;
+
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:repository-limiter;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ RepositoryLimiterAspect.class, RepositoryLimiterAspectTests.Config.class })
+class RepositoryLimiterAspectTests {
+
+	@TestConfiguration
+	@EnableAspectJAutoProxy
+	static class Config {
+
+		@Bean
+		AdaptiveConcurrencyLimiter databaseLimiter() {
+			return new AdaptiveConcurrencyLimiter("database", 1, 1, 1, 0.5, 2.0);
+		}
+	}
+
+	@Autowired
+	private AdaptiveConcurrencyLimiter databaseLimiter;
+	@Autowired
+	private SightingRepository sightingRepository;
+	@Autowired
+	private CacheVersionRepository cacheVersionRepository;
+
+	@AfterEach
+	void releaseLimit() {
+		while (databaseLimiter.getInFlight() > 0) databaseLimiter.releaseIgnored();
+	}
+
+	@Test
+	void shedsDomainRepositoryCallsOnceTheLimitIsReached() {
+		assertThat(sightingRepository.count()).isZero();
+		assertThat(databaseLimiter.tryAcquire()).isTrue();
+
+		assertThatThrownBy(sightingRepository::count).isInstanceOf(LimitExceededException.class);
+	}
+
+	@Test
+	void leavesCacheVersionTrafficOutOfTheLimiter() {
+		assertThat(databaseLimiter.tryAcquire()).isTrue();
+
+		cacheVersionRepository.save(new CacheVersion("criminal", 0));
+		assertThat(cacheVersionRepository.increment("criminal")).isEqualTo(1);
+		assertThat(cacheVersionRepository.findVersion("criminal")).isEqualTo(1);
+		assertThat(databaseLimiter.getInFlight()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,146 @@
+package com.backend.intellicop.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.backend.intellicop.service.AggregateChangedEvent;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RequestCoalescerTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final RequestCoalescer coalescer = new RequestCoalescer(registry);
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final AtomicInteger calls = new AtomicInteger();
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentIdenticalCallsShareOneExecution() throws Exception {
+		Future<String> first = submit("today", TIMEOUT);
+		awaitInFlight(1);
+		List<Future<String>> joined = new ArrayList<>();
+		for (int i = 0; i < 50; i++) joined.add(submit("today", TIMEOUT));
+		awaitJoined(50);
+
+		release.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("result-1");
+		for (Future<String> future : joined) assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("result-1");
+		assertThat(calls).hasValue(1);
+		assertThat(coalescer.inFlight()).isZero();
+	}
+
+	@Test
+	void differentKeysRunSeparately() throws Exception {
+		Future<String> today = submit("today", TIMEOUT);
+		Future<String> upcoming = submit("upcoming", TIMEOUT);
+		awaitInFlight(2);
+		release.countDown();
+
+		assertThat(List.of(today.get(5, TimeUnit.SECONDS), upcoming.get(5, TimeUnit.SECONDS)))
+				.containsExactlyInAnyOrder("result-1", "result-2");
+	}
+
+	@Test
+	void failureReachesEveryJoinedCallerAndIsNotKept() throws Exception {
+		CountDownLatch failing = new CountDownLatch(1);
+		Future<String> first = executor.submit(() -> this.<String>execute("key", TIMEOUT, () -> {
+			calls.incrementAndGet();
+			failing.await();
+			throw new IllegalStateException("database down");
+		}));
+		awaitInFlight(1);
+		Future<String> joined = submit("key", TIMEOUT);
+		awaitJoined(1);
+		failing.countDown();
+
+		assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> joined.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+
+		release.countDown();
+		assertThat(submit("key", TIMEOUT).get(5, TimeUnit.SECONDS)).isEqualTo("result-2");
+	}
+
+	@Test
+	void joinedCallerGivesUpAfterItsTimeout() throws Exception {
+		Future<String> first = submit("slow", TIMEOUT);
+		awaitInFlight(1);
+
+		assertThatThrownBy(() -> execute("slow", Duration.ofMillis(50), () -> "unused"))
+				.isInstanceOf(CoalescedCallTimeoutException.class);
+
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("result-1");
+	}
+
+	@Test
+	void callersAfterALocalWriteStartAFreshCall() throws Exception {
+		Future<String> beforeWrite = submit("today", TIMEOUT);
+		awaitInFlight(1);
+
+		coalescer.onLocalWrite(new AggregateChangedEvent(Aggregate.VISITOR));
+		Future<String> afterWrite = submit("today", TIMEOUT);
+		release.countDown();
+
+		assertThat(beforeWrite.get(5, TimeUnit.SECONDS)).isNotEqualTo(afterWrite.get(5, TimeUnit.SECONDS));
+		assertThat(calls).hasValue(2);
+	}
+
+	private Future<String> submit(String key, Duration timeout) {
+		return executor.submit(() -> execute(key, timeout, () -> {
+			int call = calls.incrementAndGet();
+			release.await();
+			return "result-" + call;
+		}));
+	}
+
+	private <T> T execute(String key, Duration timeout, RequestCoalescer.Call<T> call) throws Exception {
+		try {
+			return coalescer.execute("test", key, timeout, call);
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	private void awaitInFlight(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (calls.get() < expected && System.nanoTime() < deadline) Thread.sleep(1);
+		assertThat(calls).hasValue(expected);
+	}
+
+	private void awaitJoined(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (joinedCount() < expected && System.nanoTime() < deadline) Thread.sleep(1);
+		assertThat(joinedCount()).isEqualTo(expected);
+	}
+
+	private double joinedCount() {
+		return registry.find("coalescing.calls").tag("outcome", "joined").counters().stream()
+				.mapToDouble(c -> c.count()).sum();
+	}
+}
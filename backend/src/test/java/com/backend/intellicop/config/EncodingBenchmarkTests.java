@@ -0,0 +1,150 @@
+package com.backend.intellicop.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.backend.intellicop.dto.FieldSet;
+import com.backend.intellicop.entity.Criminal;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Payload size and serialization CPU per encoding for a criminal list, in full and as a
+ * sparse {@code ?fields=} list. Logs a table at debug; asserts only the size ordering, which
+ * does not depend on the machine.
+ */
+class EncodingBenchmarkTests {
+
+	private static final Logger log = LoggerFactory.getLogger(EncodingBenchmarkTests.class);
+	private static final int ROWS = 1_000;
+	private static final int WARMUP = 50;
+	private static final int ROUNDS = 100;
+	private static final TypeReference<List<Map<String, Object>>> ROWS_TYPE = new TypeReference<>() {
+	};
+	private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {
+	};
+
+	private final EncodingConfig config = new EncodingConfig();
+	private final ObjectMapper json = builder().build();
+	private final ObjectMapper cbor = config.cborHttpMessageConverter(builder()).getObjectMapper();
+	private final ObjectMapper smile = config.smileHttpMessageConverter(builder()).getObjectMapper();
+
+	@Test
+	void binaryEncodingsAreSmallerAndSparseListsSmallerStill() throws Exception {
+		List<Criminal> full = criminals();
+		List<Map<String, Object>> sparse = project(full, FieldSet.parse("name,threat,status", FieldSet.CRIMINAL));
+
+		Map<String, Long> sizes = new LinkedHashMap<>();
+		log.debug(String.format("%-14s %10s %12s", "payload", "bytes", "cpu us/op"));
+		for (String shape : List.of("full", "sparse")) {
+			Object body = shape.equals("full") ? full : sparse;
+			for (Map.Entry<String, ObjectMapper> format : formats().entrySet()) {
+				byte[] encoded = format.getValue().writeValueAsBytes(body);
+				long cpuMicros = cpuMicrosPerWrite(format.getValue(), body);
+				sizes.put(shape + "/" + format.getKey(), (long) encoded.length);
+				log.debug(String.format("%-14s %10d %12d", shape + "/" + format.getKey(), encoded.length, cpuMicros));
+
+				// Same content whatever the wire format
+				assertThat(format.getValue().readValue(encoded, ROWS_TYPE))
+						.isEqualTo(json.readValue(json.writeValueAsBytes(body), ROWS_TYPE));
+			}
+		}
+
+		for (String shape : List.of("full", "sparse")) {
+			assertThat(sizes.get(shape + "/cbor")).isLessThan(sizes.get(shape + "/json"));
+			assertThat(sizes.get(shape + "/smile")).isLessThan(sizes.get(shape + "/json"));
+		}
+		assertThat(sizes.get("sparse/json")).isLessThan(sizes.get("full/json") / 3);
+	}
+
+	@Test
+	void jsonStaysTheDefaultEncoding() {
+		List<HttpMessageConverter<?>> converters = new HttpMessageConverters(
+				config.cborHttpMessageConverter(builder()), config.smileHttpMessageConverter(builder())).getConverters();
+
+		int jsonAt = indexOf(converters, MappingJackson2HttpMessageConverter.class);
+		assertThat(jsonAt).isNotNegative()
+				.isLessThan(indexOf(converters, MappingJackson2CborHttpMessageConverter.class))
+				.isLessThan(indexOf(converters, MappingJackson2SmileHttpMessageConverter.class));
+	}
+
+	private Map<String, ObjectMapper> formats() {
+		Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+		formats.put("json", json);
+		formats.put("cbor", cbor);
+		formats.put("smile", smile);
+		return formats;
+	}
+
+	private static long cpuMicrosPerWrite(ObjectMapper mapper, Object body) throws Exception {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		for (int i = 0; i < WARMUP; i++) mapper.writeValueAsBytes(body);
+		long start = threads.getCurrentThreadCpuTime();
+		for (int i = 0; i < ROUNDS; i++) mapper.writeValueAsBytes(body);
+		return (threads.getCurrentThreadCpuTime() - start) / ROUNDS / 1_000;
+	}
+
+	// What FieldProjectionRepository returns for the same rows
+	private List<Map<String, Object>> project(List<Criminal> criminals, FieldSet fields) {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (Criminal criminal : criminals) {
+			Map<String, Object> all = json.convertValue(criminal, ROW_TYPE);
+			Map<String, Object> row = new LinkedHashMap<>();
+			for (String name : fields.names()) row.put(name, all.get(name));
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	private static List<Criminal> criminals() {
+		String[] threats = { "High", "Medium", "Low" };
+		String[] statuses = { "Wanted", "Arrested", "Released" };
+		List<Criminal> criminals = new ArrayList<>();
+		for (int i = 1; i <= ROWS; i++) {
+			criminals.add(Criminal.builder()
+					.id((long) i)
+					.name("Suspect " + i)
+					.age(18 + i % 50)
+					.crime(i % 2 == 0 ? "Robbery" : "Vehicle theft")
+					.threat(threats[i % 3])
+					.status(statuses[i % 3])
+					.lastSeen("Sector " + i % 40 + ", near the old bus depot")
+					.record("Case " + i + ": arrested twice for similar offences, released on bail, "
+							+ "known associates under watch in the northern district.")
+					.photo("https://res.cloudinary.com/intellicop/image/upload/v1700000000/criminals/" + i + ".jpg")
+					.version(3L)
+					.station("main")
+					.build());
+		}
+		return criminals;
+	}
+
+	// Boot's defaults for the JSON mapper
+	private static Jackson2ObjectMapperBuilder builder() {
+		return new Jackson2ObjectMapperBuilder().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+	}
+
+	private static int indexOf(List<HttpMessageConverter<?>> converters, Class<?> type) {
+		for (int i = 0; i < converters.size(); i++) {
+			if (converters.get(i).getClass() == type) return i;
+		}
+		return -1;
+	}
+}
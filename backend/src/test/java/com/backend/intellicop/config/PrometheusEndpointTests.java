@@ -0,0 +1,56 @@
+package com.backend.intellicop.config;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+// The whole application on H2, so the scrape sees the real security chain and meters
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:prometheus;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"intellicop.audit.directory=${java.io.tmpdir}/intellicop-prometheus-audit",
+		"cloudinary.cloud_name=test", "cloudinary.api_key=test", "cloudinary.api_secret=test"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+// Closed afterwards: its writer threads and scheduled jobs would outlive the class otherwise
+@DirtiesContext
+class PrometheusEndpointTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void scrapeRequiresAnAdmin() throws Exception {
+		mvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+		mvc.perform(get("/actuator/prometheus").with(user("officer").roles("OFFICER")))
+				.andExpect(status().isForbidden());
+		mvc.perform(get("/actuator/prometheus").with(user("admin").roles("ADMIN")))
+				.andExpect(status().isOk());
+		// Liveness stays open for the load balancer
+		mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+	}
+
+	@Test
+	void scrapeExposesTheHotPathMeters() throws Exception {
+		mvc.perform(get("/api/criminals")).andExpect(status().isOk());
+
+		mvc.perform(get("/actuator/prometheus").with(user("admin").roles("ADMIN")))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+				.andExpect(content().string(containsString("intellicop_service_seconds_bucket{")))
+				.andExpect(content().string(containsString(
+						"class=\"com.backend.intellicop.service.CriminalService\",exception=\"none\",method=\"getAll\"")))
+				.andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket{")))
+				.andExpect(content().string(containsString("hikaricp_connections_active")));
+	}
+}
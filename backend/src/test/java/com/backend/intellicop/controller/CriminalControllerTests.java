@@ -0,0 +1,189 @@
+package com.backend.intellicop.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.endsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ETag;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.backend.intellicop.config.FieldSetArgumentResolver;
+import com.backend.intellicop.config.security.exceptions.ConcurrencyExceptionAdvice;
+import com.backend.intellicop.config.security.exceptions.FieldSelectionExceptionAdvice;
+import com.backend.intellicop.config.security.exceptions.NotFoundExceptionAdvice;
+import com.backend.intellicop.dedup.DuplicateDetectionService;
+import com.backend.intellicop.dto.CriminalFacets;
+import com.backend.intellicop.dto.CriminalFilter;
+import com.backend.intellicop.dto.FieldSet;
+import com.backend.intellicop.entity.Criminal;
+import com.backend.intellicop.photo.PhotoSimilarityService;
+import com.backend.intellicop.service.CriminalNotFoundException;
+import com.backend.intellicop.service.CriminalService;
+import com.backend.intellicop.service.ResourceVersionService;
+
+class CriminalControllerTests {
+
+	private final CriminalService criminals = mock(CriminalService.class);
+	private final MockMvc mvc = MockMvcBuilders
+			.standaloneSetup(new CriminalController(criminals, mock(ResourceVersionService.class),
+					mock(PhotoSimilarityService.class), mock(DuplicateDetectionService.class)))
+			.setControllerAdvice(new ConcurrencyExceptionAdvice(), new NotFoundExceptionAdvice())
+			.build();
+
+	@Test
+	void patchAppliesTheGivenFieldsAtTheExpectedVersion() throws Exception {
+		when(criminals.patchCriminal(7L, 3L, Map.of("status", "Arrested")))
+				.thenReturn(Criminal.builder().id(7L).status("Arrested").version(4L).build());
+
+		mvc.perform(patch("/api/criminals/7").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"status\":\"Arrested\",\"version\":3}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("Arrested"))
+				.andExpect(jsonPath("$.version").value(4));
+	}
+
+	@Test
+	void patchWithoutVersionIsRefused() throws Exception {
+		mvc.perform(patch("/api/criminals/7").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"status\":\"Arrested\"}"))
+				.andExpect(status().isBadRequest());
+		verifyNoInteractions(criminals);
+	}
+
+	@Test
+	void stalePatchIsAConflict() throws Exception {
+		when(criminals.patchCriminal(eq(7L), anyLong(), anyMap()))
+				.thenThrow(new ObjectOptimisticLockingFailureException(Criminal.class, 7L));
+
+		mvc.perform(patch("/api/criminals/7").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"status\":\"Arrested\",\"version\":2}"))
+				.andExpect(status().isConflict());
+	}
+
+	@Test
+	void unknownFieldIsABadRequest() throws Exception {
+		when(criminals.patchCriminal(eq(7L), anyLong(), anyMap()))
+				.thenThrow(new IllegalArgumentException("Field cannot be patched: photo"));
+
+		mvc.perform(patch("/api/criminals/7").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"photo\":\"x\",\"version\":2}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("Field cannot be patched: photo"));
+	}
+
+	@Test
+	void missingCriminalIsNotFoundButOtherFailuresAreNot() throws Exception {
+		when(criminals.patchCriminal(eq(404L), anyLong(), anyMap())).thenThrow(new CriminalNotFoundException(404L));
+		mvc.perform(patch("/api/criminals/404").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"status\":\"Arrested\",\"version\":2}"))
+				.andExpect(status().isNotFound())
+				.andExpect(content().string("Criminal not found with ID: 404"));
+
+		doThrow(new CriminalNotFoundException(404L)).when(criminals).deleteCriminal(404L);
+		mvc.perform(delete("/api/criminals/404")).andExpect(status().isNotFound());
+
+		// Anything else is a server error, not a 404
+		when(criminals.patchCriminal(eq(500L), anyLong(), anyMap())).thenThrow(new IllegalStateException("boom"));
+		assertThatThrownBy(() -> mvc.perform(
+						patch("/api/criminals/500").contentType(MediaType.APPLICATION_JSON)
+								.content("{\"status\":\"Arrested\",\"version\":2}")))
+				.hasRootCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void fieldsAreResolvedOnceAndKeyTheETag() throws Exception {
+		MockMvc fields = MockMvcBuilders
+				.standaloneSetup(new CriminalController(criminals, new ResourceVersionService(event -> {
+				}), mock(PhotoSimilarityService.class), mock(DuplicateDetectionService.class)))
+				.setCustomArgumentResolvers(new FieldSetArgumentResolver())
+				.setControllerAdvice(new FieldSelectionExceptionAdvice())
+				.build();
+		when(criminals.getAll(any(FieldSet.class))).thenReturn(List.of(Map.of("id", 1L, "status", "Wanted")));
+
+		fields.perform(get("/api/criminals").param("fields", "status,name"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", endsWith("-fields-id.name.status\"")))
+				.andExpect(jsonPath("$[0].status").value("Wanted"));
+
+		fields.perform(get("/api/criminals").param("fields", "name,password"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("Unknown field: password"));
+	}
+
+	@Test
+	void facetTagsAreValidAndEqualForEqualFilters() throws Exception {
+		MockMvc facets = MockMvcBuilders
+				.standaloneSetup(new CriminalController(criminals, new ResourceVersionService(event -> {
+				}), mock(PhotoSimilarityService.class), mock(DuplicateDetectionService.class)))
+				.build();
+		when(criminals.facets(any(CriminalFilter.class))).thenReturn(new CriminalFacets(Map.of(), Map.of(), 0));
+
+		// Free text with the quote and comma that end or separate entity tags
+		String first = facets.perform(get("/api/criminals/facets")
+						.param("threat", "High,Medium").param("lastSeen", "Gate \"B\", Dadar"))
+				.andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+		String reordered = facets.perform(get("/api/criminals/facets")
+						.param("threat", "medium, high").param("lastSeen", "  gate \"b\", dadar"))
+				.andReturn().getResponse().getHeader("ETag");
+		String other = facets.perform(get("/api/criminals/facets")
+						.param("threat", "High,Medium").param("lastSeen", "Gate \"B\", Worli"))
+				.andReturn().getResponse().getHeader("ETag");
+
+		assertThat(ETag.parse(first)).singleElement().satisfies(tag -> assertThat(tag.formattedTag()).isEqualTo(first));
+		assertThat(reordered).isEqualTo(first);
+		assertThat(other).isNotEqualTo(first);
+	}
+
+	@Test
+	void unchangedDetailIsNotModifiedWithoutLoadingIt() throws Exception {
+		ResourceVersionService versions = new ResourceVersionService(event -> {
+		});
+		MockMvc detail = MockMvcBuilders
+				.standaloneSetup(new CriminalController(criminals, versions, mock(PhotoSimilarityService.class),
+						mock(DuplicateDetectionService.class)))
+				.setCustomArgumentResolvers(new FieldSetArgumentResolver())
+				.build();
+		when(criminals.getById(7L)).thenReturn(Optional.of(Criminal.builder().id(7L).name("Ravi Kumar").build()));
+
+		String etag = detail.perform(get("/api/criminals/7"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("Last-Modified"))
+				.andReturn().getResponse().getHeader("ETag");
+
+		detail.perform(get("/api/criminals/7").header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string("ETag", etag));
+		verify(criminals, times(1)).getById(7L);
+
+		versions.touch(ResourceVersionService.Aggregate.CRIMINAL);
+		detail.perform(get("/api/criminals/7").header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Ravi Kumar"));
+		verify(criminals, times(2)).getById(7L);
+	}
+}
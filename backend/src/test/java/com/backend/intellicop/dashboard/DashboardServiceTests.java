@@ -0,0 +1,168 @@
+package com.backend.intellicop.dashboard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.backend.intellicop.dto.Dashboard;
+import com.backend.intellicop.entity.Criminal;
+import com.backend.intellicop.entity.VisitorMeeting;
+import com.backend.intellicop.health.DatabaseHealthSampler;
+import com.backend.intellicop.jdbc.PrimaryReads;
+import com.backend.intellicop.jdbc.ReplicaRouter;
+import com.backend.intellicop.service.CriminalService;
+import com.backend.intellicop.service.UserService;
+import com.backend.intellicop.service.VisitorMeetingService;
+import com.backend.intellicop.station.StationContext;
+import com.backend.intellicop.station.Stations;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DashboardServiceTests {
+
+	private final UserService users = mock(UserService.class);
+	private final VisitorMeetingService visitors = mock(VisitorMeetingService.class);
+	private final CriminalService criminals = mock(CriminalService.class);
+	private final DatabaseHealthSampler health = mock(DatabaseHealthSampler.class);
+	private final ReplicaRouter router = mock(ReplicaRouter.class);
+	private DashboardService dashboards;
+
+	@BeforeEach
+	void setUp() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("intellicop.dashboard.timeouts.visitors", "100ms");
+		StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("replicaRouter", router));
+		when(router.route()).thenReturn(ReplicaRouter.Route.REPLICA);
+		dashboards = new DashboardService(users, visitors, criminals, health, new SimpleMeterRegistry(),
+				beans.getBeanProvider(ReplicaRouter.class), environment, Duration.ofSeconds(2));
+	}
+
+	@AfterEach
+	void tearDown() {
+		dashboards.shutdown();
+	}
+
+	@Test
+	void sectionsLoadInParallel() {
+		when(users.getUserCounts()).thenAnswer(call -> slow(400, Map.of("totalUsers", 3L)));
+		when(health.describeLatest()).thenAnswer(call -> slow(400, Map.of("status", "UP")));
+
+		long start = System.nanoTime();
+		Dashboard dashboard = dashboards.load("admin");
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		assertThat(dashboard.role()).isEqualTo("ADMIN");
+		assertThat(dashboard.sections()).containsOnlyKeys("userCounts", "databaseHealth");
+		assertThat(dashboard.unavailable()).isEmpty();
+		assertThat(elapsedMillis).as("sequential loading would take 800ms").isLessThan(700);
+	}
+
+	@Test
+	void sectionsAreWhatEachPageFetches() {
+		when(criminals.getAll()).thenReturn(List.of(new Criminal()));
+		when(visitors.getAllVisitors()).thenReturn(List.of(new VisitorMeeting()));
+
+		assertThat(dashboards.load("desk").sections()).containsOnlyKeys("criminals", "visitors");
+		assertThat(dashboards.load("investigating").sections()).containsOnlyKeys("criminals");
+	}
+
+	@Test
+	void slowAndFailingSectionsAreReportedWithoutFailingTheRest() {
+		when(criminals.getAll()).thenThrow(new IllegalStateException("database down"));
+		when(visitors.getAllVisitors()).thenAnswer(call -> slow(5_000, List.of()));
+		when(users.getUserCounts()).thenReturn(Map.of("totalUsers", 3L));
+		when(health.describeLatest()).thenThrow(new IllegalStateException("sampler down"));
+
+		long start = System.nanoTime();
+		Dashboard desk = dashboards.load("DESK");
+
+		assertThat((System.nanoTime() - start) / 1_000_000).as("bounded by the section timeout").isLessThan(1_000);
+		assertThat(desk.sections()).isEmpty();
+		assertThat(desk.unavailable()).containsOnly(entry("criminals", "error"), entry("visitors", "timeout"));
+
+		Dashboard admin = dashboards.load("admin");
+		assertThat(admin.sections()).containsOnlyKeys("userCounts");
+		assertThat(admin.unavailable()).containsOnly(entry("databaseHealth", "error"));
+	}
+
+	@Test
+	void timedOutSectionIsLeftToFinishUninterrupted() throws Exception {
+		// e.g. the leader of a coalesced read that other requests are waiting on
+		CompletableFuture<Boolean> interrupted = new CompletableFuture<>();
+		when(criminals.getAll()).thenReturn(List.of());
+		when(visitors.getAllVisitors()).thenAnswer(call -> {
+			try {
+				Thread.sleep(300);
+				interrupted.complete(false);
+			} catch (InterruptedException e) {
+				interrupted.complete(true);
+			}
+			return List.of();
+		});
+
+		assertThat(dashboards.load("desk").unavailable()).containsOnly(entry("visitors", "timeout"));
+		assertThat(interrupted.get(2, TimeUnit.SECONDS)).isFalse();
+	}
+
+	@Test
+	void sectionsRunWithTheCallersStation() {
+		new Stations("main", Map.of("north", mock(DataSource.class)));
+		AtomicReference<String> seen = new AtomicReference<>();
+		when(users.getUserCounts()).thenAnswer(call -> {
+			seen.set(StationContext.current());
+			return Map.of("totalUsers", 3L);
+		});
+		when(health.describeLatest()).thenReturn(Map.of("status", "UP"));
+
+		Dashboard dashboard = StationContext.call("north", () -> dashboards.load("admin"));
+
+		assertThat(seen).hasValue("north");
+		assertThat(dashboard.sections()).containsOnlyKeys("userCounts", "databaseHealth");
+	}
+
+	@Test
+	void sectionsReadThePrimaryOnlyWhenTheCallerMust() {
+		AtomicReference<Boolean> pinned = new AtomicReference<>();
+		when(criminals.getAll()).thenAnswer(call -> {
+			pinned.set(PrimaryReads.isPinned());
+			return List.of();
+		});
+
+		dashboards.load("investigating");
+		assertThat(pinned).hasValue(false);
+
+		// Decided on the request thread, where the router can still see the caller's recent write
+		when(router.route()).thenReturn(ReplicaRouter.Route.READ_YOUR_WRITES);
+		dashboards.load("investigating");
+		assertThat(pinned).hasValue(true);
+	}
+
+	@Test
+	void unknownRoleIsRejected() {
+		assertThatThrownBy(() -> dashboards.load("mayor")).isInstanceOf(IllegalArgumentException.class);
+		// No data on the patrol and field pages to bundle
+		assertThatThrownBy(() -> dashboards.load("patrol")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static <T> T slow(long millis, T result) throws InterruptedException {
+		Thread.sleep(millis);
+		return result;
+	}
+}
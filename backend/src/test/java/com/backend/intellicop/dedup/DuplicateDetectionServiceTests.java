@@ -0,0 +1,114 @@
+package com.backend.intellicop.dedup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.intellicop.Repository.CriminalRepository;
+import com.backend.intellicop.Repository.MergeCandidateRepository;
+import com.backend.intellicop.entity.Criminal;
+import com.backend.intellicop.entity.MergeCandidate;
+import com.backend.intellicop.logging.EventLog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Not in a test transaction: the insert check runs after commit
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:dedup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DuplicateDetectionServiceTests {
+
+	@Autowired
+	private CriminalRepository criminalRepository;
+	@Autowired
+	private MergeCandidateRepository mergeCandidateRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private JdbcTemplate jdbc;
+	private DuplicateDetectionService dedup;
+
+	@BeforeEach
+	void setUp() {
+		mergeCandidateRepository.deleteAllInBatch();
+		criminalRepository.deleteAllInBatch();
+		dedup = new DuplicateDetectionService(criminalRepository, mergeCandidateRepository, transactionManager,
+				mock(EventLog.class), new SimpleMeterRegistry(), 0.88, 50, 500, 25, 10_000);
+	}
+
+	@Test
+	void pairRaisedByInsertAndScanIsStoredOnce() {
+		Criminal first = criminalRepository.save(criminal("Ravi Singh"));
+		Criminal second = criminalRepository.save(criminal("Singh, Ravi"));
+
+		dedup.checkOnInsert(second);
+		assertThat(dedup.scan().candidates()).isEqualTo(1);
+		// Raised again, e.g. by a concurrent insert check that read before the row existed
+		assertThat(dedup.check(second)).hasSize(1);
+
+		assertThat(mergeCandidateRepository.findAll()).singleElement().satisfies(candidate -> {
+			assertThat(candidate.getLeftId()).isEqualTo(first.getId());
+			assertThat(candidate.getRightId()).isEqualTo(second.getId());
+			assertThat(candidate.getSource()).isEqualTo(MergeCandidate.Source.INSERT);
+		});
+		assertThat(jdbc.queryForObject("SELECT source FROM merge_candidate", String.class)).isEqualTo("INSERT");
+	}
+
+	@Test
+	void scanThenInsertCheckKeepsTheBatchRow() {
+		criminalRepository.save(criminal("Ravi Singh"));
+		Criminal second = criminalRepository.save(criminal("Ravi Singh"));
+
+		dedup.scan();
+		dedup.check(second);
+
+		assertThat(mergeCandidateRepository.findAll()).singleElement()
+				.extracting(MergeCandidate::getSource).isEqualTo(MergeCandidate.Source.BATCH);
+	}
+
+	@Test
+	void insertCheckWaitsForTheCommit() {
+		criminalRepository.save(criminal("Ravi Singh"));
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+		transaction.executeWithoutResult(status -> {
+			dedup.checkOnInsert(criminalRepository.save(criminal("Ravi Singh")));
+			assertThat(mergeCandidateRepository.count()).as("not before the commit").isZero();
+			status.setRollbackOnly();
+		});
+		assertThat(mergeCandidateRepository.count()).as("nothing for a rolled-back insert").isZero();
+
+		transaction.executeWithoutResult(status -> dedup.checkOnInsert(criminalRepository.save(criminal("Ravi Singh"))));
+		assertThat(mergeCandidateRepository.findAll()).singleElement()
+				.extracting(MergeCandidate::getSource).isEqualTo(MergeCandidate.Source.INSERT);
+	}
+
+	@Test
+	void nonLatinNamesAreMatched() {
+		criminalRepository.save(criminal("राम कुमार"));
+		Criminal second = criminalRepository.save(criminal("कुमार, राम"));
+		criminalRepository.save(criminal("अनीता देसाई"));
+
+		assertThat(dedup.findDuplicates(second)).extracting(DuplicateMatch::name).containsExactly("राम कुमार");
+		assertThat(List.of(second.getNameKey())).containsExactly("कुमार राम");
+	}
+
+	private static Criminal criminal(String name) {
+		return Criminal.builder().name(name).age(34).crime("Robbery").threat("High").status("Wanted").build();
+	}
+}
@@ -0,0 +1,50 @@
+package com.backend.intellicop.dedup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class DuplicateScorerTests {
+
+	private static final double THRESHOLD = 0.88;
+
+	@Test
+	void reorderedAndAccentedNamesShareABlock() {
+		DedupRecord a = new DedupRecord(1L, "Singh, Ravi", 34, "Robbery", null);
+		DedupRecord b = new DedupRecord(2L, "ravi SÍNGH", 34, "robbery", null);
+
+		assertThat(a.nameKey()).isEqualTo("ravi singh");
+		assertThat(a.blockingKeys()).containsAnyElementsOf(b.blockingKeys());
+		assertThat(DuplicateScorer.score(a, b)).isEqualTo(1.0);
+	}
+
+	@Test
+	void typoAndNearbyAgeStillScoreAsDuplicate() {
+		DedupRecord a = new DedupRecord(1L, "Rajesh Kumar", 41, "Fraud", null);
+		DedupRecord b = new DedupRecord(2L, "Rajesh Kumaar", 42, "Fraud", null);
+
+		assertThat(DuplicateScorer.score(a, b)).isGreaterThanOrEqualTo(THRESHOLD);
+	}
+
+	@Test
+	void differentPeopleWithTheSameCrimeAndAgeDoNot() {
+		DedupRecord a = new DedupRecord(1L, "Rajesh Kumar", 41, "Fraud", null);
+		DedupRecord b = new DedupRecord(2L, "Anita Desai", 41, "Fraud", null);
+		DedupRecord c = new DedupRecord(3L, "Rajesh Kumar", 67, "Assault", null);
+
+		assertThat(DuplicateScorer.score(a, b)).isZero();
+		assertThat(DuplicateScorer.score(a, c)).isLessThan(THRESHOLD);
+	}
+
+	@Test
+	void namesInOtherScriptsKeepTheirLetters() {
+		DedupRecord a = new DedupRecord(1L, "राम कुमार", 34, "Robbery", null);
+		DedupRecord b = new DedupRecord(2L, "कुमार, राम", 34, "Robbery", null);
+		DedupRecord c = new DedupRecord(3L, "रमा कुमार", 34, "Robbery", null);
+
+		// The vowel signs are part of the name, unlike the accents dropped from Latin letters
+		assertThat(a.nameKey()).isEqualTo("कुमार राम");
+		assertThat(DuplicateScorer.score(a, b)).isEqualTo(1.0);
+		assertThat(c.nameKey()).isNotEqualTo(a.nameKey());
+	}
+}
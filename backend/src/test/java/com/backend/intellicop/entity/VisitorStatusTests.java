@@ -0,0 +1,38 @@
+package com.backend.intellicop.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class VisitorStatusTests {
+
+	@Test
+	void completedIsTerminalAndCancelledCanOnlyBeRescheduled() {
+		assertThat(VisitorStatus.COMPLETED.allowedNext()).isEmpty();
+		assertThat(VisitorStatus.CANCELLED.allowedNext()).containsExactly(VisitorStatus.SCHEDULED);
+		assertThat(VisitorStatus.IN_PROGRESS.allowedNext())
+				.containsExactlyInAnyOrder(VisitorStatus.CANCELLED, VisitorStatus.COMPLETED);
+	}
+
+	@Test
+	void allowedPreviousIsTheInverseOfAllowedNext() {
+		assertThat(VisitorStatus.COMPLETED.allowedPrevious()).containsExactlyInAnyOrder("SCHEDULED", "IN_PROGRESS");
+		assertThat(VisitorStatus.SCHEDULED.allowedPrevious()).containsExactly("CANCELLED");
+		for (VisitorStatus target : VisitorStatus.values()) {
+			for (VisitorStatus from : VisitorStatus.values()) {
+				assertThat(target.allowedPrevious().contains(from.name()))
+						.as("%s -> %s", from, target).isEqualTo(from.allowedNext().contains(target));
+			}
+		}
+	}
+
+	@Test
+	void parsesTheLabelsTheUiSends() {
+		assertThat(VisitorStatus.parse("Completed")).isEqualTo(VisitorStatus.COMPLETED);
+		assertThat(VisitorStatus.parse(" in_progress ")).isEqualTo(VisitorStatus.IN_PROGRESS);
+		assertThatThrownBy(() -> VisitorStatus.parse("Done")).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Unknown visitor status: Done");
+		assertThatThrownBy(() -> VisitorStatus.parse(null)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
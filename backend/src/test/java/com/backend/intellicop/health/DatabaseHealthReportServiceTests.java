@@ -0,0 +1,125 @@
+package com.backend.intellicop.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lowagie.text.pdf.PdfReader;
+
+class DatabaseHealthReportServiceTests {
+
+	private final DatabaseHealthSampler sampler = mock(DatabaseHealthSampler.class);
+	private DatabaseHealthReportService reports;
+
+	@AfterEach
+	void tearDown() throws IOException {
+		if (reports != null) reports.cleanup();
+	}
+
+	@Test
+	void rendersOnceAndServesTheSameBytesForTheRestOfTheWindow() throws Exception {
+		history(720);
+		reports = new DatabaseHealthReportService(sampler, 3_600_000);
+		assertThat(reports.openCachedReport()).as("nothing rendered yet").isNull();
+
+		TrackingOutputStream streamed = new TrackingOutputStream();
+		reports.renderReport(streamed);
+
+		byte[] pdf = streamed.toByteArray();
+		assertThat(streamed.closed).as("the container closes the response").isFalse();
+		PdfReader reader = new PdfReader(pdf);
+		assertThat(reader.getNumberOfPages()).as("the history table spans pages").isGreaterThan(2);
+		reader.close();
+
+		try (SeekableByteChannel cached = reports.openCachedReport()) {
+			assertThat(cached).isNotNull();
+			assertThat(Channels.newInputStream(cached).readAllBytes()).isEqualTo(pdf);
+		}
+	}
+
+	@Test
+	void aNewWindowRendersAgainAndDropsThePreviousFile() throws Exception {
+		history(5);
+		reports = new DatabaseHealthReportService(sampler, 1_000);
+		awaitWindowStart(1_000);
+		reports.renderReport(OutputStream.nullOutputStream());
+		assertThat(files()).hasSize(1);
+
+		awaitWindowStart(1_000);
+		assertThat(reports.openCachedReport()).isNull();
+		reports.renderReport(OutputStream.nullOutputStream());
+
+		assertThat(files()).as("only the current window's report is kept").hasSize(1);
+		assertThat(reports.openCachedReport()).isNotNull().satisfies(SeekableByteChannel::close);
+	}
+
+	@Test
+	void aFailedDownloadCachesNothing() throws Exception {
+		history(50);
+		reports = new DatabaseHealthReportService(sampler, 3_600_000);
+		OutputStream disconnected = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Broken pipe");
+			}
+		};
+
+		assertThatThrownBy(() -> reports.renderReport(disconnected)).hasStackTraceContaining("Broken pipe");
+
+		assertThat(reports.openCachedReport()).isNull();
+		assertThat(files()).as("the partial copy is removed").isEmpty();
+	}
+
+	private void history(int samples) {
+		List<HealthSample> history = new ArrayList<>();
+		long start = System.currentTimeMillis() - samples * 5_000L;
+		for (int i = 0; i < samples; i++) {
+			HealthSample.PoolStats pool = new HealthSample.PoolStats(i % 4, 6 - i % 4, 6, 10, 0);
+			history.add(i % 97 == 0
+					? new HealthSample(start + i * 5_000L, "DOWN", -1, pool, "Database connection failed", 0, "08001")
+					: new HealthSample(start + i * 5_000L, "UP", 800 + i % 300, pool, null, null, null));
+		}
+		when(sampler.history()).thenReturn(history);
+		when(sampler.latest()).thenReturn(history.get(samples - 1));
+		when(sampler.latencySnapshot()).thenReturn(new LatencyHistogram.Snapshot(samples, 800, 950, 1050, 1090, 1099, 1099, 949));
+		when(sampler.databaseProduct()).thenReturn("MySQL");
+		when(sampler.databaseVersion()).thenReturn("8.0.36");
+	}
+
+	private List<Path> files() throws IOException {
+		try (var files = Files.list((Path) ReflectionTestUtils.getField(reports, "cacheDir"))) {
+			return files.toList();
+		}
+	}
+
+	// So a render does not straddle two windows
+	private static void awaitWindowStart(long windowMs) throws InterruptedException {
+		long window = System.currentTimeMillis() / windowMs;
+		while (System.currentTimeMillis() / windowMs == window) Thread.sleep(1);
+	}
+
+	private static final class TrackingOutputStream extends ByteArrayOutputStream {
+
+		boolean closed;
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+	}
+}
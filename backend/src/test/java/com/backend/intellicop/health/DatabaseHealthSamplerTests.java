@@ -0,0 +1,74 @@
+package com.backend.intellicop.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+class DatabaseHealthSamplerTests {
+
+	private final HikariDataSource pool = new HikariDataSource();
+
+	{
+		pool.setJdbcUrl("jdbc:h2:mem:health-sampler;DB_CLOSE_DELAY=-1");
+		pool.setMaximumPoolSize(3);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.close();
+	}
+
+	@Test
+	void startingUntilTheFirstProbeThenUpWithPoolStats() {
+		DatabaseHealthSampler sampler = new DatabaseHealthSampler(pool, 10);
+		assertThat(sampler.describeLatest()).containsEntry("status", "STARTING").containsEntry("healthPercentage", 0);
+
+		sampler.sample();
+
+		Map<String, Object> health = sampler.describeLatest();
+		assertThat(health).containsEntry("status", "UP").containsEntry("healthPercentage", 100)
+				.containsEntry("database", "H2");
+		assertThat(sampler.latest().pool().max()).isEqualTo(3);
+		assertThat(sampler.latest().pool().active()).as("the probe's own connection").isEqualTo(1);
+		assertThat(pool.getHikariPoolMXBean().getActiveConnections()).as("and it was given back").isZero();
+		assertThat(sampler.latencySnapshot().count()).isEqualTo(1);
+	}
+
+	@Test
+	void historyKeepsTheLatestProbesOldestFirst() throws Exception {
+		DatabaseHealthSampler sampler = new DatabaseHealthSampler(pool, 3);
+		for (int i = 0; i < 5; i++) {
+			sampler.sample();
+			Thread.sleep(2);
+		}
+
+		assertThat(sampler.history()).hasSize(3).isSortedAccordingTo(
+				(a, b) -> Long.compare(a.timestamp(), b.timestamp()));
+		assertThat(sampler.history().get(2)).isSameAs(sampler.latest());
+		assertThat(sampler.latencySnapshot().count()).as("window of the same size").isEqualTo(3);
+	}
+
+	@Test
+	void failedProbeIsDownWithTheDriverError() throws Exception {
+		DataSource broken = mock(DataSource.class);
+		when(broken.getConnection()).thenThrow(new SQLException("Access denied", "28000", 1045));
+		DatabaseHealthSampler sampler = new DatabaseHealthSampler(broken, 10);
+
+		sampler.sample();
+
+		assertThat(sampler.describeLatest()).containsEntry("status", "DOWN").containsEntry("healthPercentage", 0)
+				.containsEntry("errorCode", 1045).containsEntry("sqlState", "28000");
+		assertThat(sampler.latest().pool()).isEqualTo(HealthSample.PoolStats.UNKNOWN);
+		assertThat(sampler.latencySnapshot().count()).as("failures are not latencies").isZero();
+	}
+}
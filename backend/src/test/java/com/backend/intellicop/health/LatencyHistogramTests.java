@@ -0,0 +1,52 @@
+package com.backend.intellicop.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTests {
+
+	@Test
+	void bucketsBoundEveryValueWithinTwoPercent() {
+		for (long value = 0; value < 1L << 40; value = value * 3 / 2 + 1) {
+			long highest = LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(value));
+			assertThat(highest).as("bucket of %d", value).isGreaterThanOrEqualTo(value);
+			assertThat((double) highest).isCloseTo(value, within(Math.max(1, value * 0.02)));
+		}
+		assertThat(LatencyHistogram.bucketOf(Long.MAX_VALUE)).isGreaterThan(LatencyHistogram.bucketOf(1L << 40));
+	}
+
+	@Test
+	void percentilesOfAUniformWindow() {
+		LatencyHistogram histogram = new LatencyHistogram(10_000);
+		for (long micros = 1; micros <= 10_000; micros++) histogram.record(micros);
+
+		LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+		assertThat(snapshot.count()).isEqualTo(10_000);
+		assertThat(snapshot.min()).isEqualTo(1);
+		assertThat(snapshot.max()).isEqualTo(10_000);
+		assertThat(snapshot.mean()).isEqualTo(5_000);
+		assertThat((double) snapshot.p50()).isCloseTo(5_000, within(100.0));
+		assertThat((double) snapshot.p90()).isCloseTo(9_000, within(180.0));
+		assertThat((double) snapshot.p99()).isCloseTo(9_900, within(198.0));
+		assertThat(snapshot.p999()).isLessThanOrEqualTo(snapshot.max());
+	}
+
+	@Test
+	void oldValuesLeaveTheWindow() {
+		LatencyHistogram histogram = new LatencyHistogram(4);
+		assertThat(histogram.snapshot().count()).isZero();
+
+		for (int i = 0; i < 4; i++) histogram.record(50_000);
+		for (int i = 0; i < 4; i++) histogram.record(200);
+		histogram.record(-5); // clock went backwards
+
+		LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+		assertThat(snapshot.count()).isEqualTo(4);
+		assertThat(snapshot.min()).isZero();
+		assertThat(snapshot.max()).isEqualTo(200);
+		assertThat(snapshot.p999()).isLessThanOrEqualTo(200);
+		assertThat(snapshot.mean()).isEqualTo(150);
+	}
+}
@@ -0,0 +1,113 @@
+package com.backend.intellicop.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class QueryInspectingDataSourceTests {
+
+	private SimpleMeterRegistry registry;
+	private DataSource dataSource;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Connection connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenAnswer(inv -> mock(PreparedStatement.class));
+		when(connection.createStatement()).thenAnswer(inv -> mock(Statement.class));
+		DataSource target = mock(DataSource.class);
+		when(target.getConnection()).thenReturn(connection);
+
+		registry = new SimpleMeterRegistry();
+		dataSource = new QueryInspectingDataSource(target, Duration.ZERO, registry);
+	}
+
+	@Test
+	void countsEveryExecutedStatement() throws Exception {
+		int count = QueryCounter.assertMaxQueries(3, () -> {
+			try (Connection connection = dataSource.getConnection()) {
+				PreparedStatement select = connection.prepareStatement("select * from criminal where id = ?");
+				select.setLong(1, 42L);
+				select.executeQuery();
+				connection.createStatement().execute("delete from criminal");
+			}
+		});
+
+		assertThat(count).isEqualTo(2);
+		assertThat(registry.get("db.statement").tag("type", "select").timer().count()).isEqualTo(1);
+		assertThat(registry.get("db.statement").tag("type", "delete").timer().count()).isEqualTo(1);
+		assertThat(registry.get("db.statement.slow").counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void failsWhenBudgetIsExceeded() {
+		assertThatThrownBy(() -> QueryCounter.assertMaxQueries(1, () -> {
+			try (Connection connection = dataSource.getConnection()) {
+				for (long id = 1; id <= 3; id++) {
+					PreparedStatement select = connection.prepareStatement("select * from users where id = ?");
+					select.setLong(1, id);
+					select.executeQuery();
+				}
+			}
+		}))
+				.isInstanceOf(AssertionError.class)
+				.hasMessageContaining("Expected at most 1 queries but 3 were executed")
+				.hasMessageContaining("select * from users where id = ?");
+	}
+
+	@Test
+	void workerThreadsCountOnlyWhenTheyJoinTheRequestScope() throws Exception {
+		ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+		try (QueryCounter.Scope request = QueryCounter.open()) {
+			select();
+			QueryCounter.Scope captured = QueryCounter.current();
+			List<Future<?>> joined = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				joined.add(workers.submit(() -> {
+					try (QueryCounter.Scope scope = QueryCounter.join(captured)) {
+						select();
+						select();
+					}
+					return null;
+				}));
+			}
+			for (Future<?> f : joined) f.get(5, TimeUnit.SECONDS);
+			// Not joined: invisible to the request
+			workers.submit(() -> {
+				select();
+				return null;
+			}).get(5, TimeUnit.SECONDS);
+
+			assertThat(request.count()).isEqualTo(17);
+			assertThat(request.statements()).hasSize(17).containsOnly("select 1");
+		} finally {
+			workers.shutdown();
+		}
+		assertThat(QueryCounter.current()).isNull();
+	}
+
+	private void select() throws Exception {
+		try (Connection connection = dataSource.getConnection()) {
+			connection.createStatement().execute("select 1");
+		}
+	}
+}
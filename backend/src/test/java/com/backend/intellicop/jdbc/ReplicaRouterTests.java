@@ -0,0 +1,184 @@
+package com.backend.intellicop.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.backend.intellicop.service.AggregateChangedEvent;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReplicaRouterTests {
+
+	private static int databases;
+
+	private JdbcTemplate primaryJdbc;
+	private JdbcTemplate replicaJdbc;
+	private FlakyDataSource replica;
+	private ReplicaRouter router;
+	private JdbcTemplate routedJdbc;
+	private TransactionTemplate readOnly;
+	private TransactionTemplate readWrite;
+
+	/** Lets a test take the replica down without dropping its in-memory database. */
+	static class FlakyDataSource extends DelegatingDataSource {
+
+		volatile boolean down;
+
+		FlakyDataSource(DataSource target) {
+			super(target);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			if (down) throw new SQLException("replica unreachable");
+			return super.getConnection();
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		DataSource primary = database("primary");
+		replica = new FlakyDataSource(database("replica"));
+		primaryJdbc = new JdbcTemplate(primary);
+		replicaJdbc = new JdbcTemplate(replica);
+
+		router = new ReplicaRouter(replica, Duration.ofSeconds(2), Duration.ofSeconds(5), new SimpleMeterRegistry());
+		DataSource routed = router.wrap(primary);
+		routedJdbc = new JdbcTemplate(routed);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routed);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readWrite = new TransactionTemplate(transactionManager);
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void readOnlyTransactionsUseTheReplicaOnceItHasCaughtUp() {
+		router.probe();
+		assertThat(readOnlyNode()).as("replica has not seen a heartbeat yet").isEqualTo("primary");
+
+		replicate();
+		router.probe();
+
+		assertThat(router.lagMillis()).isBetween(0L, 2000L);
+		assertThat(readOnlyNode()).isEqualTo("replica");
+		String written = readWrite.execute(status -> node());
+		assertThat(written).isEqualTo("primary");
+	}
+
+	@Test
+	void laggingReplicaFallsBackToThePrimary() {
+		router.probe();
+		replicate();
+		router.probe();
+		assertThat(readOnlyNode()).isEqualTo("replica");
+
+		// The replica stops applying: the next beats never arrive
+		replicaJdbc.update("UPDATE replication_heartbeat SET beat_millis = beat_millis - 10000");
+		router.probe();
+
+		assertThat(router.lagMillis()).isGreaterThan(2000L);
+		assertThat(readOnlyNode()).isEqualTo("primary");
+	}
+
+	@Test
+	void clientReadsItsOwnWritesFromThePrimary() {
+		caughtUp();
+
+		onRequest("GET", "10.0.0.1");
+		router.onLocalWrite(new AggregateChangedEvent(Aggregate.CRIMINAL));
+		assertThat(readOnlyNode()).isEqualTo("primary");
+
+		onRequest("GET", "10.0.0.2");
+		assertThat(readOnlyNode()).isEqualTo("replica");
+	}
+
+	@Test
+	void readsInsideWriteRequestsAndPinnedLoadsUseThePrimary() {
+		caughtUp();
+
+		onRequest("PUT", "10.0.0.3");
+		assertThat(readOnlyNode()).isEqualTo("primary");
+
+		onRequest("GET", "10.0.0.3");
+		assertThat(PrimaryReads.call(this::readOnlyNode)).isEqualTo("primary");
+		assertThat(readOnlyNode()).isEqualTo("replica");
+	}
+
+	@Test
+	void unreachableReplicaFailsOverToThePrimary() {
+		caughtUp();
+
+		replica.down = true;
+		assertThat(readOnlyNode()).isEqualTo("primary");
+		assertThat(router.isReplicaUp()).isFalse();
+
+		replica.down = false;
+		router.probe();
+		replicate();
+		router.probe();
+		assertThat(readOnlyNode()).isEqualTo("replica");
+	}
+
+	private void caughtUp() {
+		router.probe();
+		replicate();
+		router.probe();
+	}
+
+	private String readOnlyNode() {
+		return readOnly.execute(status -> node());
+	}
+
+	private String node() {
+		return routedJdbc.queryForObject("SELECT name FROM node_name", String.class);
+	}
+
+	// Stands in for MySQL replication of the heartbeat table
+	private void replicate() {
+		replicaJdbc.update("DELETE FROM replication_heartbeat");
+		for (Map<String, Object> row : primaryJdbc.queryForList("SELECT node, beat_millis FROM replication_heartbeat")) {
+			replicaJdbc.update("INSERT INTO replication_heartbeat (node, beat_millis) VALUES (?, ?)",
+					row.get("node"), row.get("beat_millis"));
+		}
+	}
+
+	private static void onRequest(String method, String remoteAddr) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/criminals");
+		request.setRemoteAddr(remoteAddr);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	private static DataSource database(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + name + "-" + (++databases) + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE replication_heartbeat (node VARCHAR(64) NOT NULL PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+		jdbc.execute("CREATE TABLE node_name (name VARCHAR(16))");
+		jdbc.update("INSERT INTO node_name VALUES (?)", name);
+		return dataSource;
+	}
+}
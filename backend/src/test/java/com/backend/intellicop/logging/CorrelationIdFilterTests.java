@@ -0,0 +1,55 @@
+package com.backend.intellicop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class CorrelationIdFilterTests {
+
+	private final EventLog eventLog = mock(EventLog.class);
+	private final List<List<Object>> entries = new ArrayList<>();
+	private final CorrelationIdFilter filter = new CorrelationIdFilter(eventLog, 1.0, "", 1000);
+
+	{
+		doAnswer(invocation -> entries.add(Arrays.asList((Object[]) invocation.getArguments())))
+				.when(eventLog).access(any(Object[].class));
+	}
+
+	@Test
+	void requestThatThrowsIsLoggedAsAServerError() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/api/criminals"), response,
+				(req, res) -> {
+					throw new IllegalStateException("boom");
+				})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(entries).singleElement().satisfies(entry -> assertThat(value(entry, "status")).isEqualTo(500));
+	}
+
+	@Test
+	void keepsTheCallersIdAndTheHandlersStatus() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/criminals");
+		request.addHeader(CorrelationIdFilter.HEADER, "abc-123");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, (req, res) -> ((MockHttpServletResponse) res).setStatus(404));
+
+		assertThat(response.getHeader(CorrelationIdFilter.HEADER)).isEqualTo("abc-123");
+		assertThat(entries).singleElement().satisfies(entry -> assertThat(value(entry, "status")).isEqualTo(404));
+	}
+
+	private static Object value(List<Object> fields, String key) {
+		return fields.get(fields.indexOf(key) + 1);
+	}
+}
@@ -0,0 +1,39 @@
+package com.backend.intellicop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EventLogTests {
+
+	@Test
+	void idleWriterBlocksInsteadOfPolling() throws Exception {
+		EventLog log = new EventLog(64, new SimpleMeterRegistry());
+		try {
+			Thread writer = Thread.getAllStackTraces().keySet().stream()
+					.filter(t -> t.getName().equals("event-log-writer") && t.isAlive())
+					.findFirst().orElseThrow();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+			while (writer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) Thread.sleep(10);
+
+			// WAITING is an untimed park; a polling writer would show TIMED_WAITING or RUNNABLE
+			assertThat(writer.getState()).isEqualTo(Thread.State.WAITING);
+		} finally {
+			log.shutdown();
+		}
+	}
+
+	@Test
+	void shutdownWakesTheIdleWriter() throws Exception {
+		EventLog log = new EventLog(64, new SimpleMeterRegistry());
+		log.event("test.event", "n", 1);
+		log.shutdown();
+
+		assertThat(Thread.getAllStackTraces().keySet())
+				.noneMatch(t -> t.getName().equals("event-log-writer") && t.isAlive());
+	}
+}
@@ -0,0 +1,89 @@
+package com.backend.intellicop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class MpscRingBufferTests {
+
+	@Test
+	void refusesWhenFullAndReusesSlotsOnceConsumed() {
+		MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+		for (int i = 0; i < 4; i++) assertThat(buffer.offer(i)).isTrue();
+		assertThat(buffer.offer(4)).as("full").isFalse();
+		assertThat(buffer.size()).isEqualTo(4);
+
+		assertThat(buffer.poll()).isEqualTo(0);
+		assertThat(buffer.offer(4)).isTrue();
+		List<Integer> drained = new ArrayList<>();
+		for (Integer e; (e = buffer.poll()) != null; ) drained.add(e);
+		assertThat(drained).containsExactly(1, 2, 3, 4);
+		assertThat(buffer.size()).isZero();
+
+		assertThatThrownBy(() -> new MpscRingBuffer<>(6)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void concurrentProducersLoseNothingAndKeepTheirOwnOrder() throws Exception {
+		int producers = 8;
+		int perProducer = 50_000;
+		MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(1024);
+		ExecutorService pool = Executors.newFixedThreadPool(producers);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> offered = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			long producer = p;
+			offered.add(pool.submit(() -> {
+				start.await();
+				for (long i = 0; i < perProducer; i++) {
+					while (!buffer.offer(new long[] { producer, i })) Thread.onSpinWait();
+				}
+				return null;
+			}));
+		}
+
+		long[] next = new long[producers];
+		start.countDown();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		for (int received = 0; received < producers * perProducer; ) {
+			long[] element = buffer.poll();
+			if (element == null) {
+				assertThat(System.nanoTime()).as("consumer stalled").isLessThan(deadline);
+				buffer.await();
+				continue;
+			}
+			assertThat(element[1]).as("FIFO per producer").isEqualTo(next[(int) element[0]]);
+			next[(int) element[0]]++;
+			received++;
+		}
+		for (Future<?> f : offered) f.get(5, TimeUnit.SECONDS);
+		pool.shutdown();
+
+		assertThat(next).containsOnly(perProducer);
+		assertThat(buffer.poll()).isNull();
+	}
+
+	@Test
+	void awaitReturnsWhenAnotherThreadOffers() throws Exception {
+		MpscRingBuffer<String> buffer = new MpscRingBuffer<>(8);
+		Thread consumer = Thread.ofPlatform().start(buffer::await);
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+		while (consumer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) Thread.sleep(5);
+		assertThat(consumer.getState()).as("parked without a timeout").isEqualTo(Thread.State.WAITING);
+
+		buffer.offer("wake");
+		consumer.join(TimeUnit.SECONDS.toMillis(2));
+		assertThat(consumer.isAlive()).isFalse();
+		assertThat(buffer.poll()).isEqualTo("wake");
+	}
+}
@@ -0,0 +1,35 @@
+package com.backend.intellicop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class RedactorTests {
+
+	@Test
+	void sensitiveKeysAreRecognisedWhateverTheirCase() {
+		assertThat(Redactor.isSensitive("password")).isTrue();
+		assertThat(Redactor.isSensitive("newPassword")).isTrue();
+		assertThat(Redactor.isSensitive("Authorization")).isTrue();
+		assertThat(Redactor.isSensitive("refresh_token")).isTrue();
+		assertThat(Redactor.isSensitive("CLOUDINARY_API_KEY")).isTrue();
+		assertThat(Redactor.isSensitive("credentials")).isTrue();
+
+		assertThat(Redactor.isSensitive("username")).isFalse();
+		assertThat(Redactor.isSensitive("status")).isFalse();
+	}
+
+	@Test
+	void sensitiveQueryParametersAreMaskedAndTheRestKept() {
+		assertThat(Redactor.redactQuery("username=ravi&password=hunter2&page=2"))
+				.isEqualTo("username=ravi&password=[REDACTED]&page=2");
+		assertThat(Redactor.redactQuery("access_token=abc.def&ApiKey=xyz"))
+				.isEqualTo("access_token=[REDACTED]&ApiKey=[REDACTED]");
+		assertThat(Redactor.redactQuery("token=")).isEqualTo("token=[REDACTED]");
+		// A value that merely mentions a secret is not a parameter name
+		assertThat(Redactor.redactQuery("q=password+reset&status=Wanted")).isEqualTo("q=password+reset&status=Wanted");
+
+		assertThat(Redactor.redactQuery(null)).isNull();
+		assertThat(Redactor.redactQuery("")).isEmpty();
+	}
+}
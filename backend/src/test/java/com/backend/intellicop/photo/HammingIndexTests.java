@@ -0,0 +1,82 @@
+package com.backend.intellicop.photo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class HammingIndexTests {
+
+	@Test
+	void findsTheSameNeighboursAsALinearScan() {
+		Random random = new Random(42);
+		long[] codes = new long[5000];
+		HammingIndex index = new HammingIndex();
+		for (int i = 0; i < codes.length; i++) {
+			codes[i] = random.nextLong();
+			index.put(i, codes[i]);
+		}
+		long query = codes[17] ^ (1L << 3) ^ (1L << 40) ^ (1L << 63);
+		// Plant a few close neighbours so the result is not just the seed
+		for (int i = 0; i < 5; i++) index.put(10_000 + i, query ^ (1L << (i * 11)) ^ (1L << (i * 11 + 5)));
+
+		List<HammingIndex.Match> expected = new ArrayList<>();
+		for (int i = 0; i < codes.length; i++) {
+			int distance = Long.bitCount(codes[i] ^ query);
+			if (distance <= HammingIndex.MAX_DISTANCE) expected.add(new HammingIndex.Match(i, distance));
+		}
+		for (int i = 0; i < 5; i++) expected.add(new HammingIndex.Match(10_000 + i, 2));
+		expected.sort(Comparator.comparingInt(HammingIndex.Match::distance).thenComparingLong(HammingIndex.Match::id));
+
+		assertThat(index.search(query, HammingIndex.MAX_DISTANCE, 100)).isEqualTo(expected);
+	}
+
+	@Test
+	void removedAndReplacedEntriesAreNotReturned() {
+		HammingIndex index = new HammingIndex();
+		index.put(1, 0L);
+		index.put(2, 0L);
+		index.put(2, -1L);
+		index.remove(1);
+
+		assertThat(index.search(0L, 4, 10)).isEmpty();
+		assertThat(index.search(-1L, 0, 10)).containsExactly(new HammingIndex.Match(2, 0));
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void resizedPhotoHashesClose() {
+		BufferedImage original = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = original.createGraphics();
+		g.setColor(Color.DARK_GRAY);
+		g.fillRect(0, 0, 400, 300);
+		g.setColor(Color.WHITE);
+		g.fillOval(100, 50, 180, 200);
+		g.setColor(Color.BLACK);
+		g.fillRect(150, 120, 30, 20);
+		g.dispose();
+
+		BufferedImage resized = new BufferedImage(200, 150, BufferedImage.TYPE_INT_RGB);
+		Graphics2D r = resized.createGraphics();
+		r.drawImage(original, 0, 0, 200, 150, null);
+		r.dispose();
+
+		BufferedImage other = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+		Graphics2D o = other.createGraphics();
+		o.setPaint(new GradientPaint(0, 0, Color.WHITE, 400, 0, Color.BLACK));
+		o.fillRect(0, 0, 400, 300);
+		o.dispose();
+
+		long hash = PerceptualHash.of(original);
+		assertThat(PerceptualHash.distance(hash, PerceptualHash.of(resized))).isLessThanOrEqualTo(6);
+		assertThat(PerceptualHash.distance(hash, PerceptualHash.of(other))).isGreaterThan(HammingIndex.MAX_DISTANCE);
+	}
+}
@@ -0,0 +1,121 @@
+package com.backend.intellicop.photo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.intellicop.Repository.CriminalRepository;
+import com.backend.intellicop.entity.Criminal;
+import com.backend.intellicop.logging.EventLog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PhotoSimilarityServiceTests {
+
+	private final CriminalRepository criminalRepository = mock(CriminalRepository.class);
+	private final PhotoSimilarityService service = new PhotoSimilarityService(criminalRepository, mock(EventLog.class),
+			new SimpleMeterRegistry(), 1 << 20, "res.cloudinary.com", "intellicop");
+
+	@Test
+	void reloadReplaysTheNewestChangePerCriminal() {
+		when(criminalRepository.findPhotoFingerprints(anyLong(), any())).thenAnswer(invocation -> {
+			// Commits landing while the table is scanned, their callbacks out of order
+			service.indexAfterCommit(criminal(1L, 0x3L, 3L));
+			service.indexAfterCommit(criminal(1L, 0x2L, 2L));
+			service.indexAfterCommit(criminal(2L, 0xAL, 4L));
+			service.removeAfterCommit(3L);
+			return List.of(new PhotoFingerprint(1L, 0x1L, 1L), new PhotoFingerprint(2L, 0xBL, 5L),
+					new PhotoFingerprint(3L, 0xCL, 1L));
+		});
+
+		service.reload();
+
+		assertThat(indexedAs(1L, 0x1L, 0x2L, 0x3L)).as("newest change wins over an older one and the scan")
+				.containsExactly(0x3L);
+		assertThat(indexedAs(2L, 0xAL, 0xBL)).as("the scan read a newer row than the change").containsExactly(0xBL);
+		assertThat(indexedAs(3L, 0xCL)).as("deleted meanwhile").isEmpty();
+	}
+
+	@Test
+	void changesAfterAReloadApplyDirectly() {
+		when(criminalRepository.findPhotoFingerprints(anyLong(), any()))
+				.thenReturn(List.of(new PhotoFingerprint(1L, 0x1L, 1L)));
+		service.reload();
+
+		service.indexAfterCommit(criminal(1L, 0x7L, 2L));
+		service.indexAfterCommit(criminal(2L, 0x8L, 0L));
+		service.removeAfterCommit(2L);
+
+		assertThat(indexedAs(1L, 0x1L, 0x7L)).containsExactly(0x7L);
+		assertThat(indexedAs(2L, 0x8L)).isEmpty();
+	}
+
+	@Test
+	void backfillOnlyFetchesThisDeploymentsUploads() throws Exception {
+		String image = "data:image/png;base64," + Base64.getEncoder().encodeToString(png());
+		when(criminalRepository.findUnhashedPhotos(anyLong(), any())).thenReturn(List.of(
+				new PhotoSource(1L, "http://169.254.169.254/latest/meta-data/", 0L),
+				new PhotoSource(2L, "http://res.cloudinary.com/intellicop/image/upload/a.jpg", 0L),
+				new PhotoSource(3L, "https://res.cloudinary.com.attacker.example/intellicop/a.jpg", 0L),
+				new PhotoSource(4L, "https://user@res.cloudinary.com/intellicop/a.jpg", 0L),
+				new PhotoSource(5L, "https://res.cloudinary.com:8443/intellicop/a.jpg", 0L),
+				new PhotoSource(6L, "https://res.cloudinary.com/someone-else/image/upload/a.jpg", 0L),
+				new PhotoSource(7L, "file:///etc/passwd", 0L),
+				new PhotoSource(8L, image, 4L)));
+		when(criminalRepository.setPhotoHash(eq(8L), eq(4L), anyLong())).thenReturn(1);
+
+		PhotoSimilarityService.BackfillResult result = service.backfill();
+
+		assertThat(result).isEqualTo(new PhotoSimilarityService.BackfillResult(8, 1, 7));
+		for (long id = 1; id <= 7; id++) verify(criminalRepository, never()).setPhotoHash(eq(id), any(), anyLong());
+		assertThat(indexedAs(8L, PerceptualHash.of(png()))).hasSize(1);
+	}
+
+	// Which of the given hashes the index holds for the id
+	private List<Long> indexedAs(long id, long... hashes) {
+		HammingIndex index = (HammingIndex) ReflectionTestUtils.getField(service, "index");
+		return Arrays.stream(hashes).filter(hash -> index.search(hash, 0, 10).stream().anyMatch(m -> m.id() == id))
+				.boxed().toList();
+	}
+
+	private static Criminal criminal(long id, long hash, long version) {
+		return Criminal.builder().id(id).photoHash(hash).version(version).build();
+	}
+
+	private static byte[] png() {
+		BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		g.setColor(Color.DARK_GRAY);
+		g.fillRect(0, 0, 64, 64);
+		g.setColor(Color.WHITE);
+		g.fillOval(16, 8, 30, 40);
+		g.dispose();
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			ImageIO.write(image, "png", out);
+			return out.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
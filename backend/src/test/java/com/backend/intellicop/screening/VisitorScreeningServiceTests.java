@@ -0,0 +1,81 @@
+package com.backend.intellicop.screening;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.backend.intellicop.Repository.CriminalRepository;
+import com.backend.intellicop.Repository.VisitorMeetingRepository;
+import com.backend.intellicop.entity.VisitorMeeting;
+import com.backend.intellicop.logging.EventLog;
+import com.backend.intellicop.service.ResourceVersionService;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VisitorScreeningServiceTests {
+
+	private final CriminalRepository criminalRepository = mock(CriminalRepository.class);
+	private final VisitorMeetingRepository visitorMeetingRepository = mock(VisitorMeetingRepository.class);
+	private final ResourceVersionService versions = new ResourceVersionService(event -> {
+	});
+	private final VisitorScreeningService screening = new VisitorScreeningService(criminalRepository,
+			visitorMeetingRepository, versions, mock(EventLog.class), new SimpleMeterRegistry(),
+			"Wanted", "High", ZoneId.of("Asia/Kolkata"));
+
+	@Test
+	void watchlistIsRebuiltOnlyWhenTheCriminalVersionMoves() {
+		when(criminalRepository.findWatchlist(anyCollection(), anyCollection()))
+				.thenReturn(List.of(new WatchlistEntry(1L, "Ravi Kumar", "Wanted", "High")))
+				.thenReturn(List.of());
+
+		assertThat(screened("Ravi Kumar").getScreeningStatus()).isEqualTo(VisitorScreeningService.HIT);
+		assertThat(screened("Asha Patil").getScreeningStatus()).isEqualTo(VisitorScreeningService.CLEAR);
+		verify(criminalRepository, times(1)).findWatchlist(anyCollection(), anyCollection());
+
+		versions.touch(Aggregate.VISITOR);
+		screened("Ravi Kumar");
+		verify(criminalRepository, times(1)).findWatchlist(anyCollection(), anyCollection());
+
+		// Ravi Kumar was arrested: the next screening reads the new watchlist
+		versions.touch(Aggregate.CRIMINAL);
+		assertThat(screened("Ravi Kumar").getScreeningStatus()).isEqualTo(VisitorScreeningService.CLEAR);
+		verify(criminalRepository, times(2)).findWatchlist(anyCollection(), anyCollection());
+	}
+
+	@Test
+	void rosterSkipsAVisitorRenamedSinceItWasRead() {
+		LocalDate today = LocalDate.of(2025, 1, 1);
+		when(criminalRepository.findWatchlist(anyCollection(), anyCollection()))
+				.thenReturn(List.of(new WatchlistEntry(1L, "Ravi Kumar", "Wanted", "High")));
+		when(visitorMeetingRepository.findByScheduledDate(today)).thenReturn(List.of(
+				VisitorMeeting.builder().id(1L).visitorName("Ravi Kumar").screeningStatus("CLEAR").build(),
+				VisitorMeeting.builder().id(2L).visitorName("Ravi Kumar").screeningStatus("CLEAR").build()));
+		// Meeting 2 was renamed after the roster read; the rename already screened the new name
+		when(visitorMeetingRepository.updateScreening(eq(1L), eq("Ravi Kumar"), eq("HIT"), any(), any())).thenReturn(1);
+		when(visitorMeetingRepository.updateScreening(eq(2L), eq("Ravi Kumar"), eq("HIT"), any(), any())).thenReturn(0);
+		String before = versions.etag(Aggregate.VISITOR, null).tag();
+
+		ScreeningReport report = screening.screenRoster(today);
+
+		assertThat(report.flagged()).extracting(ScreeningReport.Flagged::meetingId).containsExactly(1L);
+		assertThat(versions.etag(Aggregate.VISITOR, null).tag()).isNotEqualTo(before);
+	}
+
+	private VisitorMeeting screened(String visitorName) {
+		VisitorMeeting meeting = VisitorMeeting.builder().visitorName(visitorName).build();
+		screening.screen(meeting);
+		return meeting;
+	}
+}
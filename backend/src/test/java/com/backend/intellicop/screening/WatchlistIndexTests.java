@@ -0,0 +1,48 @@
+package com.backend.intellicop.screening;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.backend.intellicop.screening.WatchlistHit.MatchType;
+
+class WatchlistIndexTests {
+
+	private final WatchlistIndex index = new WatchlistIndex("v1", List.of(
+			new WatchlistEntry(1L, "Ravi Kumar", "Wanted", "High"),
+			new WatchlistEntry(2L, "Mohammed Iqbal Shaikh", "Wanted", "Medium"),
+			new WatchlistEntry(3L, "Bittu", "Wanted", "High"),
+			new WatchlistEntry(4L, "  ", "Wanted", "High")));
+
+	@Test
+	void sameTokensInAnyOrderAreAnExactMatch() {
+		assertThat(index.match("KUMAR, Ravi")).singleElement().satisfies(hit -> {
+			assertThat(hit.criminalId()).isEqualTo(1L);
+			assertThat(hit.match()).isEqualTo(MatchType.EXACT);
+		});
+		assertThat(index.match("Bittu")).singleElement()
+				.satisfies(hit -> assertThat(hit.match()).isEqualTo(MatchType.EXACT));
+	}
+
+	@Test
+	void everyTokenOfAMultiWordNameIsAContainsMatch() {
+		assertThat(index.match("Ravi Kumar Yadav")).singleElement().satisfies(hit -> {
+			assertThat(hit.criminalId()).isEqualTo(1L);
+			assertThat(hit.match()).isEqualTo(MatchType.CONTAINS);
+		});
+		assertThat(index.match("Shaikh Mohammed Iqbal Ansari")).extracting(WatchlistHit::criminalId)
+				.containsExactly(2L);
+	}
+
+	@Test
+	void partialAndSingleWordOverlapsAreNotMatches() {
+		assertThat(index.match("Ravi Sharma")).as("one of two tokens").isEmpty();
+		assertThat(index.match("Mohammed Shaikh")).isEmpty();
+		assertThat(index.match("Bittu Singh")).as("single-word names only match exactly").isEmpty();
+		assertThat(index.match("")).isEmpty();
+		assertThat(index.match(null)).isEmpty();
+		assertThat(index.size()).isEqualTo(4);
+	}
+}
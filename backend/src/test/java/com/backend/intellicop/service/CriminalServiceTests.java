@@ -0,0 +1,109 @@
+package com.backend.intellicop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.intellicop.Repository.CriminalRepository;
+import com.backend.intellicop.Repository.FieldProjectionRepository;
+import com.backend.intellicop.cache.NearCacheManager;
+import com.backend.intellicop.dedup.DuplicateDetectionService;
+import com.backend.intellicop.entity.Criminal;
+import com.backend.intellicop.photo.PhotoSimilarityService;
+import com.backend.intellicop.station.StationScatter;
+
+// Not in a test transaction: updates run in their own
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:criminal-service;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CriminalServiceTests {
+
+	@Autowired
+	private CriminalRepository criminalRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	private final PhotoUploadService photoUploads = mock(PhotoUploadService.class);
+	private CriminalService criminals;
+
+	@BeforeEach
+	void setUp() {
+		criminalRepository.deleteAllInBatch();
+		criminals = new CriminalService(criminalRepository, photoUploads, mock(ResourceVersionService.class),
+				mock(NearCacheManager.class), mock(PhotoSimilarityService.class), mock(DuplicateDetectionService.class),
+				mock(StationScatter.class), mock(FieldProjectionRepository.class),
+				new TransactionTemplate(transactionManager));
+	}
+
+	@Test
+	void photoIsUploadedBeforeTheTransaction() throws Exception {
+		Criminal saved = criminalRepository.save(criminal("Ravi Kumar"));
+		AtomicBoolean uploadedInTransaction = new AtomicBoolean(true);
+		when(photoUploads.upload(any(), anyString())).thenAnswer(invocation -> {
+			uploadedInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+			return "https://res.cloudinary.com/intellicop/image/upload/ravi.jpg";
+		});
+
+		Criminal updated = criminals.updateCriminal(saved.getId(), changes("Ravi K.", saved.getVersion()),
+				new MockMultipartFile("photoFile", "ravi.jpg", "image/jpeg", new byte[] { 1, 2, 3 }));
+
+		assertThat(uploadedInTransaction).isFalse();
+		assertThat(updated.getVersion()).isEqualTo(saved.getVersion() + 1);
+		assertThat(criminalRepository.findById(saved.getId())).hasValueSatisfying(row -> {
+			assertThat(row.getName()).isEqualTo("Ravi K.");
+			assertThat(row.getPhoto()).endsWith("ravi.jpg");
+		});
+	}
+
+	@Test
+	void staleVersionIsRefused() throws Exception {
+		Criminal saved = criminalRepository.save(criminal("Ravi Kumar"));
+		criminals.updateCriminal(saved.getId(), changes("Ravi K.", saved.getVersion()), null);
+
+		// A second editor still holding the version they loaded
+		assertThatThrownBy(() -> criminals.updateCriminal(saved.getId(), changes("R. Kumar", saved.getVersion()), null))
+				.isInstanceOf(ObjectOptimisticLockingFailureException.class);
+		assertThat(criminalRepository.findById(saved.getId()))
+				.hasValueSatisfying(row -> assertThat(row.getName()).isEqualTo("Ravi K."));
+	}
+
+	@Test
+	void missingCriminalIsNotFound() throws Exception {
+		assertThatThrownBy(() -> criminals.updateCriminal(404L, changes("Nobody", null), null))
+				.isInstanceOf(CriminalNotFoundException.class);
+		assertThatThrownBy(() -> criminals.deleteCriminal(404L)).isInstanceOf(CriminalNotFoundException.class);
+		verify(photoUploads, never()).upload(any(), anyString());
+	}
+
+	private static Criminal changes(String name, Long version) {
+		Criminal changes = criminal(name);
+		changes.setVersion(version);
+		return changes;
+	}
+
+	private static Criminal criminal(String name) {
+		return Criminal.builder().name(name).age(34).crime("Robbery").threat("High").status("Wanted").build();
+	}
+}
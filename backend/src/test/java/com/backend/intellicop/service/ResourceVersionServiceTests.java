@@ -0,0 +1,153 @@
+package com.backend.intellicop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.backend.intellicop.cache.NearCache;
+import com.backend.intellicop.service.ResourceVersionService.Aggregate;
+import com.backend.intellicop.station.StationContext;
+
+class ResourceVersionServiceTests {
+
+	private final NearCache<Object, String> cache = new NearCache<>("criminal", 100, TimeUnit.MINUTES.toNanos(1));
+	private final AtomicReference<String> database = new AtomicReference<>("v1");
+	private final List<Runnable> duringInvalidation = new ArrayList<>();
+	private final ResourceVersionService versions = new ResourceVersionService(event -> {
+		duringInvalidation.forEach(Runnable::run);
+		cache.invalidateAll();
+	});
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void unchangedVersionAnswersNotModified() {
+		ResponseEntity<String> first = read(new HttpHeaders());
+		assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		ResponseEntity<String> again = read(ifNoneMatch(first.getHeaders().getETag()));
+		assertThat(again.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(again.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+		assertThat(again.getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+	}
+
+	@Test
+	void readerDuringTheWriteNeverPairsTheNewETagWithTheOldBody() {
+		String before = read(new HttpHeaders()).getHeaders().getETag();
+		assertThat(cache.get("all")).isEqualTo("v1");
+
+		// A reader that runs while listeners are still being told about the write
+		AtomicReference<ResponseEntity<String>> midWrite = new AtomicReference<>();
+		duringInvalidation.add(() -> midWrite.set(read(new HttpHeaders())));
+		database.set("v2");
+		versions.touch(Aggregate.CRIMINAL);
+
+		assertThat(midWrite.get().getBody()).isEqualTo("v1");
+		assertThat(midWrite.get().getHeaders().getETag()).as("stale body keeps the stale tag").isEqualTo(before);
+
+		ResponseEntity<String> after = read(ifNoneMatch(before));
+		assertThat(after.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(after.getBody()).isEqualTo("v2");
+		assertThat(after.getHeaders().getETag()).isNotEqualTo(before);
+	}
+
+	@Test
+	void versionMovesOnlyAfterCommit() {
+		String before = versions.etag(Aggregate.CRIMINAL, null).tag();
+		TransactionSynchronizationManager.initSynchronization();
+
+		versions.touch(Aggregate.CRIMINAL);
+		assertThat(versions.etag(Aggregate.CRIMINAL, null).tag()).isEqualTo(before);
+
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+		assertThat(versions.etag(Aggregate.CRIMINAL, null).tag()).isNotEqualTo(before);
+	}
+
+	@Test
+	void binaryRepresentationsGetTheirOwnTags() {
+		HttpHeaders cbor = new HttpHeaders();
+		cbor.set(HttpHeaders.ACCEPT, "application/cbor");
+		HttpHeaders any = new HttpHeaders();
+		any.set(HttpHeaders.ACCEPT, "*/*");
+
+		assertThat(read(cbor).getHeaders().getETag()).isNotEqualTo(read(any).getHeaders().getETag());
+		assertThat(read(any).getHeaders().getETag()).isEqualTo(read(new HttpHeaders()).getHeaders().getETag());
+	}
+
+	@Test
+	void anyListedOrWildcardTagMatchesAndWeakTagsCompareWeakly() {
+		String current = read(new HttpHeaders()).getHeaders().getETag();
+		String strong = current.substring(2); // the same tag without W/
+
+		assertThat(read(ifNoneMatch("\"stale\", " + current)).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(read(ifNoneMatch(strong)).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(read(ifNoneMatch("*")).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(read(ifNoneMatch("\"stale\"")).getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	@Test
+	void ifModifiedSinceIsOnlyConsultedWithoutIfNoneMatch() {
+		ResponseEntity<String> first = read(new HttpHeaders());
+		HttpHeaders since = new HttpHeaders();
+		since.setIfModifiedSince(first.getHeaders().getLastModified());
+		assertThat(read(since).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+		since.setIfNoneMatch("\"stale\"");
+		assertThat(read(since).getStatusCode()).as("If-None-Match wins").isEqualTo(HttpStatus.OK);
+	}
+
+	@Test
+	void tagsAreScopedToTheAggregateAndTheVariant() {
+		String criminals = versions.etag(Aggregate.CRIMINAL, "id7").tag();
+		String users = versions.etag(Aggregate.USER, "id7").tag();
+		assertThat(versions.etag(Aggregate.CRIMINAL, "id8").tag()).isNotEqualTo(criminals);
+
+		versions.touch(Aggregate.CRIMINAL);
+		assertThat(versions.etag(Aggregate.CRIMINAL, "id7").tag()).isNotEqualTo(criminals);
+		assertThat(versions.etag(Aggregate.USER, "id7").tag()).as("other aggregates keep their tags").isEqualTo(users);
+	}
+
+	@Test
+	void onlySuccessfulLocalResponsesAreStamped() {
+		ResponseEntity<String> missing = versions.conditionalGet(Aggregate.CRIMINAL, "id404", new HttpHeaders(),
+				() -> ResponseEntity.notFound().build());
+		assertThat(missing.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+		assertThat(missing.getHeaders().getETag()).isNull();
+
+		String current = read(new HttpHeaders()).getHeaders().getETag();
+		try (StationContext.Scope scope = StationContext.open("north")) {
+			// Another station's rows are not covered by this deployment's versions
+			ResponseEntity<String> remote = read(ifNoneMatch(current));
+			assertThat(remote.getStatusCode()).isEqualTo(HttpStatus.OK);
+			assertThat(remote.getHeaders().getETag()).isNull();
+		}
+	}
+
+	private ResponseEntity<String> read(HttpHeaders headers) {
+		return versions.conditionalGet(Aggregate.CRIMINAL, headers, () -> cache.getOrLoad("all", database::get));
+	}
+
+	private static HttpHeaders ifNoneMatch(String etag) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfNoneMatch(etag);
+		return headers;
+	}
+}
@@ -0,0 +1,168 @@
+package com.backend.intellicop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.intellicop.Repository.CompletedVisitorRepository;
+import com.backend.intellicop.Repository.FieldProjectionRepository;
+import com.backend.intellicop.Repository.VisitorMeetingRepository;
+import com.backend.intellicop.cluster.JobLeases;
+import com.backend.intellicop.entity.CompletedVisitor;
+import com.backend.intellicop.entity.VisitorMeeting;
+import com.backend.intellicop.logging.EventLog;
+import com.backend.intellicop.screening.VisitorScreeningService;
+import com.backend.intellicop.service.VisitorMeetingService.TransitionResult;
+import com.backend.intellicop.station.StationScatter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Not in a test transaction: each status change commits on its own, as it does behind the API
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:visitor-status;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ VisitorMeetingService.class, VisitorMeetingServiceTests.Metrics.class })
+class VisitorMeetingServiceTests {
+
+	@TestConfiguration
+	static class Metrics {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@Autowired
+	private VisitorMeetingService visitors;
+	@Autowired
+	private VisitorMeetingRepository meetings;
+	@Autowired
+	private CompletedVisitorRepository completed;
+	@Autowired
+	private MeterRegistry meterRegistry;
+	@MockitoBean
+	private ResourceVersionService resourceVersions;
+	@MockitoBean
+	private EventLog eventLog;
+	@MockitoBean
+	private VisitorScreeningService screeningService;
+	@MockitoBean
+	private StationScatter stationScatter;
+	@MockitoBean
+	private JobLeases jobLeases;
+	@MockitoBean
+	private FieldProjectionRepository fieldProjections;
+
+	@BeforeEach
+	void setUp() {
+		meetings.deleteAllInBatch();
+		completed.deleteAllInBatch();
+	}
+
+	@Test
+	void completingArchivesOnceAndRepeatingIsANoOp() {
+		Long id = meeting("SCHEDULED", LocalDate.now()).getId();
+
+		assertThat(visitors.updateStatus(id, "Completed")).isEqualTo(TransitionResult.APPLIED);
+		assertThat(meetings.findById(id)).isEmpty();
+		assertThat(completed.findAll()).singleElement().satisfies(row -> {
+			assertThat(row.getMeetingId()).isEqualTo(id);
+			assertThat(row.getStatus()).isEqualTo("Completed");
+		});
+
+		assertThat(visitors.updateStatus(id, "Completed")).as("second click").isEqualTo(TransitionResult.UNCHANGED);
+		assertThat(completed.count()).isEqualTo(1);
+	}
+
+	@Test
+	void onlyAllowedTransitionsApply() {
+		Long cancelled = meeting("CANCELLED", LocalDate.now()).getId();
+		Long inProgress = meeting("IN_PROGRESS", LocalDate.now()).getId();
+
+		assertThat(visitors.updateStatus(cancelled, "IN_PROGRESS")).isEqualTo(TransitionResult.REJECTED);
+		assertThat(visitors.updateStatus(inProgress, "SCHEDULED")).isEqualTo(TransitionResult.REJECTED);
+		assertThat(visitors.updateStatus(inProgress, "IN_PROGRESS")).isEqualTo(TransitionResult.UNCHANGED);
+		assertThat(visitors.updateStatus(cancelled, "Scheduled")).isEqualTo(TransitionResult.APPLIED);
+		assertThat(meetings.findById(cancelled)).hasValueSatisfying(
+				row -> assertThat(row.getStatus()).isEqualTo("SCHEDULED"));
+		assertThat(visitors.updateStatus(cancelled + inProgress, "CANCELLED")).isEqualTo(TransitionResult.NOT_FOUND);
+		assertThatThrownBy(() -> visitors.updateStatus(inProgress, "Done"))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		assertThat(meterRegistry.counter("visitor.status.transitions", "target", "IN_PROGRESS", "outcome", "REJECTED")
+				.count()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentCompletionsArchiveTheMeetingOnce() throws Exception {
+		Long id = meeting("IN_PROGRESS", LocalDate.now()).getId();
+		int clicks = 6;
+		ExecutorService pool = Executors.newFixedThreadPool(clicks);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<TransitionResult>> results = new ArrayList<>();
+		for (int i = 0; i < clicks; i++) {
+			Callable<TransitionResult> click = () -> {
+				start.await();
+				return visitors.updateStatus(id, "Completed");
+			};
+			results.add(pool.submit(click));
+		}
+		start.countDown();
+
+		List<TransitionResult> outcomes = new ArrayList<>();
+		for (Future<TransitionResult> result : results) outcomes.add(result.get(10, TimeUnit.SECONDS));
+		pool.shutdown();
+
+		assertThat(outcomes).containsOnlyOnce(TransitionResult.APPLIED)
+				.containsOnly(TransitionResult.APPLIED, TransitionResult.UNCHANGED);
+		assertThat(completed.count()).isEqualTo(1);
+	}
+
+	@Test
+	void expiryJobArchivesOnlyPastMeetings() {
+		LocalDate today = LocalDate.now();
+		Long yesterday = meeting("SCHEDULED", today.minusDays(1)).getId();
+		Long lastWeek = meeting("CANCELLED", today.minusDays(7)).getId();
+		Long tomorrow = meeting("SCHEDULED", today.plusDays(1)).getId();
+
+		visitors.autoCompleteExpiredVisitors();
+
+		assertThat(meetings.findAll()).extracting(VisitorMeeting::getId).containsExactly(tomorrow);
+		assertThat(completed.findAll()).extracting(CompletedVisitor::getMeetingId, CompletedVisitor::getStatus)
+				.containsExactlyInAnyOrder(
+						tuple(yesterday, "AUTO_COMPLETED"),
+						tuple(lastWeek, "AUTO_COMPLETED"));
+	}
+
+	private VisitorMeeting meeting(String status, LocalDate date) {
+		return meetings.save(VisitorMeeting.builder()
+				.visitorName("Asha Patil").inmateName("Ravi Kumar").scheduledDate(date).status(status).build());
+	}
+}
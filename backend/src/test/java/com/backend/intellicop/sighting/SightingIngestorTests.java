@@ -0,0 +1,230 @@
+package com.backend.intellicop.sighting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import com.backend.intellicop.Repository.SightingRepository;
+import com.backend.intellicop.controller.SightingController;
+import com.backend.intellicop.entity.Sighting;
+import com.backend.intellicop.logging.EventLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Not in a test transaction: the writer commits on its own thread
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:sighting-ingest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SightingIngestorTests {
+
+	private static final Logger log = LoggerFactory.getLogger(SightingIngestorTests.class);
+
+	/** Holds every commit until released, so the test can look between the insert and the commit. */
+	static class GatedTransactionManager extends JdbcTransactionManager {
+
+		final CountDownLatch gate = new CountDownLatch(1);
+		final CountDownLatch committing = new CountDownLatch(1);
+
+		GatedTransactionManager(DataSource dataSource) {
+			super(dataSource);
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+			committing.countDown();
+			try {
+				gate.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			super.doCommit(status);
+		}
+	}
+
+	@Autowired
+	private DataSource dataSource;
+	@Autowired
+	private SightingRepository sightingRepository;
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private SightingService sightings;
+	private SightingIngestor ingestor;
+
+	@BeforeEach
+	void setUp() {
+		sightingRepository.deleteAllInBatch();
+		sightings = new SightingService(sightingRepository, mock(EventLog.class), meterRegistry, Duration.ofDays(90),
+				0.01, Duration.ofSeconds(60));
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (ingestor != null) ingestor.shutdown();
+	}
+
+	@Test
+	void acknowledgedOnlyOnceCommittedAndThenIndexed() throws Exception {
+		GatedTransactionManager transactions = new GatedTransactionManager(dataSource);
+		ingestor = new SightingIngestor(dataSource, transactions, sightings, meterRegistry, 1024, 500);
+
+		CompletableFuture<Void> durable = ingestor.offer(sighting(1L));
+		assertThat(transactions.committing.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(durable).as("inserted but not committed").isNotDone();
+		assertThat(near()).isEmpty();
+
+		transactions.gate.countDown();
+		durable.get(5, TimeUnit.SECONDS);
+
+		assertThat(count()).isEqualTo(1);
+		// In the index on acknowledgement, without a database tail
+		assertThat(near()).singleElement().satisfies(hit -> assertThat(hit.criminalId()).isEqualTo(1L));
+		assertThat(sightings.tail()).as("the tail does not index it again").isZero();
+	}
+
+	@Test
+	void fullBufferIsRefusedWhileTheWriterIsBusy() throws Exception {
+		GatedTransactionManager transactions = new GatedTransactionManager(dataSource);
+		ingestor = new SightingIngestor(dataSource, transactions, sightings, meterRegistry, 4, 500);
+
+		List<CompletableFuture<Void>> accepted = new ArrayList<>();
+		accepted.add(ingestor.offer(sighting(1L)));
+		assertThat(transactions.committing.await(5, TimeUnit.SECONDS)).isTrue();
+		for (int i = 0; i < 4; i++) accepted.add(ingestor.offer(sighting(1L)));
+
+		assertThat(accepted).doesNotContainNull();
+		assertThat(ingestor.offer(sighting(1L))).as("buffer full").isNull();
+		assertThat(meterRegistry.counter("sightings.ingest", "outcome", "rejected").count()).isEqualTo(1);
+
+		transactions.gate.countDown();
+		CompletableFuture.allOf(accepted.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+		assertThat(count()).isEqualTo(5);
+	}
+
+	@Test
+	void rejectedEventsAreAnswered429WithRetryAfter() throws Exception {
+		SightingIngestor full = mock(SightingIngestor.class);
+		when(full.offer(any())).thenReturn(CompletableFuture.completedFuture(null)).thenReturn(null);
+		SightingController controller = new SightingController(sightings, full, new ObjectMapper().findAndRegisterModules());
+		ReflectionTestUtils.setField(controller, "ackTimeout", Duration.ofSeconds(1));
+		MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+		mvc.perform(post("/api/sightings/ingest").contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"criminalId\":1,\"latitude\":19.07,\"longitude\":72.87},"
+								+ "{\"criminalId\":2,\"latitude\":19.08,\"longitude\":72.88}]"))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string("Retry-After", "1"))
+				.andExpect(jsonPath("$.accepted").value(1))
+				.andExpect(jsonPath("$.rejected[0]").value(1));
+	}
+
+	@Test
+	void idleWriterBlocksInsteadOfPolling() throws Exception {
+		ingestor = new SightingIngestor(dataSource, new DataSourceTransactionManager(dataSource), sightings,
+				meterRegistry, 1024, 500);
+		ingestor.offer(sighting(1L)).get(5, TimeUnit.SECONDS);
+
+		Thread writer = Thread.getAllStackTraces().keySet().stream()
+				.filter(t -> t.getName().equals("sighting-writer") && t.isAlive())
+				.findFirst().orElseThrow();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+		while (writer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) Thread.sleep(10);
+
+		// WAITING is an untimed park; a polling writer would show TIMED_WAITING or RUNNABLE
+		assertThat(writer.getState()).isEqualTo(Thread.State.WAITING);
+		ingestor.offer(sighting(2L)).get(5, TimeUnit.SECONDS);
+		assertThat(count()).isEqualTo(2);
+	}
+
+	@Test
+	void concurrentProducersAreGroupCommitted() throws Exception {
+		ingestor = new SightingIngestor(dataSource, new DataSourceTransactionManager(dataSource), sightings,
+				meterRegistry, 4096, 500);
+		int producers = 8;
+		int perProducer = 2_500;
+
+		ExecutorService pool = Executors.newFixedThreadPool(producers);
+		long start = System.nanoTime();
+		List<Future<List<CompletableFuture<Void>>>> offered = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			long criminalId = p + 1;
+			offered.add(pool.submit(() -> {
+				List<CompletableFuture<Void>> acks = new ArrayList<>();
+				for (int i = 0; i < perProducer; i++) {
+					CompletableFuture<Void> ack;
+					while ((ack = ingestor.offer(sighting(criminalId))) == null) Thread.sleep(1); // back off like a 429
+					acks.add(ack);
+				}
+				return acks;
+			}));
+		}
+		for (Future<List<CompletableFuture<Void>>> acks : offered) {
+			CompletableFuture.allOf(acks.get().toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+		}
+		long elapsedNanos = System.nanoTime() - start;
+		pool.shutdown();
+
+		int total = producers * perProducer;
+		double meanBatch = meterRegistry.summary("sightings.ingest.batch.size").mean();
+		log.debug("Ingested {} sightings in {} ms ({} per second), mean batch {}", total, elapsedNanos / 1_000_000,
+				total * 1_000_000_000L / elapsedNanos, meanBatch);
+
+		assertThat(count()).isEqualTo(total);
+		assertThat(sightings.tail()).as("every committed row is already indexed").isZero();
+		assertThat(meanBatch).as("rows per commit").isGreaterThan(1);
+	}
+
+	private List<SightingHit> near() {
+		Instant now = Instant.now();
+		return sightings.near(19.07, 72.87, 1_000, now.minusSeconds(3600), now.plusSeconds(60), 10);
+	}
+
+	private int count() {
+		return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM sighting", Integer.class);
+	}
+
+	private static Sighting sighting(long criminalId) {
+		return Sighting.builder().criminalId(criminalId).latitude(19.07).longitude(72.87).source("camera-12").build();
+	}
+}
@@ -0,0 +1,129 @@
+package com.backend.intellicop.sighting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.intellicop.Repository.SightingRepository;
+import com.backend.intellicop.entity.Sighting;
+import com.backend.intellicop.logging.EventLog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Not in a test transaction: the tail must see other connections' commits
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:sightings;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SightingServiceTests {
+
+	@Autowired
+	private DataSource dataSource;
+	@Autowired
+	private SightingRepository sightingRepository;
+	private SightingService sightings;
+
+	@BeforeEach
+	void setUp() {
+		sightingRepository.deleteAllInBatch();
+		sightings = new SightingService(sightingRepository, mock(EventLog.class), new SimpleMeterRegistry(),
+				Duration.ofDays(1), 0.01, Duration.ofSeconds(60));
+	}
+
+	@Test
+	void missingCoordinatesAreRejected() {
+		Sighting noLatitude = Sighting.builder().criminalId(1L).longitude(72.87).build();
+
+		assertThatThrownBy(() -> sightings.record(noLatitude))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("latitude");
+		assertThat(sightingRepository.count()).isZero();
+	}
+
+	@Test
+	void rowCommittedAfterAHigherIdIsStillIndexed() throws Exception {
+		Instant now = Instant.now();
+		insert(1L, now);
+		assertThat(sightings.tail()).isEqualTo(1);
+
+		try (Connection slow = dataSource.getConnection()) {
+			slow.setAutoCommit(false);
+			insert(slow, 2L, now); // gets the lower id, commits last
+			// More rows than any fixed re-read window would cover
+			for (int i = 0; i < 300; i++) insert(3L, now);
+
+			assertThat(sightings.tail()).as("only the committed rows").isEqualTo(300);
+			slow.commit();
+		}
+
+		assertThat(sightings.tail()).as("the skipped id, once committed").isEqualTo(1);
+		assertThat(sightings.tail()).isZero();
+		assertThat(sightings.near(19.07, 72.87, 1_000, now.minusSeconds(60), now.plusSeconds(60), 1_000))
+				.extracting(SightingHit::criminalId).containsOnly(1L, 2L, 3L).hasSize(302);
+	}
+
+	@Test
+	void olderWindowsReturnTheNearestRowsNotTheNewest() throws Exception {
+		// Past the one-day index retention, so answered from the database
+		Instant base = Instant.now().minus(Duration.ofDays(10));
+		List<Long> nearest = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			// Newer rows are further away: a newest-first limit would miss the nearest ones
+			double offset = i * 0.001;
+			insert(100L + i, 19.07 + offset, 72.87, base.plusSeconds(i));
+			if (i < 5) nearest.add(100L + i);
+		}
+
+		List<SightingHit> hits = sightings.near(19.07, 72.87, 5_000, base.minusSeconds(60), base.plusSeconds(60), 5);
+
+		assertThat(hits).extracting(SightingHit::criminalId).containsExactlyElementsOf(nearest);
+	}
+
+	private void insert(long criminalId, Instant observedAt) throws Exception {
+		insert(criminalId, 19.07, 72.87, observedAt);
+	}
+
+	private void insert(long criminalId, double latitude, double longitude, Instant observedAt) throws Exception {
+		try (Connection connection = dataSource.getConnection()) {
+			insert(connection, criminalId, latitude, longitude, observedAt);
+		}
+	}
+
+	private static void insert(Connection connection, long criminalId, Instant observedAt) throws Exception {
+		insert(connection, criminalId, 19.07, 72.87, observedAt);
+	}
+
+	private static void insert(Connection connection, long criminalId, double latitude, double longitude,
+			Instant observedAt) throws Exception {
+		try (PreparedStatement insert = connection.prepareStatement(
+				"INSERT INTO sighting (criminal_id, latitude, longitude, observed_at) VALUES (?, ?, ?, ?)")) {
+			insert.setLong(1, criminalId);
+			insert.setDouble(2, latitude);
+			insert.setDouble(3, longitude);
+			insert.setTimestamp(4, Timestamp.from(observedAt), Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+			insert.executeUpdate();
+		}
+	}
+}
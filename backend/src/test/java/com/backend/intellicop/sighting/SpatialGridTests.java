@@ -0,0 +1,54 @@
+package com.backend.intellicop.sighting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SpatialGridTests {
+
+	@Test
+	void radiusQueryMatchesALinearScan() {
+		Random random = new Random(7);
+		SpatialGrid grid = new SpatialGrid(0.01);
+		int n = 20_000;
+		double[] lat = new double[n];
+		double[] lon = new double[n];
+		long[] time = new long[n];
+		for (int i = 0; i < n; i++) {
+			lat[i] = 19.0 + random.nextDouble() * 0.2;
+			lon[i] = 72.8 + random.nextDouble() * 0.2;
+			time[i] = random.nextInt(1_000_000);
+			grid.add(i, i % 50, lat[i], lon[i], time[i]);
+		}
+
+		List<SightingHit> hits = grid.withinRadius(19.1, 72.9, 1500, 200_000, 700_000, 10_000);
+
+		long expected = 0;
+		for (int i = 0; i < n; i++) {
+			if (time[i] >= 200_000 && time[i] <= 700_000
+					&& SpatialGrid.distanceMeters(19.1, 72.9, (float) lat[i], (float) lon[i]) <= 1500) expected++;
+		}
+		assertThat(hits).hasSize((int) expected).isSortedAccordingTo(
+				(a, b) -> Double.compare(a.distanceMeters(), b.distanceMeters()));
+		assertThat(hits).allSatisfy(hit -> assertThat(hit.observedAt().toEpochMilli()).isBetween(200_000L, 700_000L));
+	}
+
+	@Test
+	void boxQueryAndPruneRespectTime() {
+		SpatialGrid grid = new SpatialGrid(0.01);
+		grid.add(1, 10, 19.05, 72.85, 3_000);
+		grid.add(2, 11, 19.05, 72.85, 1_000); // late report, lands before id 1 in its cell
+		grid.add(3, 12, 19.50, 72.85, 2_000); // outside the box
+
+		assertThat(grid.withinBox(19.0, 72.8, 19.1, 72.9, 0, 10_000, 10))
+				.extracting(SightingHit::sightingId).containsExactly(1L, 2L);
+
+		assertThat(grid.prune(2_500)).isEqualTo(2);
+		assertThat(grid.withinBox(19.0, 72.8, 19.1, 72.9, 0, 10_000, 10))
+				.extracting(SightingHit::sightingId).containsExactly(1L);
+		assertThat(grid.size()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,251 @@
+package com.backend.intellicop.station;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.backend.intellicop.concurrency.Bulkhead;
+import com.backend.intellicop.concurrency.BulkheadDataSource;
+import com.backend.intellicop.concurrency.DatabaseBusyException;
+import com.backend.intellicop.config.StationConfig;
+import com.backend.intellicop.config.security.exceptions.ConcurrencyExceptionAdvice;
+import com.backend.intellicop.controller.SightingController;
+import com.backend.intellicop.dto.StationPage;
+import com.backend.intellicop.jdbc.PrimaryReads;
+import com.backend.intellicop.jdbc.ReplicaRouter;
+import com.backend.intellicop.sighting.SightingIngestor;
+import com.backend.intellicop.sighting.SightingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StationScatterTests {
+
+	private static int databases;
+
+	record Row(String station, long id) {
+	}
+
+	private final Map<String, DataSource> remotes = new LinkedHashMap<>();
+	private final ReplicaRouter router = mock(ReplicaRouter.class);
+	private final StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("replicaRouter", router));
+	private Stations stations;
+	private JdbcTemplate routedJdbc;
+	private StationScatter scatter;
+
+	@BeforeEach
+	void setUp() {
+		DataSource main = database("main", 1, 2, 5, 9);
+		remotes.put("north", database("north", 2, 3, 4, 10, 11));
+		remotes.put("south", database("south", 1, 6));
+		stations = new Stations("main", remotes);
+
+		when(router.route()).thenReturn(ReplicaRouter.Route.REPLICA);
+		DataSource routed = stations.wrap(main);
+		routedJdbc = new JdbcTemplate(routed);
+		scatter = new StationScatter(stations, new DataSourceTransactionManager(routed),
+				beans.getBeanProvider(ReplicaRouter.class), Duration.ofSeconds(5));
+	}
+
+	@AfterEach
+	void tearDown() {
+		scatter.shutdown();
+		StationContext.setHome("main");
+	}
+
+	@Test
+	void connectionsFollowTheBoundStation() {
+		assertThat(StationContext.current()).isEqualTo("main");
+		assertThat(StationContext.isRemote()).isFalse();
+		assertThat(stationName()).isEqualTo("main");
+
+		try (StationContext.Scope north = StationContext.open("north")) {
+			assertThat(StationContext.isRemote()).isTrue();
+			assertThat(stationName()).isEqualTo("north");
+			assertThat(StationContext.call("south", this::stationName)).isEqualTo("south");
+			assertThat(StationContext.call("main", this::stationName)).isEqualTo("main");
+			assertThat(stationName()).isEqualTo("north");
+		}
+		assertThat(stationName()).isEqualTo("main");
+	}
+
+	@Test
+	void pagesMergeEveryStationInIdOrderWithoutGapsOrRepeats() {
+		List<Row> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			StationPage<Row> page = scatter.gather(cursor, 3, this::rowsAfter, Row::id);
+			assertThat(page.items()).hasSizeLessThanOrEqualTo(3);
+			seen.addAll(page.items());
+			cursor = page.next();
+			pages++;
+		} while (cursor != null && pages < 10);
+
+		assertThat(seen).containsExactly(
+				new Row("main", 1), new Row("south", 1), new Row("main", 2), new Row("north", 2),
+				new Row("north", 3), new Row("north", 4), new Row("main", 5), new Row("south", 6),
+				new Row("main", 9), new Row("north", 10), new Row("north", 11));
+	}
+
+	@Test
+	void homeStationReadsThePrimaryAfterTheCallersOwnWrite() {
+		Map<String, Boolean> pinned = new ConcurrentHashMap<>();
+		BiFunction<Long, Limit, List<Row>> query = (after, limit) -> {
+			pinned.put(StationContext.current(), PrimaryReads.isPinned());
+			return rowsAfter(after, limit);
+		};
+
+		scatter.gather(null, 3, query, Row::id);
+		assertThat(pinned).containsOnly(entry("main", false), entry("north", false), entry("south", false));
+
+		// Decided on the request thread, where the router can still see the caller's recent write
+		when(router.route()).thenReturn(ReplicaRouter.Route.READ_YOUR_WRITES);
+		scatter.gather(null, 3, query, Row::id);
+		assertThat(pinned).containsOnly(entry("main", true), entry("north", false), entry("south", false));
+	}
+
+	@Test
+	void unreachableStationFailsTheWholePage() {
+		remotes.put("east", new DelegatingDataSource(database("east", 1)) {
+			@Override
+			public Connection getConnection() throws SQLException {
+				throw new SQLException("station unreachable");
+			}
+		});
+		stations = new Stations("main", remotes);
+		DataSource routed = stations.wrap(database("main", 1));
+		StationScatter failing = new StationScatter(stations, new DataSourceTransactionManager(routed),
+				beans.getBeanProvider(ReplicaRouter.class), Duration.ofSeconds(5));
+		try {
+			assertThatThrownBy(() -> failing.gather(null, 3, this::rowsAfter, Row::id))
+					.isInstanceOf(StationUnavailableException.class)
+					.extracting(e -> ((StationUnavailableException) e).getStation())
+					.isEqualTo("east");
+		} finally {
+			failing.shutdown();
+		}
+	}
+
+	@Test
+	void cursorRoundTripsAndRejectsGarbage() {
+		Map<String, Long> positions = new LinkedHashMap<>();
+		positions.put("main", 87L);
+		positions.put("north-2", 120L);
+
+		assertThat(StationScatter.decode(StationScatter.encode(positions))).isEqualTo(positions);
+		assertThat(StationScatter.decode(null)).isEmpty();
+		assertThatThrownBy(() -> StationScatter.decode("not a cursor"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> StationScatter.decode(StationScatter.encode(Map.of("main", 1L)).substring(2)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void unknownStationsAreRejected() {
+		assertThat(stations.isKnown("north")).isTrue();
+		assertThat(stations.isKnown("west")).isFalse();
+		assertThat(stations.names()).containsExactly("main", "north", "south");
+		// Never falls back to the home database
+		assertThatThrownBy(() -> StationContext.call("west", this::stationName))
+				.rootCause()
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("west");
+	}
+
+	@Test
+	void otherStationsHaveTheirOwnDatabasePermits() throws Exception {
+		JdbcDataSource north = (JdbcDataSource) database("north", 1);
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("intellicop.station.shards.north.url", north.getURL())
+				.withProperty("intellicop.station.shards.north.maximum-pool-size", "1");
+		Stations configured = new StationConfig().stations(environment, "main", Duration.ofMillis(300),
+				Duration.ofSeconds(1), new SimpleMeterRegistry());
+		Bulkhead homeBulkhead = new Bulkhead("database", 1, Duration.ofMillis(200));
+		DataSource routed = configured.wrap(new BulkheadDataSource(database("main", 1), homeBulkhead));
+		try {
+			try (Connection home = routed.getConnection()) {
+				// The home permit is taken; the other station still answers
+				try (StationContext.Scope scope = StationContext.open("north");
+						Connection remote = routed.getConnection()) {
+					assertThat(remote.isValid(1)).isTrue();
+					// And its own single permit is enforced
+					assertThatThrownBy(routed::getConnection).isInstanceOf(DatabaseBusyException.class);
+				}
+				assertThatThrownBy(routed::getConnection).isInstanceOf(DatabaseBusyException.class);
+			}
+		} finally {
+			configured.close();
+		}
+	}
+
+	@Test
+	void inMemoryFeaturesRefuseOtherStations() throws Exception {
+		MockMvc mvc = MockMvcBuilders
+				.standaloneSetup(new SightingController(mock(SightingService.class), mock(SightingIngestor.class),
+						new ObjectMapper()))
+				.addFilters(new StationFilter(stations))
+				.setControllerAdvice(new ConcurrencyExceptionAdvice())
+				.build();
+
+		mvc.perform(get("/api/sightings/near").param("lat", "19.07").param("lon", "72.87")
+						.header(StationFilter.HEADER, "north"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string(containsString("only covers station main")));
+		mvc.perform(get("/api/sightings/box").param("minLat", "19").param("minLon", "72").param("maxLat", "20")
+						.param("maxLon", "73").header(StationFilter.HEADER, "north"))
+				.andExpect(status().isBadRequest());
+		mvc.perform(get("/api/sightings/near").param("lat", "19.07").param("lon", "72.87")
+						.header(StationFilter.HEADER, "main"))
+				.andExpect(status().isOk());
+	}
+
+	private List<Row> rowsAfter(Long after, Limit limit) {
+		return routedJdbc.query("SELECT station, id FROM criminal WHERE id > ? ORDER BY id LIMIT ?",
+				(rs, i) -> new Row(rs.getString(1), rs.getLong(2)), after, limit.max());
+	}
+
+	private String stationName() {
+		return routedJdbc.queryForObject("SELECT DISTINCT station FROM criminal", String.class);
+	}
+
+	private static DataSource database(String station, long... ids) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + station + "-" + (++databases) + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE criminal (id BIGINT PRIMARY KEY, station VARCHAR(32))");
+		for (long id : ids) jdbc.update("INSERT INTO criminal (id, station) VALUES (?, ?)", id, station);
+		return dataSource;
+	}
+}
@@ -0,0 +1,97 @@
+package db.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Migrates a database as the first release left it (tables created by ddl-auto, no Flyway
+ * history) with the application's Flyway settings, and checks that the columns added since
+ * are all there afterwards.
+ */
+class BaselineMigrationTests {
+
+	@Test
+	void firstReleaseDatabaseGetsEveryLaterColumn() throws Exception {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:first-release;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE criminal (id BIGINT NOT NULL AUTO_INCREMENT, name VARCHAR(255), age INT NOT NULL, "
+				+ "crime VARCHAR(255), threat VARCHAR(255), last_seen VARCHAR(255), status VARCHAR(255), "
+				+ "record VARCHAR(1000), photo VARCHAR(255), PRIMARY KEY (id))");
+		jdbc.execute("CREATE TABLE users (id BIGINT NOT NULL AUTO_INCREMENT, username VARCHAR(255) NOT NULL UNIQUE, "
+				+ "password VARCHAR(255) NOT NULL, role VARCHAR(255) NOT NULL, photo_url VARCHAR(255), PRIMARY KEY (id))");
+		for (String table : new String[] { "visitor_meeting", "completed_visitor" }) {
+			jdbc.execute("CREATE TABLE " + table + " (id BIGINT NOT NULL AUTO_INCREMENT, visitor_name VARCHAR(255), "
+					+ "visitor_contact VARCHAR(255), inmate_name VARCHAR(255), purpose VARCHAR(255), scheduled_date DATE, "
+					+ "scheduled_time VARCHAR(255), status VARCHAR(255), remarks VARCHAR(255), created_at VARCHAR(255), "
+					+ "PRIMARY KEY (id))");
+		}
+		jdbc.update("INSERT INTO criminal (name, age, status) VALUES ('Ravi Kumar', 34, 'Wanted')");
+
+		// Same settings as application.properties
+		Flyway.configure()
+				.dataSource(dataSource)
+				.locations("classpath:db/migration")
+				.baselineOnMigrate(true)
+				.baselineVersion("0")
+				.placeholders(Map.of("station", "main"))
+				.load()
+				.migrate();
+
+		try (Connection connection = dataSource.getConnection()) {
+			assertThat(columns(connection, "criminal")).contains("photo_hash", "name_key", "version", "station");
+			assertThat(columns(connection, "visitor_meeting"))
+					.contains("screening_status", "screening_matches", "screened_at", "station");
+			assertThat(columns(connection, "completed_visitor")).contains("meeting_id", "station");
+			assertThat(columns(connection, "users")).contains("station");
+		}
+		assertThat(jdbc.queryForMap("SELECT version, station FROM criminal"))
+				.containsEntry("version", 0L)
+				.containsEntry("station", "main");
+	}
+
+	@Test
+	void mergeCandidateSourcesBecomeNames() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:ordinal-sources;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		flyway(dataSource, "5").migrate();
+		jdbc.update("INSERT INTO merge_candidate (left_id, right_id, score, source) VALUES (1, 2, 0.9, 0), (1, 3, 0.9, 1)");
+		jdbc.update("INSERT INTO criminal (name, age, name_key) VALUES ('राम कुमार', 34, ''), ('Ravi Kumar', 34, 'kumar ravi')");
+
+		flyway(dataSource, "latest").migrate();
+
+		assertThat(jdbc.queryForList("SELECT source FROM merge_candidate ORDER BY right_id", String.class))
+				.containsExactly("INSERT", "BATCH");
+		assertThat(jdbc.queryForList("SELECT name_key FROM criminal ORDER BY id", String.class))
+				.containsExactly(null, "kumar ravi");
+	}
+
+	private static Flyway flyway(JdbcDataSource dataSource, String target) {
+		return Flyway.configure()
+				.dataSource(dataSource)
+				.locations("classpath:db/migration")
+				.placeholders(Map.of("station", "main"))
+				.target(target)
+				.load();
+	}
+
+	private static Set<String> columns(Connection connection, String table) throws Exception {
+		Set<String> columns = new TreeSet<>();
+		try (ResultSet rows = connection.getMetaData().getColumns(connection.getCatalog(), connection.getSchema(), table, null)) {
+			while (rows.next()) columns.add(rows.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+		}
+		return columns;
+	}
+}